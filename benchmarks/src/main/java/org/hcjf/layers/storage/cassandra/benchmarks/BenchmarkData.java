@@ -0,0 +1,98 @@
+package org.hcjf.layers.storage.cassandra.benchmarks;
+
+import com.datastax.driver.core.*;
+import org.hcjf.layers.storage.cassandra.CassandraTableDescriptor;
+
+import java.util.*;
+
+/**
+ * Schema and synthetic rows of the table used by the benchmarks.
+ * @author javaito
+ */
+public final class BenchmarkData {
+
+    public static final String KEYSPACE = "benchmarks";
+    public static final String TABLE = "benchmark_entity";
+    public static final String RESOURCE = "BenchmarkEntity";
+
+    private static final LinkedHashMap<String, DataType> COLUMNS;
+
+    static {
+        COLUMNS = new LinkedHashMap<>();
+        COLUMNS.put("id", DataType.uuid());
+        COLUMNS.put("created", DataType.timestamp());
+        COLUMNS.put("name", DataType.text());
+        COLUMNS.put("age", DataType.cint());
+        COLUMNS.put("score", DataType.cdouble());
+        COLUMNS.put("status", DataType.text());
+        COLUMNS.put("type", DataType.text());
+        COLUMNS.put("tags", DataType.list(DataType.text()));
+    }
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Return the descriptor of the table: the id is the partition key, the creation date is the
+     * clustering column and the name is indexed.
+     * @return Table descriptor.
+     */
+    public static CassandraTableDescriptor createTableDescriptor() {
+        return new CassandraTableDescriptor(TABLE, COLUMNS, Collections.singletonList("id"),
+                Collections.singletonList("created"), Collections.singletonList("name"));
+    }
+
+    /**
+     * Return the column definitions of the rows of the table.
+     * @return Column definitions.
+     */
+    public static ColumnDefinitions createColumnDefinitions() {
+        return SyntheticDriver.columnDefinitions(KEYSPACE, TABLE, COLUMNS);
+    }
+
+    /**
+     * Creates synthetic rows, the text columns are padded until the row size.
+     * @param columnDefinitions Column definitions of the rows.
+     * @param count Number of rows.
+     * @param rowSize Approximated size in bytes of each row.
+     * @param random Source of the values.
+     * @return Rows.
+     */
+    public static List<Row> createRows(ColumnDefinitions columnDefinitions, int count, int rowSize, Random random) {
+        List<Row> rows = new ArrayList<>(count);
+        BenchmarkEntity.Status[] statuses = BenchmarkEntity.Status.values();
+        char[] padding = new char[Math.max(rowSize - 64, 8)];
+        for (int i = 0; i < count; i++) {
+            Arrays.fill(padding, (char) ('a' + random.nextInt(26)));
+            rows.add(SyntheticDriver.row(columnDefinitions,
+                    new UUID(random.nextLong(), random.nextLong()),
+                    new Date(System.currentTimeMillis() - random.nextInt(Integer.MAX_VALUE)),
+                    new String(padding),
+                    random.nextInt(100),
+                    random.nextDouble(),
+                    statuses[random.nextInt(statuses.length)].toString(),
+                    BenchmarkEntity.class.getName(),
+                    Arrays.asList("tag" + random.nextInt(10), "tag" + random.nextInt(10))));
+        }
+        return rows;
+    }
+
+    /**
+     * Creates an entity with random values.
+     * @param random Source of the values.
+     * @return Entity instance.
+     */
+    public static BenchmarkEntity createEntity(Random random) {
+        BenchmarkEntity.Status[] statuses = BenchmarkEntity.Status.values();
+        BenchmarkEntity entity = new BenchmarkEntity();
+        entity.setId(new UUID(random.nextLong(), random.nextLong()));
+        entity.setCreated(new Date());
+        entity.setName("name" + random.nextInt(1000));
+        entity.setAge(random.nextInt(100));
+        entity.setScore(random.nextDouble());
+        entity.setStatus(statuses[random.nextInt(statuses.length)]);
+        entity.setType(BenchmarkEntity.class);
+        entity.setTags(Arrays.asList("tag" + random.nextInt(10), "tag" + random.nextInt(10)));
+        return entity;
+    }
+}
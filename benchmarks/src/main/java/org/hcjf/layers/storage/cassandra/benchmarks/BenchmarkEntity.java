@@ -0,0 +1,91 @@
+package org.hcjf.layers.storage.cassandra.benchmarks;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Entity used by the benchmarks, it has at least one field of each kind of value converted by the layer.
+ * @author javaito
+ */
+public class BenchmarkEntity {
+
+    public enum Status {
+        ACTIVE,
+        SUSPENDED,
+        DELETED
+    }
+
+    private UUID id;
+    private Date created;
+    private String name;
+    private Integer age;
+    private Double score;
+    private Status status;
+    private Class type;
+    private List<String> tags;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public Date getCreated() {
+        return created;
+    }
+
+    public void setCreated(Date created) {
+        this.created = created;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public Double getScore() {
+        return score;
+    }
+
+    public void setScore(Double score) {
+        this.score = score;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public Class getType() {
+        return type;
+    }
+
+    public void setType(Class type) {
+        this.type = type;
+    }
+
+    public List<String> getTags() {
+        return tags;
+    }
+
+    public void setTags(List<String> tags) {
+        this.tags = tags;
+    }
+}
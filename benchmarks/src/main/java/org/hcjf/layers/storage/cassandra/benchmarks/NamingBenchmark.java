@@ -0,0 +1,36 @@
+package org.hcjf.layers.storage.cassandra.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the normalization of the resource and field names, this normalization is done for each
+ * resource, column and field of each operation.
+ * @author javaito
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NamingBenchmark {
+
+    @Param({"BenchmarkEntity", "createdDate", "benchmark_entity", "name"})
+    public String name;
+
+    private SyntheticStorageLayer layer;
+
+    @Setup
+    public void setup() {
+        layer = new SyntheticStorageLayer("naming-benchmark", new SyntheticBackend(
+                BenchmarkData.createColumnDefinitions(), Collections.emptyList()));
+    }
+
+    @Benchmark
+    public String normalizeName() {
+        return layer.normalizeName(name);
+    }
+}
@@ -0,0 +1,56 @@
+package org.hcjf.layers.storage.cassandra.benchmarks;
+
+import com.datastax.driver.core.Row;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the mapping of the rows to entity instances and to maps, each invocation maps all
+ * the rows of a result set.
+ * @author javaito
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RowMappingBenchmark {
+
+    @Param({"1", "100"})
+    public int rowCount;
+
+    @Param({"128", "1024"})
+    public int rowSize;
+
+    private SyntheticStorageSession session;
+    private List<Row> rows;
+
+    @Setup
+    public void setup() {
+        rows = BenchmarkData.createRows(BenchmarkData.createColumnDefinitions(), rowCount, rowSize, new Random(7));
+        SyntheticStorageLayer layer = new SyntheticStorageLayer("mapping-benchmark", new SyntheticBackend(
+                BenchmarkData.createColumnDefinitions(), Collections.emptyList()));
+        session = layer.begin();
+    }
+
+    @Benchmark
+    public void mapInstances(Blackhole blackhole) throws StorageAccessException {
+        for(Row row : rows) {
+            blackhole.consume(session.mapInstance(BenchmarkEntity.class, row));
+        }
+    }
+
+    @Benchmark
+    public void mapRows(Blackhole blackhole) {
+        for(Row row : rows) {
+            blackhole.consume(session.mapRow(row, BenchmarkData.TABLE));
+        }
+    }
+}
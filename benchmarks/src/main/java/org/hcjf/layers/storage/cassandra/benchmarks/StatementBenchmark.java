@@ -0,0 +1,82 @@
+package org.hcjf.layers.storage.cassandra.benchmarks;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.DataType;
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.actions.ResultSet;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the complete client side path of the operations: statement creation, binding, execution over
+ * the synthetic backend and creation of the result set.
+ * @author javaito
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StatementBenchmark {
+
+    private static final String SELECT_QUERY = "SELECT * FROM " + BenchmarkData.RESOURCE + " WHERE name = 'name1'";
+    private static final String FORMAT_STATEMENT = "UPDATE benchmark_entity SET name = ?, age = ? WHERE id = ? AND created = ?";
+
+    @Param({"1", "10", "100"})
+    public int rowCount;
+
+    private SyntheticStorageSession session;
+    private Query query;
+    private BenchmarkEntity entity;
+    private Map<String, Object> values;
+    private BoundStatement boundStatement;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(7);
+        ColumnDefinitions columnDefinitions = BenchmarkData.createColumnDefinitions();
+        SyntheticStorageLayer layer = new SyntheticStorageLayer("statement-benchmark", new SyntheticBackend(
+                columnDefinitions, BenchmarkData.createRows(columnDefinitions, rowCount, 256, random)));
+        layer.addTable(BenchmarkData.createTableDescriptor());
+        session = layer.begin();
+        query = Query.compile(SELECT_QUERY);
+        entity = BenchmarkData.createEntity(random);
+        values = new HashMap<>();
+        values.put("name", "updated");
+        values.put("age", 33);
+
+        LinkedHashMap<String, DataType> variables = new LinkedHashMap<>();
+        variables.put("name", DataType.text());
+        variables.put("age", DataType.cint());
+        variables.put("id", DataType.uuid());
+        variables.put("created", DataType.timestamp());
+        boundStatement = SyntheticDriver.preparedStatement(FORMAT_STATEMENT,
+                SyntheticDriver.columnDefinitions(BenchmarkData.KEYSPACE, BenchmarkData.TABLE, variables))
+                .bind(entity.getName(), entity.getAge(), entity.getId(), entity.getCreated());
+    }
+
+    @Benchmark
+    public ResultSet select() throws StorageAccessException {
+        return session.select(query).execute();
+    }
+
+    @Benchmark
+    public ResultSet insert() throws StorageAccessException {
+        return session.insert(entity).execute();
+    }
+
+    @Benchmark
+    public ResultSet update() throws StorageAccessException {
+        return session.update(entity, values).execute();
+    }
+
+    @Benchmark
+    public String formatStatement() {
+        return session.formatStatement(boundStatement);
+    }
+}
@@ -0,0 +1,55 @@
+package org.hcjf.layers.storage.cassandra.benchmarks;
+
+import com.datastax.driver.core.*;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Backend that resolves the select statements with a fixed list of rows and the rest of the
+ * statements with an empty result, all the executions are completed immediately.
+ * @author javaito
+ */
+public class SyntheticBackend implements Function<Statement, ResultSetFuture> {
+
+    private static final String SELECT = "SELECT";
+
+    private final ColumnDefinitions columnDefinitions;
+    private final List<Row> rows;
+
+    public SyntheticBackend(ColumnDefinitions columnDefinitions, List<Row> rows) {
+        this.columnDefinitions = columnDefinitions;
+        this.rows = rows;
+    }
+
+    @Override
+    public ResultSetFuture apply(Statement statement) {
+        return SyntheticDriver.completed(resolve(statement));
+    }
+
+    /**
+     * Creates the result set of the statement.
+     * @param statement Executed statement.
+     * @return Result set.
+     */
+    protected ResultSet resolve(Statement statement) {
+        ResultSet result;
+        if(isSelect(statement)) {
+            result = new SyntheticDriver.SyntheticResultSet(columnDefinitions, rows);
+        } else {
+            result = new SyntheticDriver.SyntheticResultSet(columnDefinitions, Collections.emptyList());
+        }
+        return result;
+    }
+
+    /**
+     * Verify if the statement is a select statement.
+     * @param statement Statement.
+     * @return Return true if the statement is a select.
+     */
+    protected static boolean isSelect(Statement statement) {
+        return statement instanceof BoundStatement &&
+                ((BoundStatement) statement).preparedStatement().getQueryString().regionMatches(true, 0, SELECT, 0, SELECT.length());
+    }
+}
@@ -0,0 +1,376 @@
+package org.hcjf.layers.storage.cassandra.benchmarks;
+
+import com.datastax.driver.core.*;
+import com.google.common.util.concurrent.AbstractFuture;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Factory of synthetic driver objects: column definitions, rows, prepared statements, result sets and sessions.
+ * The objects don't need a cluster, then the client side paths of the storage layer can be measured without network.
+ * The sessions, statements and rows are proxies of the driver interfaces; the column definitions and the prepared
+ * ids are value classes without public constructors, then they are created by reflection.
+ * @author javaito
+ */
+public final class SyntheticDriver {
+
+    private static final ProtocolVersion PROTOCOL_VERSION = ProtocolVersion.NEWEST_SUPPORTED;
+    private static final CodecRegistry CODEC_REGISTRY = CodecRegistry.DEFAULT_INSTANCE;
+    private static final Constructor<ColumnDefinitions.Definition> DEFINITION_CONSTRUCTOR =
+            constructor(ColumnDefinitions.Definition.class, 4);
+    private static final Constructor<ColumnDefinitions> COLUMN_DEFINITIONS_CONSTRUCTOR =
+            constructor(ColumnDefinitions.class, 2);
+    private static final Constructor<PreparedId> PREPARED_ID_CONSTRUCTOR =
+            constructor(PreparedId.class, 5);
+    private static final ColumnDefinitions NO_VARIABLES = newInstance(COLUMN_DEFINITIONS_CONSTRUCTOR,
+            new ColumnDefinitions.Definition[0], CODEC_REGISTRY);
+
+    private SyntheticDriver() {
+    }
+
+    /**
+     * Return the non public constructor of the class with the number of parameters, accessible from the
+     * benchmarks. The constructors are found by the number of parameters because some of the parameter
+     * types are not public.
+     * @param type Class of the instances.
+     * @param parameterCount Number of parameters of the constructor.
+     * @param <T> Type of the instances.
+     * @return Accessible constructor.
+     */
+    private static <T> Constructor<T> constructor(Class<T> type, int parameterCount) {
+        for(Constructor<?> constructor : type.getDeclaredConstructors()) {
+            if(constructor.getParameterCount() == parameterCount) {
+                constructor.setAccessible(true);
+                return (Constructor<T>) constructor;
+            }
+        }
+        throw new IllegalStateException("Unsupported driver version, constructor not found: " + type.getName());
+    }
+
+    /**
+     * Creates an instance with the constructor.
+     * @param constructor Accessible constructor.
+     * @param arguments Arguments of the constructor.
+     * @param <T> Type of the instance.
+     * @return New instance.
+     */
+    private static <T> T newInstance(Constructor<T> constructor, Object... arguments) {
+        try {
+            return constructor.newInstance(arguments);
+        } catch (ReflectiveOperationException ex) {
+            throw new IllegalStateException("Unable to create instance: " + constructor.getDeclaringClass().getName(), ex);
+        }
+    }
+
+    /**
+     * Creates the column definitions of a table.
+     * @param keyspace Key space name.
+     * @param table Table name.
+     * @param columns Data types of the columns in order.
+     * @return Column definitions.
+     */
+    public static ColumnDefinitions columnDefinitions(String keyspace, String table, LinkedHashMap<String, DataType> columns) {
+        ColumnDefinitions.Definition[] definitions = new ColumnDefinitions.Definition[columns.size()];
+        int index = 0;
+        for(Map.Entry<String, DataType> column : columns.entrySet()) {
+            definitions[index++] = newInstance(DEFINITION_CONSTRUCTOR, keyspace, table, column.getKey(), column.getValue());
+        }
+        return newInstance(COLUMN_DEFINITIONS_CONSTRUCTOR, definitions, CODEC_REGISTRY);
+    }
+
+    /**
+     * Creates a row with the values serialized as the driver receives them from the cluster, each access
+     * to a value deserializes it with the codec of the column or the codec of the invocation.
+     * @param columnDefinitions Column definitions of the row.
+     * @param values Values of the row, in the same order that the definitions.
+     * @return Row.
+     */
+    public static Row row(ColumnDefinitions columnDefinitions, Object... values) {
+        ByteBuffer[] data = new ByteBuffer[values.length];
+        for (int i = 0; i < values.length; i++) {
+            data[i] = values[i] == null ? null : CODEC_REGISTRY.codecFor(
+                    columnDefinitions.getType(i), values[i]).serialize(values[i], PROTOCOL_VERSION);
+        }
+        return (Row) Proxy.newProxyInstance(SyntheticDriver.class.getClassLoader(),
+                new Class[]{Row.class}, (proxy, method, args) -> {
+            Object result;
+            switch (method.getName()) {
+                case "getColumnDefinitions": result = columnDefinitions; break;
+                case "getToken":
+                case "getPartitionKeyToken": throw new UnsupportedOperationException(method.getName());
+                case "hashCode": result = System.identityHashCode(proxy); break;
+                case "equals": result = proxy == args[0]; break;
+                case "toString": result = "SyntheticRow" + Arrays.toString(values); break;
+                default: {
+                    int index = args[0] instanceof String ?
+                            columnDefinitions.getIndexOf((String) args[0]) : (Integer) args[0];
+                    ByteBuffer value = data[index] == null ? null : data[index].duplicate();
+                    if(method.getName().equals("isNull")) {
+                        result = value == null;
+                    } else if(method.getName().equals("getBytesUnsafe")) {
+                        result = value;
+                    } else {
+                        TypeCodec codec;
+                        if(args.length > 1 && args[1] instanceof TypeCodec) {
+                            codec = (TypeCodec) args[1];
+                        } else if(method.getName().equals("get") && args[1] instanceof Class) {
+                            codec = CODEC_REGISTRY.codecFor(columnDefinitions.getType(index), (Class) args[1]);
+                        } else {
+                            codec = CODEC_REGISTRY.codecFor(columnDefinitions.getType(index));
+                        }
+                        result = codec.deserialize(value, PROTOCOL_VERSION);
+                        if(result == null && method.getReturnType().isPrimitive()) {
+                            result = Array.get(Array.newInstance(method.getReturnType(), 1), 0);
+                        }
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Creates a prepared statement. If the statement has variables the values are bound using the codecs of
+     * the variable types, in the other case the values are ignored.
+     * @param cqlStatement Cql statement.
+     * @param variables Variables of the statement or null if the statement hasn't typed variables.
+     * @return Prepared statement.
+     */
+    public static PreparedStatement preparedStatement(String cqlStatement, ColumnDefinitions variables) {
+        ColumnDefinitions statementVariables = variables == null ? NO_VARIABLES : variables;
+        PreparedId preparedId = newInstance(PREPARED_ID_CONSTRUCTOR, null, statementVariables, null, null, PROTOCOL_VERSION);
+        return (PreparedStatement) Proxy.newProxyInstance(SyntheticDriver.class.getClassLoader(),
+                new Class[]{PreparedStatement.class}, (proxy, method, args) -> {
+            Object result;
+            switch (method.getName()) {
+                case "getQueryString": result = cqlStatement; break;
+                case "getQueryKeyspace": result = null; break;
+                case "getVariables": result = statementVariables; break;
+                case "getPreparedId": result = preparedId; break;
+                case "getCodecRegistry": result = CODEC_REGISTRY; break;
+                case "bind": {
+                    BoundStatement boundStatement = new BoundStatement((PreparedStatement) proxy);
+                    Object[] values = args == null || args.length == 0 ? new Object[0] : (Object[]) args[0];
+                    if(values.length > 0 && values.length == statementVariables.size()) {
+                        boundStatement.bind(values);
+                    }
+                    result = boundStatement;
+                    break;
+                }
+                case "hashCode": result = System.identityHashCode(proxy); break;
+                case "equals": result = proxy == args[0]; break;
+                case "toString": result = cqlStatement; break;
+                default: {
+                    if(method.getReturnType().equals(PreparedStatement.class)) {
+                        result = proxy;
+                    } else if(method.getReturnType().equals(boolean.class)) {
+                        result = false;
+                    } else {
+                        result = null;
+                    }
+                }
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Creates a session that prepares synthetic statements and resolves the executions with the backend function.
+     * @param keyspace Logged key space.
+     * @param backend Function that resolves each execution.
+     * @return Session.
+     */
+    public static Session session(String keyspace, Function<Statement, ResultSetFuture> backend) {
+        return (Session) Proxy.newProxyInstance(SyntheticDriver.class.getClassLoader(),
+                new Class[]{Session.class}, (proxy, method, args) -> {
+            Object result;
+            switch (method.getName()) {
+                case "prepare": {
+                    result = preparedStatement(args[0] instanceof RegularStatement ?
+                            ((RegularStatement) args[0]).getQueryString() : (String) args[0], null);
+                    break;
+                }
+                case "prepareAsync": {
+                    result = Futures.immediateFuture(preparedStatement(args[0] instanceof RegularStatement ?
+                            ((RegularStatement) args[0]).getQueryString() : (String) args[0], null));
+                    break;
+                }
+                case "execute": {
+                    if(!(args[0] instanceof Statement)) {
+                        throw new UnsupportedOperationException("Only statements are supported");
+                    }
+                    result = backend.apply((Statement) args[0]).getUninterruptibly();
+                    break;
+                }
+                case "executeAsync": {
+                    if(!(args[0] instanceof Statement)) {
+                        throw new UnsupportedOperationException("Only statements are supported");
+                    }
+                    result = backend.apply((Statement) args[0]);
+                    break;
+                }
+                case "getLoggedKeyspace": result = keyspace; break;
+                case "isClosed": result = false; break;
+                case "close": result = null; break;
+                case "closeAsync": result = new SyntheticResultSetFuture(); break;
+                case "hashCode": result = System.identityHashCode(proxy); break;
+                case "equals": result = proxy == args[0]; break;
+                case "toString": result = "SyntheticSession[" + keyspace + "]"; break;
+                default: throw new UnsupportedOperationException(method.getName());
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Creates a future already completed with the result set.
+     * @param resultSet Result set.
+     * @return Completed future.
+     */
+    public static ResultSetFuture completed(ResultSet resultSet) {
+        SyntheticResultSetFuture result = new SyntheticResultSetFuture();
+        result.complete(resultSet);
+        return result;
+    }
+
+    /**
+     * Result set over a list of rows, all the rows are in the first page.
+     */
+    public static final class SyntheticResultSet implements ResultSet {
+
+        private static final ExecutionInfo EXECUTION_INFO = new ExecutionInfo(
+                0, 0, Collections.emptyList(), ConsistencyLevel.ONE, Collections.emptyMap());
+
+        private final ColumnDefinitions columnDefinitions;
+        private final List<Row> rows;
+        private int index;
+
+        public SyntheticResultSet(ColumnDefinitions columnDefinitions, List<Row> rows) {
+            this.columnDefinitions = columnDefinitions;
+            this.rows = rows;
+        }
+
+        @Override
+        public ColumnDefinitions getColumnDefinitions() {
+            return columnDefinitions;
+        }
+
+        @Override
+        public boolean wasApplied() {
+            return true;
+        }
+
+        @Override
+        public boolean isExhausted() {
+            return index >= rows.size();
+        }
+
+        @Override
+        public boolean isFullyFetched() {
+            return true;
+        }
+
+        @Override
+        public int getAvailableWithoutFetching() {
+            return rows.size() - index;
+        }
+
+        @Override
+        public ListenableFuture<ResultSet> fetchMoreResults() {
+            return Futures.immediateFuture(this);
+        }
+
+        @Override
+        public Row one() {
+            return isExhausted() ? null : rows.get(index++);
+        }
+
+        @Override
+        public List<Row> all() {
+            List<Row> result = new ArrayList<>(rows.subList(index, rows.size()));
+            index = rows.size();
+            return result;
+        }
+
+        @Override
+        public Iterator<Row> iterator() {
+            return new Iterator<Row>() {
+                @Override
+                public boolean hasNext() {
+                    return !isExhausted();
+                }
+
+                @Override
+                public Row next() {
+                    if(isExhausted()) {
+                        throw new NoSuchElementException();
+                    }
+                    return one();
+                }
+            };
+        }
+
+        @Override
+        public ExecutionInfo getExecutionInfo() {
+            return EXECUTION_INFO;
+        }
+
+        @Override
+        public List<ExecutionInfo> getAllExecutionInfo() {
+            return Collections.singletonList(EXECUTION_INFO);
+        }
+    }
+
+    /**
+     * Future of a synthetic execution, the future can be completed from any thread.
+     */
+    public static final class SyntheticResultSetFuture extends AbstractFuture<ResultSet> implements ResultSetFuture {
+
+        /**
+         * Completes the future with the result set.
+         * @param resultSet Result set.
+         * @return Return true if the future was completed by this call.
+         */
+        public boolean complete(ResultSet resultSet) {
+            return set(resultSet);
+        }
+
+        /**
+         * Completes the future with an error.
+         * @param throwable Error.
+         * @return Return true if the future was completed by this call.
+         */
+        public boolean fail(Throwable throwable) {
+            return setException(throwable);
+        }
+
+        @Override
+        public ResultSet getUninterruptibly() {
+            try {
+                return Uninterruptibles.getUninterruptibly(this);
+            } catch (ExecutionException ex) {
+                throw new RuntimeException(ex.getCause());
+            }
+        }
+
+        @Override
+        public ResultSet getUninterruptibly(long timeout, TimeUnit unit) throws TimeoutException {
+            try {
+                return Uninterruptibles.getUninterruptibly(this, timeout, unit);
+            } catch (ExecutionException ex) {
+                throw new RuntimeException(ex.getCause());
+            }
+        }
+    }
+}
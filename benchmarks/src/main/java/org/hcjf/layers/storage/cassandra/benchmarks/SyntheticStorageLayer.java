@@ -0,0 +1,138 @@
+package org.hcjf.layers.storage.cassandra.benchmarks;
+
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.*;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.cassandra.*;
+import org.hcjf.layers.storage.cassandra.properties.CassandraProperties;
+
+import java.net.InetAddress;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Storage layer that never connects with a cluster, all the executions are resolved by a backend function
+ * and the table descriptors are registered by hand. The metrics, the slow query log and the near cache are
+ * disabled to measure only the client side work of the layer.
+ * @author javaito
+ */
+public class SyntheticStorageLayer extends CassandraStorageLayer<SyntheticStorageSession> {
+
+    static {
+        CassandraProperties.init();
+    }
+
+    private final Session session;
+    private final Map<String, CassandraTableDescriptor> tableDescriptors;
+    private final CassandraStatementCache statementCache;
+    private final CassandraMetrics metrics;
+    private final CassandraSlowQueryLog slowQueryLog;
+    private final CassandraNearCache nearCache;
+
+    public SyntheticStorageLayer(String implName, Function<Statement, ResultSetFuture> backend) {
+        super(implName);
+        this.session = SyntheticDriver.session(BenchmarkData.KEYSPACE, backend);
+        this.tableDescriptors = new ConcurrentHashMap<>();
+        this.statementCache = new CassandraStatementCache(1000);
+        this.metrics = new CassandraMetrics(new MetricRegistry(), implName, false);
+        this.slowQueryLog = new CassandraSlowQueryLog(false, Long.MAX_VALUE, 1, 1);
+        this.nearCache = new CassandraNearCache(Collections.emptySet(), 0, 0, 0, metrics);
+    }
+
+    /**
+     * Registers the descriptor of a table.
+     * @param tableDescriptor Table descriptor.
+     */
+    public void addTable(CassandraTableDescriptor tableDescriptor) {
+        tableDescriptors.put(tableDescriptor.getName(), tableDescriptor);
+    }
+
+    /**
+     * Return a session over the synthetic driver session, the cluster is never created.
+     * @return Storage session.
+     */
+    @Override
+    public SyntheticStorageSession begin() {
+        return createSessionInstance(getImplName());
+    }
+
+    @Override
+    protected SyntheticStorageSession createSessionInstance(String implName) {
+        return new SyntheticStorageSession(implName, session, this);
+    }
+
+    @Override
+    protected PreparedStatement getPreparedStatement(Session session, String cqlStatement) throws StorageAccessException {
+        return statementCache.get(session, cqlStatement);
+    }
+
+    @Override
+    protected CassandraTableDescriptor getTableDescriptor(Session session, String resourceName) {
+        return tableDescriptors.get(resourceName);
+    }
+
+    @Override
+    public CassandraMetrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public CassandraSlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    @Override
+    public CassandraStatementCache getStatementCache() {
+        return statementCache;
+    }
+
+    @Override
+    protected boolean isNearCached(String resourceName) {
+        return nearCache.isEnabled(resourceName);
+    }
+
+    @Override
+    protected CassandraNearCache.Key getNearCacheKey(Session session, BoundStatement statement) {
+        return nearCache.getKey(statement, table -> getTableDescriptor(session, table));
+    }
+
+    @Override
+    protected CompletableFuture<List<Row>> getNearCachedRows(CassandraNearCache.Key key,
+                                                              Function<CassandraNearCache.Key, CompletableFuture<List<Row>>> loader) {
+        return nearCache.get(key, loader);
+    }
+
+    @Override
+    protected void invalidateNearCache(Session session, Statement statement) {
+        nearCache.invalidate(statement, table -> getTableDescriptor(session, table));
+    }
+
+    @Override
+    protected List<InetAddress> getContactPoints() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    protected String getKeySpace() {
+        return BenchmarkData.KEYSPACE;
+    }
+
+    @Override
+    protected String getUserName() {
+        return null;
+    }
+
+    @Override
+    protected String getPassword() {
+        return null;
+    }
+
+    @Override
+    protected String getClusterName() {
+        return getImplName();
+    }
+}
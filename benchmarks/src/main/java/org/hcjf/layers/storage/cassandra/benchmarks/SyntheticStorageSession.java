@@ -0,0 +1,50 @@
+package org.hcjf.layers.storage.cassandra.benchmarks;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Session;
+import org.hcjf.layers.query.JoinableMap;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.cassandra.CassandraStorageSession;
+
+/**
+ * Storage session over a synthetic driver session, the session exposes the internal steps of the
+ * layer to be measured one by one.
+ * @author javaito
+ */
+public class SyntheticStorageSession extends CassandraStorageSession {
+
+    public SyntheticStorageSession(String implName, Session session, SyntheticStorageLayer layer) {
+        super(implName, session, layer);
+    }
+
+    /**
+     * Creates an instance of the result type from the row.
+     * @param resultType Result type.
+     * @param row Row.
+     * @return Instance.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public Object mapInstance(Class resultType, Row row) throws StorageAccessException {
+        return createInstance(resultType, row);
+    }
+
+    /**
+     * Creates a map from the row.
+     * @param row Row.
+     * @param resourceName Resource name.
+     * @return Map with all the values of the row.
+     */
+    public JoinableMap mapRow(Row row, String resourceName) {
+        return createRows(row, resourceName);
+    }
+
+    /**
+     * Creates the string representation of the statement.
+     * @param statement Bound statement.
+     * @return String representation.
+     */
+    public String formatStatement(BoundStatement statement) {
+        return toStringStatement(statement);
+    }
+}
@@ -0,0 +1,52 @@
+package org.hcjf.layers.storage.cassandra.benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the conversion of the values of the entities to the values bound into the statements.
+ * @author javaito
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValueConversionBenchmark {
+
+    private SyntheticStorageSession session;
+    private UUID uuid;
+    private List<String> list;
+
+    @Setup
+    public void setup() {
+        SyntheticStorageLayer layer = new SyntheticStorageLayer("conversion-benchmark", new SyntheticBackend(
+                BenchmarkData.createColumnDefinitions(), Collections.emptyList()));
+        session = layer.begin();
+        uuid = UUID.randomUUID();
+        list = Arrays.asList("first", "second", "third");
+    }
+
+    @Benchmark
+    public Object convertEnum() {
+        return session.checkValueDataType(BenchmarkEntity.Status.ACTIVE);
+    }
+
+    @Benchmark
+    public Object convertClass() {
+        return session.checkValueDataType(BenchmarkEntity.class);
+    }
+
+    @Benchmark
+    public Object convertUuid() {
+        return session.checkValueDataType(uuid);
+    }
+
+    @Benchmark
+    public Object convertList() {
+        return session.checkValueDataType(list);
+    }
+}
@@ -0,0 +1,101 @@
+package org.hcjf.layers.storage.cassandra.benchmarks.load;
+
+import java.util.Random;
+
+/**
+ * Generates the index of the key of each operation.
+ * @author javaito
+ */
+public abstract class KeyGenerator {
+
+    protected final int keys;
+
+    protected KeyGenerator(int keys) {
+        if(keys <= 0) {
+            throw new IllegalArgumentException("The number of keys must be greater than zero");
+        }
+        this.keys = keys;
+    }
+
+    /**
+     * Creates the generator for the distribution of the options.
+     * @param options Load test options.
+     * @return Key generator.
+     */
+    public static KeyGenerator create(LoadTestOptions options) {
+        KeyGenerator result;
+        switch (options.getDistribution()) {
+            case ZIPFIAN: result = new Zipfian(options.getKeys(), options.getZipfianConstant()); break;
+            default: result = new Uniform(options.getKeys());
+        }
+        return result;
+    }
+
+    /**
+     * Return the index of the next key, between zero and the number of keys.
+     * @param random Random source of the invoker thread.
+     * @return Key index.
+     */
+    public abstract int next(Random random);
+
+    /**
+     * All the keys have the same probability.
+     */
+    public static class Uniform extends KeyGenerator {
+
+        public Uniform(int keys) {
+            super(keys);
+        }
+
+        @Override
+        public int next(Random random) {
+            return random.nextInt(keys);
+        }
+    }
+
+    /**
+     * The probability of each key is inversely proportional to its rank, the first key is the hottest. The
+     * generator uses the algorithm of Gray et al. 'Quickly generating billion-record synthetic databases'.
+     */
+    public static class Zipfian extends KeyGenerator {
+
+        private final double theta;
+        private final double alpha;
+        private final double zetan;
+        private final double eta;
+
+        public Zipfian(int keys, double theta) {
+            super(keys);
+            if(theta <= 0 || theta >= 1) {
+                throw new IllegalArgumentException("The zipfian constant must be between zero and one");
+            }
+            this.theta = theta;
+            this.alpha = 1.0 / (1.0 - theta);
+            this.zetan = zeta(keys, theta);
+            this.eta = (1 - Math.pow(2.0 / keys, 1 - theta)) / (1 - zeta(2, theta) / zetan);
+        }
+
+        private static double zeta(int n, double theta) {
+            double sum = 0;
+            for (int i = 1; i <= n; i++) {
+                sum += 1 / Math.pow(i, theta);
+            }
+            return sum;
+        }
+
+        @Override
+        public int next(Random random) {
+            double u = random.nextDouble();
+            double uz = u * zetan;
+            int result;
+            if(uz < 1.0) {
+                result = 0;
+            } else if(uz < 1.0 + Math.pow(0.5, theta)) {
+                result = 1;
+            } else {
+                result = (int) (keys * Math.pow(eta * u - eta + 1, alpha));
+            }
+            return Math.min(result, keys - 1);
+        }
+    }
+}
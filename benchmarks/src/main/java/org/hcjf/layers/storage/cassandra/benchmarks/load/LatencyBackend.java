@@ -0,0 +1,60 @@
+package org.hcjf.layers.storage.cassandra.benchmarks.load;
+
+import com.datastax.driver.core.*;
+import org.hcjf.layers.storage.cassandra.benchmarks.SyntheticBackend;
+import org.hcjf.layers.storage.cassandra.benchmarks.SyntheticDriver;
+
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stand-in backend that completes each execution after a simulated latency, the completions are scheduled
+ * then the threads of the load are not blocked by the backend.
+ * @author javaito
+ */
+public class LatencyBackend extends SyntheticBackend implements AutoCloseable {
+
+    private final long latency;
+    private final long jitter;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Constructor.
+     * @param columnDefinitions Column definitions of the rows.
+     * @param rows Rows returned by the selects.
+     * @param latency Latency in microseconds.
+     * @param jitter Maximum random variation of the latency in microseconds.
+     */
+    public LatencyBackend(ColumnDefinitions columnDefinitions, List<Row> rows, long latency, long jitter) {
+        super(columnDefinitions, rows);
+        this.latency = latency;
+        this.jitter = jitter;
+        this.scheduler = Executors.newScheduledThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors() / 2), runnable -> {
+            Thread thread = new Thread(runnable, "load-test-backend");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public ResultSetFuture apply(Statement statement) {
+        long delay = latency + (jitter > 0 ? ThreadLocalRandom.current().nextLong(-jitter, jitter + 1) : 0);
+        ResultSetFuture result;
+        if(delay <= 0) {
+            result = SyntheticDriver.completed(resolve(statement));
+        } else {
+            SyntheticDriver.SyntheticResultSetFuture future = new SyntheticDriver.SyntheticResultSetFuture();
+            scheduler.schedule(() -> future.complete(resolve(statement)), delay, TimeUnit.MICROSECONDS);
+            result = future;
+        }
+        return result;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
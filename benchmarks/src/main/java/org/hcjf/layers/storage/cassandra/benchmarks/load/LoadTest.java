@@ -0,0 +1,271 @@
+package org.hcjf.layers.storage.cassandra.benchmarks.load;
+
+import com.datastax.driver.core.ColumnDefinitions;
+import org.HdrHistogram.Histogram;
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.cassandra.benchmarks.BenchmarkData;
+import org.hcjf.layers.storage.cassandra.benchmarks.BenchmarkEntity;
+import org.hcjf.layers.storage.cassandra.benchmarks.SyntheticStorageLayer;
+import org.hcjf.layers.storage.cassandra.benchmarks.SyntheticStorageSession;
+import org.hcjf.layers.storage.cassandra.properties.CassandraProperties;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load generator that drives sessions of the storage layer against a stand-in backend with simulated latency.
+ * Each operation opens a session with {@link SyntheticStorageLayer#begin()}, as the applications do.
+ * When a target rate is configured each operation has an intended start time, and the latency is measured
+ * from that time and not from the real start, then the time that an operation waits because the previous one
+ * was delayed is counted too (coordinated omission correction). The service time, measured from the real start,
+ * is reported too.
+ * @author javaito
+ */
+public class LoadTest {
+
+    private static final String SELECT_QUERY = "SELECT * FROM " + BenchmarkData.RESOURCE + " WHERE id = '%s'";
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9, 99.99};
+
+    private final LoadTestOptions options;
+    private final LoadTestOptions.Operation[] operations;
+    private final KeyGenerator keyGenerator;
+    private final AtomicReferenceArray<Query> selectQueries;
+    private final long keySeed;
+    private final String padding;
+
+    public LoadTest(LoadTestOptions options) {
+        this.options = options;
+        this.operations = createOperations(options.getMix());
+        this.keyGenerator = KeyGenerator.create(options);
+        this.selectQueries = new AtomicReferenceArray<>(options.getKeys());
+        this.keySeed = options.getSeed();
+        char[] padding = new char[Math.max(options.getRowSize() - 64, 8)];
+        Arrays.fill(padding, 'x');
+        this.padding = new String(padding);
+    }
+
+    /**
+     * Creates a table of operations where each operation appears as many times as its weight, then the
+     * operation of each iteration is selected with a single random index.
+     * @param mix Weight of each operation.
+     * @return Table of operations.
+     */
+    private static LoadTestOptions.Operation[] createOperations(Map<LoadTestOptions.Operation, Integer> mix) {
+        List<LoadTestOptions.Operation> result = new ArrayList<>();
+        for(Map.Entry<LoadTestOptions.Operation, Integer> entry : mix.entrySet()) {
+            for (int i = 0; i < entry.getValue(); i++) {
+                result.add(entry.getKey());
+            }
+        }
+        if(result.isEmpty()) {
+            throw new IllegalArgumentException("The mix of operations is empty");
+        }
+        return result.toArray(new LoadTestOptions.Operation[result.size()]);
+    }
+
+    /**
+     * Runs the load with the options of the arguments and prints the report.
+     * @param args Options with the format '--name=value'.
+     * @throws Exception Exception
+     */
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        Log.i(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG), "Load test options: %s", options);
+        LoadTestReport report = new LoadTest(options).run();
+        Log.i(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG), "Load test report:\n%s", report);
+    }
+
+    /**
+     * Runs the load and waits until all the threads finish.
+     * @return Report of the load.
+     * @throws InterruptedException InterruptedException
+     */
+    public LoadTestReport run() throws InterruptedException {
+        Random random = new Random(options.getSeed());
+        ColumnDefinitions columnDefinitions = BenchmarkData.createColumnDefinitions();
+        try (LatencyBackend backend = new LatencyBackend(columnDefinitions,
+                BenchmarkData.createRows(columnDefinitions, options.getRowsPerSelect(), options.getRowSize(), random),
+                options.getLatency(), options.getLatencyJitter())) {
+            SyntheticStorageLayer layer = new SyntheticStorageLayer("load-test", backend);
+            layer.addTable(BenchmarkData.createTableDescriptor());
+
+            int threads = options.getThreads();
+            long interval = options.getRate() > 0 ? TimeUnit.SECONDS.toNanos(1) * threads / options.getRate() : 0;
+            long startTime = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+            long measurementStart = startTime + TimeUnit.SECONDS.toNanos(options.getWarmup());
+            long endTime = measurementStart + TimeUnit.SECONDS.toNanos(options.getDuration());
+
+            CountDownLatch finished = new CountDownLatch(threads);
+            List<Worker> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                Worker worker = new Worker(layer, new Random(options.getSeed() + i + 1),
+                        startTime + (interval * i / threads), interval, measurementStart, endTime, finished);
+                workers.add(worker);
+                Thread thread = new Thread(worker, "load-test-" + i);
+                thread.setDaemon(true);
+                thread.start();
+            }
+            finished.await();
+
+            LoadTestReport report = new LoadTestReport(TimeUnit.NANOSECONDS.toMillis(endTime - measurementStart), PERCENTILES);
+            for(Worker worker : workers) {
+                for(LoadTestOptions.Operation operation : LoadTestOptions.Operation.values()) {
+                    report.add(operation, worker.latencies.get(operation), worker.serviceTimes.get(operation),
+                            worker.errors.get(operation)[0]);
+                }
+            }
+            return report;
+        }
+    }
+
+    /**
+     * Executes the operation over the key.
+     * @param layer Storage layer.
+     * @param operation Operation.
+     * @param key Key index.
+     * @throws Exception Exception
+     */
+    private void execute(SyntheticStorageLayer layer, LoadTestOptions.Operation operation, int key) throws Exception {
+        try (SyntheticStorageSession session = layer.begin()) {
+            switch (operation) {
+                case SELECT: session.select(getSelectQuery(key)).execute(); break;
+                case INSERT: session.insert(createEntity(key)).execute(); break;
+                case UPDATE: {
+                    Map<String, Object> values = new HashMap<>();
+                    values.put("age", key % 100);
+                    session.update(createEntity(key), values).execute();
+                    break;
+                }
+                case DELETE: session.delete(createEntity(key)).execute(); break;
+            }
+        }
+    }
+
+    /**
+     * Return the compiled select query of the key, each query is compiled only once.
+     * @param key Key index.
+     * @return Select query.
+     */
+    private Query getSelectQuery(int key) {
+        Query result = selectQueries.get(key);
+        if(result == null) {
+            result = Query.compile(String.format(SELECT_QUERY, getId(key)));
+            selectQueries.set(key, result);
+        }
+        return result;
+    }
+
+    /**
+     * Return the id of the key.
+     * @param key Key index.
+     * @return Id.
+     */
+    private UUID getId(int key) {
+        return new UUID(keySeed, key);
+    }
+
+    /**
+     * Creates the entity of the key.
+     * @param key Key index.
+     * @return Entity.
+     */
+    private BenchmarkEntity createEntity(int key) {
+        BenchmarkEntity entity = new BenchmarkEntity();
+        entity.setId(getId(key));
+        entity.setCreated(new Date(key));
+        entity.setName(padding);
+        entity.setAge(key % 100);
+        entity.setScore((double) key);
+        entity.setStatus(BenchmarkEntity.Status.ACTIVE);
+        entity.setType(BenchmarkEntity.class);
+        entity.setTags(Collections.singletonList("tag" + (key % 10)));
+        return entity;
+    }
+
+    /**
+     * Thread of the load, each worker has its own histograms and they are merged at the end.
+     */
+    private class Worker implements Runnable {
+
+        private final SyntheticStorageLayer layer;
+        private final Random random;
+        private final long firstStart;
+        private final long interval;
+        private final long measurementStart;
+        private final long endTime;
+        private final CountDownLatch finished;
+        private final Map<LoadTestOptions.Operation, Histogram> latencies;
+        private final Map<LoadTestOptions.Operation, Histogram> serviceTimes;
+        private final Map<LoadTestOptions.Operation, long[]> errors;
+
+        private Worker(SyntheticStorageLayer layer, Random random, long firstStart, long interval,
+                       long measurementStart, long endTime, CountDownLatch finished) {
+            this.layer = layer;
+            this.random = random;
+            this.firstStart = firstStart;
+            this.interval = interval;
+            this.measurementStart = measurementStart;
+            this.endTime = endTime;
+            this.finished = finished;
+            this.latencies = new EnumMap<>(LoadTestOptions.Operation.class);
+            this.serviceTimes = new EnumMap<>(LoadTestOptions.Operation.class);
+            this.errors = new EnumMap<>(LoadTestOptions.Operation.class);
+            for(LoadTestOptions.Operation operation : LoadTestOptions.Operation.values()) {
+                latencies.put(operation, new Histogram(SIGNIFICANT_DIGITS));
+                serviceTimes.put(operation, new Histogram(SIGNIFICANT_DIGITS));
+                errors.put(operation, new long[1]);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                long intendedStart = firstStart;
+                while (true) {
+                    long now = System.nanoTime();
+                    if(interval > 0) {
+                        //Waits until the intended start, if the operation is late then it starts immediately.
+                        while (now < intendedStart) {
+                            LockSupport.parkNanos(intendedStart - now);
+                            now = System.nanoTime();
+                        }
+                    } else {
+                        intendedStart = Math.max(now, firstStart);
+                    }
+                    if(intendedStart >= endTime) {
+                        break;
+                    }
+
+                    LoadTestOptions.Operation operation = operations[random.nextInt(operations.length)];
+                    int key = keyGenerator.next(random);
+                    boolean failed = false;
+                    long startTime = System.nanoTime();
+                    try {
+                        execute(layer, operation, key);
+                    } catch (Exception ex) {
+                        failed = true;
+                    }
+                    long operationEnd = System.nanoTime();
+
+                    if(intendedStart >= measurementStart) {
+                        if(failed) {
+                            errors.get(operation)[0]++;
+                        } else {
+                            latencies.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(operationEnd - intendedStart));
+                            serviceTimes.get(operation).recordValue(TimeUnit.NANOSECONDS.toMicros(operationEnd - startTime));
+                        }
+                    }
+                    intendedStart += interval;
+                }
+            } finally {
+                finished.countDown();
+            }
+        }
+    }
+}
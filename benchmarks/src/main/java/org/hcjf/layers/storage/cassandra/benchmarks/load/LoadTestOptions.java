@@ -0,0 +1,206 @@
+package org.hcjf.layers.storage.cassandra.benchmarks.load;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Options of the load test, the options are parsed from arguments with the format '--name=value'.
+ * @author javaito
+ */
+public class LoadTestOptions {
+
+    private static final String OPTION_PREFIX = "--";
+    private static final String VALUE_SEPARATOR = "=";
+    private static final String LIST_SEPARATOR = ",";
+    private static final String WEIGHT_SEPARATOR = ":";
+
+    public static final String THREADS = "threads";
+    public static final String RATE = "rate";
+    public static final String DURATION = "duration";
+    public static final String WARMUP = "warmup";
+    public static final String MIX = "mix";
+    public static final String KEYS = "keys";
+    public static final String DISTRIBUTION = "distribution";
+    public static final String ZIPFIAN_CONSTANT = "zipfianConstant";
+    public static final String ROW_SIZE = "rowSize";
+    public static final String ROWS_PER_SELECT = "rowsPerSelect";
+    public static final String LATENCY = "latency";
+    public static final String LATENCY_JITTER = "latencyJitter";
+    public static final String SEED = "seed";
+
+    private final Map<String, String> values;
+
+    private LoadTestOptions(Map<String, String> values) {
+        this.values = values;
+    }
+
+    /**
+     * Parses the arguments, the options that are not present take the default value.
+     * @param args Arguments.
+     * @return Options.
+     */
+    public static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>();
+        values.put(THREADS, "8");
+        values.put(RATE, "10000");
+        values.put(DURATION, "60");
+        values.put(WARMUP, "10");
+        values.put(MIX, "select:70,insert:20,update:5,delete:5");
+        values.put(KEYS, "100000");
+        values.put(DISTRIBUTION, KeyDistribution.UNIFORM.name());
+        values.put(ZIPFIAN_CONSTANT, "0.99");
+        values.put(ROW_SIZE, "256");
+        values.put(ROWS_PER_SELECT, "1");
+        values.put(LATENCY, "500");
+        values.put(LATENCY_JITTER, "200");
+        values.put(SEED, "7");
+        for(String arg : args) {
+            if(!arg.startsWith(OPTION_PREFIX) || !arg.contains(VALUE_SEPARATOR)) {
+                throw new IllegalArgumentException("Invalid option '" + arg + "', the expected format is --name=value");
+            }
+            String name = arg.substring(OPTION_PREFIX.length(), arg.indexOf(VALUE_SEPARATOR));
+            if(!values.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown option '" + name + "'");
+            }
+            values.put(name, arg.substring(arg.indexOf(VALUE_SEPARATOR) + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+
+    /**
+     * Return the number of threads that generate the load.
+     * @return Number of threads.
+     */
+    public int getThreads() {
+        return Integer.parseInt(values.get(THREADS));
+    }
+
+    /**
+     * Return the target rate of operations per second for all the threads, zero means that each
+     * thread starts the next operation when the previous one finishes.
+     * @return Target rate.
+     */
+    public int getRate() {
+        return Integer.parseInt(values.get(RATE));
+    }
+
+    /**
+     * Return the duration of the measurement in seconds.
+     * @return Duration in seconds.
+     */
+    public int getDuration() {
+        return Integer.parseInt(values.get(DURATION));
+    }
+
+    /**
+     * Return the duration of the warmup in seconds, the operations of the warmup are not recorded.
+     * @return Warmup in seconds.
+     */
+    public int getWarmup() {
+        return Integer.parseInt(values.get(WARMUP));
+    }
+
+    /**
+     * Return the weight of each operation into the mix.
+     * @return Weights indexed by operation.
+     */
+    public Map<Operation, Integer> getMix() {
+        Map<Operation, Integer> result = new EnumMap<>(Operation.class);
+        for(String entry : values.get(MIX).split(LIST_SEPARATOR)) {
+            String[] parts = entry.split(WEIGHT_SEPARATOR);
+            if(parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry '" + entry + "', the expected format is operation:weight");
+            }
+            result.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return result;
+    }
+
+    /**
+     * Return the number of different keys.
+     * @return Number of keys.
+     */
+    public int getKeys() {
+        return Integer.parseInt(values.get(KEYS));
+    }
+
+    /**
+     * Return the distribution of the keys.
+     * @return Key distribution.
+     */
+    public KeyDistribution getDistribution() {
+        return KeyDistribution.valueOf(values.get(DISTRIBUTION).toUpperCase());
+    }
+
+    /**
+     * Return the constant of the zipfian distribution, greater values concentrate the load in less keys.
+     * @return Zipfian constant.
+     */
+    public double getZipfianConstant() {
+        return Double.parseDouble(values.get(ZIPFIAN_CONSTANT));
+    }
+
+    /**
+     * Return the approximated size in bytes of each row.
+     * @return Row size.
+     */
+    public int getRowSize() {
+        return Integer.parseInt(values.get(ROW_SIZE));
+    }
+
+    /**
+     * Return the number of rows returned by each select.
+     * @return Rows per select.
+     */
+    public int getRowsPerSelect() {
+        return Integer.parseInt(values.get(ROWS_PER_SELECT));
+    }
+
+    /**
+     * Return the simulated latency of the backend in microseconds.
+     * @return Latency in microseconds.
+     */
+    public long getLatency() {
+        return Long.parseLong(values.get(LATENCY));
+    }
+
+    /**
+     * Return the maximum random variation of the simulated latency in microseconds.
+     * @return Latency jitter in microseconds.
+     */
+    public long getLatencyJitter() {
+        return Long.parseLong(values.get(LATENCY_JITTER));
+    }
+
+    /**
+     * Return the seed of the random sources.
+     * @return Seed.
+     */
+    public long getSeed() {
+        return Long.parseLong(values.get(SEED));
+    }
+
+    @Override
+    public String toString() {
+        return values.toString();
+    }
+
+    /**
+     * Operations of the load.
+     */
+    public enum Operation {
+        SELECT,
+        INSERT,
+        UPDATE,
+        DELETE
+    }
+
+    /**
+     * Distributions of the keys.
+     */
+    public enum KeyDistribution {
+        UNIFORM,
+        ZIPFIAN
+    }
+}
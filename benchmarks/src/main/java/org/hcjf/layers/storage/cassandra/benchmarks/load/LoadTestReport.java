@@ -0,0 +1,117 @@
+package org.hcjf.layers.storage.cassandra.benchmarks.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Throughput and latency percentiles of a load test, all the latencies are in microseconds.
+ * @author javaito
+ */
+public class LoadTestReport {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final String TOTAL = "TOTAL";
+
+    private final long durationMillis;
+    private final double[] percentiles;
+    private final Map<LoadTestOptions.Operation, Histogram> latencies;
+    private final Map<LoadTestOptions.Operation, Histogram> serviceTimes;
+    private final Map<LoadTestOptions.Operation, Long> errors;
+
+    public LoadTestReport(long durationMillis, double[] percentiles) {
+        this.durationMillis = durationMillis;
+        this.percentiles = percentiles;
+        this.latencies = new EnumMap<>(LoadTestOptions.Operation.class);
+        this.serviceTimes = new EnumMap<>(LoadTestOptions.Operation.class);
+        this.errors = new EnumMap<>(LoadTestOptions.Operation.class);
+    }
+
+    /**
+     * Adds the measures of a thread.
+     * @param operation Operation.
+     * @param latency Latencies measured from the intended start.
+     * @param serviceTime Latencies measured from the real start.
+     * @param errors Number of failed operations.
+     */
+    public void add(LoadTestOptions.Operation operation, Histogram latency, Histogram serviceTime, long errors) {
+        latencies.computeIfAbsent(operation, o -> new Histogram(SIGNIFICANT_DIGITS)).add(latency);
+        serviceTimes.computeIfAbsent(operation, o -> new Histogram(SIGNIFICANT_DIGITS)).add(serviceTime);
+        this.errors.merge(operation, errors, Long::sum);
+    }
+
+    /**
+     * Return the latencies of the operation measured from the intended start.
+     * @param operation Operation.
+     * @return Latency histogram.
+     */
+    public Histogram getLatency(LoadTestOptions.Operation operation) {
+        return latencies.get(operation);
+    }
+
+    /**
+     * Return the latencies of the operation measured from the real start.
+     * @param operation Operation.
+     * @return Service time histogram.
+     */
+    public Histogram getServiceTime(LoadTestOptions.Operation operation) {
+        return serviceTimes.get(operation);
+    }
+
+    /**
+     * Return the number of completed operations per second of all the operations.
+     * @return Throughput.
+     */
+    public double getThroughput() {
+        long count = 0;
+        for(Histogram histogram : latencies.values()) {
+            count += histogram.getTotalCount();
+        }
+        return count * 1000.0 / durationMillis;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("Duration: %d ms, throughput: %.1f ops/s%n", durationMillis, getThroughput()));
+        builder.append(String.format("%-8s %-8s %10s %8s %10s", "op", "measure", "count", "errors", "mean"));
+        for(double percentile : percentiles) {
+            builder.append(String.format(" %10s", "p" + percentile));
+        }
+        builder.append(String.format(" %10s%n", "max"));
+
+        Histogram totalLatency = new Histogram(SIGNIFICANT_DIGITS);
+        Histogram totalServiceTime = new Histogram(SIGNIFICANT_DIGITS);
+        long totalErrors = 0;
+        for(LoadTestOptions.Operation operation : latencies.keySet()) {
+            if(latencies.get(operation).getTotalCount() > 0 || errors.get(operation) > 0) {
+                append(builder, operation.name(), "latency", latencies.get(operation), errors.get(operation));
+                append(builder, operation.name(), "service", serviceTimes.get(operation), errors.get(operation));
+            }
+            totalLatency.add(latencies.get(operation));
+            totalServiceTime.add(serviceTimes.get(operation));
+            totalErrors += errors.get(operation);
+        }
+        append(builder, TOTAL, "latency", totalLatency, totalErrors);
+        append(builder, TOTAL, "service", totalServiceTime, totalErrors);
+        return builder.toString();
+    }
+
+    /**
+     * Appends a line of the report.
+     * @param builder Report builder.
+     * @param operation Operation name.
+     * @param measure Measure name.
+     * @param histogram Histogram.
+     * @param errors Number of errors.
+     */
+    private void append(StringBuilder builder, String operation, String measure, Histogram histogram, long errors) {
+        builder.append(String.format("%-8s %-8s %10d %8d %10.1f", operation, measure,
+                histogram.getTotalCount(), errors, histogram.getMean()));
+        for(double percentile : percentiles) {
+            builder.append(String.format(" %10d", histogram.getValueAtPercentile(percentile)));
+        }
+        builder.append(String.format(" %10d%n", histogram.getMaxValue()));
+    }
+}
@@ -0,0 +1,25 @@
+package org.hcjf.layers.storage.cassandra;
+
+/**
+ * Receives the notifications of a bulk load operation. The methods are invoked from the
+ * driver's threads then the implementations must not block.
+ * @author javaito
+ */
+public interface CassandraBulkLoadListener {
+
+    /**
+     * This method is called each time that a number of rows, configured with the property
+     * {@link org.hcjf.layers.storage.cassandra.properties.CassandraProperties.Bulk#CASSANDRA_STORAGE_LAYER_BULK_PROGRESS_INTERVAL},
+     * are completed.
+     * @param report Progress of the bulk load.
+     */
+    default void onProgress(CassandraBulkLoadReport report) {}
+
+    /**
+     * This method is called for each element that couldn't be written.
+     * @param element Element that couldn't be written.
+     * @param cause Cause of the failure.
+     */
+    default void onFailure(Object element, Throwable cause) {}
+
+}
@@ -0,0 +1,66 @@
+package org.hcjf.layers.storage.cassandra;
+
+/**
+ * Snapshot of the progress of a bulk load operation.
+ * @author javaito
+ */
+public class CassandraBulkLoadReport {
+
+    private final long submitted;
+    private final long written;
+    private final long failed;
+    private final long elapsedNanos;
+
+    public CassandraBulkLoadReport(long submitted, long written, long failed, long elapsedNanos) {
+        this.submitted = submitted;
+        this.written = written;
+        this.failed = failed;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Return the number of rows sent to the cluster.
+     * @return Number of submitted rows.
+     */
+    public long getSubmitted() {
+        return submitted;
+    }
+
+    /**
+     * Return the number of rows successfully written.
+     * @return Number of written rows.
+     */
+    public long getWritten() {
+        return written;
+    }
+
+    /**
+     * Return the number of rows that couldn't be written.
+     * @return Number of failed rows.
+     */
+    public long getFailed() {
+        return failed;
+    }
+
+    /**
+     * Return the elapsed time since the start of the load, in milliseconds.
+     * @return Elapsed time.
+     */
+    public long getElapsedTime() {
+        return elapsedNanos / 1_000_000;
+    }
+
+    /**
+     * Return the number of completed rows (written and failed) per second.
+     * @return Throughput in rows per second.
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : (written + failed) * 1_000_000_000.0 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[Submitted: %d, Written: %d, Failed: %d, Elapsed time: %d ms, Throughput: %.2f rows/s]",
+                submitted, written, failed, getElapsedTime(), getThroughput());
+    }
+}
@@ -0,0 +1,217 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.ResultSet;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.MoreExecutors;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.cassandra.properties.CassandraProperties;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Introspection;
+import org.hcjf.utils.Strings;
+
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class writes a sequence of entities or maps into a table keeping a fixed number of
+ * asynchronous writes in flight. When the limit is reached the producer is blocked until some
+ * write finishes, then the memory used by the load doesn't depend of the size of the sequence.
+ * @author javaito
+ */
+public class CassandraBulkLoader {
+
+    private static final String INSERT_STATEMENT = "INSERT INTO %s (%s) VALUES (%s);";
+
+    private final CassandraStorageSession storageSession;
+    private final String resourceName;
+    private final CassandraBulkLoadListener listener;
+    private final int maxInFlight;
+    private final int progressInterval;
+    private final Semaphore inFlight;
+    private final Map<Class, EntityColumns> entityColumns;
+    private final Map<List<String>, PreparedStatement> statements;
+    private final AtomicLong written;
+    private final AtomicLong failed;
+    private long submitted;
+    private long startTime;
+
+    public CassandraBulkLoader(CassandraStorageSession storageSession, String resourceName, CassandraBulkLoadListener listener) {
+        this.storageSession = storageSession;
+        this.resourceName = storageSession.normalizeName(resourceName);
+        this.listener = listener;
+        this.maxInFlight = SystemProperties.getInteger(CassandraProperties.Bulk.CASSANDRA_STORAGE_LAYER_BULK_MAX_IN_FLIGHT);
+        this.progressInterval = SystemProperties.getInteger(CassandraProperties.Bulk.CASSANDRA_STORAGE_LAYER_BULK_PROGRESS_INTERVAL);
+        this.inFlight = new Semaphore(maxInFlight);
+        this.entityColumns = new HashMap<>();
+        this.statements = new HashMap<>();
+        this.written = new AtomicLong();
+        this.failed = new AtomicLong();
+    }
+
+    /**
+     * Writes all the elements of the source and waits until all the writes are completed.
+     * The elements could be maps or entity instances.
+     * @param source Source of elements.
+     * @return Final report of the load.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public CassandraBulkLoadReport load(Iterator<?> source) throws StorageAccessException {
+        startTime = System.nanoTime();
+        try {
+            while (source.hasNext()) {
+                Object element = source.next();
+                BoundStatement statement;
+                try {
+                    statement = bind(element);
+                } catch (Exception ex) {
+                    onFailure(element, ex);
+                    continue;
+                }
+
+                inFlight.acquire();
+                submitted++;
+                Futures.addCallback(storageSession.getSession().executeAsync(statement), new FutureCallback<ResultSet>() {
+                    @Override
+                    public void onSuccess(ResultSet resultSet) {
+                        storageSession.getLayer().invalidateNearCache(storageSession.getSession(), statement);
+                        inFlight.release();
+                        onCompleted(written.incrementAndGet() + failed.get());
+                    }
+
+                    @Override
+                    public void onFailure(Throwable throwable) {
+                        storageSession.getLayer().invalidateNearCache(storageSession.getSession(), statement);
+                        inFlight.release();
+                        CassandraBulkLoader.this.onFailure(element, throwable);
+                    }
+                }, MoreExecutors.directExecutor());
+            }
+
+            //Waits for all the writes in flight.
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new StorageAccessException("Bulk load interrupted", ex);
+        }
+
+        CassandraBulkLoadReport report = getReport();
+        Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                "Bulk load of %s finished: %s", resourceName, report);
+        return report;
+    }
+
+    /**
+     * Return a snapshot of the current progress.
+     * @return Progress report.
+     */
+    public CassandraBulkLoadReport getReport() {
+        return new CassandraBulkLoadReport(submitted, written.get(), failed.get(), System.nanoTime() - startTime);
+    }
+
+    /**
+     * Counts the failure and notifies the listener.
+     * @param element Element that couldn't be written.
+     * @param throwable Cause of the failure.
+     */
+    private void onFailure(Object element, Throwable throwable) {
+        onCompleted(written.get() + failed.incrementAndGet());
+        if(listener != null) {
+            listener.onFailure(element, throwable);
+        } else {
+            Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                    "Unable to load element %s", throwable, element.toString());
+        }
+    }
+
+    /**
+     * Notifies the progress each time that the number of completed rows reaches the progress interval.
+     * @param completed Number of completed rows.
+     */
+    private void onCompleted(long completed) {
+        if(listener != null && completed % progressInterval == 0) {
+            listener.onProgress(getReport());
+        }
+    }
+
+    /**
+     * Creates the bound statement for the element, the statement is prepared only once for each
+     * set of columns.
+     * @param element Map or entity instance.
+     * @return Bound statement.
+     * @throws Exception Exception
+     */
+    private BoundStatement bind(Object element) throws Exception {
+        List<String> columns = new ArrayList<>();
+        List<Object> values = new ArrayList<>();
+        if(element instanceof Map) {
+            Map<String, Object> map = (Map<String, Object>) element;
+            String columnName;
+            for(String key : map.keySet()) {
+                columnName = storageSession.normalizeName(key);
+                if(storageSession.checkColumn(resourceName, columnName)) {
+                    columns.add(columnName);
+                    values.add(storageSession.checkValueDataType(map.get(key)));
+                }
+            }
+        } else {
+            EntityColumns elementColumns = entityColumns.computeIfAbsent(element.getClass(), EntityColumns::new);
+            columns = elementColumns.columns;
+            for(Introspection.Getter getter : elementColumns.getters) {
+                values.add(storageSession.checkValueDataType(getter.get(element)));
+            }
+        }
+
+        PreparedStatement statement = statements.get(columns);
+        if(statement == null) {
+            statement = storageSession.getLayer().getPreparedStatement(
+                    storageSession.getSession(), createStatement(columns));
+            statements.put(columns, statement);
+        }
+
+        return storageSession.bind(statement, values.toArray());
+    }
+
+    /**
+     * Creates the insert statement for the columns.
+     * @param columns Column names.
+     * @return Insert statement.
+     */
+    private String createStatement(List<String> columns) {
+        Strings.Builder columnsBuilder = new Strings.Builder();
+        Strings.Builder valuePlacesBuilder = new Strings.Builder();
+        for(String column : columns) {
+            columnsBuilder.append(column, Strings.ARGUMENT_SEPARATOR);
+            valuePlacesBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE), Strings.ARGUMENT_SEPARATOR);
+        }
+        return String.format(INSERT_STATEMENT, resourceName, columnsBuilder.toString(), valuePlacesBuilder.toString());
+    }
+
+    /**
+     * Columns of the table and getters of the entity class, in the same order.
+     */
+    private class EntityColumns {
+
+        private final List<String> columns;
+        private final List<Introspection.Getter> getters;
+
+        private EntityColumns(Class entityClass) {
+            columns = new ArrayList<>();
+            getters = new ArrayList<>();
+            Map<String, Introspection.Getter> entityGetters = Introspection.getGetters(entityClass);
+            String columnName;
+            for(String fieldName : entityGetters.keySet()) {
+                columnName = storageSession.normalizeName(fieldName);
+                if(storageSession.checkColumn(resourceName, columnName)) {
+                    columns.add(columnName);
+                    getters.add(entityGetters.get(fieldName));
+                }
+            }
+        }
+    }
+}
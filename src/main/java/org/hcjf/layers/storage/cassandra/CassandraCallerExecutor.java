@@ -0,0 +1,68 @@
+package org.hcjf.layers.storage.cassandra;
+
+import java.util.concurrent.*;
+
+/**
+ * Executor used by the synchronous operations of the layer. The continuations of the asynchronous
+ * implementation are queued and executed by the thread that waits for the result, then a synchronous operation
+ * never waits for a thread of the asynchronous executor of the layer and it can't deadlock when it's invoked
+ * from that executor. The tasks received after the end of the wait are executed by the fallback executor.
+ * @author javaito
+ */
+public class CassandraCallerExecutor implements Executor {
+
+    private static final Runnable WAKE_UP = () -> {};
+
+    private final Executor fallbackExecutor;
+    private final BlockingQueue<Runnable> tasks;
+    private volatile boolean closed;
+
+    public CassandraCallerExecutor(Executor fallbackExecutor) {
+        this.fallbackExecutor = fallbackExecutor;
+        this.tasks = new LinkedBlockingQueue<>();
+    }
+
+    /**
+     * Queues the task to be executed by the waiting thread, or executes it with the fallback
+     * executor if the wait is over.
+     * @param task Task to execute.
+     */
+    @Override
+    public void execute(Runnable task) {
+        if(closed) {
+            fallbackExecutor.execute(task);
+        } else {
+            tasks.add(task);
+            //The wait could be over between the verification and the add.
+            if(closed && tasks.remove(task)) {
+                fallbackExecutor.execute(task);
+            }
+        }
+    }
+
+    /**
+     * Executes the queued tasks into the invoker thread until the future is completed.
+     * @param future Future to wait.
+     * @param <R> Type of the result.
+     * @return Result of the future.
+     * @throws InterruptedException If the invoker thread is interrupted.
+     * @throws ExecutionException If the future is completed exceptionally.
+     */
+    public <R> R await(CompletableFuture<R> future) throws InterruptedException, ExecutionException {
+        future.whenComplete((result, throwable) -> tasks.add(WAKE_UP));
+        try {
+            while (!future.isDone()) {
+                tasks.take().run();
+            }
+            return future.get();
+        } finally {
+            closed = true;
+            Runnable task;
+            while((task = tasks.poll()) != null) {
+                if(task != WAKE_UP) {
+                    fallbackExecutor.execute(task);
+                }
+            }
+        }
+    }
+}
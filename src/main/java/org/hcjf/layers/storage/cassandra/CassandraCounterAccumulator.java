@@ -0,0 +1,247 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.BatchStatement;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.hcjf.layers.storage.cassandra.properties.CassandraProperties;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Strings;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * This class accumulates the increments of the counter columns in memory and writes the sum of the increments
+ * of each counter periodically, then the thousands of increments of a hot counter are written as only one update.
+ * The deltas are indexed by resource, primary key and column, and they are flushed each time that the flush
+ * interval expires or when the number of pending counters reaches the max size. The flushes are executed as
+ * counter batches grouped by partition with bound values, then all the flushes of a column share the same
+ * prepared statement. The pending deltas are flushed when the virtual machine shuts down. The deltas that
+ * can't be confirmed are reported to the flush listener and they are not retried, because the counter
+ * updates are not idempotent.
+ * @author javaito
+ */
+public class CassandraCounterAccumulator {
+
+    private static final String UPDATE_STATEMENT = "UPDATE %s SET %s = %s + ? WHERE %s";
+    private static final String COUNTER_ACCUMULATOR = "counter.accumulator";
+    private static final String PENDING = "pending";
+    private static final String IN_FLIGHT = "in.flight";
+
+    private final CassandraStorageLayer<?> layer;
+    private final CassandraCounterFlushListener listener;
+    private final int maxSize;
+    private final long shutdownTimeout;
+    private final ConcurrentHashMap<Counter, Long> counters;
+    private final Set<Delta> inFlight;
+    private final AtomicBoolean flushRequested;
+    private final ScheduledExecutorService scheduler;
+
+    public CassandraCounterAccumulator(CassandraStorageLayer<?> layer, CassandraCounterFlushListener listener,
+                                       long flushInterval, int maxSize, long shutdownTimeout, CassandraMetrics metrics) {
+        this.layer = layer;
+        this.listener = listener;
+        this.maxSize = maxSize;
+        this.shutdownTimeout = shutdownTimeout;
+        this.counters = new ConcurrentHashMap<>();
+        this.inFlight = ConcurrentHashMap.newKeySet();
+        this.flushRequested = new AtomicBoolean();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat(layer.getImplName() + "-counters-%d").build());
+        this.scheduler.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown, layer.getImplName() + "-counters-shutdown"));
+
+        metrics.registerGauge(counters::size, COUNTER_ACCUMULATOR, PENDING);
+        metrics.registerGauge(inFlight::size, COUNTER_ACCUMULATOR, IN_FLIGHT);
+    }
+
+    /**
+     * Adds the delta to the pending delta of the counter, if the number of pending counters reaches the
+     * max size then a flush is requested.
+     * @param resourceName Normalized resource name.
+     * @param columnName Normalized counter column name.
+     * @param keyValues Values of the primary key columns, in the order of the primary key.
+     * @param delta Increment of the counter.
+     */
+    public void add(String resourceName, String columnName, List<Object> keyValues, long delta) {
+        counters.merge(new Counter(resourceName, columnName, keyValues), delta, Long::sum);
+        if(counters.size() >= maxSize && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::flush);
+        }
+    }
+
+    /**
+     * Writes all the pending deltas. Each pending delta is removed from the accumulator before the write, then
+     * the increments received during the flush are accumulated for the next flush.
+     * @return Future that will be completed when all the writes are completed.
+     */
+    public CompletableFuture<Void> flush() {
+        flushRequested.set(false);
+        Map<String, List<Delta>> deltasByStatement = new HashMap<>();
+        for(Counter counter : counters.keySet()) {
+            Long value = counters.remove(counter);
+            if(value != null && value != 0) {
+                Delta delta = new Delta(counter, value);
+                inFlight.add(delta);
+                deltasByStatement.computeIfAbsent(counter.resourceName + Strings.WHITE_SPACE + counter.columnName,
+                        key -> new ArrayList<>()).add(delta);
+            }
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for(List<Delta> deltas : deltasByStatement.values()) {
+            futures.add(write(deltas));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
+    }
+
+    /**
+     * Writes the deltas of the same counter column as counter batches grouped by partition.
+     * @param deltas Deltas of the same resource and column.
+     * @return Future that will be completed when the writes are completed, the future is never
+     * completed exceptionally because the failures are reported to the listener.
+     */
+    private CompletableFuture<Void> write(List<Delta> deltas) {
+        Counter first = deltas.get(0).counter;
+        CompletableFuture<List<Throwable>> errors;
+        try {
+            CassandraStorageSession storageSession = layer.begin();
+            CassandraTableDescriptor tableDescriptor = storageSession.getTableDescriptor(first.resourceName);
+            List<List<Object>> valuesList = new ArrayList<>();
+            List<List<Object>> partitionKeys = new ArrayList<>();
+            for(Delta delta : deltas) {
+                List<Object> values = new ArrayList<>();
+                values.add(delta.value);
+                values.addAll(delta.counter.keyValues);
+                valuesList.add(values);
+                partitionKeys.add(delta.counter.keyValues.subList(0, tableDescriptor.getPartitionKey().size()));
+            }
+            errors = storageSession.executeBatchesAsync(createStatement(first, tableDescriptor), valuesList,
+                    partitionKeys, BatchStatement.Type.COUNTER);
+        } catch (Exception ex) {
+            errors = CompletableFuture.failedFuture(ex);
+        }
+
+        return errors.handle((executionErrors, throwable) -> {
+            for (int i = 0; i < deltas.size(); i++) {
+                Throwable cause = throwable != null ? throwable : executionErrors.get(i);
+                if(cause == null) {
+                    inFlight.remove(deltas.get(i));
+                } else {
+                    onFailure(deltas.get(i), cause);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Creates the update statement of the counter column with the delta and the primary key as bound values.
+     * @param counter Counter of the column.
+     * @param tableDescriptor Descriptor of the counter table.
+     * @return Update statement.
+     */
+    private static String createStatement(Counter counter, CassandraTableDescriptor tableDescriptor) {
+        Strings.Builder whereBuilder = new Strings.Builder();
+        for(String key : tableDescriptor.getPrimaryKey()) {
+            whereBuilder.append(key).append(Strings.WHITE_SPACE).append(SystemProperties.get(SystemProperties.Query.ReservedWord.EQUALS));
+            whereBuilder.append(Strings.WHITE_SPACE).append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE));
+            whereBuilder.append(Strings.WHITE_SPACE, SystemProperties.get(SystemProperties.Query.ReservedWord.AND), Strings.WHITE_SPACE);
+        }
+        return String.format(UPDATE_STATEMENT, counter.resourceName, counter.columnName, counter.columnName,
+                whereBuilder.toString());
+    }
+
+    /**
+     * Reports the delta to the listener.
+     * @param delta Delta that couldn't be confirmed.
+     * @param cause Cause of the failure.
+     */
+    private void onFailure(Delta delta, Throwable cause) {
+        inFlight.remove(delta);
+        Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                "Unable to flush counter %s.%s %s [Delta: %d]", cause,
+                delta.counter.resourceName, delta.counter.columnName, delta.counter.keyValues, delta.value);
+        try {
+            listener.onFailure(delta.counter.resourceName, delta.counter.columnName,
+                    delta.counter.keyValues, delta.value, cause);
+        } catch (Exception ex) {
+            Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                    "Counter flush listener fail", ex);
+        }
+    }
+
+    /**
+     * Flushes the pending deltas when the virtual machine shuts down and waits until the writes are completed
+     * or the time configured in the property
+     * {@link CassandraProperties.CounterAccumulator#CASSANDRA_STORAGE_LAYER_COUNTER_ACCUMULATOR_SHUTDOWN_TIMEOUT}
+     * expires, the deltas that are not confirmed before the timeout are reported as failures.
+     */
+    private void shutdown() {
+        scheduler.shutdown();
+        try {
+            flush().get(shutdownTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException ex) {
+            Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                    "Counter flush not completed before shutdown [In flight: %d]", inFlight.size());
+        }
+        TimeoutException cause = new TimeoutException("Counter flush not completed before shutdown");
+        for(Delta delta : new ArrayList<>(inFlight)) {
+            onFailure(delta, cause);
+        }
+    }
+
+    /**
+     * Key of the accumulated deltas, composed by the resource, the column and the primary key of the row.
+     */
+    private static final class Counter {
+
+        private final String resourceName;
+        private final String columnName;
+        private final List<Object> keyValues;
+        private final int hashCode;
+
+        private Counter(String resourceName, String columnName, List<Object> keyValues) {
+            this.resourceName = resourceName;
+            this.columnName = columnName;
+            this.keyValues = keyValues;
+            this.hashCode = Objects.hash(resourceName, columnName, keyValues);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            boolean result = false;
+            if(this == other) {
+                result = true;
+            } else if(other instanceof Counter) {
+                Counter counter = (Counter) other;
+                result = hashCode == counter.hashCode && resourceName.equals(counter.resourceName) &&
+                        columnName.equals(counter.columnName) && keyValues.equals(counter.keyValues);
+            }
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * Delta removed from the accumulator and not confirmed yet, the deltas are compared by identity because
+     * the same counter could have more than one delta in flight.
+     */
+    private static final class Delta {
+
+        private final Counter counter;
+        private final long value;
+
+        private Delta(Counter counter, long value) {
+            this.counter = counter;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package org.hcjf.layers.storage.cassandra;
+
+import java.util.List;
+
+/**
+ * Receives the failures of the flushes of the counter accumulator. The methods are invoked from the
+ * driver's threads then the implementations must not block.
+ * @author javaito
+ */
+public interface CassandraCounterFlushListener {
+
+    /**
+     * This method is called for each accumulated delta that couldn't be confirmed by cassandra. The counter
+     * updates are not idempotent then the delta could be applied even if the flush failed, and the same delta
+     * could be reported more than once if the flush is completed after the shutdown timeout.
+     * @param resourceName Resource name.
+     * @param columnName Counter column name.
+     * @param keyValues Primary key values of the row.
+     * @param delta Accumulated delta.
+     * @param cause Cause of the failure.
+     */
+    default void onFailure(String resourceName, String columnName, List<Object> keyValues, long delta, Throwable cause) {}
+
+}
@@ -0,0 +1,52 @@
+package org.hcjf.layers.storage.cassandra;
+
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * This class classifies the cql statements as idempotent or not idempotent, the driver retries and speculates
+ * only the idempotent statements. A statement is idempotent if the result of applying it twice is the same that
+ * applying it once: the selects, the plain inserts and updates and the deletes of rows. The conditional
+ * statements (lightweight transactions), the counter updates, the list appends and prepends, the deletes
+ * of list elements by index and the statements that generate values into the cluster are not idempotent.
+ * @author javaito
+ */
+public final class CassandraIdempotence {
+
+    private static final String SELECT = "SELECT";
+    private static final String INSERT = "INSERT";
+    private static final String UPDATE = "UPDATE";
+    private static final String DELETE = "DELETE";
+    private static final String FROM = " FROM ";
+    private static final String LIST_INDEX = "[";
+    private static final Pattern CONDITION = Pattern.compile("\\bIF\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern INCREMENT = Pattern.compile("(\\w+)\\s*=\\s*\\1\\s*[+-]", Pattern.CASE_INSENSITIVE);
+    private static final Pattern PREPEND = Pattern.compile("=\\s*(\\?|\\[[^\\]]*\\])\\s*\\+\\s*\\w+");
+    private static final Pattern GENERATED_VALUE = Pattern.compile("\\b(now|uuid)\\s*\\(\\s*\\)", Pattern.CASE_INSENSITIVE);
+
+    private CassandraIdempotence() {
+    }
+
+    /**
+     * Verify if the cql statement is idempotent.
+     * @param cqlStatement Cql statement.
+     * @return Return true if the statement can be applied more than once with the same result.
+     */
+    public static boolean isIdempotent(String cqlStatement) {
+        String statement = cqlStatement.trim().toUpperCase(Locale.ROOT);
+        boolean result;
+        if(statement.startsWith(SELECT)) {
+            result = true;
+        } else if(statement.startsWith(INSERT) || statement.startsWith(UPDATE)) {
+            result = !CONDITION.matcher(statement).find() && !INCREMENT.matcher(statement).find() &&
+                    !PREPEND.matcher(statement).find() && !GENERATED_VALUE.matcher(statement).find();
+        } else if(statement.startsWith(DELETE)) {
+            int fromIndex = statement.indexOf(FROM);
+            result = !CONDITION.matcher(statement).find() &&
+                    (fromIndex < 0 || !statement.substring(0, fromIndex).contains(LIST_INDEX));
+        } else {
+            result = false;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,319 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.datastax.driver.core.ExecutionInfo;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
+import com.google.common.cache.RemovalNotification;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * This class contains the metrics of the storage layer. The latency of each phase of the operations is
+ * recorded into timers with nanosecond resolution, tagged by resource, action and cql template, and the
+ * number of rows returned by each template is counted. The template id is a sequence number assigned to each
+ * distinct cql template and the number of templates with metrics is bounded, when a template is evicted its
+ * metrics are removed from the registry. The names of the metrics are:
+ * <ul>
+ *     <li>{prefix}.resource.{resource}.{action}.{phase}</li>
+ *     <li>{prefix}.template.{template id}.{phase}</li>
+ *     <li>{prefix}.resource.{resource}.{action}.rows</li>
+ *     <li>{prefix}.template.{template id}.rows</li>
+ *     <li>{prefix}.bytes.read</li>
+ *     <li>{prefix}.speculative.executions</li>
+ *     <li>{prefix}.speculative.wins</li>
+ *     <li>{prefix}.near.cache.{resource}.{statistic}</li>
+ * </ul>
+ * @author javaito
+ */
+public class CassandraMetrics {
+
+    private static final String RESOURCE = "resource";
+    private static final String TEMPLATE = "template";
+    private static final String ROWS = "rows";
+    private static final String BYTES_READ = "bytes.read";
+    private static final String SPECULATIVE_EXECUTIONS = "speculative.executions";
+    private static final String SPECULATIVE_WINS = "speculative.wins";
+    private static final String UNKNOWN = "unknown";
+    private static final int DEFAULT_MAX_TEMPLATES = 1000;
+
+    private final MetricRegistry registry;
+    private final String prefix;
+    private final boolean enabled;
+    private final LoadingCache<String, Scope> scopes;
+    private final Map<String, String> templates;
+    private final AtomicLong templateIds;
+    private final Counter bytesRead;
+    private final Meter speculativeExecutions;
+    private final Meter speculativeWins;
+    private final Scope disabledScope;
+
+    public CassandraMetrics(MetricRegistry registry, String prefix, boolean enabled) {
+        this(registry, prefix, enabled, DEFAULT_MAX_TEMPLATES);
+    }
+
+    public CassandraMetrics(MetricRegistry registry, String prefix, boolean enabled, int maxTemplates) {
+        this.registry = registry;
+        this.prefix = prefix;
+        this.enabled = enabled;
+        this.scopes = CacheBuilder.newBuilder()
+                .maximumSize(maxTemplates)
+                .removalListener(this::onScopeRemoval)
+                .build(CacheLoader.from(this::createScope));
+        this.templates = new ConcurrentHashMap<>();
+        this.templateIds = new AtomicLong();
+        this.bytesRead = registry.counter(MetricRegistry.name(prefix, BYTES_READ));
+        this.speculativeExecutions = registry.meter(MetricRegistry.name(prefix, SPECULATIVE_EXECUTIONS));
+        this.speculativeWins = registry.meter(MetricRegistry.name(prefix, SPECULATIVE_WINS));
+        this.disabledScope = new Scope();
+    }
+
+    /**
+     * Return the registry of the metrics.
+     * @return Metric registry.
+     */
+    public MetricRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Verify if the metrics are enabled.
+     * @return Return true if the metrics are enabled.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Return the counter of bytes read from the cluster connections.
+     * @return Bytes read counter.
+     */
+    public Counter getBytesRead() {
+        return bytesRead;
+    }
+
+    /**
+     * Return the meter of the speculative executions started by the driver.
+     * @return Speculative executions meter.
+     */
+    public Meter getSpeculativeExecutions() {
+        return speculativeExecutions;
+    }
+
+    /**
+     * Return the meter of the executions completed by a speculative execution instead of the first one.
+     * @return Speculative wins meter.
+     */
+    public Meter getSpeculativeWins() {
+        return speculativeWins;
+    }
+
+    /**
+     * Records the speculative executions of an execution.
+     * @param executionInfo Execution information returned by the driver, it could be null.
+     */
+    public void executed(ExecutionInfo executionInfo) {
+        if(enabled && executionInfo != null && executionInfo.getSpeculativeExecutions() > 0) {
+            speculativeExecutions.mark(executionInfo.getSpeculativeExecutions());
+            if(executionInfo.getSuccessfulExecutionIndex() > 0) {
+                speculativeWins.mark();
+            }
+        }
+    }
+
+    /**
+     * Return the cql templates indexed by the template id used into the metric names.
+     * @return Cql templates.
+     */
+    public Map<String, String> getTemplates() {
+        return Collections.unmodifiableMap(templates);
+    }
+
+    /**
+     * Registers a gauge with the name composed by the prefix of the metrics and the names, if a metric
+     * with the same name exists then it's replaced. The gauge is not registered if the metrics are disabled.
+     * @param gauge Gauge to register.
+     * @param names Parts of the name of the gauge.
+     */
+    public void registerGauge(Gauge<?> gauge, String... names) {
+        if(enabled) {
+            String name = MetricRegistry.name(prefix, names);
+            registry.remove(name);
+            registry.register(name, gauge);
+        }
+    }
+
+    /**
+     * Return the scope of the metrics for the cql template, the resource and the action are taken from
+     * the template. The scope is created only once for each template while the template is not evicted.
+     * @param cqlStatement Cql template.
+     * @return Metrics scope.
+     */
+    public Scope getScope(String cqlStatement) {
+        Scope result = disabledScope;
+        if(enabled) {
+            result = scopes.getUnchecked(cqlStatement);
+        }
+        return result;
+    }
+
+    /**
+     * Creates the netty handler that counts the bytes read from the connections.
+     * @return Channel handler.
+     */
+    public ChannelHandler createBytesReadHandler() {
+        return new BytesReadHandler();
+    }
+
+    /**
+     * Creates the scope of the cql template.
+     * @param cqlStatement Cql template.
+     * @return Metrics scope.
+     */
+    private Scope createScope(String cqlStatement) {
+        String templateId = Long.toString(templateIds.incrementAndGet());
+        templates.put(templateId, cqlStatement);
+
+        String[] tokens = cqlStatement.trim().split("\\s+");
+        String action = tokens.length > 0 ? tokens[0].toLowerCase(Locale.ROOT) : UNKNOWN;
+        String resource = UNKNOWN;
+        for (int i = 0; i < tokens.length - 1; i++) {
+            if(tokens[i].equalsIgnoreCase("FROM") || tokens[i].equalsIgnoreCase("INTO") ||
+                    (i == 0 && tokens[i].equalsIgnoreCase("UPDATE"))) {
+                resource = tokens[i + 1].replaceAll("[^\\w.]", "");
+                break;
+            }
+        }
+
+        String resourceName = MetricRegistry.name(prefix, RESOURCE, resource, action);
+        String templateName = MetricRegistry.name(prefix, TEMPLATE, templateId);
+        Phase[] phases = Phase.values();
+        Timer[] resourceTimers = new Timer[phases.length];
+        Timer[] templateTimers = new Timer[phases.length];
+        for(Phase phase : phases) {
+            resourceTimers[phase.ordinal()] = registry.timer(MetricRegistry.name(resourceName, phase.getMetricName()));
+            templateTimers[phase.ordinal()] = registry.timer(MetricRegistry.name(templateName, phase.getMetricName()));
+        }
+        return new Scope(templateId, resourceTimers, templateTimers,
+                registry.counter(MetricRegistry.name(resourceName, ROWS)),
+                registry.counter(MetricRegistry.name(templateName, ROWS)));
+    }
+
+    /**
+     * Removes the template metrics of an evicted scope from the registry, the metrics of the resource
+     * are shared with other templates and they are kept.
+     * @param notification Removal notification.
+     */
+    private void onScopeRemoval(RemovalNotification<String, Scope> notification) {
+        String templateId = notification.getValue().templateId;
+        String templateName = MetricRegistry.name(prefix, TEMPLATE, templateId);
+        templates.remove(templateId);
+        registry.removeMatching((name, metric) -> name.startsWith(templateName + "."));
+    }
+
+    /**
+     * Phases of an operation.
+     */
+    public enum Phase {
+
+        PREPARE("prepare"),
+
+        EXECUTE("execute"),
+
+        FETCH("fetch"),
+
+        MAP("map"),
+
+        POST_EVALUATE("post.evaluate");
+
+        private final String metricName;
+
+        Phase(String metricName) {
+            this.metricName = metricName;
+        }
+
+        public String getMetricName() {
+            return metricName;
+        }
+    }
+
+    /**
+     * Metrics of a cql template, all the methods are no-ops if the metrics are disabled.
+     */
+    public static final class Scope {
+
+        private final String templateId;
+        private final Timer[] resourceTimers;
+        private final Timer[] templateTimers;
+        private final Counter resourceRows;
+        private final Counter templateRows;
+
+        private Scope() {
+            this(null, null, null, null, null);
+        }
+
+        private Scope(String templateId, Timer[] resourceTimers, Timer[] templateTimers,
+                      Counter resourceRows, Counter templateRows) {
+            this.templateId = templateId;
+            this.resourceTimers = resourceTimers;
+            this.templateTimers = templateTimers;
+            this.resourceRows = resourceRows;
+            this.templateRows = templateRows;
+        }
+
+        /**
+         * Records the duration of the phase.
+         * @param phase Phase of the operation.
+         * @param startTime Start time of the phase, taken from {@link System#nanoTime()}.
+         * @return Current time, to be used as start time of the next phase.
+         */
+        public long record(Phase phase, long startTime) {
+            long currentTime = System.nanoTime();
+            if(resourceTimers != null) {
+                resourceTimers[phase.ordinal()].update(currentTime - startTime, TimeUnit.NANOSECONDS);
+                templateTimers[phase.ordinal()].update(currentTime - startTime, TimeUnit.NANOSECONDS);
+            }
+            return currentTime;
+        }
+
+        /**
+         * Counts the rows returned.
+         * @param rows Number of rows.
+         */
+        public void rows(long rows) {
+            if(resourceRows != null) {
+                resourceRows.inc(rows);
+                templateRows.inc(rows);
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes of the buffers read from the connection.
+     */
+    @ChannelHandler.Sharable
+    private class BytesReadHandler extends ChannelInboundHandlerAdapter {
+
+        @Override
+        public void channelRead(ChannelHandlerContext context, Object message) throws Exception {
+            if(message instanceof ByteBuf) {
+                bytesRead.inc(((ByteBuf) message).readableBytes());
+            }
+            super.channelRead(context, message);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.*;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Near cache of the rows read by primary key, only the configured resources are cached. Each resource has
+ * its own cache bounded by number of entries or by weight (bytes of the rows) and evicted with the W-TinyLFU
+ * policy of caffeine. The entries are indexed by the serialized values of the primary key, then the key of a
+ * select and the key of a write over the same row are the same, independently of the java types used to bind
+ * the values. The writes executed through the storage layer invalidate the entries of the written rows.
+ * The statistics of each cache are registered as gauges into the metrics of the layer.
+ * @author javaito
+ */
+public class CassandraNearCache {
+
+    static final int[] NO_KEY = new int[0];
+    static final int[] PARTIAL_KEY = new int[0];
+    private static final String SELECT = "SELECT";
+    private static final String INSERT = "INSERT";
+    private static final String EQUALITY_PATTERN = "(?i)(^|[^\\w\"])%s\\s*=\\s*\\?";
+    private static final String NEAR_CACHE = "near.cache";
+    private static final String HIT_RATE = "hit.rate";
+    private static final String LOAD_TIME = "load.time";
+    private static final String EVICTIONS = "evictions";
+    private static final String SIZE = "size";
+    private static final int GENERATION_STRIPES = 64;
+
+    private final Set<String> resources;
+    private final long maxSize;
+    private final long maxWeight;
+    private final long expireTime;
+    private final CassandraMetrics metrics;
+    private final Map<String, ResourceCache> caches;
+    private final Cache<PreparedStatement, int[]> keyIndexes;
+
+    public CassandraNearCache(Set<String> resources, long maxSize, long maxWeight, long expireTime, CassandraMetrics metrics) {
+        this.resources = resources;
+        this.maxSize = maxSize;
+        this.maxWeight = maxWeight;
+        this.expireTime = expireTime;
+        this.metrics = metrics;
+        this.caches = new ConcurrentHashMap<>();
+        //The keys are compared by identity and discarded when the prepared statement is discarded.
+        this.keyIndexes = CacheBuilder.newBuilder().weakKeys().build();
+    }
+
+    /**
+     * Verify if the resource is cached.
+     * @param resourceName Normalized resource name.
+     * @return Return true if the resource is cached.
+     */
+    public boolean isEnabled(String resourceName) {
+        return resources.contains(resourceName);
+    }
+
+    /**
+     * Return the key of the row bound by the statement.
+     * @param statement Bound statement.
+     * @param tableDescriptors Function that returns the descriptor of a table or null if the table doesn't exist.
+     * @return Key of the row or null if the resource is not cached or the statement doesn't bind all the
+     * primary key columns.
+     */
+    public Key getKey(BoundStatement statement, Function<String, CassandraTableDescriptor> tableDescriptors) {
+        int[] indexes = getIndexes(statement, tableDescriptors);
+        return indexes == NO_KEY || indexes == PARTIAL_KEY ? null : createKey(statement, indexes);
+    }
+
+    /**
+     * Return the rows of the key, if the rows are not cached then the loader reads the rows. Concurrent
+     * requests of the same key wait for a single load. If the key is invalidated while the rows are loaded
+     * then the rows are returned but they are discarded from the cache, because they can be older than the write
+     * that invalidated the key.
+     * @param key Key of the row.
+     * @param loader Function that reads the rows from the cluster.
+     * @return Future that will be completed with the rows.
+     */
+    public CompletableFuture<List<Row>> get(Key key, Function<Key, CompletableFuture<List<Row>>> loader) {
+        ResourceCache resourceCache = getCache(key.resourceName);
+        long generation = resourceCache.getGeneration(key);
+        CompletableFuture<List<Row>> result = resourceCache.cache.get(key, (cacheKey, executor) -> loader.apply(cacheKey));
+        if(!result.isDone()) {
+            result.whenComplete((rows, throwable) -> {
+                if(throwable == null && resourceCache.getGeneration(key) != generation) {
+                    resourceCache.cache.asMap().remove(key, result);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Invalidates the entries of the rows written by the statement, if the statement is a batch then
+     * the rows of all the statements of the batch are invalidated. If the written rows can't be resolved
+     * (for example a delete of a complete partition) then all the entries of the resource are invalidated.
+     * @param statement Executed statement.
+     * @param tableDescriptors Function that returns the descriptor of a table or null if the table doesn't exist.
+     */
+    public void invalidate(Statement statement, Function<String, CassandraTableDescriptor> tableDescriptors) {
+        if(statement instanceof BatchStatement) {
+            for(Statement batchStatement : ((BatchStatement) statement).getStatements()) {
+                invalidate(batchStatement, tableDescriptors);
+            }
+        } else if(statement instanceof BoundStatement) {
+            BoundStatement boundStatement = (BoundStatement) statement;
+            int[] indexes = getIndexes(boundStatement, tableDescriptors);
+            if(indexes == PARTIAL_KEY) {
+                invalidate(boundStatement.preparedStatement().getVariables().getTable(0));
+            } else if(indexes != NO_KEY) {
+                Key key = createKey(boundStatement, indexes);
+                if(key != null) {
+                    invalidate(key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Invalidates the entry of the key and increments the generation of the key.
+     * @param key Key of the row.
+     */
+    void invalidate(Key key) {
+        ResourceCache resourceCache = caches.get(key.resourceName);
+        if(resourceCache != null) {
+            resourceCache.invalidate(key);
+        }
+    }
+
+    /**
+     * Invalidates all the entries of the resource and increments the generation of all the keys of the resource.
+     * @param resourceName Normalized resource name.
+     */
+    void invalidate(String resourceName) {
+        ResourceCache resourceCache = caches.get(resourceName);
+        if(resourceCache != null) {
+            resourceCache.invalidateAll();
+        }
+    }
+
+    /**
+     * Discards all the entries, this method is called when the schema of the key space changes.
+     */
+    public void invalidateAll() {
+        for(ResourceCache resourceCache : caches.values()) {
+            resourceCache.invalidateAll();
+        }
+        keyIndexes.invalidateAll();
+    }
+
+    /**
+     * Return the cache of the resource, the cache is created and its statistics are registered
+     * the first time.
+     * @param resourceName Normalized resource name.
+     * @return Cache of the resource.
+     */
+    private ResourceCache getCache(String resourceName) {
+        ResourceCache result = caches.get(resourceName);
+        if(result == null) {
+            result = caches.computeIfAbsent(resourceName, this::createCache);
+        }
+        return result;
+    }
+
+    /**
+     * Creates the cache of the resource and registers its statistics.
+     * @param resourceName Normalized resource name.
+     * @return Cache of the resource.
+     */
+    private ResourceCache createCache(String resourceName) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder().recordStats();
+        if(expireTime > 0) {
+            builder.expireAfterWrite(expireTime, TimeUnit.MILLISECONDS);
+        }
+        AsyncCache<Key, List<Row>> result;
+        if(maxWeight > 0) {
+            result = builder.maximumWeight(maxWeight).<Key, List<Row>>weigher(CassandraNearCache::weigh).buildAsync();
+        } else {
+            result = builder.maximumSize(maxSize).buildAsync();
+        }
+
+        com.github.benmanes.caffeine.cache.Cache<Key, List<Row>> cache = result.synchronous();
+        metrics.registerGauge(() -> cache.stats().hitRate(), NEAR_CACHE, resourceName, HIT_RATE);
+        metrics.registerGauge(() -> cache.stats().averageLoadPenalty(), NEAR_CACHE, resourceName, LOAD_TIME);
+        metrics.registerGauge(() -> cache.stats().evictionCount(), NEAR_CACHE, resourceName, EVICTIONS);
+        metrics.registerGauge(cache::estimatedSize, NEAR_CACHE, resourceName, SIZE);
+        return new ResourceCache(result);
+    }
+
+    /**
+     * Resolves the positions of the primary key values into the variables of the statement, the positions
+     * are resolved only once for each prepared statement.
+     * @param statement Bound statement.
+     * @param tableDescriptors Function that returns the descriptor of a table.
+     * @return Positions of the primary key values, or a marker if the statement doesn't write a cached resource
+     * or if it doesn't bind all the primary key columns.
+     */
+    private int[] getIndexes(BoundStatement statement, Function<String, CassandraTableDescriptor> tableDescriptors) {
+        PreparedStatement preparedStatement = statement.preparedStatement();
+        int[] result = keyIndexes.getIfPresent(preparedStatement);
+        if(result == null) {
+            result = resolveIndexes(preparedStatement, tableDescriptors);
+            keyIndexes.put(preparedStatement, result);
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the positions of the primary key values into the variables of the statement.
+     * @param preparedStatement Prepared statement.
+     * @param tableDescriptors Function that returns the descriptor of a table.
+     * @return Positions of the primary key values or a marker.
+     */
+    private int[] resolveIndexes(PreparedStatement preparedStatement, Function<String, CassandraTableDescriptor> tableDescriptors) {
+        ColumnDefinitions variables = preparedStatement.getVariables();
+        if(variables.size() == 0 || !resources.contains(variables.getTable(0))) {
+            return NO_KEY;
+        }
+
+        CassandraTableDescriptor tableDescriptor = tableDescriptors.apply(variables.getTable(0));
+        if(tableDescriptor == null) {
+            return NO_KEY;
+        }
+
+        List<String> variableNames = new ArrayList<>(variables.size());
+        for(ColumnDefinitions.Definition definition : variables) {
+            variableNames.add(definition.getName());
+        }
+        return resolveIndexes(preparedStatement.getQueryString(), variableNames, tableDescriptor.getPrimaryKey());
+    }
+
+    /**
+     * Resolves the positions of the primary key values into the variables of the statement. A primary key column
+     * is bound by a variable only if the column has a single variable and the variable is bound by equality, or
+     * by the values of an insert. The columns restricted by 'in' or by a slice select more than one row, then
+     * the statement doesn't bind a complete key.
+     * @param cqlStatement Cql statement.
+     * @param variableNames Names of the variables of the statement.
+     * @param primaryKey Primary key columns of the table.
+     * @return Positions of the primary key values, {@link #NO_KEY} if the statement is a select that doesn't
+     * bind a complete key or {@link #PARTIAL_KEY} if the statement is a write that doesn't bind a complete key.
+     */
+    static int[] resolveIndexes(String cqlStatement, List<String> variableNames, List<String> primaryKey) {
+        String statement = cqlStatement.trim();
+        boolean insert = statement.regionMatches(true, 0, INSERT, 0, INSERT.length());
+        int[] result = new int[primaryKey.size()];
+        for (int i = 0; i < primaryKey.size(); i++) {
+            String column = primaryKey.get(i);
+            int index = variableNames.indexOf(column);
+            if(index < 0 || index != variableNames.lastIndexOf(column) || (!insert &&
+                    !Pattern.compile(String.format(EQUALITY_PATTERN, Pattern.quote(column))).matcher(statement).find())) {
+                return statement.regionMatches(true, 0, SELECT, 0, SELECT.length()) ? NO_KEY : PARTIAL_KEY;
+            }
+            result[i] = index;
+        }
+        return result;
+    }
+
+    /**
+     * Creates the key with the serialized values of the primary key.
+     * @param statement Bound statement.
+     * @param indexes Positions of the primary key values.
+     * @return Key of the row or null if some value is not bound.
+     */
+    private static Key createKey(BoundStatement statement, int[] indexes) {
+        ByteBuffer[] components = new ByteBuffer[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            if(!statement.isSet(indexes[i]) || (components[i] = statement.getBytesUnsafe(indexes[i])) == null) {
+                return null;
+            }
+        }
+        return new Key(statement.preparedStatement().getVariables().getTable(0), components);
+    }
+
+    /**
+     * Return the weight of the entry, the number of bytes of the key and the values of the rows.
+     * @param key Key of the entry.
+     * @param rows Rows of the entry.
+     * @return Weight of the entry.
+     */
+    private static int weigh(Key key, List<Row> rows) {
+        long result = 0;
+        for(ByteBuffer component : key.components) {
+            result += component.remaining();
+        }
+        for(Row row : rows) {
+            for (int i = 0; i < row.getColumnDefinitions().size(); i++) {
+                ByteBuffer value = row.getBytesUnsafe(i);
+                result += value == null ? 0 : value.remaining();
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, result);
+    }
+
+    /**
+     * Cache of a resource with the generations of its keys. The generations are striped by the hash of the keys,
+     * then the invalidation of a key increments the generation of all the keys of the same stripe, and the
+     * invalidation of the resource increments the generation of all the keys.
+     */
+    private static final class ResourceCache {
+
+        private final AsyncCache<Key, List<Row>> cache;
+        private final AtomicLong resourceGeneration;
+        private final AtomicLongArray keyGenerations;
+
+        private ResourceCache(AsyncCache<Key, List<Row>> cache) {
+            this.cache = cache;
+            this.resourceGeneration = new AtomicLong();
+            this.keyGenerations = new AtomicLongArray(GENERATION_STRIPES);
+        }
+
+        /**
+         * Return the generation of the key, the generation changes each time that the key or the resource
+         * is invalidated.
+         * @param key Key of the row.
+         * @return Generation of the key.
+         */
+        private long getGeneration(Key key) {
+            return resourceGeneration.get() + keyGenerations.get(stripe(key));
+        }
+
+        /**
+         * Increments the generation of the key and discards its entry.
+         * @param key Key of the row.
+         */
+        private void invalidate(Key key) {
+            keyGenerations.incrementAndGet(stripe(key));
+            cache.synchronous().invalidate(key);
+        }
+
+        /**
+         * Increments the generation of the resource and discards all its entries.
+         */
+        private void invalidateAll() {
+            resourceGeneration.incrementAndGet();
+            cache.synchronous().invalidateAll();
+        }
+
+        /**
+         * Return the stripe of the generations that contains the key.
+         * @param key Key of the row.
+         * @return Index of the stripe.
+         */
+        private static int stripe(Key key) {
+            int hash = key.hashCode;
+            return (hash ^ (hash >>> 16)) & (GENERATION_STRIPES - 1);
+        }
+    }
+
+    /**
+     * Key of a cached row, composed by the resource name and the serialized values of the primary key.
+     */
+    public static final class Key {
+
+        private final String resourceName;
+        private final ByteBuffer[] components;
+        private final int hashCode;
+
+        Key(String resourceName, ByteBuffer[] components) {
+            this.resourceName = resourceName;
+            this.components = components;
+            this.hashCode = 31 * resourceName.hashCode() + Arrays.hashCode(components);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            boolean result = false;
+            if(this == other) {
+                result = true;
+            } else if(other instanceof Key) {
+                Key key = (Key) other;
+                result = hashCode == key.hashCode && resourceName.equals(key.resourceName) &&
+                        Arrays.equals(components, key.components);
+            }
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.hcjf.layers.storage.cassandra;
+
+import org.hcjf.layers.storage.actions.ResultSet;
+
+/**
+ * Contains the result set of a page and the paging state to request the next page.
+ * The paging state is an opaque string that can be sent to the clients and used to continue
+ * the query in other session, the state is valid only for the same query with the same parameters.
+ * @param <R> Expected result set.
+ * @author javaito
+ */
+public class CassandraPage<R extends ResultSet> {
+
+    private final R resultSet;
+    private final String pagingState;
+
+    public CassandraPage(R resultSet, String pagingState) {
+        this.resultSet = resultSet;
+        this.pagingState = pagingState;
+    }
+
+    /**
+     * Return the result set of the page.
+     * @return Result set.
+     */
+    public R getResultSet() {
+        return resultSet;
+    }
+
+    /**
+     * Return the paging state to request the next page or null if this is the last page.
+     * @return Paging state.
+     */
+    public String getPagingState() {
+        return pagingState;
+    }
+
+    /**
+     * Verify if there are more pages after this page.
+     * @return Return true if there are more pages and false in the other case.
+     */
+    public boolean hasMorePages() {
+        return pagingState != null;
+    }
+}
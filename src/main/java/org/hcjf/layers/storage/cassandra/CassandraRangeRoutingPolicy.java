@@ -0,0 +1,132 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.*;
+import com.datastax.driver.core.policies.ChainableLoadBalancingPolicy;
+import com.datastax.driver.core.policies.LoadBalancingPolicy;
+import com.google.common.collect.AbstractIterator;
+
+import java.util.*;
+
+/**
+ * This policy sends the statements that read a range of tokens to the local replicas of the range, the
+ * token aware policy can't route these statements because they haven't routing key. All the other
+ * statements are routed by the child policy. The query plan of a range statement contains the local
+ * replicas of the range followed by the hosts of the child's query plan.
+ * @author javaito
+ */
+public class CassandraRangeRoutingPolicy implements ChainableLoadBalancingPolicy {
+
+    private final LoadBalancingPolicy childPolicy;
+    private final boolean shuffleReplicas;
+
+    public CassandraRangeRoutingPolicy(LoadBalancingPolicy childPolicy, boolean shuffleReplicas) {
+        this.childPolicy = childPolicy;
+        this.shuffleReplicas = shuffleReplicas;
+    }
+
+    @Override
+    public LoadBalancingPolicy getChildPolicy() {
+        return childPolicy;
+    }
+
+    @Override
+    public void init(Cluster cluster, Collection<Host> hosts) {
+        childPolicy.init(cluster, hosts);
+    }
+
+    @Override
+    public HostDistance distance(Host host) {
+        return childPolicy.distance(host);
+    }
+
+    /**
+     * Return the query plan of the statement, if the statement is a range statement then the local replicas
+     * of the range are the first hosts of the plan.
+     * @param loggedKeyspace Key space of the session.
+     * @param statement Statement to execute.
+     * @return Query plan.
+     */
+    @Override
+    public Iterator<Host> newQueryPlan(String loggedKeyspace, Statement statement) {
+        Iterator<Host> result;
+        if(statement instanceof RangeStatement) {
+            List<Host> replicas = new ArrayList<>();
+            for(Host replica : ((RangeStatement) statement).getReplicas()) {
+                if(replica.isUp() && childPolicy.distance(replica) == HostDistance.LOCAL) {
+                    replicas.add(replica);
+                }
+            }
+            if(shuffleReplicas) {
+                Collections.shuffle(replicas);
+            }
+            Iterator<Host> childQueryPlan = childPolicy.newQueryPlan(loggedKeyspace, statement);
+            result = new AbstractIterator<Host>() {
+
+                private final Iterator<Host> replicasIterator = replicas.iterator();
+
+                @Override
+                protected Host computeNext() {
+                    if(replicasIterator.hasNext()) {
+                        return replicasIterator.next();
+                    }
+                    while(childQueryPlan.hasNext()) {
+                        Host host = childQueryPlan.next();
+                        if(!replicas.contains(host)) {
+                            return host;
+                        }
+                    }
+                    return endOfData();
+                }
+            };
+        } else {
+            result = childPolicy.newQueryPlan(loggedKeyspace, statement);
+        }
+        return result;
+    }
+
+    @Override
+    public void onAdd(Host host) {
+        childPolicy.onAdd(host);
+    }
+
+    @Override
+    public void onUp(Host host) {
+        childPolicy.onUp(host);
+    }
+
+    @Override
+    public void onDown(Host host) {
+        childPolicy.onDown(host);
+    }
+
+    @Override
+    public void onRemove(Host host) {
+        childPolicy.onRemove(host);
+    }
+
+    @Override
+    public void close() {
+        childPolicy.close();
+    }
+
+    /**
+     * Wrapper of a statement that reads a range of tokens, the wrapper contains the replicas of the range.
+     */
+    public static class RangeStatement extends StatementWrapper {
+
+        private final Set<Host> replicas;
+
+        public RangeStatement(Statement statement, Set<Host> replicas) {
+            super(statement);
+            this.replicas = replicas;
+        }
+
+        /**
+         * Return the hosts that replicate the range.
+         * @return Replicas.
+         */
+        public Set<Host> getReplicas() {
+            return replicas;
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import org.hcjf.layers.storage.StorageAccessException;
+
+import java.util.*;
+
+/**
+ * This list parses the rows of a cassandra result set page by page while the
+ * list is iterated, then the first elements are available before the last page is fetched and
+ * the rows of the consumed pages are released. The parsed elements are stored into the list,
+ * then the list can be iterated more than once and accessed by index; the pages are parsed only
+ * until the requested index, and all the pages are parsed when the size is requested. Because of
+ * that the memory used by a completely iterated list is bounded by the parsed result, not by the
+ * fetch size; only the raw rows are bounded by the fetch size.
+ * If a page can't be fetched or parsed then the same error is thrown by each access
+ * beyond the parsed elements, as an unchecked exception thrown by the iteration instead of a
+ * {@link StorageAccessException} thrown by the query; the errors of the first page are the only ones
+ * thrown by the query, see {@link #loadFirstPage()}.
+ * @param <O> Type of the list elements.
+ * @author javaito
+ */
+public class CassandraResultList<O> extends AbstractList<O> {
+
+    private final PageSource pageSource;
+    private final PageParser<O> pageParser;
+    private final List<O> elements;
+    private int prefetchIndex;
+    private RuntimeException failure;
+
+    public CassandraResultList(PageSource pageSource, PageParser<O> pageParser) {
+        this.pageSource = pageSource;
+        this.pageParser = pageParser;
+        this.elements = new ArrayList<>();
+        this.prefetchIndex = -1;
+    }
+
+    /**
+     * Parses the first page of the result, then the errors of the first page are thrown as checked
+     * exceptions by the query instead of the first access to the list.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public synchronized void loadFirstPage() throws StorageAccessException {
+        if(elements.isEmpty() && failure == null && pageSource.hasNext()) {
+            addPage(pageParser.parse(pageSource.next()));
+        }
+    }
+
+    /**
+     * Return an iterator that parses the pages on demand, the elements parsed by
+     * a previous iteration are not parsed again.
+     * @return List iterator.
+     */
+    @Override
+    public Iterator<O> iterator() {
+        return new ElementIterator();
+    }
+
+    @Override
+    public synchronized O get(int index) {
+        while(index >= elements.size() && loadNextPage());
+        return elements.get(index);
+    }
+
+    @Override
+    public synchronized int size() {
+        while(loadNextPage());
+        return elements.size();
+    }
+
+    /**
+     * Parses the next page and stores its elements into the list.
+     * @return Return false if there are no more pages.
+     */
+    private synchronized boolean loadNextPage() {
+        if(failure != null) {
+            throw failure;
+        }
+        boolean result = pageSource.hasNext();
+        if(result) {
+            try {
+                addPage(pageParser.parse(pageSource.next()));
+            } catch (StorageAccessException ex) {
+                failure = new IllegalStateException("Unable to parse rows", ex);
+                throw failure;
+            } catch (RuntimeException ex) {
+                failure = ex;
+                throw ex;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stores the elements of the page, the next page is requested when the half of
+     * this page is consumed by the first iteration.
+     * @param page Parsed elements of the page.
+     */
+    private void addPage(Collection<O> page) {
+        prefetchIndex = elements.size() + Math.max(1, page.size() / 2);
+        elements.addAll(page);
+    }
+
+    /**
+     * Iterates over the stored elements and parses the next page when the stored
+     * elements are consumed.
+     */
+    private class ElementIterator implements Iterator<O> {
+
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+            synchronized (CassandraResultList.this) {
+                while(index >= elements.size()) {
+                    if(!loadNextPage()) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+
+        @Override
+        public O next() {
+            O result;
+            boolean prefetch;
+            synchronized (CassandraResultList.this) {
+                if(!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                result = elements.get(index++);
+                prefetch = index == prefetchIndex;
+            }
+            if(prefetch) {
+                pageSource.prefetch();
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Source of pages of rows.
+     */
+    public interface PageSource extends Iterator<List<Row>> {
+
+        /**
+         * Starts the fetch of the next page without blocking the invoker thread.
+         */
+        default void prefetch() {}
+
+    }
+
+    /**
+     * Parses a page of rows into the list elements.
+     * @param <O> Type of the list elements.
+     */
+    public interface PageParser<O> {
+
+        /**
+         * Parses the rows.
+         * @param rows Page of rows.
+         * @return Parsed elements.
+         * @throws StorageAccessException StorageAccessException
+         */
+        Collection<O> parse(List<Row> rows) throws StorageAccessException;
+
+    }
+
+    /**
+     * Page source that takes the pages of a cassandra result set, each page contains the
+     * rows available without fetching.
+     */
+    public static class ResultSetPageSource implements PageSource {
+
+        private final ResultSet resultSet;
+
+        public ResultSetPageSource(ResultSet resultSet) {
+            this.resultSet = resultSet;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !resultSet.isExhausted();
+        }
+
+        @Override
+        public List<Row> next() {
+            if(!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int available = resultSet.getAvailableWithoutFetching();
+            List<Row> page = new ArrayList<>(available);
+            for (int i = 0; i < available; i++) {
+                page.add(resultSet.one());
+            }
+            return page;
+        }
+
+        @Override
+        public void prefetch() {
+            if(!resultSet.isFullyFetched()) {
+                resultSet.fetchMoreResults();
+            }
+        }
+    }
+}
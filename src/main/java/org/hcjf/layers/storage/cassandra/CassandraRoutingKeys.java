@@ -0,0 +1,111 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.*;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * This class sets the routing key of the bound statements whose routing key can't be resolved by the driver,
+ * for example when the cluster doesn't send the partition key indexes of the prepared statements (protocol v3)
+ * and the driver can't find the table into the cluster metadata. The routing key is composed with the values of
+ * the partition key columns of the table descriptor, then the token aware policy sends the statement directly to
+ * a replica. The positions of the partition key values are resolved only once for each prepared statement.
+ * @author javaito
+ */
+public class CassandraRoutingKeys {
+
+    private static final int[] DRIVER_ROUTING = new int[0];
+    private static final int[] NO_ROUTING = new int[0];
+
+    private final Cache<PreparedStatement, int[]> routingIndexes;
+
+    public CassandraRoutingKeys() {
+        //The keys are compared by identity and discarded when the prepared statement is discarded.
+        this.routingIndexes = CacheBuilder.newBuilder().weakKeys().build();
+    }
+
+    /**
+     * Sets the routing key of the statement if the driver can't resolve it and all the partition key
+     * columns are bound by equality.
+     * @param statement Bound statement.
+     * @param tableDescriptors Function that returns the descriptor of a table or null if the table doesn't exist.
+     * @param protocolVersion Protocol version of the cluster.
+     * @param codecRegistry Codec registry of the cluster.
+     * @return The same bound statement.
+     */
+    public BoundStatement route(BoundStatement statement, Function<String, CassandraTableDescriptor> tableDescriptors,
+                                ProtocolVersion protocolVersion, CodecRegistry codecRegistry) {
+        PreparedStatement preparedStatement = statement.preparedStatement();
+        int[] indexes = routingIndexes.getIfPresent(preparedStatement);
+        if(indexes == null) {
+            indexes = resolveIndexes(statement, tableDescriptors, protocolVersion, codecRegistry);
+            routingIndexes.put(preparedStatement, indexes);
+        }
+
+        if(indexes != DRIVER_ROUTING && indexes != NO_ROUTING) {
+            ByteBuffer[] components = new ByteBuffer[indexes.length];
+            for (int i = 0; i < indexes.length; i++) {
+                if(!statement.isSet(indexes[i]) || (components[i] = statement.getBytesUnsafe(indexes[i])) == null) {
+                    //A partition key without value, the statement is routed by the child policy.
+                    return statement;
+                }
+            }
+            if(components.length == 1) {
+                statement.setRoutingKey(components[0]);
+            } else {
+                statement.setRoutingKey(components);
+            }
+        }
+        return statement;
+    }
+
+    /**
+     * Resolves the positions of the partition key values into the variables of the statement.
+     * @param statement Bound statement.
+     * @param tableDescriptors Function that returns the descriptor of a table.
+     * @param protocolVersion Protocol version of the cluster.
+     * @param codecRegistry Codec registry of the cluster.
+     * @return Positions of the partition key values, or a marker if the driver resolves the routing key or if
+     * the statement can't be routed.
+     */
+    private int[] resolveIndexes(BoundStatement statement, Function<String, CassandraTableDescriptor> tableDescriptors,
+                                 ProtocolVersion protocolVersion, CodecRegistry codecRegistry) {
+        if(statement.getRoutingKey(protocolVersion, codecRegistry) != null) {
+            return DRIVER_ROUTING;
+        }
+
+        ColumnDefinitions variables = statement.preparedStatement().getVariables();
+        if(variables.size() == 0) {
+            return NO_ROUTING;
+        }
+
+        CassandraTableDescriptor tableDescriptor = tableDescriptors.apply(variables.getTable(0));
+        if(tableDescriptor == null) {
+            return NO_ROUTING;
+        }
+
+        //The variables with the name of a partition key column are bound by equality, the 'in' variables
+        //and the token variables have another names.
+        List<String> partitionKey = tableDescriptor.getPartitionKey();
+        int[] result = new int[partitionKey.size()];
+        for (int i = 0; i < partitionKey.size(); i++) {
+            int index = variables.getIndexOf(partitionKey.get(i));
+            if(index < 0) {
+                return NO_ROUTING;
+            }
+            result[i] = index;
+        }
+        return result;
+    }
+
+    /**
+     * Discards the resolved positions, this method is called when the schema of the key space changes.
+     */
+    public void invalidateAll() {
+        routingIndexes.invalidateAll();
+    }
+}
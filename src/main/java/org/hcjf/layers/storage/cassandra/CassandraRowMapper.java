@@ -0,0 +1,230 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.CodecRegistry;
+import com.datastax.driver.core.ColumnDefinitions;
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.TypeCodec;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.cassandra.properties.CassandraProperties;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Introspection;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class maps the rows of a result set to instances of the result type. The mapper is compiled
+ * only once for each result type and set of column definitions: the column indexes, the codecs of
+ * the columns, the method handles of the setters and the value conversions are resolved when the
+ * mapper is created, then the mapping of each row doesn't use reflection.
+ * @author javaito
+ */
+public class CassandraRowMapper {
+
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class resultType;
+    private final Map<String, Class> classes;
+    private final MethodHandle constructor;
+    private final ColumnMapping[] mappings;
+
+    public CassandraRowMapper(Class resultType, ColumnDefinitions columnDefinitions,
+                              Map<String, Introspection.Setter> setters, CodecRegistry codecRegistry) throws StorageAccessException {
+        this.resultType = resultType;
+        this.classes = new ConcurrentHashMap<>();
+        try {
+            this.constructor = unreflectConstructor(resultType.getConstructor()).asType(CONSTRUCTOR_TYPE);
+        } catch (Exception ex) {
+            throw new StorageAccessException("Unable to create instance", ex);
+        }
+
+        List<ColumnMapping> mappings = new ArrayList<>();
+        List<ColumnDefinitions.Definition> definitions = columnDefinitions.asList();
+        ColumnDefinitions.Definition definition;
+        Introspection.Setter setter;
+        for (int i = 0; i < definitions.size(); i++) {
+            definition = definitions.get(i);
+            setter = setters.get(definition.getName());
+            if(setter != null) {
+                try {
+                    mappings.add(new ColumnMapping(i, codecRegistry.codecFor(definition.getType()),
+                            unreflect(setter.getMethod()).asType(SETTER_TYPE), createConverter(setter.getParameterType())));
+                } catch (Exception ex) {
+                    Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                            "Unable to map column %s", ex, definition.getName());
+                }
+            }
+        }
+        this.mappings = mappings.toArray(new ColumnMapping[mappings.size()]);
+    }
+
+    /**
+     * Return the result type of the mapper.
+     * @return Result type.
+     */
+    public Class getResultType() {
+        return resultType;
+    }
+
+    /**
+     * Creates an instance of the result type with the values of the row.
+     * @param row Data base row.
+     * @return Instance of the result type.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public Object map(Row row) throws StorageAccessException {
+        Object instance;
+        try {
+            instance = (Object) constructor.invokeExact();
+        } catch (Throwable ex) {
+            throw new StorageAccessException("Unable to create instance", ex);
+        }
+
+        Object rowValue;
+        for (ColumnMapping mapping : mappings) {
+            try {
+                rowValue = row.get(mapping.index, mapping.codec);
+                if (rowValue != null) {
+                    if (mapping.converter != null) {
+                        rowValue = mapping.converter.convert(rowValue);
+                    }
+                    mapping.setter.invokeExact(instance, rowValue);
+                }
+            } catch (Throwable ex) {
+                Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                        "Unable to set value", ex);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Creates the conversion of the stored value to the parameter type of the setter. The classes
+     * resolved by name are kept by the mapper, then they are released when the mapper is discarded
+     * because the schema changes.
+     * @param parameterType Parameter type of the setter.
+     * @return Converter or null if the value doesn't need conversion.
+     */
+    private Converter createConverter(Class parameterType) {
+        Converter result = null;
+        if (parameterType.isEnum()) {
+            Map<String, Object> constants = new HashMap<>();
+            for(Object constant : parameterType.getEnumConstants()) {
+                constants.put(((Enum)constant).name(), constant);
+            }
+            result = value -> {
+                Object constant = constants.get(value);
+                if(constant == null) {
+                    constant = Enum.valueOf((Class<? extends Enum>) parameterType, (String) value);
+                }
+                return constant;
+            };
+        } else if (parameterType.equals(Class.class)) {
+            result = value -> classes.computeIfAbsent((String) value, className -> {
+                try {
+                    return Class.forName(className);
+                } catch (ClassNotFoundException ex) {
+                    throw new IllegalArgumentException("Class not found: " + className, ex);
+                }
+            });
+        }
+        return result;
+    }
+
+    /**
+     * Creates the method handle of the setter.
+     * @param method Setter method.
+     * @return Method handle.
+     * @throws IllegalAccessException IllegalAccessException
+     */
+    static MethodHandle unreflect(Method method) throws IllegalAccessException {
+        try {
+            return MethodHandles.publicLookup().unreflect(method);
+        } catch (IllegalAccessException ex) {
+            method.setAccessible(true);
+            return MethodHandles.lookup().unreflect(method);
+        }
+    }
+
+    /**
+     * Creates the method handle of the constructor.
+     * @param constructor Default constructor.
+     * @return Method handle.
+     * @throws IllegalAccessException IllegalAccessException
+     */
+    private static MethodHandle unreflectConstructor(Constructor constructor) throws IllegalAccessException {
+        try {
+            return MethodHandles.publicLookup().unreflectConstructor(constructor);
+        } catch (IllegalAccessException ex) {
+            constructor.setAccessible(true);
+            return MethodHandles.lookup().unreflectConstructor(constructor);
+        }
+    }
+
+    /**
+     * Conversion of the stored value.
+     */
+    private interface Converter {
+
+        Object convert(Object value) throws Exception;
+
+    }
+
+    /**
+     * Contains all the information to set the value of a column.
+     */
+    private static class ColumnMapping {
+
+        private final int index;
+        private final TypeCodec<Object> codec;
+        private final MethodHandle setter;
+        private final Converter converter;
+
+        private ColumnMapping(int index, TypeCodec<Object> codec, MethodHandle setter, Converter converter) {
+            this.index = index;
+            this.codec = codec;
+            this.setter = setter;
+            this.converter = converter;
+        }
+    }
+
+    /**
+     * Key of the compiled mappers, composed by the result type and the column definitions.
+     */
+    public static final class Key {
+
+        private final Class resultType;
+        private final List<ColumnDefinitions.Definition> definitions;
+        private final int hashCode;
+
+        public Key(Class resultType, ColumnDefinitions columnDefinitions) {
+            this.resultType = resultType;
+            this.definitions = columnDefinitions.asList();
+            this.hashCode = Objects.hash(resultType, definitions);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            boolean result = false;
+            if(this == other) {
+                result = true;
+            } else if(other instanceof Key) {
+                result = resultType.equals(((Key) other).resultType) &&
+                        definitions.equals(((Key) other).definitions);
+            }
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,756 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.ClusteringOrder;
+import org.hcjf.layers.query.*;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Strings;
+
+import java.util.*;
+
+/**
+ * This class contains the compiled form of a select: the cql statement and the positions of the evaluators
+ * resolved by cassandra. The plan depends only on the shape of the query (resource, return
+ * fields, evaluator types and fields, order fields and presence of start and limit) and not on its values, then all the
+ * queries with the same shape are executed with the same plan. The values of the 'in' evaluators and the limit
+ * are bound as values, in order to share the plan between queries with different number of elements or limits.
+ * @author javaito
+ */
+public class CassandraSelectPlan {
+
+    private static final String SELECT_STATEMENT = "SELECT * FROM %s ";
+    private static final String SELECT_WHERE_STATEMENT = "WHERE %s ";
+    private static final String SELECT_ORDER_STATEMENT = "%s %s ";
+    private static final String SELECT_LIMIT_STATEMENT = "LIMIT %s";
+    private static final String CONTAINS_RESERVED_WORD = "CONTAINS";
+    private static final String TOKEN_FUNCTION = "token(%s)";
+    private static final int NO_MUTATION = 0;
+    private static final int RANGE_MUTATION = 1;
+    private static final int ROW_MUTATION = 2;
+
+    private final String resourceName;
+    private final String cqlStatement;
+    private final int[] pushedEvaluators;
+    private final boolean[] listValues;
+    private final boolean bindLimit;
+    private final boolean ordered;
+    private final boolean limitRows;
+    private final String fanOutCqlStatement;
+    private final int fanOutValue;
+    private final String scanCqlStatement;
+    private final boolean primaryKeyLookup;
+    private final String mutationWhereStatement;
+    private final boolean rowMutation;
+
+    /**
+     * Creates the plan for the shape of the query.
+     * @param storageSession Storage session used to read the table descriptor.
+     * @param query Query used as model of the shape.
+     * @param limitRows If this parameter is false then the statement is created without limit clause and
+     *                  the start and limit of the residual query are removed.
+     * @param keysOnly If this parameter is true then the statement reads only the primary key columns and the
+     *                 columns used by the query, instead of the return fields.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public CassandraSelectPlan(CassandraStorageSession storageSession, Query query, boolean limitRows,
+                               boolean keysOnly) throws StorageAccessException {
+        this.resourceName = storageSession.normalizeName(query.getResourceName());
+        this.limitRows = limitRows;
+
+        //Creates the list of keys for the resource table.
+        CassandraTableDescriptor tableDescriptor = storageSession.getTableDescriptor(resourceName);
+        Set<String> keys = tableDescriptor.getKeys();
+
+        List<FieldEvaluator> fieldEvaluators = new ArrayList<>();
+        collectFieldEvaluators(query.getEvaluators(), fieldEvaluators);
+        Map<String, List<Integer>> evaluatorsByName = exploreQuery(storageSession, fieldEvaluators, keys,
+                tableDescriptor.getClusteringKey());
+        int candidates = 0;
+        for(List<Integer> positions : evaluatorsByName.values()) {
+            candidates += positions.size();
+        }
+
+        //Only the columns used by the query are read: the return fields (or the primary key if the rows are read
+        //to be deleted or updated) and the columns of the evaluators and the order fields.
+        StringBuilder cqlStatement = new StringBuilder();
+        if(!keysOnly && (query.getReturnParameters() == null || query.getReturnParameters().isEmpty())) {
+            cqlStatement.append(String.format(SELECT_STATEMENT, resourceName));
+        } else {
+            cqlStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.SELECT)).append(Strings.WHITE_SPACE);
+            String argumentSeparatorValue = SystemProperties.get(SystemProperties.Query.ReservedWord.ARGUMENT_SEPARATOR);
+            String argumentSeparator = Strings.EMPTY_STRING;
+            Query.QueryReturnField queryReturnField;
+            if(keysOnly || !query.returnAll()) {
+                Set<String> columns = new HashSet<>();
+                if(keysOnly) {
+                    for(String columnName : tableDescriptor.getPrimaryKey()) {
+                        cqlStatement.append(argumentSeparator).append(columnName).append(Strings.WHITE_SPACE);
+                        argumentSeparator = argumentSeparatorValue;
+                        columns.add(columnName);
+                    }
+                } else {
+                    for (Query.QueryReturnParameter queryField : query.getReturnParameters()) {
+                        if (queryField instanceof Query.QueryReturnField) {
+                            queryReturnField = (Query.QueryReturnField) queryField;
+                            String columnName = storageSession.normalizeName(queryReturnField.getFieldName());
+                            if(tableDescriptor.hasColumn(columnName)) {
+                                cqlStatement.append(argumentSeparator);
+                                cqlStatement.append(columnName);
+                                if (queryReturnField.getAlias() != null && !queryReturnField.getAlias().isEmpty()) {
+                                    cqlStatement.append(Strings.WHITE_SPACE);
+                                    cqlStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.AS));
+                                    cqlStatement.append(Strings.WHITE_SPACE);
+                                    cqlStatement.append(storageSession.normalizeName(queryReturnField.getAlias()));
+                                } else {
+                                    columns.add(columnName);
+                                }
+                                cqlStatement.append(Strings.WHITE_SPACE);
+                                argumentSeparator = argumentSeparatorValue;
+                            }
+                        }
+                    }
+                }
+                for(String columnName : getUsedColumns(storageSession, query, fieldEvaluators)) {
+                    if(tableDescriptor.hasColumn(columnName) && columns.add(columnName)) {
+                        cqlStatement.append(argumentSeparator).append(columnName).append(Strings.WHITE_SPACE);
+                        argumentSeparator = argumentSeparatorValue;
+                    }
+                }
+            } else {
+                cqlStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.RETURN_ALL));
+                cqlStatement.append(Strings.WHITE_SPACE);
+            }
+            cqlStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.FROM)).append(Strings.WHITE_SPACE);
+            cqlStatement.append(resourceName).append(Strings.WHITE_SPACE);
+        }
+
+        String replaceableValue = SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE);
+        String and = SystemProperties.get(SystemProperties.Query.ReservedWord.AND);
+        int[] pushedEvaluators = new int[candidates];
+        boolean[] listValues = new boolean[candidates];
+        List<Evaluator> pushed = new ArrayList<>();
+        Strings.Builder cqlWhereStatement = new Strings.Builder();
+        Strings.Builder fanOutWhereStatement = new Strings.Builder();
+        List<String> partitionKey = tableDescriptor.getPartitionKey();
+        int partitionKeyEquals = 0;
+        int primaryKeyEquals = 0;
+        int partitionKeyIn = 0;
+        int fanOutValue = -1;
+        int index = 0;
+        boolean indexedColumns = false;
+        boolean otherOperators = false;
+        Set<String> equalityColumns = new HashSet<>();
+        Set<String> sliceColumns = new HashSet<>();
+        for(Map.Entry<String, List<Integer>> entry : evaluatorsByName.entrySet()) {
+            String fieldName = entry.getKey();
+            for(Integer position : entry.getValue()) {
+                Evaluator evaluator = fieldEvaluators.get(position);
+                Class evaluatorClass = evaluator.getClass();
+                String operator;
+                if(Equals.class.equals(evaluatorClass)) {
+                    operator = SystemProperties.get(SystemProperties.Query.ReservedWord.EQUALS);
+                } else if(Like.class.equals(evaluatorClass)) {
+                    operator = SystemProperties.get(SystemProperties.Query.ReservedWord.LIKE);
+                } else if(GreaterThan.class.equals(evaluatorClass)) {
+                    operator = SystemProperties.get(SystemProperties.Query.ReservedWord.GREATER_THAN);
+                } else if(GreaterThanOrEqual.class.equals(evaluatorClass)) {
+                    operator = SystemProperties.get(SystemProperties.Query.ReservedWord.GREATER_THAN_OR_EQUALS);
+                } else if(SmallerThan.class.equals(evaluatorClass)) {
+                    operator = SystemProperties.get(SystemProperties.Query.ReservedWord.SMALLER_THAN);
+                } else if(SmallerThanOrEqual.class.equals(evaluatorClass)) {
+                    operator = SystemProperties.get(SystemProperties.Query.ReservedWord.SMALLER_THAN_OR_EQUALS);
+                } else if(In.class.equals(evaluatorClass)) {
+                    if(tableDescriptor.getColumnDataType(fieldName).isCollection()) {
+                        operator = CONTAINS_RESERVED_WORD;
+                    } else {
+                        //All the elements are bound as only one list value.
+                        operator = SystemProperties.get(SystemProperties.Query.ReservedWord.IN);
+                        listValues[index] = true;
+                        if(partitionKey.contains(fieldName)) {
+                            partitionKeyIn++;
+                            fanOutValue = index;
+                        }
+                    }
+                } else {
+                    //The evaluator is not resolved by cassandra then the evaluator is part of the residual query.
+                    continue;
+                }
+                if(Equals.class.equals(evaluatorClass) || listValues[index]) {
+                    equalityColumns.add(fieldName);
+                } else if(isLowerBound((FieldEvaluator) evaluator) || isUpperBound((FieldEvaluator) evaluator)) {
+                    sliceColumns.add(fieldName);
+                } else {
+                    otherOperators = true;
+                }
+                if(Equals.class.equals(evaluatorClass) && partitionKey.contains(fieldName)) {
+                    partitionKeyEquals++;
+                }
+                if(Equals.class.equals(evaluatorClass) && tableDescriptor.getPrimaryKey().contains(fieldName)) {
+                    primaryKeyEquals++;
+                }
+                cqlWhereStatement.append(fieldName).append(Strings.WHITE_SPACE);
+                cqlWhereStatement.append(operator).append(Strings.WHITE_SPACE);
+                cqlWhereStatement.append(replaceableValue, Strings.WHITE_SPACE, and, Strings.WHITE_SPACE);
+                //In the fan out statement the 'in' of the partition key is replaced by an equality.
+                fanOutWhereStatement.append(fieldName).append(Strings.WHITE_SPACE);
+                fanOutWhereStatement.append(fanOutValue == index ?
+                        SystemProperties.get(SystemProperties.Query.ReservedWord.EQUALS) : operator).append(Strings.WHITE_SPACE);
+                fanOutWhereStatement.append(replaceableValue, Strings.WHITE_SPACE, and, Strings.WHITE_SPACE);
+                pushedEvaluators[index++] = position;
+                pushed.add(evaluator);
+                if(!tableDescriptor.getPrimaryKey().contains(fieldName)) {
+                    indexedColumns = true;
+                }
+            }
+        }
+
+        this.pushedEvaluators = Arrays.copyOf(pushedEvaluators, index);
+        this.listValues = Arrays.copyOf(listValues, index);
+
+        //The query can be split into single partition queries only if one column of the partition key has
+        //an 'in' evaluator and all the other columns of the partition key have an equals evaluator.
+        StringBuilder fanOutCqlStatement = null;
+        if(partitionKeyIn == 1 && partitionKeyEquals == partitionKey.size() - 1) {
+            fanOutCqlStatement = new StringBuilder(cqlStatement);
+            fanOutCqlStatement.append(String.format(SELECT_WHERE_STATEMENT, fanOutWhereStatement.toString()));
+        } else {
+            fanOutValue = -1;
+        }
+
+        if(cqlWhereStatement.length() > 0) {
+            cqlStatement.append(String.format(SELECT_WHERE_STATEMENT, cqlWhereStatement.toString()));
+        }
+
+        //The order is resolved by cassandra if the rows are read from only one partition without secondary
+        //indexes, and the order fields are a prefix of the clustering columns.
+        String orderStatement = null;
+        if(partitionKeyEquals == partitionKey.size() && !indexedColumns) {
+            orderStatement = createOrderStatement(storageSession, query, tableDescriptor);
+        }
+        if(orderStatement != null) {
+            cqlStatement.append(orderStatement);
+        }
+        this.ordered = query.getOrderParameters() == null || query.getOrderParameters().isEmpty() || orderStatement != null;
+
+        //The evaluators that aren't part of the where clause are kept by the residual query, in this case
+        //the limit can't be resolved by cassandra. If the rows are not returned in the order of the query then
+        //the limit can't be resolved by cassandra neither.
+        boolean residualEvaluators = query.reduce(pushed).hasEvaluators();
+        this.bindLimit = limitRows && query.getLimit() != null && ordered && !residualEvaluators;
+        if(bindLimit) {
+            cqlStatement.append(String.format(SELECT_LIMIT_STATEMENT, replaceableValue));
+            if(fanOutCqlStatement != null) {
+                fanOutCqlStatement.append(String.format(SELECT_LIMIT_STATEMENT, replaceableValue));
+            }
+        }
+
+        //If cassandra doesn't resolve any evaluator and the rows are not limited then all the table is read,
+        //in this case the table can be scanned in parallel by ranges of tokens.
+        String scanCqlStatement = null;
+        if(index == 0 && !bindLimit) {
+            String token = String.format(TOKEN_FUNCTION, String.join(
+                    SystemProperties.get(SystemProperties.Query.ReservedWord.ARGUMENT_SEPARATOR), partitionKey));
+            Strings.Builder scanWhereStatement = new Strings.Builder();
+            scanWhereStatement.append(token).append(Strings.WHITE_SPACE);
+            scanWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.GREATER_THAN)).append(Strings.WHITE_SPACE);
+            scanWhereStatement.append(replaceableValue, Strings.WHITE_SPACE, and, Strings.WHITE_SPACE);
+            scanWhereStatement.append(token).append(Strings.WHITE_SPACE);
+            scanWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.SMALLER_THAN_OR_EQUALS)).append(Strings.WHITE_SPACE);
+            scanWhereStatement.append(replaceableValue, Strings.WHITE_SPACE, and, Strings.WHITE_SPACE);
+            scanCqlStatement = cqlStatement.toString() + String.format(SELECT_WHERE_STATEMENT, scanWhereStatement.toString());
+        }
+
+        //The rows read by the complete primary key, without other restrictions and with all the columns, can be
+        //taken from the near cache.
+        this.primaryKeyLookup = !keysOnly && index == primaryKeyEquals &&
+                primaryKeyEquals == tableDescriptor.getPrimaryKey().size() && (query.getReturnParameters() == null || query.getReturnParameters().isEmpty() || query.returnAll());
+        this.cqlStatement = cqlStatement.toString();
+        this.scanCqlStatement = scanCqlStatement;
+
+        //The rows can be deleted or updated with a single statement if cassandra resolves all the evaluators and
+        //the evaluators restrict the complete partition key and a prefix of the clustering columns by equality,
+        //optionally followed by a slice of the next clustering column.
+        int mutationScope = NO_MUTATION;
+        if(!indexedColumns && !otherOperators && !residualEvaluators && query.getStart() == null &&
+                query.getLimit() == null && equalityColumns.containsAll(partitionKey) &&
+                Collections.disjoint(sliceColumns, partitionKey)) {
+            mutationScope = getMutationScope(tableDescriptor.getClusteringKey(), equalityColumns, sliceColumns);
+        }
+        this.mutationWhereStatement = mutationScope == NO_MUTATION ? null : cqlWhereStatement.toString();
+        this.rowMutation = mutationScope == ROW_MUTATION;
+        this.fanOutCqlStatement = fanOutCqlStatement == null ? null : fanOutCqlStatement.toString();
+        this.fanOutValue = fanOutValue;
+    }
+
+    /**
+     * Return the set of rows that can be mutated with the restrictions of the clustering columns. The restricted
+     * columns must be a prefix of the clustering columns restricted by equality, optionally followed by a slice.
+     * @param clusteringKey Clustering columns of the table.
+     * @param equalityColumns Columns restricted by equality or by 'in'.
+     * @param sliceColumns Columns restricted by a bound.
+     * @return Row mutation if all the clustering columns are restricted by equality, range mutation if the restrictions
+     * select a partition, a prefix or a slice, or no mutation if cassandra can't mutate the rows with a single statement.
+     */
+    private static int getMutationScope(List<String> clusteringKey, Set<String> equalityColumns, Set<String> sliceColumns) {
+        int equalityPrefix = 0;
+        boolean prefixEnded = false;
+        for(String column : clusteringKey) {
+            boolean equality = equalityColumns.contains(column);
+            boolean slice = sliceColumns.contains(column);
+            if(prefixEnded) {
+                if(equality || slice) {
+                    return NO_MUTATION;
+                }
+            } else if(equality && !slice) {
+                equalityPrefix++;
+            } else if(equality) {
+                return NO_MUTATION;
+            } else {
+                prefixEnded = true;
+            }
+        }
+        return equalityPrefix == clusteringKey.size() ? ROW_MUTATION : RANGE_MUTATION;
+    }
+
+    /**
+     * Return the columns used by the evaluators and the order fields of the query, these columns are read
+     * in order to evaluate the residual query over the rows.
+     * @param storageSession Storage session.
+     * @param query Query.
+     * @param fieldEvaluators Field evaluators of the query.
+     * @return Normalized names of the used columns.
+     */
+    private static Set<String> getUsedColumns(CassandraStorageSession storageSession, Query query,
+                                              List<FieldEvaluator> fieldEvaluators) {
+        Set<String> result = new LinkedHashSet<>();
+        for(FieldEvaluator fieldEvaluator : fieldEvaluators) {
+            result.add(storageSession.normalizeName(((Query.QueryField) fieldEvaluator.getQueryParameter()).getFieldName()));
+        }
+        if(query.getOrderParameters() != null) {
+            for(Query.QueryOrderParameter orderParameter : query.getOrderParameters()) {
+                if(orderParameter instanceof Query.QueryOrderField) {
+                    result.add(storageSession.normalizeName(((Query.QueryOrderField) orderParameter).getFieldName()));
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates the order clause of the statement. Cassandra can return the rows of a partition only in the
+     * clustering order of the table or in the reverse order, then the order fields must be a prefix of the
+     * clustering columns and all of them must have the clustering order or all of them the reverse order.
+     * @param storageSession Storage session.
+     * @param query Query with the order fields.
+     * @param tableDescriptor Table descriptor.
+     * @return Order clause or null if the order can't be resolved by cassandra.
+     */
+    private static String createOrderStatement(CassandraStorageSession storageSession, Query query,
+                                               CassandraTableDescriptor tableDescriptor) {
+        List<Query.QueryOrderParameter> orderParameters = query.getOrderParameters();
+        List<String> clusteringKey = tableDescriptor.getClusteringKey();
+        if(orderParameters == null || orderParameters.isEmpty() || orderParameters.size() > clusteringKey.size()) {
+            return null;
+        }
+
+        String argumentSeparator = SystemProperties.get(SystemProperties.Query.ReservedWord.ARGUMENT_SEPARATOR);
+        Strings.Builder orderFields = new Strings.Builder();
+        Boolean reversed = null;
+        for (int i = 0; i < orderParameters.size(); i++) {
+            Query.QueryOrderParameter orderParameter = orderParameters.get(i);
+            if(!(orderParameter instanceof Query.QueryOrderField)) {
+                return null;
+            }
+            String columnName = storageSession.normalizeName(((Query.QueryOrderField) orderParameter).getFieldName());
+            if(!columnName.equals(clusteringKey.get(i))) {
+                return null;
+            }
+            boolean columnReversed = orderParameter.isDesc() !=
+                    ClusteringOrder.DESC.equals(tableDescriptor.getClusteringOrder().get(i));
+            if(reversed != null && reversed != columnReversed) {
+                return null;
+            }
+            reversed = columnReversed;
+            orderFields.append(columnName).append(Strings.WHITE_SPACE);
+            orderFields.append(orderParameter.isDesc() ? ClusteringOrder.DESC : ClusteringOrder.ASC, argumentSeparator);
+        }
+        return String.format(SELECT_ORDER_STATEMENT,
+                SystemProperties.get(SystemProperties.Query.ReservedWord.ORDER_BY), orderFields.toString());
+    }
+
+    /**
+     * Collects the field evaluators of the query in depth order, the position of each evaluator into this
+     * list is the same for all the queries with the same shape.
+     * @param evaluators Evaluators of the query or of an evaluator collection.
+     * @param fieldEvaluators List where the field evaluators are collected.
+     */
+    private static void collectFieldEvaluators(Collection<Evaluator> evaluators, List<FieldEvaluator> fieldEvaluators) {
+        for(Evaluator evaluator : evaluators) {
+            if(evaluator instanceof EvaluatorCollection) {
+                collectFieldEvaluators(((EvaluatorCollection) evaluator).getEvaluators(), fieldEvaluators);
+            } else if(evaluator instanceof FieldEvaluator) {
+                fieldEvaluators.add((FieldEvaluator) evaluator);
+            }
+        }
+    }
+
+    /**
+     * Verify if the evaluator's field is into the list of keys in order to known which of the evaluators
+     * is a candidate to create the cassandra statement. If there are more than one evaluator for the same field
+     * with the same type then only the first one is resolved by cassandra, and if the types are different
+     * then the field is resolved by the residual query. The only exception is a lower bound and an upper bound
+     * over the same clustering column, both bounds are resolved by cassandra as a slice of the partition.
+     * @param storageSession Storage session.
+     * @param fieldEvaluators Field evaluators of the query in depth order.
+     * @param keys Data base table keys.
+     * @param clusteringKey Clustering columns of the table.
+     * @return Positions of the candidate evaluators indexed by normalized field name.
+     */
+    private static Map<String, List<Integer>> exploreQuery(CassandraStorageSession storageSession,
+                                                           List<FieldEvaluator> fieldEvaluators, Set<String> keys,
+                                                           List<String> clusteringKey) {
+        Map<String, List<Integer>> evaluatorsByName = new LinkedHashMap<>();
+        for (int i = 0; i < fieldEvaluators.size(); i++) {
+            FieldEvaluator fieldEvaluator = fieldEvaluators.get(i);
+            String normalizedFieldName = storageSession.normalizeName(((Query.QueryField)fieldEvaluator.getQueryParameter()).getFieldName());
+            if (keys.contains(normalizedFieldName)) {
+                List<Integer> positions = evaluatorsByName.get(normalizedFieldName);
+                if (positions == null) {
+                    positions = new ArrayList<>(2);
+                    positions.add(i);
+                    evaluatorsByName.put(normalizedFieldName, positions);
+                } else if (positions.size() == 1 && clusteringKey.contains(normalizedFieldName) &&
+                        isSlice(fieldEvaluators.get(positions.get(0)), fieldEvaluator)) {
+                    positions.add(i);
+                } else if (!isSameType(positions, fieldEvaluators, fieldEvaluator)) {
+                    evaluatorsByName.remove(normalizedFieldName);
+                }
+            }
+        }
+        return evaluatorsByName;
+    }
+
+    /**
+     * Verify if one of the evaluators is a lower bound and the other one is an upper bound.
+     * @param evaluator First evaluator.
+     * @param otherEvaluator Second evaluator.
+     * @return Return true if the evaluators are the bounds of a slice.
+     */
+    private static boolean isSlice(FieldEvaluator evaluator, FieldEvaluator otherEvaluator) {
+        return (isLowerBound(evaluator) && isUpperBound(otherEvaluator)) ||
+                (isUpperBound(evaluator) && isLowerBound(otherEvaluator));
+    }
+
+    private static boolean isLowerBound(FieldEvaluator evaluator) {
+        return GreaterThan.class.equals(evaluator.getClass()) || GreaterThanOrEqual.class.equals(evaluator.getClass());
+    }
+
+    private static boolean isUpperBound(FieldEvaluator evaluator) {
+        return SmallerThan.class.equals(evaluator.getClass()) || SmallerThanOrEqual.class.equals(evaluator.getClass());
+    }
+
+    /**
+     * Verify if some of the candidate evaluators of the field has the same type that the evaluator.
+     * @param positions Positions of the candidate evaluators.
+     * @param fieldEvaluators Field evaluators of the query.
+     * @param fieldEvaluator Evaluator to verify.
+     * @return Return true if the type of the evaluator is already a candidate.
+     */
+    private static boolean isSameType(List<Integer> positions, List<FieldEvaluator> fieldEvaluators,
+                                      FieldEvaluator fieldEvaluator) {
+        boolean result = false;
+        for(Integer position : positions) {
+            if(fieldEvaluator.getClass().equals(fieldEvaluators.get(position).getClass())) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the name of the table.
+     * @return Table name.
+     */
+    public String getResourceName() {
+        return resourceName;
+    }
+
+    /**
+     * Return the cql statement of the plan.
+     * @return Cql statement.
+     */
+    public String getCqlStatement() {
+        return cqlStatement;
+    }
+
+    /**
+     * Verify if the plan can be executed as a set of concurrent single partition queries.
+     * @return Return true if the query has an 'in' evaluator over the partition key.
+     */
+    public boolean isFanOut() {
+        return fanOutCqlStatement != null;
+    }
+
+    /**
+     * Return the cql statement of each single partition query, the 'in' of the partition key
+     * is replaced by an equality.
+     * @return Fan out cql statement or null if the plan can't be executed as single partition queries.
+     */
+    public String getFanOutCqlStatement() {
+        return fanOutCqlStatement;
+    }
+
+    /**
+     * Return the number of partitions of the 'in' evaluator over the partition key.
+     * @param values Values of the statement.
+     * @return Number of partitions.
+     */
+    public int getFanOutSize(List<Object> values) {
+        return ((List) values.get(fanOutValue)).size();
+    }
+
+    /**
+     * Creates the values of each single partition query, one for each distinct element of the 'in' evaluator.
+     * @param values Values of the statement.
+     * @return List with the values of each single partition query.
+     */
+    public List<List<Object>> getFanOutValues(List<Object> values) {
+        List<List<Object>> result = new ArrayList<>();
+        for(Object partition : new LinkedHashSet<Object>((List) values.get(fanOutValue))) {
+            List<Object> partitionValues = new ArrayList<>(values);
+            partitionValues.set(fanOutValue, partition);
+            result.add(partitionValues);
+        }
+        return result;
+    }
+
+    /**
+     * Return the max number of rows of the query when the limit is resolved by cassandra.
+     * @param values Values of the statement.
+     * @return Max number of rows or null if the limit is not bound.
+     */
+    public Integer getRowLimit(List<Object> values) {
+        return bindLimit ? (Integer) values.get(values.size() - 1) : null;
+    }
+
+    /**
+     * Verify if the query reads only one row by the complete primary key and all the columns of the row.
+     * @return Return true if all the primary key columns have an equals evaluator and there are not other
+     * evaluators resolved by cassandra.
+     */
+    public boolean isPrimaryKeyLookup() {
+        return primaryKeyLookup;
+    }
+
+    /**
+     * Verify if the rows found by the query can be deleted with a single statement.
+     * @return Return true if the query restricts the complete partition key and a prefix or a slice of the
+     * clustering columns, without other evaluators, start or limit.
+     */
+    public boolean isSetDelete() {
+        return mutationWhereStatement != null;
+    }
+
+    /**
+     * Verify if the rows found by the query can be updated with a single statement.
+     * @return Return true if the query restricts all the primary key columns by equality or 'in', without other
+     * evaluators, start or limit.
+     */
+    public boolean isSetUpdate() {
+        return rowMutation;
+    }
+
+    /**
+     * Return the number of rows addressed by the values of a row mutation, the product of the number of
+     * values of each restriction. If the query finds the same number of rows then all the addressed rows exist,
+     * and the update statement doesn't create new rows.
+     * @param values Values of the statement.
+     * @return Number of addressed rows.
+     */
+    public long getAddressedRows(List<Object> values) {
+        long result = 1;
+        for (int i = 0; i < listValues.length; i++) {
+            if(listValues[i]) {
+                result *= ((Collection) values.get(i)).size();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the 'where' part of the delete or update statement that mutates the rows found by the query, the
+     * values of the statement are the values of the select statement.
+     * @return Where part of the mutation statement or null if the rows can't be mutated with a single statement.
+     */
+    public String getMutationWhereStatement() {
+        return mutationWhereStatement;
+    }
+
+    /**
+     * Verify if cassandra returns the rows in the order of the query.
+     * @return Return true if the query has not order fields or if the order is resolved by cassandra.
+     */
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * Verify if the plan can be executed as a parallel scan of the token ring.
+     * @return Return true if cassandra doesn't resolve any evaluator and the rows are not limited.
+     */
+    public boolean isScan() {
+        return scanCqlStatement != null;
+    }
+
+    /**
+     * Return the cql statement that reads a range of tokens, the start of the range is exclusive and
+     * the end is inclusive.
+     * @return Scan cql statement or null if the plan can't be executed as a scan.
+     */
+    public String getScanCqlStatement() {
+        return scanCqlStatement;
+    }
+
+    /**
+     * Return the evaluators of the query resolved by cassandra, in the same order that the places of the
+     * where clause.
+     * @param query Query with the same shape that the plan.
+     * @return Evaluators resolved by cassandra.
+     */
+    public List<FieldEvaluator> getPushedEvaluators(Query query) {
+        List<FieldEvaluator> fieldEvaluators = new ArrayList<>();
+        collectFieldEvaluators(query.getEvaluators(), fieldEvaluators);
+        List<FieldEvaluator> result = new ArrayList<>(pushedEvaluators.length);
+        for(int position : pushedEvaluators) {
+            result.add(fieldEvaluators.get(position));
+        }
+        return result;
+    }
+
+    /**
+     * Return the values of the statement.
+     * @param query Query with the same shape that the plan.
+     * @param pushedEvaluators Evaluators of the query resolved by cassandra.
+     * @param params Query parameters.
+     * @return Values of the statement.
+     */
+    public List<Object> getValues(Query query, List<FieldEvaluator> pushedEvaluators, Object... params) {
+        List<Object> values = new ArrayList<>(pushedEvaluators.size() + 1);
+        for (int i = 0; i < pushedEvaluators.size(); i++) {
+            Object value = pushedEvaluators.get(i).getValue(null, null, null, params);
+            if(listValues[i]) {
+                if(value instanceof Collection) {
+                    value = new ArrayList<>((Collection) value);
+                } else {
+                    value = Arrays.asList((Object[]) value);
+                }
+            }
+            values.add(value);
+        }
+        if(bindLimit) {
+            values.add(query.getStart() != null ? query.getStart() + query.getLimit() : query.getLimit());
+        }
+        return values;
+    }
+
+    /**
+     * Creates the copy of the query with the evaluators that must be evaluated over the rows returned by cassandra.
+     * @param query Query with the same shape that the plan.
+     * @param pushedEvaluators Evaluators of the query resolved by cassandra.
+     * @return Residual query.
+     */
+    public Query getResidualQuery(Query query, List<FieldEvaluator> pushedEvaluators) {
+        for(Evaluator evaluator : pushedEvaluators) {
+            Query.skipEvaluator(evaluator);
+        }
+        Query result = query.reduce(new ArrayList<>(pushedEvaluators));
+        if(!limitRows) {
+            result.setStart(null);
+            result.setLimit(null);
+        }
+        return result;
+    }
+
+    /**
+     * Key of the select plans, composed by the elements of the query that change the statement.
+     */
+    public static final class Key {
+
+        private static final Object START_COLLECTION = new Object();
+        private static final Object END_COLLECTION = new Object();
+        private static final Integer NO_RETURN_FIELDS = 0;
+        private static final Integer RETURN_ALL = 1;
+        private static final Integer RETURN_FIELDS = 2;
+
+        private final List<Object> shape;
+        private final int hashCode;
+
+        public Key(CassandraStorageSession storageSession, Query query, boolean limitRows, boolean keysOnly) {
+            shape = new ArrayList<>();
+            shape.add(storageSession.normalizeName(query.getResourceName()));
+            shape.add(limitRows);
+            shape.add(keysOnly);
+            shape.add(query.getLimit() != null);
+            shape.add(query.getStart() != null);
+            if(query.getReturnParameters() == null || query.getReturnParameters().isEmpty()) {
+                shape.add(NO_RETURN_FIELDS);
+            } else if(query.returnAll()) {
+                shape.add(RETURN_ALL);
+            } else {
+                shape.add(RETURN_FIELDS);
+                for(Query.QueryReturnParameter returnParameter : query.getReturnParameters()) {
+                    if(returnParameter instanceof Query.QueryReturnField) {
+                        shape.add(storageSession.normalizeName(((Query.QueryReturnField) returnParameter).getFieldName()));
+                        shape.add(((Query.QueryReturnField) returnParameter).getAlias());
+                    }
+                }
+            }
+            if(query.getOrderParameters() != null) {
+                for(Query.QueryOrderParameter orderParameter : query.getOrderParameters()) {
+                    shape.add(orderParameter instanceof Query.QueryOrderField ?
+                            storageSession.normalizeName(((Query.QueryOrderField) orderParameter).getFieldName()) :
+                            orderParameter.getClass());
+                    shape.add(orderParameter.isDesc());
+                }
+            }
+            addEvaluators(storageSession, query.getEvaluators());
+            hashCode = shape.hashCode();
+        }
+
+        /**
+         * Adds the type of each evaluator and the field of the field evaluators.
+         * @param storageSession Storage session.
+         * @param evaluators Evaluators of the query or of an evaluator collection.
+         */
+        private void addEvaluators(CassandraStorageSession storageSession, Collection<Evaluator> evaluators) {
+            shape.add(START_COLLECTION);
+            for(Evaluator evaluator : evaluators) {
+                shape.add(evaluator.getClass());
+                if(evaluator instanceof EvaluatorCollection) {
+                    addEvaluators(storageSession, ((EvaluatorCollection) evaluator).getEvaluators());
+                } else if(evaluator instanceof FieldEvaluator) {
+                    shape.add(storageSession.normalizeName(((Query.QueryField)
+                            ((FieldEvaluator) evaluator).getQueryParameter()).getFieldName()));
+                }
+            }
+            shape.add(END_COLLECTION);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            boolean result = false;
+            if(this == other) {
+                result = true;
+            } else if(other instanceof Key) {
+                result = hashCode == ((Key) other).hashCode && shape.equals(((Key) other).shape);
+            }
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
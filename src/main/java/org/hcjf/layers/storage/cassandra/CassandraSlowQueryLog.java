@@ -0,0 +1,265 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.*;
+import org.hcjf.layers.storage.cassandra.properties.CassandraProperties;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+
+import java.net.InetSocketAddress;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class records the queries that take more time than the threshold into a fixed size ring buffer.
+ * Each record contains the time of the execution into the cluster, the time of the client side processing
+ * (parsing and post evaluation), the coordinator, the number of tried hosts and the warnings of the execution,
+ * as tombstone or large batch warnings.
+ * The server side tracing is enabled only for a sample of the executions of the cql templates that were
+ * already recorded as slow, then the tracing doesn't add load for the fast queries.
+ * @author javaito
+ */
+public class CassandraSlowQueryLog {
+
+    private final boolean enabled;
+    private final long thresholdNanos;
+    private final int samplingRate;
+    private final AtomicReferenceArray<Entry> entries;
+    private final AtomicLong index;
+    private final Set<String> slowTemplates;
+
+    public CassandraSlowQueryLog(boolean enabled, long thresholdMillis, int samplingRate, int capacity) {
+        this.enabled = enabled;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.samplingRate = Math.max(1, samplingRate);
+        this.entries = new AtomicReferenceArray<>(Math.max(1, capacity));
+        this.index = new AtomicLong();
+        this.slowTemplates = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Creates the slow query log using the values of the properties.
+     * @return Slow query log.
+     */
+    public static CassandraSlowQueryLog create() {
+        return new CassandraSlowQueryLog(
+                SystemProperties.getBoolean(CassandraProperties.SlowQuery.CASSANDRA_STORAGE_LAYER_SLOW_QUERY_ENABLED),
+                SystemProperties.getInteger(CassandraProperties.SlowQuery.CASSANDRA_STORAGE_LAYER_SLOW_QUERY_THRESHOLD),
+                SystemProperties.getInteger(CassandraProperties.SlowQuery.CASSANDRA_STORAGE_LAYER_SLOW_QUERY_SAMPLING_RATE),
+                SystemProperties.getInteger(CassandraProperties.SlowQuery.CASSANDRA_STORAGE_LAYER_SLOW_QUERY_CAPACITY));
+    }
+
+    /**
+     * This method must be called before the execution of the statement, the tracing of the statement
+     * is enabled if the template was slow before and the execution is part of the sample.
+     * @param statement Statement to execute.
+     */
+    public void beforeExecution(BoundStatement statement) {
+        if(enabled && !slowTemplates.isEmpty() &&
+                slowTemplates.contains(statement.preparedStatement().getQueryString()) &&
+                ThreadLocalRandom.current().nextInt(samplingRate) == 0) {
+            statement.enableTracing();
+        }
+    }
+
+    /**
+     * This method must be called after the execution and the processing of the result, the execution
+     * is recorded if the total time is greater or equals than the threshold.
+     * @param statement Executed statement.
+     * @param description Description of the statement, its string representation is created only if
+     *                    the execution is recorded.
+     * @param resultSet Result set of the execution.
+     * @param startTime Start time of the execution, taken from {@link System#nanoTime()}.
+     * @param executionEndTime End time of the execution into the cluster.
+     * @param endTime End time of the client side processing.
+     * @param rows Number of rows processed.
+     */
+    public void afterExecution(BoundStatement statement, Object description, ResultSet resultSet,
+                               long startTime, long executionEndTime, long endTime, int rows) {
+        if(enabled && endTime - startTime >= thresholdNanos) {
+            String template = statement.preparedStatement().getQueryString();
+            slowTemplates.add(template);
+
+            ExecutionInfo executionInfo = resultSet.getExecutionInfo();
+            Entry entry = new Entry(System.currentTimeMillis(), template, description.toString(),
+                    executionEndTime - startTime, endTime - executionEndTime, rows,
+                    executionInfo.getQueriedHost() == null ? null : executionInfo.getQueriedHost().getSocketAddress(),
+                    executionInfo.getTriedHosts().size(), executionInfo.getSpeculativeExecutions(),
+                    executionInfo.getWarnings(), statement.isTracing() ? executionInfo.getQueryTrace() : null);
+            entries.set((int) (index.getAndIncrement() % entries.length()), entry);
+            Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG), "Slow query: %s", entry);
+        }
+    }
+
+    /**
+     * Return the recorded entries, from the oldest to the newest.
+     * @return Recorded entries.
+     */
+    public List<Entry> dump() {
+        List<Entry> result = new ArrayList<>();
+        long currentIndex = index.get();
+        long first = Math.max(0, currentIndex - entries.length());
+        Entry entry;
+        for (long i = first; i < currentIndex; i++) {
+            entry = entries.get((int) (i % entries.length()));
+            if(entry != null) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Remove all the recorded entries and the slow templates.
+     */
+    public void clear() {
+        for (int i = 0; i < entries.length(); i++) {
+            entries.set(i, null);
+        }
+        slowTemplates.clear();
+    }
+
+    /**
+     * Record of a slow execution.
+     */
+    public static final class Entry {
+
+        private final long timestamp;
+        private final String template;
+        private final String statement;
+        private final long executionNanos;
+        private final long processingNanos;
+        private final int rows;
+        private final InetSocketAddress coordinator;
+        private final int triedHosts;
+        private final int speculativeExecutions;
+        private final List<String> warnings;
+        private final QueryTrace trace;
+
+        private Entry(long timestamp, String template, String statement, long executionNanos, long processingNanos,
+                      int rows, InetSocketAddress coordinator, int triedHosts, int speculativeExecutions,
+                      List<String> warnings, QueryTrace trace) {
+            this.timestamp = timestamp;
+            this.template = template;
+            this.statement = statement;
+            this.executionNanos = executionNanos;
+            this.processingNanos = processingNanos;
+            this.rows = rows;
+            this.coordinator = coordinator;
+            this.triedHosts = triedHosts;
+            this.speculativeExecutions = speculativeExecutions;
+            this.warnings = warnings == null ? Collections.emptyList() : Collections.unmodifiableList(warnings);
+            this.trace = trace;
+        }
+
+        /**
+         * Return the time when the entry was recorded.
+         * @return Timestamp in milliseconds.
+         */
+        public long getTimestamp() {
+            return timestamp;
+        }
+
+        /**
+         * Return the cql template.
+         * @return Cql template.
+         */
+        public String getTemplate() {
+            return template;
+        }
+
+        /**
+         * Return the description of the executed statement.
+         * @return Statement description.
+         */
+        public String getStatement() {
+            return statement;
+        }
+
+        /**
+         * Return the time since the statement was sent until the first page was received.
+         * @return Execution time in nanoseconds.
+         */
+        public long getExecutionNanos() {
+            return executionNanos;
+        }
+
+        /**
+         * Return the time of the client side processing: fetch of the next pages, parsing and post evaluation.
+         * @return Processing time in nanoseconds.
+         */
+        public long getProcessingNanos() {
+            return processingNanos;
+        }
+
+        /**
+         * Return the number of rows processed.
+         * @return Number of rows.
+         */
+        public int getRows() {
+            return rows;
+        }
+
+        /**
+         * Return the address of the coordinator.
+         * @return Coordinator address.
+         */
+        public InetSocketAddress getCoordinator() {
+            return coordinator;
+        }
+
+        /**
+         * Return the number of hosts tried, including the speculative executions.
+         * @return Number of tried hosts.
+         */
+        public int getTriedHosts() {
+            return triedHosts;
+        }
+
+        /**
+         * Return the number of retries, it's the number of tried hosts that are not the first host or
+         * a speculative execution.
+         * @return Number of retries.
+         */
+        public int getRetries() {
+            return Math.max(0, triedHosts - 1 - speculativeExecutions);
+        }
+
+        /**
+         * Return the number of speculative executions started.
+         * @return Number of speculative executions.
+         */
+        public int getSpeculativeExecutions() {
+            return speculativeExecutions;
+        }
+
+        /**
+         * Return the warnings sent by the server, as tombstone or large batch warnings.
+         * @return Server warnings.
+         */
+        public List<String> getWarnings() {
+            return warnings;
+        }
+
+        /**
+         * Return the server side trace, the trace exists only if the execution was sampled.
+         * @return Query trace or null.
+         */
+        public QueryTrace getTrace() {
+            return trace;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("{timestamp: %d, template: %s, statement: %s, execution: %d us, processing: %d us, " +
+                            "rows: %d, coordinator: %s, triedHosts: %d, retries: %d, speculativeExecutions: %d, " +
+                            "warnings: %s, traceId: %s}",
+                    timestamp, template, statement, TimeUnit.NANOSECONDS.toMicros(executionNanos),
+                    TimeUnit.NANOSECONDS.toMicros(processingNanos), rows, coordinator, triedHosts, getRetries(),
+                    speculativeExecutions, warnings, trace == null ? null : trace.getTraceId());
+        }
+    }
+}
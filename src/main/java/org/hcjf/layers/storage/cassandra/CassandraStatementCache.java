@@ -0,0 +1,100 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Session;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.hcjf.layers.storage.StorageAccessException;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of prepared statements indexed by the cql text, shared by all
+ * the sessions of the same storage layer. When the cache is full the least recently
+ * used statement is evicted.
+ * @author javaito
+ */
+public class CassandraStatementCache {
+
+    private final Cache<String, PreparedStatement> cache;
+    private final AtomicLong invalidations;
+
+    public CassandraStatementCache(int maxSize) {
+        this.cache = CacheBuilder.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        this.invalidations = new AtomicLong();
+    }
+
+    /**
+     * Return the prepared statement associated to the cql text, if the statement is not
+     * in the cache then it is prepared using the cassandra session. Concurrent requests for
+     * the same cql text wait for a single prepare operation. The prepared statement is marked as idempotent
+     * or not idempotent according to the cql text, and the bound statements inherit the mark.
+     * @param session Cassandra session used to prepare the statement.
+     * @param cqlStatement Cql statement.
+     * @return Prepared statement.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public PreparedStatement get(Session session, String cqlStatement) throws StorageAccessException {
+        try {
+            return cache.get(cqlStatement, () -> session.prepare(cqlStatement)
+                    .setIdempotent(CassandraIdempotence.isIdempotent(cqlStatement)));
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            throw new StorageAccessException("Unable to prepare statement: " + cqlStatement, ex.getCause());
+        }
+    }
+
+    /**
+     * Discards all the prepared statements, the next use of each cql text prepares the statement
+     * again. This method is called when the schema of the key space changes, because the statements
+     * prepared before the change keep the old result metadata.
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        invalidations.incrementAndGet();
+    }
+
+    /**
+     * Return the number of statements into the cache.
+     * @return Cache size.
+     */
+    public long size() {
+        return cache.size();
+    }
+
+    /**
+     * Return the number of times that a statement was found into the cache.
+     * @return Hit count.
+     */
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    /**
+     * Return the number of times that a statement was prepared because it was not into the cache.
+     * @return Miss count.
+     */
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    /**
+     * Return the number of statements evicted because the cache was full.
+     * @return Eviction count.
+     */
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Return the number of times that the whole cache was invalidated by schema changes.
+     * @return Invalidation count.
+     */
+    public long getInvalidationCount() {
+        return invalidations.get();
+    }
+}
@@ -2,20 +2,40 @@ package org.hcjf.layers.storage.cassandra;
 
 import com.datastax.driver.core.*;
 import com.datastax.driver.core.policies.LoadBalancingPolicy;
+import com.datastax.driver.core.policies.PercentileSpeculativeExecutionPolicy;
 import com.datastax.driver.core.policies.Policies;
 import com.datastax.driver.core.policies.ReconnectionPolicy;
+import com.datastax.driver.core.policies.TokenAwarePolicy;
+import com.codahale.metrics.JmxReporter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.socket.SocketChannel;
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.StorageAccessException;
 import org.hcjf.layers.storage.StorageLayer;
 import org.hcjf.layers.storage.cassandra.properties.CassandraProperties;
 import org.hcjf.log.Log;
 import org.hcjf.names.CassandraNaming;
 import org.hcjf.names.Naming;
 import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Introspection;
+import org.hcjf.utils.Strings;
 
 import java.net.InetAddress;
 import java.net.UnknownHostException;
-import java.util.ArrayList;
-import java.util.Formatter;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * This class implements the storage layer to work with cassandra data base.
@@ -23,12 +43,51 @@ import java.util.List;
  */
 public abstract class CassandraStorageLayer<S extends CassandraStorageSession> extends StorageLayer<S> {
 
+    private static final String BYTES_READ_HANDLER_NAME = "bytesReadCounter";
+    private static final int DEFAULT_CACHE_MAX_SIZE = 1000;
+    private static final CassandraNaming NAMING = new CassandraNaming();
+
+    static {
+        Naming.addNamingConsumer(NAMING);
+    }
+
     private Cluster cluster;
     private Session session;
+    private CassandraStatementCache statementCache;
+    private final Cache<String, CassandraTableDescriptor> tableDescriptors;
+    private final Cache<CassandraRowMapper.Key, CassandraRowMapper> rowMappers;
+    private final Cache<CassandraWritePlan.Key, CassandraWritePlan> writePlans;
+    private final Cache<CassandraSelectPlan.Key, CassandraSelectPlan> selectPlans;
+    private ExecutorService asyncExecutor;
+    private CassandraMetrics metrics;
+    private JmxReporter jmxReporter;
+    private CassandraSlowQueryLog slowQueryLog;
+    private final CassandraRoutingKeys routingKeys;
+    private CassandraTokenRanges tokenRanges;
+    private CassandraNearCache nearCache;
+    private CassandraCounterAccumulator counterAccumulator;
 
     public CassandraStorageLayer(String implName) {
         super(implName);
-        Naming.addNamingConsumer(new CassandraNaming());
+        int planCacheMaxSize = getCacheMaxSize(CassandraProperties.PlanCache.CASSANDRA_STORAGE_LAYER_PLAN_CACHE_MAX_SIZE);
+        this.tableDescriptors = CacheBuilder.newBuilder().maximumSize(getCacheMaxSize(
+                CassandraProperties.TableDescriptorCache.CASSANDRA_STORAGE_LAYER_TABLE_DESCRIPTOR_CACHE_MAX_SIZE)).build();
+        this.rowMappers = CacheBuilder.newBuilder().maximumSize(getCacheMaxSize(
+                CassandraProperties.RowMapperCache.CASSANDRA_STORAGE_LAYER_ROW_MAPPER_CACHE_MAX_SIZE)).build();
+        this.writePlans = CacheBuilder.newBuilder().maximumSize(planCacheMaxSize).build();
+        this.selectPlans = CacheBuilder.newBuilder().maximumSize(planCacheMaxSize).build();
+        this.routingKeys = new CassandraRoutingKeys();
+    }
+
+    /**
+     * Return the max size of a cache of the layer, if the property is not defined because the properties of the
+     * layer are not initialized yet then the default size is returned.
+     * @param propertyName Name of the property with the max size.
+     * @return Max size of the cache.
+     */
+    private static int getCacheMaxSize(String propertyName) {
+        String value = SystemProperties.get(propertyName);
+        return value == null ? DEFAULT_CACHE_MAX_SIZE : Integer.parseInt(value.trim());
     }
 
     /**
@@ -80,10 +139,41 @@ public abstract class CassandraStorageLayer<S extends CassandraStorageSession> e
         builder.addContactPoints(getContactPoints());
         builder.withCredentials(getUserName(), getPassword());
         builder.withClusterName(getClusterName());
-        builder.withLoadBalancingPolicy(getLoadBalancingPolicy());
+        builder.withLoadBalancingPolicy(createLoadBalancingPolicy());
+        PercentileTracker latencyTracker = null;
+        if(SystemProperties.getBoolean(CassandraProperties.Speculative.CASSANDRA_STORAGE_LAYER_SPECULATIVE_ENABLED)) {
+            latencyTracker = createLatencyTracker();
+            builder.withSpeculativeExecutionPolicy(new PercentileSpeculativeExecutionPolicy(latencyTracker,
+                    Double.parseDouble(SystemProperties.get(CassandraProperties.Speculative.CASSANDRA_STORAGE_LAYER_SPECULATIVE_PERCENTILE)),
+                    SystemProperties.getInteger(CassandraProperties.Speculative.CASSANDRA_STORAGE_LAYER_SPECULATIVE_MAX_EXECUTIONS)));
+        }
         builder.withReconnectionPolicy(getReconnectionPolicy());
         builder.withPoolingOptions(poolingOptions);
 
+        if(metrics == null) {
+            metrics = createMetrics();
+        }
+        if(slowQueryLog == null) {
+            slowQueryLog = CassandraSlowQueryLog.create();
+        }
+        if(counterAccumulator == null && SystemProperties.getBoolean(
+                CassandraProperties.CounterAccumulator.CASSANDRA_STORAGE_LAYER_COUNTER_ACCUMULATOR_ENABLED)) {
+            counterAccumulator = new CassandraCounterAccumulator(this, createCounterFlushListener(),
+                    SystemProperties.getLong(CassandraProperties.CounterAccumulator.CASSANDRA_STORAGE_LAYER_COUNTER_ACCUMULATOR_FLUSH_INTERVAL),
+                    SystemProperties.getInteger(CassandraProperties.CounterAccumulator.CASSANDRA_STORAGE_LAYER_COUNTER_ACCUMULATOR_MAX_SIZE),
+                    SystemProperties.getLong(CassandraProperties.CounterAccumulator.CASSANDRA_STORAGE_LAYER_COUNTER_ACCUMULATOR_SHUTDOWN_TIMEOUT),
+                    metrics);
+        }
+        if(metrics.isEnabled()) {
+            ChannelHandler bytesReadHandler = metrics.createBytesReadHandler();
+            builder.withNettyOptions(new NettyOptions() {
+                @Override
+                public void afterChannelInitialized(SocketChannel channel) throws Exception {
+                    channel.pipeline().addFirst(BYTES_READ_HANDLER_NAME, bytesReadHandler);
+                }
+            });
+        }
+
         QueryOptions queryOptions = new QueryOptions();
         queryOptions
                 .setDefaultIdempotence(SystemProperties.getBoolean(
@@ -96,6 +186,328 @@ public abstract class CassandraStorageLayer<S extends CassandraStorageSession> e
         builder.withQueryOptions(queryOptions);
 
         cluster = builder.build();
+        if(latencyTracker != null) {
+            cluster.register(latencyTracker);
+        }
+
+        tableDescriptors.invalidateAll();
+        rowMappers.invalidateAll();
+        writePlans.invalidateAll();
+        selectPlans.invalidateAll();
+        routingKeys.invalidateAll();
+        tokenRanges = new CassandraTokenRanges(
+                SystemProperties.getLong(CassandraProperties.Scan.CASSANDRA_STORAGE_LAYER_SCAN_SPLITS_EXPIRE_TIME));
+        nearCache = createNearCache();
+        statementCache = new CassandraStatementCache(SystemProperties.getInteger(
+                CassandraProperties.StatementCache.CASSANDRA_STORAGE_LAYER_STATEMENT_CACHE_MAX_SIZE));
+        cluster.register(new SchemaListener());
+    }
+
+    /**
+     * Return the prepared statement for the cql text, the statements are prepared only once
+     * for all the sessions of the layer.
+     * @param session Cassandra session used to prepare the statement if it is not cached.
+     * @param cqlStatement Cql statement.
+     * @return Prepared statement.
+     * @throws StorageAccessException StorageAccessException
+     */
+    protected PreparedStatement getPreparedStatement(Session session, String cqlStatement) throws StorageAccessException {
+        return statementCache.get(session, cqlStatement);
+    }
+
+    /**
+     * Return the descriptor of the table or materialized view, the descriptor is created from the cluster metadata
+     * the first time and then it's cached until the schema of the table changes or the number of cached descriptors
+     * exceeds the property {@link CassandraProperties.TableDescriptorCache#CASSANDRA_STORAGE_LAYER_TABLE_DESCRIPTOR_CACHE_MAX_SIZE}.
+     * @param session Cassandra session.
+     * @param resourceName Table or materialized view name.
+     * @return Table descriptor or null if the resource doesn't exist.
+     */
+    protected CassandraTableDescriptor getTableDescriptor(Session session, String resourceName) {
+        CassandraTableDescriptor result = tableDescriptors.getIfPresent(resourceName);
+        if(result == null) {
+            KeyspaceMetadata keyspaceMetadata = session.getCluster().getMetadata().getKeyspace(getKeySpace());
+            AbstractTableMetadata metadata = keyspaceMetadata.getTable(resourceName);
+            if(metadata == null) {
+                metadata = keyspaceMetadata.getMaterializedView(resourceName);
+            }
+            if(metadata != null) {
+                AbstractTableMetadata tableMetadata = metadata;
+                result = tableDescriptors.asMap().computeIfAbsent(resourceName,
+                        name -> new CassandraTableDescriptor(tableMetadata));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the mapper of rows to instances of the result type, the mapper is compiled the first
+     * time for each result type and set of column definitions and then it's cached until the schema
+     * changes or the number of cached mappers exceeds the property
+     * {@link CassandraProperties.RowMapperCache#CASSANDRA_STORAGE_LAYER_ROW_MAPPER_CACHE_MAX_SIZE}.
+     * @param resultType Result type.
+     * @param columnDefinitions Column definitions of the rows.
+     * @return Row mapper.
+     * @throws StorageAccessException StorageAccessException
+     */
+    protected CassandraRowMapper getRowMapper(Class resultType, ColumnDefinitions columnDefinitions) throws StorageAccessException {
+        return getCached(rowMappers, new CassandraRowMapper.Key(resultType, columnDefinitions),
+                () -> new CassandraRowMapper(resultType, columnDefinitions,
+                        Introspection.getSetters(resultType, getNamingImplName()),
+                        getCodecRegistry()));
+    }
+
+    /**
+     * Return the value associated to the key into the cache, if the value is not into the cache then
+     * it's created by the loader. Concurrent requests for the same key wait for a single load.
+     * @param cache Bounded cache.
+     * @param key Key of the value.
+     * @param loader Creates the value if it's not into the cache.
+     * @param <K> Type of the keys.
+     * @param <V> Type of the values.
+     * @return Cached value.
+     * @throws StorageAccessException StorageAccessException
+     */
+    private static <K, V> V getCached(Cache<K, V> cache, K key, Callable<V> loader) throws StorageAccessException {
+        try {
+            return cache.get(key, loader);
+        } catch (ExecutionException ex) {
+            if(ex.getCause() instanceof StorageAccessException) {
+                throw (StorageAccessException) ex.getCause();
+            }
+            throw new StorageAccessException("Unable to create cached value", ex.getCause());
+        } catch (UncheckedExecutionException ex) {
+            throw new StorageAccessException("Unable to create cached value", ex.getCause());
+        }
+    }
+
+    /**
+     * Return the codec registry of the cluster, or the default registry if the cluster is not created yet.
+     * @return Codec registry.
+     */
+    protected CodecRegistry getCodecRegistry() {
+        return cluster == null ? CodecRegistry.DEFAULT_INSTANCE : cluster.getConfiguration().getCodecRegistry();
+    }
+
+    /**
+     * Return the protocol version negotiated with the cluster, or the newest supported version if the
+     * cluster is not connected yet.
+     * @return Protocol version.
+     */
+    protected ProtocolVersion getProtocolVersion() {
+        ProtocolVersion result = null;
+        if(cluster != null) {
+            result = cluster.getConfiguration().getProtocolOptions().getProtocolVersion();
+        }
+        return result == null ? ProtocolVersion.NEWEST_SUPPORTED : result;
+    }
+
+    /**
+     * Sets the routing key of the statement from the partition key of the table when the driver
+     * can't resolve it, then the token aware policy can send the statement directly to a replica.
+     * @param session Cassandra session.
+     * @param statement Bound statement.
+     * @return The same bound statement.
+     */
+    protected BoundStatement route(Session session, BoundStatement statement) {
+        return routingKeys.route(statement, table -> getTableDescriptor(session, table),
+                getProtocolVersion(), getCodecRegistry());
+    }
+
+    /**
+     * Return the write plan of the entity class for the table and the statement format, the plan
+     * is created the first time and then it's cached until the schema changes or the number of cached
+     * plans exceeds the property {@link CassandraProperties.PlanCache#CASSANDRA_STORAGE_LAYER_PLAN_CACHE_MAX_SIZE}.
+     * @param storageSession Storage session.
+     * @param entityClass Entity class.
+     * @param resourceName Normalized table name.
+     * @param statementFormat Format of the statement.
+     * @return Write plan.
+     * @throws StorageAccessException StorageAccessException
+     */
+    protected CassandraWritePlan getWritePlan(CassandraStorageSession storageSession, Class entityClass,
+                                              String resourceName, String statementFormat) throws StorageAccessException {
+        return getCached(writePlans, new CassandraWritePlan.Key(entityClass, resourceName, statementFormat),
+                () -> new CassandraWritePlan(storageSession, entityClass, resourceName, statementFormat));
+    }
+
+    /**
+     * Return the select plan for the shape of the query, the plan is created the first time and then
+     * it's cached until the schema changes or the number of cached plans exceeds the property
+     * {@link CassandraProperties.PlanCache#CASSANDRA_STORAGE_LAYER_PLAN_CACHE_MAX_SIZE}.
+     * @param storageSession Storage session.
+     * @param query Query.
+     * @param limitRows If this parameter is false then the plan doesn't limit the rows.
+     * @param keysOnly If this parameter is true then the plan reads only the primary key and the columns
+     *                 used by the query.
+     * @return Select plan.
+     * @throws StorageAccessException StorageAccessException
+     */
+    protected CassandraSelectPlan getSelectPlan(CassandraStorageSession storageSession, Query query,
+                                                boolean limitRows, boolean keysOnly) throws StorageAccessException {
+        return getCached(selectPlans, new CassandraSelectPlan.Key(storageSession, query, limitRows, keysOnly),
+                () -> new CassandraSelectPlan(storageSession, query, limitRows, keysOnly));
+    }
+
+    /**
+     * Return the splits of the token ring used to scan the table in parallel, the splits are cached
+     * until the schema changes or the time configured in the property
+     * {@link CassandraProperties.Scan#CASSANDRA_STORAGE_LAYER_SCAN_SPLITS_EXPIRE_TIME} expires.
+     * @param session Cassandra session.
+     * @param resourceName Normalized table name.
+     * @return Splits of the token ring.
+     * @throws StorageAccessException StorageAccessException
+     */
+    protected List<CassandraTokenRanges.Split> getTokenRangeSplits(Session session, String resourceName) throws StorageAccessException {
+        return tokenRanges.get(session, getKeySpace(), resourceName);
+    }
+
+    /**
+     * Creates the near cache of the layer with the resources configured in the property
+     * {@link CassandraProperties.NearCache#CASSANDRA_STORAGE_LAYER_NEAR_CACHE_RESOURCES}, a list of
+     * resource names separated by comma.
+     * @return Near cache.
+     */
+    private CassandraNearCache createNearCache() {
+        Set<String> resources = new HashSet<>();
+        for(String resourceName : SystemProperties.get(
+                CassandraProperties.NearCache.CASSANDRA_STORAGE_LAYER_NEAR_CACHE_RESOURCES).split(Strings.ARGUMENT_SEPARATOR)) {
+            if(!resourceName.trim().isEmpty()) {
+                resources.add(normalizeName(resourceName.trim()));
+            }
+        }
+        return new CassandraNearCache(resources,
+                SystemProperties.getLong(CassandraProperties.NearCache.CASSANDRA_STORAGE_LAYER_NEAR_CACHE_MAX_SIZE),
+                SystemProperties.getLong(CassandraProperties.NearCache.CASSANDRA_STORAGE_LAYER_NEAR_CACHE_MAX_WEIGHT),
+                SystemProperties.getLong(CassandraProperties.NearCache.CASSANDRA_STORAGE_LAYER_NEAR_CACHE_EXPIRE_TIME),
+                metrics);
+    }
+
+    /**
+     * Verify if the rows of the resource read by primary key are kept into the near cache.
+     * @param resourceName Normalized resource name.
+     * @return Return true if the resource is cached.
+     */
+    protected boolean isNearCached(String resourceName) {
+        return nearCache.isEnabled(resourceName);
+    }
+
+    /**
+     * Return the key of the near cache for the row bound by the statement.
+     * @param session Cassandra session.
+     * @param statement Bound statement.
+     * @return Key of the row or null if the row can't be cached.
+     */
+    protected CassandraNearCache.Key getNearCacheKey(Session session, BoundStatement statement) {
+        return nearCache.getKey(statement, table -> getTableDescriptor(session, table));
+    }
+
+    /**
+     * Return the rows of the key from the near cache, if the rows are not cached then the loader reads them.
+     * @param key Key of the row.
+     * @param loader Function that reads the rows from the cluster.
+     * @return Future that will be completed with the rows.
+     */
+    protected CompletableFuture<List<Row>> getNearCachedRows(CassandraNearCache.Key key,
+                                                              Function<CassandraNearCache.Key, CompletableFuture<List<Row>>> loader) {
+        return nearCache.get(key, loader);
+    }
+
+    /**
+     * Invalidates the entries of the near cache for the rows written by the statement, this method
+     * is called when a write statement is completed.
+     * @param session Cassandra session.
+     * @param statement Executed statement.
+     */
+    protected void invalidateNearCache(Session session, Statement statement) {
+        nearCache.invalidate(statement, table -> getTableDescriptor(session, table));
+    }
+
+    /**
+     * Return the executor used to parse the rows of the asynchronous operations, by default
+     * this executor is a fixed pool of daemon threads with the size configured in the property
+     * {@link CassandraProperties.Async#CASSANDRA_STORAGE_LAYER_ASYNC_EXECUTOR_POOL_SIZE}. The pool is shut down
+     * when the layer is closed and created again if the layer is used after that.
+     * @return Asynchronous executor.
+     */
+    protected synchronized Executor getAsyncExecutor() {
+        if(asyncExecutor == null) {
+            asyncExecutor = Executors.newFixedThreadPool(
+                    SystemProperties.getInteger(CassandraProperties.Async.CASSANDRA_STORAGE_LAYER_ASYNC_EXECUTOR_POOL_SIZE),
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat(getImplName() + "-async-%d").build());
+        }
+        return asyncExecutor;
+    }
+
+    /**
+     * Creates the metrics of the layer and starts the jmx reporter if it's enabled by the property
+     * {@link CassandraProperties.Metrics#CASSANDRA_STORAGE_LAYER_METRICS_JMX_ENABLED}, the reporter
+     * is stopped when the layer is closed.
+     * @return Metrics of the layer.
+     */
+    private CassandraMetrics createMetrics() {
+        boolean enabled = SystemProperties.getBoolean(CassandraProperties.Metrics.CASSANDRA_STORAGE_LAYER_METRICS_ENABLED);
+        CassandraMetrics result = new CassandraMetrics(createMetricRegistry(), getImplName(), enabled,
+                SystemProperties.getInteger(CassandraProperties.Metrics.CASSANDRA_STORAGE_LAYER_METRICS_MAX_TEMPLATES));
+        if(enabled && SystemProperties.getBoolean(CassandraProperties.Metrics.CASSANDRA_STORAGE_LAYER_METRICS_JMX_ENABLED)) {
+            jmxReporter = JmxReporter.forRegistry(result.getRegistry())
+                    .inDomain(SystemProperties.get(CassandraProperties.Metrics.CASSANDRA_STORAGE_LAYER_METRICS_JMX_DOMAIN))
+                    .convertDurationsTo(TimeUnit.MICROSECONDS)
+                    .build();
+            jmxReporter.start();
+        }
+        return result;
+    }
+
+    /**
+     * Return the registry where the metrics of the layer are registered, by default a new registry is created
+     * for each layer. This method can be overridden to share the registry with the application.
+     * @return Metric registry.
+     */
+    protected MetricRegistry createMetricRegistry() {
+        return new MetricRegistry();
+    }
+
+    /**
+     * Return the metrics of the layer.
+     * @return Metrics of the layer.
+     */
+    public CassandraMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Return the slow query log of the layer, the entries of the log can be dumped on demand.
+     * @return Slow query log.
+     */
+    public CassandraSlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    /**
+     * Return the accumulator of the counter increments, the accumulator is enabled by the property
+     * {@link CassandraProperties.CounterAccumulator#CASSANDRA_STORAGE_LAYER_COUNTER_ACCUMULATOR_ENABLED}.
+     * @return Counter accumulator or null if it's disabled.
+     */
+    public CassandraCounterAccumulator getCounterAccumulator() {
+        return counterAccumulator;
+    }
+
+    /**
+     * Return the listener that receives the counter increments that couldn't be flushed, by default the
+     * failures are only logged. This method can be overridden to persist or compensate the lost increments.
+     * @return Counter flush listener.
+     */
+    protected CassandraCounterFlushListener createCounterFlushListener() {
+        return new CassandraCounterFlushListener() {};
+    }
+
+    /**
+     * Return the prepared statement cache of the layer.
+     * @return Prepared statement cache.
+     */
+    public CassandraStatementCache getStatementCache() {
+        return statementCache;
     }
 
     /**
@@ -115,6 +527,25 @@ public abstract class CassandraStorageLayer<S extends CassandraStorageSession> e
         return session;
     }
 
+    /**
+     * Releases the resources of the layer, the cluster and its sessions are closed, the pool of the
+     * asynchronous executor is shut down after the tasks already submitted are completed and the jmx
+     * reporter of the metrics is stopped.
+     */
+    public synchronized void close() {
+        if(cluster != null) {
+            cluster.close();
+        }
+        if(asyncExecutor != null) {
+            asyncExecutor.shutdown();
+            asyncExecutor = null;
+        }
+        if(jmxReporter != null) {
+            jmxReporter.stop();
+            jmxReporter = null;
+        }
+    }
+
     /**
      * Return a list with all the contact points to connect the
      * client with the cassandra cluster.
@@ -148,12 +579,63 @@ public abstract class CassandraStorageLayer<S extends CassandraStorageSession> e
         return CassandraNaming.CASSANDRA_NAMING_IMPL;
     }
 
+    /**
+     * Normalize the name. If the naming implementation is the cassandra naming then the
+     * name is normalized directly by the instance registered by the layer class, without the lookup
+     * of the naming consumer.
+     * @param name Name to normalize.
+     * @return Normalized name.
+     */
+    public String normalizeName(String name) {
+        String result;
+        String namingImplName = getNamingImplName();
+        if(CassandraNaming.CASSANDRA_NAMING_IMPL.equals(namingImplName)) {
+            result = NAMING.normalize(name);
+        } else {
+            result = Naming.normalize(namingImplName, name);
+        }
+        return result;
+    }
+
     /**
      * Return the cluster resource that will use to connect with the cluster.
      * @return Cluster resource.
      */
     protected abstract String getClusterName();
 
+    /**
+     * Creates the balance policy of the cluster, if the policy returned by {@link #getLoadBalancingPolicy()}
+     * is not token aware then the policy is wrapped with a token aware policy, unless the property
+     * {@link CassandraProperties.Routing#CASSANDRA_STORAGE_LAYER_ROUTING_TOKEN_AWARE} is false.
+     * @return Balance policy.
+     */
+    private LoadBalancingPolicy createLoadBalancingPolicy() {
+        LoadBalancingPolicy result = getLoadBalancingPolicy();
+        if(!(result instanceof TokenAwarePolicy) &&
+                SystemProperties.getBoolean(CassandraProperties.Routing.CASSANDRA_STORAGE_LAYER_ROUTING_TOKEN_AWARE)) {
+            result = new TokenAwarePolicy(result, SystemProperties.getBoolean(
+                    CassandraProperties.Routing.CASSANDRA_STORAGE_LAYER_ROUTING_SHUFFLE_REPLICAS));
+        }
+        //The statements of the token range scans are sent to the local replicas of the range.
+        return new CassandraRangeRoutingPolicy(result, SystemProperties.getBoolean(
+                CassandraProperties.Routing.CASSANDRA_STORAGE_LAYER_ROUTING_SHUFFLE_REPLICAS));
+    }
+
+    /**
+     * Creates the tracker of the latencies of each host used by the speculative execution policy, the
+     * next execution of an idempotent statement is started when the current execution takes more than the
+     * percentile configured in the property
+     * {@link CassandraProperties.Speculative#CASSANDRA_STORAGE_LAYER_SPECULATIVE_PERCENTILE} of the host latencies.
+     * @return Latency tracker.
+     */
+    protected PercentileTracker createLatencyTracker() {
+        return PerHostPercentileTracker.builder(
+                SystemProperties.getLong(CassandraProperties.Speculative.CASSANDRA_STORAGE_LAYER_SPECULATIVE_MAX_LATENCY))
+                .withMinRecordedValues(SystemProperties.getInteger(
+                        CassandraProperties.Speculative.CASSANDRA_STORAGE_LAYER_SPECULATIVE_MIN_RECORDED_VALUES))
+                .build();
+    }
+
     /**
      * Return the balance policy that will use to connect with the cluster.
      * @return Balance policy.
@@ -169,4 +651,66 @@ public abstract class CassandraStorageLayer<S extends CassandraStorageSession> e
     protected ReconnectionPolicy getReconnectionPolicy() {
         return Policies.defaultReconnectionPolicy();
     }
-}
+
+    /**
+     * This listener discards the cached information of the layer when the schema
+     * of the layer's key space changes.
+     */
+    private class SchemaListener extends SchemaChangeListenerBase {
+
+        @Override
+        public void onKeyspaceRemoved(KeyspaceMetadata keyspace) {
+            if(keyspace.getName().equals(getKeySpace())) {
+                tableDescriptors.invalidateAll();
+                onSchemaChanged();
+            }
+        }
+
+        @Override
+        public void onTableRemoved(TableMetadata table) {
+            onTableChanged(table.getKeyspace(), table.getName());
+        }
+
+        @Override
+        public void onTableChanged(TableMetadata current, TableMetadata previous) {
+            onTableChanged(current.getKeyspace(), current.getName());
+        }
+
+        @Override
+        public void onUserTypeChanged(UserType current, UserType previous) {
+            if(current.getKeyspace().equals(getKeySpace())) {
+                tableDescriptors.invalidateAll();
+                onSchemaChanged();
+            }
+        }
+
+        @Override
+        public void onMaterializedViewRemoved(MaterializedViewMetadata view) {
+            onTableChanged(view.getKeyspace(), view.getName());
+        }
+
+        @Override
+        public void onMaterializedViewChanged(MaterializedViewMetadata current, MaterializedViewMetadata previous) {
+            onTableChanged(current.getKeyspace(), current.getName());
+        }
+
+        private void onTableChanged(KeyspaceMetadata keyspace, String tableName) {
+            if(keyspace != null && keyspace.getName().equals(getKeySpace())) {
+                tableDescriptors.invalidate(tableName);
+                onSchemaChanged();
+            }
+        }
+
+        private void onSchemaChanged() {
+            Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                    "Schema change detected on key space %s", getKeySpace());
+            statementCache.invalidateAll();
+            rowMappers.invalidateAll();
+            writePlans.invalidateAll();
+            selectPlans.invalidateAll();
+            routingKeys.invalidateAll();
+            tokenRanges.invalidateAll();
+            nearCache.invalidateAll();
+        }
+    }
+}
\ No newline at end of file
@@ -1,7 +1,12 @@
 package org.hcjf.layers.storage.cassandra;
 
 import com.datastax.driver.core.*;
+import com.datastax.driver.core.exceptions.PagingStateException;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import org.hcjf.bson.BsonDocument;
 import org.hcjf.bson.BsonEncoder;
 import org.hcjf.layers.query.JoinableMap;
@@ -15,15 +20,17 @@ import org.hcjf.layers.storage.cassandra.actions.CassandraSelect;
 import org.hcjf.layers.storage.cassandra.actions.CassandraUpdate;
 import org.hcjf.layers.storage.cassandra.properties.CassandraProperties;
 import org.hcjf.log.Log;
-import org.hcjf.names.Naming;
 import org.hcjf.properties.*;
 import org.hcjf.utils.Introspection;
-import org.hcjf.utils.Strings;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * This class implements the session for the cassandra storage layer implementation.
@@ -31,11 +38,9 @@ import java.util.stream.Collectors;
  */
 public class CassandraStorageSession extends StorageSession {
 
-    private static final String VALUES_INDEX = "values";
-    private static final String KEYS_INDEX = "keys";
-
     private final Session session;
     private final CassandraStorageLayer layer;
+    private RowMapperSlot lastRowMapper;
 
     public CassandraStorageSession(String implName, Session session, CassandraStorageLayer layer) {
         super(implName);
@@ -55,18 +60,774 @@ public class CassandraStorageSession extends StorageSession {
      */
     public <R extends org.hcjf.layers.storage.actions.ResultSet> R executeQuery(
             Query query, String cqlStatement, List<Object> values, Class resultType) throws StorageAccessException {
-        PreparedStatement statement = session.prepare(cqlStatement);
+        CassandraMetrics.Scope scope = getMetricsScope(cqlStatement);
+        long startTime = System.nanoTime();
+        PreparedStatement statement = layer.getPreparedStatement(session, cqlStatement);
+        long phaseTime = scope.record(CassandraMetrics.Phase.PREPARE, startTime);
 
-        long totalTime;
-        long queryTime = totalTime = System.currentTimeMillis();
-        BoundStatement boundStatement = statement.bind(values.toArray());
+        BoundStatement boundStatement = bind(statement, values.toArray());
+        layer.getSlowQueryLog().beforeExecution(boundStatement);
+        long executionTime = phaseTime;
         com.datastax.driver.core.ResultSet cassandraResultSet =
                     session.execute(boundStatement);
-        List<Row> rawRows = cassandraResultSet.all();
-        queryTime = System.currentTimeMillis() - queryTime;
+        phaseTime = scope.record(CassandraMetrics.Phase.EXECUTE, phaseTime);
+
+        org.hcjf.layers.storage.actions.ResultSet result;
+        if(isStreamingQuery(query)) {
+            int firstPageRows = cassandraResultSet.getAvailableWithoutFetching();
+            CassandraResultList<Object> resultList = new CassandraResultList<>(
+                    new CassandraResultList.ResultSetPageSource(cassandraResultSet),
+                    rows -> evaluateRows(query, rows, resultType, scope));
+            resultList.loadFirstPage();
+            if(resultType != null) {
+                result = new CollectionResultSet(resultList);
+            } else {
+                result = new MapResultSet((List) resultList);
+            }
+            onExecuted(boundStatement, cassandraResultSet, executionTime, phaseTime, phaseTime, firstPageRows);
+
+            Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                    "CQL: %s -> [Query Time: %d ms, Streaming result]",
+                    describe(boundStatement), toMillis(phaseTime - startTime));
+        } else {
+            List<Row> rawRows = cassandraResultSet.all();
+            long parsingTime = scope.record(CassandraMetrics.Phase.FETCH, phaseTime);
+
+            result = createQueryResultSet(query, rawRows, resultType, scope);
+            long endTime = System.nanoTime();
+            onExecuted(boundStatement, cassandraResultSet, executionTime, phaseTime, endTime, rawRows.size());
+
+            Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                    "CQL: %s -> [Query Time: %d ms, Parsing Time: %d ms, Total time: %d ms, Result size: %d]",
+                    describe(boundStatement), toMillis(parsingTime - startTime), toMillis(endTime - parsingTime),
+                    toMillis(endTime - startTime), rawRows.size());
+        }
+
+        try {
+            return (R) result;
+        } catch (ClassCastException ex) {
+            throw new StorageAccessException("", ex);
+        }
+    }
+
+    /**
+     * This method execute a query and returns only one page of rows, the size of the page is the
+     * fetch size of the statement. The cost of each page is the same because cassandra continues the
+     * query from the paging state instead of skip the rows of the previous pages.
+     * The query is evaluated over each page alone, then the query is rejected if the result of the evaluation
+     * page by page is not the same that the result of the evaluation over all the rows.
+     * @param query Query object, the query is evaluated over the rows of the page and it can't have start or limit.
+     * @param cqlStatement Cql statement, the statement can't contains limit clause.
+     * @param values Statement values.
+     * @param resultType Result type.
+     * @param pagingState Paging state returned by the previous page or null to request the first page.
+     * @param pageSize Max number of rows of the page.
+     * @param ordered True if cassandra returns the rows in the order of the query.
+     * @param <R> Expected result instance.
+     * @return Page with the result set and the paging state of the next page.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> CassandraPage<R> executeQueryPage(
+            Query query, String cqlStatement, List<Object> values, Class resultType,
+            String pagingState, int pageSize, boolean ordered) throws StorageAccessException {
+        if(query.getStart() != null || query.getLimit() != null || !isPageEvaluable(query, ordered)) {
+            throw new StorageAccessException("The query can't be evaluated page by page, the order must be resolved " +
+                    "by cassandra and the query can't have return functions: " + query.toString());
+        }
+
+        CassandraMetrics.Scope scope = getMetricsScope(cqlStatement);
+        long startTime = System.nanoTime();
+        PreparedStatement statement = layer.getPreparedStatement(session, cqlStatement);
+        long phaseTime = scope.record(CassandraMetrics.Phase.PREPARE, startTime);
+
+        BoundStatement boundStatement = bind(statement, values.toArray());
+        boundStatement.setFetchSize(pageSize);
+        if(pagingState != null) {
+            try {
+                boundStatement.setPagingState(PagingState.fromString(pagingState));
+            } catch (PagingStateException ex) {
+                throw new StorageAccessException("Invalid paging state", ex);
+            }
+        }
+        layer.getSlowQueryLog().beforeExecution(boundStatement);
+        long executionTime = phaseTime;
+        com.datastax.driver.core.ResultSet cassandraResultSet = session.execute(boundStatement);
+        phaseTime = scope.record(CassandraMetrics.Phase.EXECUTE, phaseTime);
+
+        //Only the rows of the current page are taken, in order to not fetch the next page.
+        int available = cassandraResultSet.getAvailableWithoutFetching();
+        List<Row> rawRows = new ArrayList<>(available);
+        for (int i = 0; i < available; i++) {
+            rawRows.add(cassandraResultSet.one());
+        }
+        PagingState nextPagingState = cassandraResultSet.getExecutionInfo().getPagingState();
+        long parsingTime = scope.record(CassandraMetrics.Phase.FETCH, phaseTime);
+
+        org.hcjf.layers.storage.actions.ResultSet result = createQueryResultSet(query, rawRows, resultType, scope);
+        long endTime = System.nanoTime();
+        onExecuted(boundStatement, cassandraResultSet, executionTime, phaseTime, endTime, rawRows.size());
+
+        Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                "CQL: %s -> [Query Time: %d ms, Parsing Time: %d ms, Total time: %d ms, Page size: %d]",
+                describe(boundStatement), toMillis(parsingTime - startTime), toMillis(endTime - parsingTime),
+                toMillis(endTime - startTime), rawRows.size());
+
+        return new CassandraPage<>((R) result, nextPagingState == null ? null : nextPagingState.toString());
+    }
+
+    /**
+     * Verify if the query can be evaluated page by page, this is possible only if the query
+     * doesn't need the complete result set: the query can't have order fields, start, limit or
+     * return functions. The streaming is disabled by default and it's enabled with the property
+     * {@link CassandraProperties.Query#CASSANDRA_STORAGE_LAYER_QUERY_STREAMING_ENABLED}, with streaming
+     * the result is a {@link CassandraResultList}, then the errors of the pages after the first one are
+     * thrown by the iteration of the result as unchecked exceptions instead of by the query.
+     * @param query Query to verify.
+     * @return Return true if the query can be evaluated page by page.
+     */
+    protected boolean isStreamingQuery(Query query) {
+        return SystemProperties.getBoolean(CassandraProperties.Query.CASSANDRA_STORAGE_LAYER_QUERY_STREAMING_ENABLED) &&
+                query.getStart() == null && query.getLimit() == null && isPageEvaluable(query, false);
+    }
+
+    /**
+     * Verify if the query is limited and can be evaluated page by page, in this case the pages are
+     * requested only until the query has collected start + limit rows.
+     * @param query Query to verify.
+     * @param ordered True if cassandra returns the rows in the order of the query.
+     * @return Return true if the query is limited and can be evaluated page by page.
+     */
+    public boolean isEarlyLimitQuery(Query query, boolean ordered) {
+        return SystemProperties.getBoolean(CassandraProperties.Query.CASSANDRA_STORAGE_LAYER_QUERY_EARLY_LIMIT_ENABLED) &&
+                query.getLimit() != null && isPageEvaluable(query, ordered);
+    }
 
-        long parsingTime = System.currentTimeMillis();
+    /**
+     * Verify if the result of the query is the same evaluating all the rows together or page by page:
+     * the query can't have return functions, and it can't have order fields unless cassandra returns
+     * the rows in the same order.
+     * @param query Query to verify.
+     * @param ordered True if cassandra returns the rows in the order of the query.
+     * @return Return true if the query can be evaluated page by page.
+     */
+    private boolean isPageEvaluable(Query query, boolean ordered) {
+        boolean result = ordered || query.getOrderParameters() == null || query.getOrderParameters().isEmpty();
+        if(result && query.getReturnParameters() != null) {
+            for(Query.QueryReturnParameter returnParameter : query.getReturnParameters()) {
+                if(!(returnParameter instanceof Query.QueryReturnField)) {
+                    result = false;
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * This method execute a query without blocking the invoker thread. The rows are
+     * evaluated and parsed using the asynchronous executor of the storage layer.
+     * @param query Query object.
+     * @param cqlStatement Cql statement.
+     * @param values Statement values.
+     * @param resultType Result type.
+     * @param <R> Expected result instance.
+     * @return Future that will be completed with the result set.
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> CompletableFuture<R> executeQueryAsync(
+            Query query, String cqlStatement, List<Object> values, Class resultType) {
+        return executeQueryAsync(query, cqlStatement, values, resultType, layer.getAsyncExecutor());
+    }
+
+    /**
+     * This method execute a query without blocking the invoker thread. The pages of the result are fetched
+     * asynchronously and the rows are evaluated and parsed using the executor.
+     * @param query Query object.
+     * @param cqlStatement Cql statement.
+     * @param values Statement values.
+     * @param resultType Result type.
+     * @param executor Executor of the evaluation and the parsing of the rows.
+     * @param <R> Expected result instance.
+     * @return Future that will be completed with the result set.
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> CompletableFuture<R> executeQueryAsync(
+            Query query, String cqlStatement, List<Object> values, Class resultType, Executor executor) {
+        CassandraMetrics.Scope scope = getMetricsScope(cqlStatement);
+        long startTime = System.nanoTime();
+        BoundStatement boundStatement;
+        try {
+            boundStatement = bind(layer.getPreparedStatement(session, cqlStatement), values.toArray());
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        long executionTime = scope.record(CassandraMetrics.Phase.PREPARE, startTime);
+        layer.getSlowQueryLog().beforeExecution(boundStatement);
+
+        return toCompletableFuture(session.executeAsync(boundStatement)).thenCompose(cassandraResultSet -> {
+            long phaseTime = scope.record(CassandraMetrics.Phase.EXECUTE, executionTime);
+            return fetchAll(cassandraResultSet).thenApplyAsync(rawRows -> {
+                scope.record(CassandraMetrics.Phase.FETCH, phaseTime);
+                org.hcjf.layers.storage.actions.ResultSet result;
+                try {
+                    result = createQueryResultSet(query, rawRows, resultType, scope);
+                } catch (StorageAccessException ex) {
+                    throw new CompletionException(ex);
+                }
+                onExecuted(boundStatement, cassandraResultSet, executionTime, phaseTime, System.nanoTime(), rawRows.size());
+
+                Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                        "Async CQL: %s -> [Total time: %d ms, Result size: %d]",
+                        describe(boundStatement), toMillis(System.nanoTime() - startTime), rawRows.size());
+                return (R) result;
+            }, executor);
+        });
+    }
+
+    /**
+     * Executes a limited query whose limit can't be resolved by cassandra because the query has evaluators
+     * that must be evaluated over the rows. Each page is evaluated when it's received and the next page is
+     * requested only if the query hasn't collected start + limit rows yet, then the rows after the limit are
+     * not read. The fetch size is adjusted to the number of rows required, with the minimum of the property
+     * {@link CassandraProperties.Query#CASSANDRA_STORAGE_LAYER_QUERY_EARLY_LIMIT_MIN_FETCH_SIZE}.
+     * @param query Query object, with the start and the limit.
+     * @param cqlStatement Cql statement without limit clause.
+     * @param values Statement values.
+     * @param resultType Result type.
+     * @param <R> Expected result instance.
+     * @return Result set.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> R executeEarlyLimitQuery(
+            Query query, String cqlStatement, List<Object> values, Class resultType) throws StorageAccessException {
+        CassandraCallerExecutor executor = new CassandraCallerExecutor(layer.getAsyncExecutor());
+        return await(executor, this.<R>executeEarlyLimitQueryAsync(query, cqlStatement, values, resultType, executor),
+                "Limited query");
+    }
 
+    /**
+     * Executes a limited query page by page, without blocking the invoker thread.
+     * @param query Query object, with the start and the limit.
+     * @param cqlStatement Cql statement without limit clause.
+     * @param values Statement values.
+     * @param resultType Result type.
+     * @param <R> Expected result instance.
+     * @return Future that will be completed with the result set.
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> CompletableFuture<R> executeEarlyLimitQueryAsync(
+            Query query, String cqlStatement, List<Object> values, Class resultType) {
+        return executeEarlyLimitQueryAsync(query, cqlStatement, values, resultType, layer.getAsyncExecutor());
+    }
+
+    /**
+     * Executes a limited query page by page, without blocking the invoker thread. The pages are evaluated
+     * using the executor.
+     * @param query Query object, with the start and the limit.
+     * @param cqlStatement Cql statement without limit clause.
+     * @param values Statement values.
+     * @param resultType Result type.
+     * @param executor Executor of the evaluation of the pages.
+     * @param <R> Expected result instance.
+     * @return Future that will be completed with the result set.
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> CompletableFuture<R> executeEarlyLimitQueryAsync(
+            Query query, String cqlStatement, List<Object> values, Class resultType, Executor executor) {
+        CassandraMetrics.Scope scope = getMetricsScope(cqlStatement);
+        long startTime = System.nanoTime();
+        int start = query.getStart() == null ? 0 : query.getStart();
+        int rowLimit = start + query.getLimit();
+        BoundStatement boundStatement;
+        try {
+            boundStatement = bind(layer.getPreparedStatement(session, cqlStatement), values.toArray());
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        boundStatement.setFetchSize(Math.min(
+                SystemProperties.getInteger(CassandraProperties.Query.CASSANDRA_STORAGE_LAYER_QUERY_FETCH_SIZE),
+                Math.max(rowLimit, SystemProperties.getInteger(CassandraProperties.Query.CASSANDRA_STORAGE_LAYER_QUERY_EARLY_LIMIT_MIN_FETCH_SIZE))));
+        long executionTime = scope.record(CassandraMetrics.Phase.PREPARE, startTime);
+        layer.getSlowQueryLog().beforeExecution(boundStatement);
+
+        //Each page is evaluated without the start and the limit, these are applied over the collected rows.
+        Query pageQuery = query.reduce(new ArrayList<>());
+        pageQuery.setStart(null);
+        pageQuery.setLimit(null);
+        EarlyLimitExecution earlyLimitExecution = new EarlyLimitExecution(boundStatement, pageQuery,
+                resultType, rowLimit, executionTime, scope, executor);
+        fetchNextPage(earlyLimitExecution, session.executeAsync(boundStatement));
+
+        return earlyLimitExecution.result.thenApply(elements -> {
+            List<Object> limitedElements = elements.subList(Math.min(start, elements.size()),
+                    Math.min(rowLimit, elements.size()));
+            org.hcjf.layers.storage.actions.ResultSet result;
+            if(resultType != null) {
+                result = new CollectionResultSet(limitedElements);
+            } else {
+                result = new MapResultSet((List) limitedElements);
+            }
+
+            Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                    "Limited CQL: %s -> [Pages: %d, Rows read: %d, Total time: %d ms, Result size: %d]",
+                    describe(boundStatement), earlyLimitExecution.pages, earlyLimitExecution.rows,
+                    toMillis(System.nanoTime() - startTime), limitedElements.size());
+            return (R) result;
+        });
+    }
+
+    /**
+     * Waits for the next page of the limited query and evaluates it, if the query hasn't collected enough
+     * rows and the result set has more pages then the next page is fetched.
+     * @param earlyLimitExecution Limited query execution.
+     * @param resultSetFuture Future of the result set with the next page.
+     */
+    private void fetchNextPage(EarlyLimitExecution earlyLimitExecution,
+                               ListenableFuture<com.datastax.driver.core.ResultSet> resultSetFuture) {
+        long pageTime = System.nanoTime();
+        toCompletableFuture(resultSetFuture).whenCompleteAsync((cassandraResultSet, throwable) -> {
+            if(throwable != null) {
+                earlyLimitExecution.result.completeExceptionally(unwrap(throwable));
+                return;
+            }
+            try {
+                long phaseTime = earlyLimitExecution.scope.record(CassandraMetrics.Phase.EXECUTE, pageTime);
+                int available = cassandraResultSet.getAvailableWithoutFetching();
+                List<Row> rawRows = new ArrayList<>(available);
+                for (int i = 0; i < available; i++) {
+                    rawRows.add(cassandraResultSet.one());
+                }
+                earlyLimitExecution.scope.record(CassandraMetrics.Phase.FETCH, phaseTime);
+                earlyLimitExecution.pages++;
+                earlyLimitExecution.rows += rawRows.size();
+                earlyLimitExecution.elements.addAll(evaluateRows(earlyLimitExecution.query, rawRows,
+                        earlyLimitExecution.resultType, earlyLimitExecution.scope));
+
+                if(earlyLimitExecution.elements.size() < earlyLimitExecution.rowLimit &&
+                        !cassandraResultSet.isFullyFetched()) {
+                    fetchNextPage(earlyLimitExecution, cassandraResultSet.fetchMoreResults());
+                } else {
+                    onExecuted(earlyLimitExecution.statement, cassandraResultSet, earlyLimitExecution.executionTime,
+                            phaseTime, System.nanoTime(), earlyLimitExecution.rows);
+                    earlyLimitExecution.result.complete(earlyLimitExecution.elements);
+                }
+            } catch (Exception ex) {
+                earlyLimitExecution.result.completeExceptionally(ex);
+            }
+        }, earlyLimitExecution.executor);
+    }
+
+    /**
+     * Executes a query that reads a row by primary key, the rows are taken from the near cache of the
+     * layer and they are read from the cluster only if they are not cached. The query is evaluated over
+     * the cached rows.
+     * @param query Query object.
+     * @param cqlStatement Cql statement.
+     * @param values Statement values.
+     * @param resultType Result type.
+     * @param <R> Expected result instance.
+     * @return Result set.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> R executeNearCachedQuery(
+            Query query, String cqlStatement, List<Object> values, Class resultType) throws StorageAccessException {
+        CassandraCallerExecutor executor = new CassandraCallerExecutor(layer.getAsyncExecutor());
+        return await(executor, this.<R>executeNearCachedQueryAsync(query, cqlStatement, values, resultType, executor),
+                "Near cached query");
+    }
+
+    /**
+     * Executes a query that reads a row by primary key using the near cache of the layer, without blocking
+     * the invoker thread.
+     * @param query Query object.
+     * @param cqlStatement Cql statement.
+     * @param values Statement values.
+     * @param resultType Result type.
+     * @param <R> Expected result instance.
+     * @return Future that will be completed with the result set.
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> CompletableFuture<R> executeNearCachedQueryAsync(
+            Query query, String cqlStatement, List<Object> values, Class resultType) {
+        return executeNearCachedQueryAsync(query, cqlStatement, values, resultType, layer.getAsyncExecutor());
+    }
+
+    /**
+     * Executes a query that reads a row by primary key using the near cache of the layer, without blocking
+     * the invoker thread. The cached rows are evaluated and parsed using the executor.
+     * @param query Query object.
+     * @param cqlStatement Cql statement.
+     * @param values Statement values.
+     * @param resultType Result type.
+     * @param executor Executor of the evaluation and the parsing of the rows.
+     * @param <R> Expected result instance.
+     * @return Future that will be completed with the result set.
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> CompletableFuture<R> executeNearCachedQueryAsync(
+            Query query, String cqlStatement, List<Object> values, Class resultType, Executor executor) {
+        CassandraMetrics.Scope scope = getMetricsScope(cqlStatement);
+        long startTime = System.nanoTime();
+        BoundStatement boundStatement;
+        CassandraNearCache.Key key;
+        try {
+            boundStatement = bind(layer.getPreparedStatement(session, cqlStatement), values.toArray());
+            key = layer.getNearCacheKey(session, boundStatement);
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        if(key == null) {
+            return executeQueryAsync(query, cqlStatement, values, resultType, executor);
+        }
+        long executionTime = scope.record(CassandraMetrics.Phase.PREPARE, startTime);
+
+        Function<CassandraNearCache.Key, CompletableFuture<List<Row>>> loader = cacheKey -> {
+            layer.getSlowQueryLog().beforeExecution(boundStatement);
+            return toCompletableFuture(session.executeAsync(boundStatement)).thenCompose(cassandraResultSet -> {
+                long phaseTime = scope.record(CassandraMetrics.Phase.EXECUTE, executionTime);
+                return fetchAll(cassandraResultSet).thenApplyAsync(rawRows -> {
+                    onExecuted(boundStatement, cassandraResultSet, executionTime, phaseTime,
+                            scope.record(CassandraMetrics.Phase.FETCH, phaseTime), rawRows.size());
+                    return rawRows;
+                }, executor);
+            });
+        };
+        CompletableFuture<List<Row>> cachedRows = layer.getNearCachedRows(key, loader);
+        return cachedRows.thenApplyAsync(rawRows -> {
+            org.hcjf.layers.storage.actions.ResultSet result;
+            try {
+                result = createQueryResultSet(query, rawRows, resultType, scope);
+            } catch (StorageAccessException ex) {
+                throw new CompletionException(ex);
+            }
+
+            Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                    "Near cached CQL: %s -> [Total time: %d ms, Result size: %d]",
+                    describe(boundStatement), toMillis(System.nanoTime() - startTime), rawRows.size());
+            return (R) result;
+        }, executor);
+    }
+
+    /**
+     * Executes the statement once for each list of values, each execution reads only one partition and
+     * the executions run concurrently, the number of executions in flight is limited by the property
+     * {@link CassandraProperties.Query#CASSANDRA_STORAGE_LAYER_QUERY_FAN_OUT_CONCURRENCY}. The rows of all
+     * the partitions are merged in the order of the list of values and then the query is evaluated.
+     * @param query Query object.
+     * @param cqlStatement Single partition cql statement.
+     * @param valuesList List with the values of each partition.
+     * @param maxRows Max number of rows of the merged result or null if the result is not limited.
+     * @param resultType Result type.
+     * @param <R> Expected result instance.
+     * @return Result set.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> R executeFanOutQuery(
+            Query query, String cqlStatement, List<List<Object>> valuesList,
+            Integer maxRows, Class resultType) throws StorageAccessException {
+        CassandraCallerExecutor executor = new CassandraCallerExecutor(layer.getAsyncExecutor());
+        return await(executor, this.<R>executeFanOutQueryAsync(query, cqlStatement, valuesList, maxRows, resultType, executor),
+                "Fan out query");
+    }
+
+    /**
+     * Executes the statement once for each list of values without blocking the invoker thread.
+     * @param query Query object.
+     * @param cqlStatement Single partition cql statement.
+     * @param valuesList List with the values of each partition.
+     * @param maxRows Max number of rows of the merged result or null if the result is not limited.
+     * @param resultType Result type.
+     * @param <R> Expected result instance.
+     * @return Future that will be completed with the result set.
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> CompletableFuture<R> executeFanOutQueryAsync(
+            Query query, String cqlStatement, List<List<Object>> valuesList, Integer maxRows, Class resultType) {
+        return executeFanOutQueryAsync(query, cqlStatement, valuesList, maxRows, resultType, layer.getAsyncExecutor());
+    }
+
+    /**
+     * Executes the statement once for each list of values without blocking the invoker thread. The rows
+     * of the partitions are taken and evaluated using the executor.
+     * @param query Query object.
+     * @param cqlStatement Single partition cql statement.
+     * @param valuesList List with the values of each partition.
+     * @param maxRows Max number of rows of the merged result or null if the result is not limited.
+     * @param resultType Result type.
+     * @param executor Executor of the evaluation and the parsing of the rows.
+     * @param <R> Expected result instance.
+     * @return Future that will be completed with the result set.
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> CompletableFuture<R> executeFanOutQueryAsync(
+            Query query, String cqlStatement, List<List<Object>> valuesList, Integer maxRows, Class resultType,
+            Executor executor) {
+        CassandraMetrics.Scope scope = getMetricsScope(cqlStatement);
+        long startTime = System.nanoTime();
+        PreparedStatement statement;
+        try {
+            statement = layer.getPreparedStatement(session, cqlStatement);
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        scope.record(CassandraMetrics.Phase.PREPARE, startTime);
+
+        FanOutExecution fanOutExecution = new FanOutExecution(statement, valuesList, scope, executor);
+        if(valuesList.isEmpty()) {
+            fanOutExecution.result.complete(new ArrayList<>());
+        } else {
+            int concurrency = Math.min(valuesList.size(), SystemProperties.getInteger(
+                    CassandraProperties.Query.CASSANDRA_STORAGE_LAYER_QUERY_FAN_OUT_CONCURRENCY));
+            for (int i = 0; i < concurrency; i++) {
+                executeNextPartition(fanOutExecution);
+            }
+        }
+
+        return fanOutExecution.result.thenApplyAsync(rawRows -> {
+            List<Row> rows = maxRows != null && rawRows.size() > maxRows ? rawRows.subList(0, maxRows) : rawRows;
+            org.hcjf.layers.storage.actions.ResultSet result;
+            try {
+                result = createQueryResultSet(query, rows, resultType, scope);
+            } catch (StorageAccessException ex) {
+                throw new CompletionException(ex);
+            }
+
+            Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                    "Fan out CQL: %s -> [Partitions: %d, Total time: %d ms, Result size: %d]",
+                    cqlStatement, valuesList.size(), toMillis(System.nanoTime() - startTime), rows.size());
+            return (R) result;
+        }, executor);
+    }
+
+    /**
+     * Takes the next partition of the execution and reads it, when the read is completed the next
+     * partition is read. If some read fails then the pending partitions are discarded.
+     * @param fanOutExecution Fan out execution.
+     */
+    private void executeNextPartition(FanOutExecution fanOutExecution) {
+        Integer index;
+        if(!fanOutExecution.result.isDone() && (index = fanOutExecution.partitions.poll()) != null) {
+            BoundStatement boundStatement;
+            try {
+                boundStatement = bind(fanOutExecution.statement, fanOutExecution.valuesList.get(index).toArray());
+            } catch (Exception ex) {
+                fanOutExecution.result.completeExceptionally(ex);
+                return;
+            }
+            layer.getSlowQueryLog().beforeExecution(boundStatement);
+            long startTime = System.nanoTime();
+            toCompletableFuture(session.executeAsync(boundStatement)).thenCompose(cassandraResultSet -> {
+                long executionTime = fanOutExecution.scope.record(CassandraMetrics.Phase.EXECUTE, startTime);
+                return fetchAll(cassandraResultSet).thenAcceptAsync(rows -> {
+                    onExecuted(boundStatement, cassandraResultSet, startTime, executionTime,
+                            fanOutExecution.scope.record(CassandraMetrics.Phase.FETCH, executionTime), rows.size());
+                    fanOutExecution.onPartitionCompleted(index, rows);
+                }, fanOutExecution.executor);
+            }).whenCompleteAsync((nothing, throwable) -> {
+                if(throwable != null) {
+                    fanOutExecution.result.completeExceptionally(unwrap(throwable));
+                }
+                executeNextPartition(fanOutExecution);
+            }, fanOutExecution.executor);
+        }
+    }
+
+    /**
+     * Reads all the rows of the table scanning the token ring by ranges, the ranges are sent to their local
+     * replicas and the number of ranges in flight is limited by the property
+     * {@link CassandraProperties.Scan#CASSANDRA_STORAGE_LAYER_SCAN_CONCURRENCY}. If the query can be evaluated
+     * page by page then the result is streamed: each range is evaluated when it's consumed and the next range
+     * is requested, in the other case the rows of all the ranges are merged and then the query is evaluated.
+     * @param query Query object.
+     * @param cqlStatement Cql statement with the start and the end of the range as values.
+     * @param resultType Result type.
+     * @param <R> Expected result instance.
+     * @return Result set.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> R executeScanQuery(
+            Query query, String cqlStatement, Class resultType) throws StorageAccessException {
+        if(!isStreamingQuery(query)) {
+            CassandraCallerExecutor executor = new CassandraCallerExecutor(layer.getAsyncExecutor());
+            return await(executor, this.<R>executeScanQueryAsync(query, cqlStatement, resultType, executor), "Scan query");
+        }
+
+        CassandraMetrics.Scope scope = getMetricsScope(cqlStatement);
+        long startTime = System.nanoTime();
+        PreparedStatement statement = layer.getPreparedStatement(session, cqlStatement);
+        List<CassandraTokenRanges.Split> splits = layer.getTokenRangeSplits(session, normalizeName(query.getResourceName()));
+        scope.record(CassandraMetrics.Phase.PREPARE, startTime);
+
+        ScanExecution scanExecution = new ScanExecution(statement, splits, scope, true, null, layer.getAsyncExecutor());
+        startScan(scanExecution);
+        CassandraResultList<Object> resultList = new CassandraResultList<>(scanExecution,
+                rows -> evaluateRows(query, rows, resultType, scope));
+        resultList.loadFirstPage();
+        org.hcjf.layers.storage.actions.ResultSet result;
+        if(resultType != null) {
+            result = new CollectionResultSet(resultList);
+        } else {
+            result = new MapResultSet((List) resultList);
+        }
+
+        Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                "Scan CQL: %s -> [Ranges: %d, Streaming result]", cqlStatement, splits.size());
+        return (R) result;
+    }
+
+    /**
+     * Reads all the rows of the table scanning the token ring by ranges without blocking the invoker thread.
+     * If the query can be evaluated page by page then each range is evaluated when its rows are received,
+     * in the other case the rows of all the ranges are merged and then the query is evaluated.
+     * @param query Query object.
+     * @param cqlStatement Cql statement with the start and the end of the range as values.
+     * @param resultType Result type.
+     * @param <R> Expected result instance.
+     * @return Future that will be completed with the result set.
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> CompletableFuture<R> executeScanQueryAsync(
+            Query query, String cqlStatement, Class resultType) {
+        return executeScanQueryAsync(query, cqlStatement, resultType, layer.getAsyncExecutor());
+    }
+
+    /**
+     * Reads all the rows of the table scanning the token ring by ranges without blocking the invoker thread.
+     * The rows of the ranges are taken and evaluated using the executor.
+     * @param query Query object.
+     * @param cqlStatement Cql statement with the start and the end of the range as values.
+     * @param resultType Result type.
+     * @param executor Executor of the evaluation and the parsing of the rows.
+     * @param <R> Expected result instance.
+     * @return Future that will be completed with the result set.
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> CompletableFuture<R> executeScanQueryAsync(
+            Query query, String cqlStatement, Class resultType, Executor executor) {
+        CassandraMetrics.Scope scope = getMetricsScope(cqlStatement);
+        long startTime = System.nanoTime();
+        PreparedStatement statement;
+        List<CassandraTokenRanges.Split> splits;
+        try {
+            statement = layer.getPreparedStatement(session, cqlStatement);
+            splits = layer.getTokenRangeSplits(session, normalizeName(query.getResourceName()));
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        scope.record(CassandraMetrics.Phase.PREPARE, startTime);
+
+        boolean evaluateByRange = isStreamingQuery(query);
+        ScanExecution scanExecution = new ScanExecution(statement, splits, scope, false,
+                evaluateByRange ? rows -> evaluateRows(query, rows, resultType, scope) : null, executor);
+        startScan(scanExecution);
+
+        return scanExecution.result.thenApplyAsync(elements -> {
+            org.hcjf.layers.storage.actions.ResultSet result;
+            if(!evaluateByRange) {
+                try {
+                    result = createQueryResultSet(query, (List) elements, resultType, scope);
+                } catch (StorageAccessException ex) {
+                    throw new CompletionException(ex);
+                }
+            } else if(resultType != null) {
+                result = new CollectionResultSet(elements);
+            } else {
+                result = new MapResultSet((List) elements);
+            }
+
+            Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                    "Async scan CQL: %s -> [Ranges: %d, Total time: %d ms, Result size: %d]",
+                    cqlStatement, splits.size(), toMillis(System.nanoTime() - startTime), elements.size());
+            return (R) result;
+        }, executor);
+    }
+
+    /**
+     * Starts the concurrent reads of the ranges of the scan.
+     * @param scanExecution Scan execution.
+     */
+    private void startScan(ScanExecution scanExecution) {
+        if(scanExecution.splits.isEmpty()) {
+            scanExecution.result.complete(new ArrayList<>());
+        } else {
+            int concurrency = Math.min(scanExecution.splits.size(), SystemProperties.getInteger(
+                    CassandraProperties.Scan.CASSANDRA_STORAGE_LAYER_SCAN_CONCURRENCY));
+            for (int i = 0; i < concurrency; i++) {
+                executeNextRange(scanExecution);
+            }
+        }
+    }
+
+    /**
+     * Takes the next range of the scan and reads it. If the scan is streamed then the next range is read
+     * when a range is consumed, in the other case the next range is read when the range is completed.
+     * @param scanExecution Scan execution.
+     */
+    private void executeNextRange(ScanExecution scanExecution) {
+        Integer index;
+        if(!scanExecution.result.isDone() && (index = scanExecution.ranges.poll()) != null) {
+            CassandraTokenRanges.Split split = scanExecution.splits.get(index);
+            BoundStatement boundStatement;
+            try {
+                boundStatement = scanExecution.statement.bind()
+                        .setToken(0, split.getRange().getStart())
+                        .setToken(1, split.getRange().getEnd());
+            } catch (Exception ex) {
+                scanExecution.onRangeFailed(ex);
+                return;
+            }
+            layer.getSlowQueryLog().beforeExecution(boundStatement);
+            long startTime = System.nanoTime();
+            Statement rangeStatement = new CassandraRangeRoutingPolicy.RangeStatement(boundStatement, split.getReplicas());
+            toCompletableFuture(session.executeAsync(rangeStatement)).thenCompose(cassandraResultSet -> {
+                long executionTime = scanExecution.scope.record(CassandraMetrics.Phase.EXECUTE, startTime);
+                return fetchAll(cassandraResultSet).thenAcceptAsync(rows -> {
+                    onExecuted(boundStatement, cassandraResultSet, startTime, executionTime,
+                            scanExecution.scope.record(CassandraMetrics.Phase.FETCH, executionTime), rows.size());
+                    try {
+                        scanExecution.onRangeCompleted(index, rows);
+                    } catch (StorageAccessException ex) {
+                        throw new CompletionException(ex);
+                    }
+                }, scanExecution.executor);
+            }).whenCompleteAsync((nothing, throwable) -> {
+                if(throwable != null) {
+                    scanExecution.onRangeFailed(unwrap(throwable));
+                }
+                if(!scanExecution.streaming) {
+                    executeNextRange(scanExecution);
+                }
+            }, scanExecution.executor);
+        }
+    }
+
+    /**
+     * Evaluates the query over the rows, using the post evaluation strategy of the session, and
+     * creates the result set with the instances of the result type or with maps if the result type is null.
+     * @param query Query object.
+     * @param rawRows Data base rows.
+     * @param resultType Result type.
+     * @param scope Metrics scope of the query.
+     * @return Result set.
+     * @throws StorageAccessException StorageAccessException
+     */
+    protected org.hcjf.layers.storage.actions.ResultSet createQueryResultSet(
+            Query query, List<Row> rawRows, Class resultType, CassandraMetrics.Scope scope) throws StorageAccessException {
+        org.hcjf.layers.storage.actions.ResultSet result;
+        if(resultType != null) {
+            result = new CollectionResultSet(evaluateRows(query, rawRows, resultType, scope));
+        } else {
+            result = new MapResultSet(evaluateRows(query, rawRows, resultType, scope));
+        }
+        return result;
+    }
+
+    /**
+     * Evaluates the query over the rows, using the post evaluation strategy of the session, and
+     * creates a list with the instances of the result type or with maps if the result type is null.
+     * @param query Query object.
+     * @param rawRows Data base rows.
+     * @param resultType Result type.
+     * @param scope Metrics scope of the query, the rows are counted and the time of the post evaluation and
+     *              the mapping of the rows is recorded into the scope.
+     * @param <O> Expected type of the list elements.
+     * @return List with the evaluated rows.
+     * @throws StorageAccessException StorageAccessException
+     */
+    protected <O> List<O> evaluateRows(Query query, List<Row> rawRows, Class resultType,
+                                       CassandraMetrics.Scope scope) throws StorageAccessException {
+        scope.rows(rawRows.size());
+        long phaseTime = System.nanoTime();
         Collection<Row> rows;
         if(getPostEvaluationStrategy().equals(PostEvaluationStrategy.EVALUATE_RAW_DATA)) {
             rows = query.evaluate(rawRows, new Query.DefaultConsumer<Row>() {
@@ -81,11 +842,12 @@ public class CassandraStorageSession extends StorageSession {
                 }
 
             });
+            phaseTime = scope.record(CassandraMetrics.Phase.POST_EVALUATE, phaseTime);
         } else {
             rows = rawRows;
         }
 
-        org.hcjf.layers.storage.actions.ResultSet result;
+        List result;
         if(resultType != null) {
             List<Object> instances = new ArrayList<>();
             if(getPostEvaluationStrategy().equals(PostEvaluationStrategy.EVALUATE_PARSED_DATA)) {
@@ -112,7 +874,7 @@ public class CassandraStorageSession extends StorageSession {
                 }
             }
 
-            result = new CollectionResultSet(instances);
+            result = instances;
         } else {
             List<Map<String, Object>> resultRows = new ArrayList<>();
             if(getPostEvaluationStrategy().equals(PostEvaluationStrategy.EVALUATE_PARSED_DATA)) {
@@ -135,35 +897,205 @@ public class CassandraStorageSession extends StorageSession {
                 }
             }
 
-            result = new MapResultSet(resultRows);
+            result = resultRows;
         }
-        parsingTime = System.currentTimeMillis() - parsingTime;
-        totalTime = System.currentTimeMillis() - totalTime;
 
-        Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
-                "CQL: %s -> [Query Time: %d ms, Parsing Time: %d ms, Total time: %d ms, Result size: %d]",
-                toStringStatement(boundStatement), queryTime, parsingTime, totalTime, rawRows.size());
+        //When the rows are evaluated after the parsing, the mapping time is recorded as post evaluation time.
+        scope.record(getPostEvaluationStrategy().equals(PostEvaluationStrategy.EVALUATE_PARSED_DATA) ?
+                CassandraMetrics.Phase.POST_EVALUATE : CassandraMetrics.Phase.MAP, phaseTime);
+        return result;
+    }
+
+    /**
+     * Adapts the driver's future to a completable future, the future is completed
+     * into the driver's thread.
+     * @param resultSetFuture Driver's future.
+     * @return Completable future.
+     */
+    protected final CompletableFuture<com.datastax.driver.core.ResultSet> toCompletableFuture(
+            ListenableFuture<com.datastax.driver.core.ResultSet> resultSetFuture) {
+        CompletableFuture<com.datastax.driver.core.ResultSet> result = new CompletableFuture<>();
+        Futures.addCallback(resultSetFuture, new FutureCallback<com.datastax.driver.core.ResultSet>() {
+            @Override
+            public void onSuccess(com.datastax.driver.core.ResultSet cassandraResultSet) {
+                result.complete(cassandraResultSet);
+            }
 
+            @Override
+            public void onFailure(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        }, MoreExecutors.directExecutor());
+        return result;
+    }
+
+    /**
+     * Takes all the rows of the result set without blocking the invoker thread, the rows of the current page
+     * are taken and the next page is requested asynchronously until the result set is fully fetched.
+     * @param cassandraResultSet Result set.
+     * @return Future that will be completed with all the rows, into the driver's thread that receives the last page.
+     */
+    protected final CompletableFuture<List<Row>> fetchAll(com.datastax.driver.core.ResultSet cassandraResultSet) {
+        return fetchAll(cassandraResultSet, new ArrayList<>());
+    }
+
+    /**
+     * Adds the rows of the current page to the list and requests the next page if the result set is not
+     * fully fetched.
+     * @param cassandraResultSet Result set.
+     * @param rows List with the rows of the previous pages.
+     * @return Future that will be completed with all the rows.
+     */
+    private CompletableFuture<List<Row>> fetchAll(com.datastax.driver.core.ResultSet cassandraResultSet, List<Row> rows) {
+        int available = cassandraResultSet.getAvailableWithoutFetching();
+        for (int i = 0; i < available; i++) {
+            rows.add(cassandraResultSet.one());
+        }
+        CompletableFuture<List<Row>> result;
+        if(cassandraResultSet.isFullyFetched()) {
+            result = CompletableFuture.completedFuture(rows);
+        } else {
+            result = toCompletableFuture(cassandraResultSet.fetchMoreResults()).thenCompose(
+                    nextPage -> fetchAll(cassandraResultSet, rows));
+        }
+        return result;
+    }
+
+    /**
+     * Binds the values to the prepared statement and sets the routing key of the bound statement.
+     * @param statement Prepared statement.
+     * @param values Statement values.
+     * @return Bound statement.
+     */
+    protected final BoundStatement bind(PreparedStatement statement, Object... values) {
+        return layer.route(session, statement.bind(values));
+    }
+
+    /**
+     * Creates the string representation of te cql statement.
+     * @param statement Cql statement.
+     * @return String representation.
+     */
+    protected String toStringStatement(BoundStatement statement) {
+        StringBuilder builder = new StringBuilder(statement.preparedStatement().getQueryString());
+        int startIndex;
+        for(int i = 0; i < statement.preparedStatement().getVariables().size(); i++) {
+            startIndex = builder.indexOf("?");
+            builder.replace(startIndex, startIndex + 1, statement.getObject(i) != null ? statement.getObject(i).toString() : "null");
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Creates an object that returns the string representation of the statement only when its
+     * {@link Object#toString()} method is invoked, then the statement is not formatted if the log
+     * record is discarded.
+     * @param statement Cql statement.
+     * @return Lazy representation of the statement.
+     */
+    protected final Object describe(BoundStatement statement) {
+        return new Object() {
+            @Override
+            public String toString() {
+                return toStringStatement(statement);
+            }
+        };
+    }
+
+    /**
+     * Return the metrics scope of the cql statement.
+     * @param cqlStatement Cql statement.
+     * @return Metrics scope.
+     */
+    protected final CassandraMetrics.Scope getMetricsScope(String cqlStatement) {
+        return layer.getMetrics().getScope(cqlStatement);
+    }
+
+    /**
+     * Reports the execution to the slow query log of the layer.
+     * @param boundStatement Executed statement.
+     * @param cassandraResultSet Result set of the execution.
+     * @param startTime Start time of the execution, taken from {@link System#nanoTime()}.
+     * @param executionEndTime End time of the execution into the cluster.
+     * @param endTime End time of the client side processing.
+     * @param rows Number of rows processed.
+     */
+    private void onExecuted(BoundStatement boundStatement, com.datastax.driver.core.ResultSet cassandraResultSet,
+                            long startTime, long executionEndTime, long endTime, int rows) {
+        layer.getMetrics().executed(cassandraResultSet.getExecutionInfo());
+        layer.getSlowQueryLog().afterExecution(boundStatement, describe(boundStatement), cassandraResultSet,
+                startTime, executionEndTime, endTime, rows);
+    }
+
+    /**
+     * Return the slow query log of the storage layer.
+     * @return Slow query log.
+     */
+    public final CassandraSlowQueryLog getSlowQueryLog() {
+        return layer.getSlowQueryLog();
+    }
+
+    /**
+     * Return the counter accumulator of the storage layer.
+     * @return Counter accumulator or null if it's disabled.
+     */
+    public final CassandraCounterAccumulator getCounterAccumulator() {
+        return layer.getCounterAccumulator();
+    }
+
+    /**
+     * Return the asynchronous executor of the storage layer.
+     * @return Asynchronous executor.
+     */
+    public final Executor getAsyncExecutor() {
+        return layer.getAsyncExecutor();
+    }
+
+    /**
+     * Waits for the result of an asynchronous operation and unwraps the cause of the fail. The continuations
+     * of the operation are executed into the invoker thread by the caller executor.
+     * @param executor Caller executor used by the operation.
+     * @param future Future of the operation.
+     * @param operationName Name of the operation used into the error messages.
+     * @param <R> Type of the result.
+     * @return Result of the operation.
+     * @throws StorageAccessException StorageAccessException
+     */
+    private static <R> R await(CassandraCallerExecutor executor, CompletableFuture<R> future,
+                               String operationName) throws StorageAccessException {
         try {
-            return (R) result;
-        } catch (ClassCastException ex) {
-            throw new StorageAccessException("", ex);
+            return executor.await(future);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new StorageAccessException(operationName + " interrupted", ex);
+        } catch (ExecutionException ex) {
+            if(ex.getCause() instanceof StorageAccessException) {
+                throw (StorageAccessException) ex.getCause();
+            } else if(ex.getCause() instanceof CompletionException &&
+                    ex.getCause().getCause() instanceof StorageAccessException) {
+                throw (StorageAccessException) ex.getCause().getCause();
+            }
+            throw new StorageAccessException(operationName + " fail", ex.getCause());
         }
     }
 
     /**
-     * Creates the string representation of te cql statement.
-     * @param statement Cql statement.
-     * @return String representation.
+     * Return the cause of the fail of a stage, without the completion exception that wraps it.
+     * @param throwable Fail of the stage.
+     * @return Cause of the fail.
      */
-    protected String toStringStatement(BoundStatement statement) {
-        StringBuilder builder = new StringBuilder(statement.preparedStatement().getQueryString());
-        int startIndex;
-        for(int i = 0; i < statement.preparedStatement().getVariables().size(); i++) {
-            startIndex = builder.indexOf("?");
-            builder.replace(startIndex, startIndex + 1, statement.getObject(i) != null ? statement.getObject(i).toString() : "null");
-        }
-        return builder.toString();
+    private static Throwable unwrap(Throwable throwable) {
+        return throwable instanceof CompletionException && throwable.getCause() != null ?
+                throwable.getCause() : throwable;
+    }
+
+    /**
+     * Converts nanoseconds to milliseconds.
+     * @param nanos Nanoseconds.
+     * @return Milliseconds.
+     */
+    private static long toMillis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
     }
 
     /**
@@ -252,21 +1184,312 @@ public class CassandraStorageSession extends StorageSession {
      */
     public <R extends org.hcjf.layers.storage.actions.ResultSet> R execute(
             String cqlStatement, List<Object> values, Class resultType) throws StorageAccessException {
-        PreparedStatement statement = session.prepare(cqlStatement);
+        long startTime = System.nanoTime();
+        PreparedStatement statement = layer.getPreparedStatement(session, cqlStatement);
+        getMetricsScope(cqlStatement).record(CassandraMetrics.Phase.PREPARE, startTime);
+        return execute(statement.bind(checkValuesDataType(values)), resultType);
+    }
 
-        long totalTime;
-        long queryTime = totalTime = System.currentTimeMillis();
-        BoundStatement boundStatement = statement.bind(checkValuesDataType(values));
-        com.datastax.driver.core.ResultSet cassandraResultSet =
-                session.execute(boundStatement);
-        queryTime = System.currentTimeMillis() - queryTime;
+    /**
+     * Execute the bound statement over cassandra cluster.
+     * @param boundStatement Bound statement.
+     * @param resultType Expected result type.
+     * @param <R> Expected result set type.
+     * @return Storage layer result set instance.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> R execute(
+            BoundStatement boundStatement, Class resultType) throws StorageAccessException {
+        layer.route(session, boundStatement);
+        CassandraMetrics.Scope scope = getMetricsScope(boundStatement.preparedStatement().getQueryString());
+        layer.getSlowQueryLog().beforeExecution(boundStatement);
+        long startTime = System.nanoTime();
+        com.datastax.driver.core.ResultSet cassandraResultSet;
+        try {
+            cassandraResultSet = session.execute(boundStatement);
+        } finally {
+            layer.invalidateNearCache(session, boundStatement);
+        }
+        long parsingTime = scope.record(CassandraMetrics.Phase.EXECUTE, startTime);
+        int rows = cassandraResultSet.getAvailableWithoutFetching();
+
+        org.hcjf.layers.storage.actions.ResultSet result = createResultSet(cassandraResultSet, resultType);
+        long endTime = scope.record(CassandraMetrics.Phase.MAP, parsingTime);
+        onExecuted(boundStatement, cassandraResultSet, startTime, parsingTime, endTime, rows);
+
+        Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                "CQL: %s -> [Query Time: %d ms, Parsing Time: %d ms, Total time: %d ms]",
+                 describe(boundStatement), toMillis(parsingTime - startTime), toMillis(endTime - parsingTime),
+                toMillis(endTime - startTime));
+
+        try {
+            return (R) result;
+        } catch (ClassCastException ex) {
+            throw new StorageAccessException("", ex);
+        }
+    }
+
+    /**
+     * Execute the statement over cassandra cluster without blocking the invoker thread.
+     * The rows are parsed using the asynchronous executor of the storage layer.
+     * @param cqlStatement Cql statement.
+     * @param values Statements values.
+     * @param resultType Expected result type.
+     * @param <R> Expected result set type.
+     * @return Future that will be completed with the storage layer result set.
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> CompletableFuture<R> executeAsync(
+            String cqlStatement, List<Object> values, Class resultType) {
+        return executeAsync(cqlStatement, values, resultType, layer.getAsyncExecutor());
+    }
+
+    /**
+     * Execute the statement over cassandra cluster without blocking the invoker thread.
+     * The rows are parsed using the executor.
+     * @param cqlStatement Cql statement.
+     * @param values Statements values.
+     * @param resultType Expected result type.
+     * @param executor Executor of the parsing of the rows.
+     * @param <R> Expected result set type.
+     * @return Future that will be completed with the storage layer result set.
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> CompletableFuture<R> executeAsync(
+            String cqlStatement, List<Object> values, Class resultType, Executor executor) {
+        long startTime = System.nanoTime();
+        BoundStatement boundStatement;
+        try {
+            boundStatement = layer.getPreparedStatement(session, cqlStatement).bind(checkValuesDataType(values));
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        getMetricsScope(cqlStatement).record(CassandraMetrics.Phase.PREPARE, startTime);
+        return executeAsync(boundStatement, resultType, executor);
+    }
+
+    /**
+     * Execute the bound statement over cassandra cluster without blocking the invoker thread.
+     * The rows are parsed using the asynchronous executor of the storage layer.
+     * @param boundStatement Bound statement.
+     * @param resultType Expected result type.
+     * @param <R> Expected result set type.
+     * @return Future that will be completed with the storage layer result set.
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> CompletableFuture<R> executeAsync(
+            BoundStatement boundStatement, Class resultType) {
+        return executeAsync(boundStatement, resultType, layer.getAsyncExecutor());
+    }
+
+    /**
+     * Execute the bound statement over cassandra cluster without blocking the invoker thread.
+     * The pages of the result are fetched asynchronously and the rows are parsed using the executor.
+     * @param boundStatement Bound statement.
+     * @param resultType Expected result type.
+     * @param executor Executor of the parsing of the rows.
+     * @param <R> Expected result set type.
+     * @return Future that will be completed with the storage layer result set.
+     */
+    public <R extends org.hcjf.layers.storage.actions.ResultSet> CompletableFuture<R> executeAsync(
+            BoundStatement boundStatement, Class resultType, Executor executor) {
+        layer.route(session, boundStatement);
+        CassandraMetrics.Scope scope = getMetricsScope(boundStatement.preparedStatement().getQueryString());
+        layer.getSlowQueryLog().beforeExecution(boundStatement);
+        long startTime = System.nanoTime();
+        return toCompletableFuture(session.executeAsync(boundStatement)).whenComplete((cassandraResultSet, throwable) ->
+                layer.invalidateNearCache(session, boundStatement)).thenCompose(cassandraResultSet -> {
+            long parsingTime = scope.record(CassandraMetrics.Phase.EXECUTE, startTime);
+            return fetchAll(cassandraResultSet).thenApplyAsync(rows -> {
+                org.hcjf.layers.storage.actions.ResultSet result;
+                try {
+                    result = createResultSet(rows, resultType);
+                } catch (StorageAccessException ex) {
+                    throw new CompletionException(ex);
+                }
+                onExecuted(boundStatement, cassandraResultSet, startTime, parsingTime,
+                        scope.record(CassandraMetrics.Phase.MAP, parsingTime), rows.size());
+
+                Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                        "Async CQL: %s -> [Total time: %d ms]",
+                        describe(boundStatement), toMillis(System.nanoTime() - startTime));
+                return (R) result;
+            }, executor);
+        });
+    }
+
+    /**
+     * Executes the statement once for each list of values. The executions with the same partition key are
+     * grouped into batches, the size of each batch is limited by the property
+     * {@link CassandraProperties.Batch#CASSANDRA_STORAGE_LAYER_BATCH_MAX_SIZE} and the number of batches in flight
+     * is limited by the property {@link CassandraProperties.Batch#CASSANDRA_STORAGE_LAYER_BATCH_MAX_CONCURRENCY}.
+     * @param cqlStatement Cql statement.
+     * @param valuesList List with the values of each execution.
+     * @param partitionKeys List with the partition key values of each execution.
+     * @param batchType Type of the batches.
+     * @return List with the error of each execution, the error is null if the execution was successful.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public List<Throwable> executeBatches(String cqlStatement, List<List<Object>> valuesList,
+                                          List<List<Object>> partitionKeys, BatchStatement.Type batchType) throws StorageAccessException {
+        CassandraCallerExecutor executor = new CassandraCallerExecutor(layer.getAsyncExecutor());
+        return await(executor, executeBatchesAsync(cqlStatement, valuesList, partitionKeys, batchType, executor),
+                "Batch execution");
+    }
+
+    /**
+     * Executes the statement once for each list of values without blocking the invoker thread.
+     * The executions with the same partition key are grouped into batches.
+     * @param cqlStatement Cql statement.
+     * @param valuesList List with the values of each execution.
+     * @param partitionKeys List with the partition key values of each execution.
+     * @param batchType Type of the batches.
+     * @return Future that will be completed with the error of each execution, the error is null if the execution
+     * was successful.
+     */
+    public CompletableFuture<List<Throwable>> executeBatchesAsync(String cqlStatement, List<List<Object>> valuesList,
+                                                                  List<List<Object>> partitionKeys, BatchStatement.Type batchType) {
+        return executeBatchesAsync(cqlStatement, valuesList, partitionKeys, batchType, layer.getAsyncExecutor());
+    }
+
+    /**
+     * Executes the statement once for each list of values without blocking the invoker thread. The next
+     * batch is sent from the executor when a batch is completed.
+     * @param cqlStatement Cql statement.
+     * @param valuesList List with the values of each execution.
+     * @param partitionKeys List with the partition key values of each execution.
+     * @param batchType Type of the batches.
+     * @param executor Executor of the completion of the batches.
+     * @return Future that will be completed with the error of each execution, the error is null if the execution
+     * was successful.
+     */
+    public CompletableFuture<List<Throwable>> executeBatchesAsync(String cqlStatement, List<List<Object>> valuesList,
+                                                                  List<List<Object>> partitionKeys, BatchStatement.Type batchType,
+                                                                  Executor executor) {
+        CassandraMetrics.Scope scope = getMetricsScope(cqlStatement);
+        long startTime = System.nanoTime();
+        PreparedStatement statement;
+        try {
+            statement = layer.getPreparedStatement(session, cqlStatement);
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        scope.record(CassandraMetrics.Phase.PREPARE, startTime);
+
+        Map<List<Object>, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < valuesList.size(); i++) {
+            groups.computeIfAbsent(partitionKeys.get(i), key -> new ArrayList<>()).add(i);
+        }
+
+        int maxBatchSize = SystemProperties.getInteger(CassandraProperties.Batch.CASSANDRA_STORAGE_LAYER_BATCH_MAX_SIZE);
+        Queue<List<Integer>> batches = new ConcurrentLinkedQueue<>();
+        for(List<Integer> group : groups.values()) {
+            for (int from = 0; from < group.size(); from += maxBatchSize) {
+                batches.add(group.subList(from, Math.min(from + maxBatchSize, group.size())));
+            }
+        }
+
+        BatchExecution batchExecution = new BatchExecution(statement, valuesList, batches, batchType, scope, executor);
+        if(batches.isEmpty()) {
+            batchExecution.result.complete(new ArrayList<>());
+        } else {
+            int concurrency = Math.min(batches.size(), SystemProperties.getInteger(
+                    CassandraProperties.Batch.CASSANDRA_STORAGE_LAYER_BATCH_MAX_CONCURRENCY));
+            for (int i = 0; i < concurrency; i++) {
+                executeNextBatch(batchExecution);
+            }
+        }
+        return batchExecution.result;
+    }
+
+    /**
+     * Takes the next batch of the execution and executes it, when the batch is completed
+     * the next batch is executed.
+     * @param batchExecution Batch execution.
+     */
+    private void executeNextBatch(BatchExecution batchExecution) {
+        List<Integer> batch;
+        while((batch = batchExecution.batches.poll()) != null) {
+            Statement statement;
+            try {
+                if(batch.size() == 1) {
+                    statement = bind(batchExecution.statement, checkValuesDataType(batchExecution.valuesList.get(batch.get(0))));
+                } else {
+                    //All the statements of the batch have the same partition key, then the batch is routed
+                    //with the routing key of the first statement.
+                    BatchStatement batchStatement = new BatchStatement(batchExecution.batchType);
+                    for(Integer index : batch) {
+                        BoundStatement boundStatement = batchExecution.statement.bind(checkValuesDataType(batchExecution.valuesList.get(index)));
+                        batchStatement.add(batchStatement.size() == 0 ? layer.route(session, boundStatement) : boundStatement);
+                    }
+                    statement = batchStatement;
+                }
+            } catch (Exception ex) {
+                batchExecution.onBatchCompleted(batch, ex);
+                continue;
+            }
+
+            List<Integer> currentBatch = batch;
+            long startTime = System.nanoTime();
+            Statement currentStatement = statement;
+            toCompletableFuture(session.executeAsync(statement)).whenCompleteAsync((resultSet, throwable) -> {
+                batchExecution.scope.record(CassandraMetrics.Phase.EXECUTE, startTime);
+                layer.invalidateNearCache(session, currentStatement);
+                batchExecution.onBatchCompleted(currentBatch, throwable);
+                executeNextBatch(batchExecution);
+            }, batchExecution.executor);
+            break;
+        }
+    }
+
+    /**
+     * Writes all the elements of the source into the resource. The elements could be maps or entity instances
+     * and the writes are executed asynchronously keeping the number of writes in flight configured in the property
+     * {@link CassandraProperties.Bulk#CASSANDRA_STORAGE_LAYER_BULK_MAX_IN_FLIGHT}.
+     * @param resourceName Resource name.
+     * @param source Source of elements.
+     * @return Final report of the load.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public CassandraBulkLoadReport bulkLoad(String resourceName, Iterator<?> source) throws StorageAccessException {
+        return bulkLoad(resourceName, source, null);
+    }
+
+    /**
+     * Writes all the elements of the stream into the resource.
+     * @param resourceName Resource name.
+     * @param source Stream of elements.
+     * @return Final report of the load.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public CassandraBulkLoadReport bulkLoad(String resourceName, Stream<?> source) throws StorageAccessException {
+        return bulkLoad(resourceName, source.iterator(), null);
+    }
+
+    /**
+     * Writes all the elements of the source into the resource notifying the progress and the failures to the listener.
+     * @param resourceName Resource name.
+     * @param source Source of elements.
+     * @param listener Bulk load listener.
+     * @return Final report of the load.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public CassandraBulkLoadReport bulkLoad(String resourceName, Iterator<?> source,
+                                            CassandraBulkLoadListener listener) throws StorageAccessException {
+        return new CassandraBulkLoader(this, resourceName, listener).load(source);
+    }
 
-        long parsingTime = System.currentTimeMillis();
+    /**
+     * Creates the result set with the instances of the result type or with maps if the result type is null.
+     * @param rows Data base rows.
+     * @param resultType Expected result type.
+     * @return Storage layer result set instance.
+     * @throws StorageAccessException StorageAccessException
+     */
+    protected org.hcjf.layers.storage.actions.ResultSet createResultSet(
+            Iterable<Row> rows, Class resultType) throws StorageAccessException {
         org.hcjf.layers.storage.actions.ResultSet result;
         if(resultType != null) {
             List<Object> instances = new ArrayList<>();
 
-            for (Row row : cassandraResultSet) {
+            for (Row row : rows) {
                 instances.add(createInstance(resultType, row));
             }
 
@@ -278,30 +1501,19 @@ public class CassandraStorageSession extends StorageSession {
                 result = new CollectionResultSet(instances);
             }
         } else {
-            List<Map<String, Object>> rows = new ArrayList<>();
+            List<Map<String, Object>> resultRows = new ArrayList<>();
             Map<String, Object> map;
-            for(Row row : cassandraResultSet) {
+            for(Row row : rows) {
                 map = new HashMap<>();
                 for(ColumnDefinitions.Definition definition : row.getColumnDefinitions()) {
                     map.put(normalizeName(definition.getName()), row.getObject(definition.getName()));
                 }
-                rows.add(map);
+                resultRows.add(map);
             }
 
-            result = new MapResultSet(rows);
-        }
-        parsingTime = System.currentTimeMillis() - parsingTime;
-        totalTime = System.currentTimeMillis() - totalTime;
-
-        Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
-                "CQL: %s -> [Query Time: %d ms, Parsing Time: %d ms, Total time: %d ms]",
-                 toStringStatement(boundStatement), queryTime, parsingTime, totalTime);
-
-        try {
-            return (R) result;
-        } catch (ClassCastException ex) {
-            throw new StorageAccessException("", ex);
+            result = new MapResultSet(resultRows);
         }
+        return result;
     }
 
     /**
@@ -312,37 +1524,26 @@ public class CassandraStorageSession extends StorageSession {
      * @throws StorageAccessException StorageAccessException
      */
     protected Object createInstance(Class resultType, Row row) throws StorageAccessException {
-        Object instance;
-        Object rowValue;
-        Introspection.Setter setter;
-
-        try {
-            instance = resultType.getConstructor().newInstance();
-        } catch (Exception ex) {
-            throw new StorageAccessException("Unable to create instance", ex);
-        }
+        return getRowMapper(resultType, row).map(row);
+    }
 
-        Map<String, Introspection.Setter> setters = Introspection.getSetters(resultType,layer.getNamingImplName());
-        for (ColumnDefinitions.Definition definition : row.getColumnDefinitions()) {
-            if (setters.containsKey(definition.getName())) {
-                try {
-                    setter = setters.get(definition.getName());
-                    rowValue = row.getObject(definition.getName());
-                    if (rowValue != null) {
-                        if (setter.getParameterType().isEnum()) {
-                            rowValue = Enum.valueOf((Class<? extends Enum>) setter.getParameterType(), (String) rowValue);
-                        } else if (setter.getParameterType().equals(Class.class)) {
-                            rowValue = Class.forName((String) rowValue);
-                        }
-                        setter.invoke(instance, rowValue);
-                    }
-                } catch (Exception ex) {
-                    Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
-                            "Unable to set value", ex);
-                }
-            }
+    /**
+     * Return the compiled mapper for the result type and the column definitions of the row. The rows
+     * of the same result set share the column definitions instance, then the last mapper is reused
+     * without any lookup.
+     * @param resultType Result type expected.
+     * @param row Data base row.
+     * @return Row mapper.
+     * @throws StorageAccessException StorageAccessException
+     */
+    protected final CassandraRowMapper getRowMapper(Class resultType, Row row) throws StorageAccessException {
+        RowMapperSlot slot = lastRowMapper;
+        ColumnDefinitions columnDefinitions = row.getColumnDefinitions();
+        if(slot == null || slot.resultType != resultType || slot.columnDefinitions != columnDefinitions) {
+            slot = new RowMapperSlot(resultType, columnDefinitions, layer.getRowMapper(resultType, columnDefinitions));
+            lastRowMapper = slot;
         }
-        return instance;
+        return slot.rowMapper;
     }
 
     /**
@@ -374,6 +1575,298 @@ public class CassandraStorageSession extends StorageSession {
     public void close() throws IOException {
     }
 
+    /**
+     * Last row mapper used by the session and the column definitions that it maps.
+     */
+    private static final class RowMapperSlot {
+
+        private final Class resultType;
+        private final ColumnDefinitions columnDefinitions;
+        private final CassandraRowMapper rowMapper;
+
+        private RowMapperSlot(Class resultType, ColumnDefinitions columnDefinitions, CassandraRowMapper rowMapper) {
+            this.resultType = resultType;
+            this.columnDefinitions = columnDefinitions;
+            this.rowMapper = rowMapper;
+        }
+    }
+
+    /**
+     * Contains the state of a scan of the token ring. If the scan is streamed then the execution is
+     * the source of pages of the result list, each page contains the rows of a range, and the next range
+     * is read when a page is consumed. In the other case the execution completes the result with the
+     * elements of all the ranges in order.
+     */
+    private class ScanExecution implements CassandraResultList.PageSource {
+
+        private final PreparedStatement statement;
+        private final List<CassandraTokenRanges.Split> splits;
+        private final Queue<Integer> ranges;
+        private final CassandraMetrics.Scope scope;
+        private final boolean streaming;
+        private final CassandraResultList.PageParser<Object> rangeParser;
+        private final Executor executor;
+        private final BlockingQueue<Object> pages;
+        private final AtomicReferenceArray<Collection<Object>> elements;
+        private final AtomicInteger pending;
+        private final CompletableFuture<List<Object>> result;
+        private int consumedPages;
+
+        private ScanExecution(PreparedStatement statement, List<CassandraTokenRanges.Split> splits,
+                              CassandraMetrics.Scope scope, boolean streaming,
+                              CassandraResultList.PageParser<Object> rangeParser, Executor executor) {
+            this.statement = statement;
+            this.splits = splits;
+            this.ranges = new ConcurrentLinkedQueue<>();
+            for (int i = 0; i < splits.size(); i++) {
+                ranges.add(i);
+            }
+            this.scope = scope;
+            this.streaming = streaming;
+            this.rangeParser = rangeParser;
+            this.executor = executor;
+            this.pages = new LinkedBlockingQueue<>();
+            this.elements = new AtomicReferenceArray<>(splits.size());
+            this.pending = new AtomicInteger(splits.size());
+            this.result = new CompletableFuture<>();
+        }
+
+        /**
+         * Stores the rows of the range, if the scan is not streamed and the query can be evaluated by range
+         * then the rows are evaluated into the thread that receives them.
+         * @param index Index of the range.
+         * @param rows Rows of the range.
+         * @throws StorageAccessException StorageAccessException
+         */
+        private void onRangeCompleted(int index, List<Row> rows) throws StorageAccessException {
+            if(streaming) {
+                pages.add(rows);
+            } else {
+                elements.set(index, rangeParser == null ? (List) rows : rangeParser.parse(rows));
+                if(pending.decrementAndGet() == 0) {
+                    List<Object> mergedElements = new ArrayList<>();
+                    for (int i = 0; i < elements.length(); i++) {
+                        mergedElements.addAll(elements.get(i));
+                    }
+                    result.complete(mergedElements);
+                }
+            }
+        }
+
+        /**
+         * Fails the scan, the pending ranges are discarded.
+         * @param throwable Cause of the fail.
+         */
+        private void onRangeFailed(Throwable throwable) {
+            if(streaming) {
+                pages.add(throwable);
+            }
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return consumedPages < splits.size();
+        }
+
+        @Override
+        public List<Row> next() {
+            if(!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Object page;
+            try {
+                page = pages.take();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Scan interrupted", ex);
+            }
+            if(page instanceof Throwable) {
+                consumedPages = splits.size();
+                throw new IllegalStateException("Unable to scan range", (Throwable) page);
+            }
+            consumedPages++;
+            executeNextRange(this);
+            return (List<Row>) page;
+        }
+    }
+
+    /**
+     * Contains the state of a concurrent execution of single partition queries.
+     */
+    private static class FanOutExecution {
+
+        private final PreparedStatement statement;
+        private final List<List<Object>> valuesList;
+        private final Queue<Integer> partitions;
+        private final CassandraMetrics.Scope scope;
+        private final Executor executor;
+        private final AtomicReferenceArray<List<Row>> rows;
+        private final AtomicInteger pending;
+        private final CompletableFuture<List<Row>> result;
+
+        private FanOutExecution(PreparedStatement statement, List<List<Object>> valuesList, CassandraMetrics.Scope scope,
+                                Executor executor) {
+            this.statement = statement;
+            this.valuesList = valuesList;
+            this.partitions = new ConcurrentLinkedQueue<>();
+            for (int i = 0; i < valuesList.size(); i++) {
+                partitions.add(i);
+            }
+            this.scope = scope;
+            this.executor = executor;
+            this.rows = new AtomicReferenceArray<>(valuesList.size());
+            this.pending = new AtomicInteger(valuesList.size());
+            this.result = new CompletableFuture<>();
+        }
+
+        /**
+         * Stores the rows of the partition and completes the result with the merged rows when all the
+         * partitions are completed.
+         * @param index Index of the partition.
+         * @param partitionRows Rows of the partition.
+         */
+        private void onPartitionCompleted(int index, List<Row> partitionRows) {
+            rows.set(index, partitionRows);
+            if(pending.decrementAndGet() == 0) {
+                List<Row> mergedRows = new ArrayList<>();
+                for (int i = 0; i < rows.length(); i++) {
+                    mergedRows.addAll(rows.get(i));
+                }
+                result.complete(mergedRows);
+            }
+        }
+    }
+
+    /**
+     * Contains the state of a limited query executed page by page, the pages are evaluated one at a time
+     * then the state is not shared between threads concurrently.
+     */
+    private static class EarlyLimitExecution {
+
+        private final BoundStatement statement;
+        private final Query query;
+        private final Class resultType;
+        private final int rowLimit;
+        private final long executionTime;
+        private final CassandraMetrics.Scope scope;
+        private final List<Object> elements;
+        private final Executor executor;
+        private final CompletableFuture<List<Object>> result;
+        private int pages;
+        private int rows;
+
+        private EarlyLimitExecution(BoundStatement statement, Query query, Class resultType, int rowLimit,
+                                    long executionTime, CassandraMetrics.Scope scope, Executor executor) {
+            this.statement = statement;
+            this.query = query;
+            this.resultType = resultType;
+            this.rowLimit = rowLimit;
+            this.executionTime = executionTime;
+            this.scope = scope;
+            this.executor = executor;
+            this.elements = new ArrayList<>();
+            this.result = new CompletableFuture<>();
+        }
+    }
+
+    /**
+     * Contains the state of a concurrent execution of batches.
+     */
+    private static class BatchExecution {
+
+        private final PreparedStatement statement;
+        private final List<List<Object>> valuesList;
+        private final Queue<List<Integer>> batches;
+        private final BatchStatement.Type batchType;
+        private final CassandraMetrics.Scope scope;
+        private final Executor executor;
+        private final AtomicReferenceArray<Throwable> errors;
+        private final AtomicInteger pending;
+        private final CompletableFuture<List<Throwable>> result;
+
+        private BatchExecution(PreparedStatement statement, List<List<Object>> valuesList, Queue<List<Integer>> batches,
+                               BatchStatement.Type batchType, CassandraMetrics.Scope scope, Executor executor) {
+            this.statement = statement;
+            this.valuesList = valuesList;
+            this.batches = batches;
+            this.batchType = batchType;
+            this.scope = scope;
+            this.executor = executor;
+            this.errors = new AtomicReferenceArray<>(valuesList.size());
+            this.pending = new AtomicInteger(batches.size());
+            this.result = new CompletableFuture<>();
+        }
+
+        /**
+         * Stores the error of the batch executions and completes the result when all the
+         * batches are completed.
+         * @param batch Indexes of the executions of the batch.
+         * @param throwable Batch error or null if the batch was successful.
+         */
+        private void onBatchCompleted(List<Integer> batch, Throwable throwable) {
+            if(throwable != null) {
+                for(Integer index : batch) {
+                    errors.set(index, throwable);
+                }
+            }
+            if(pending.decrementAndGet() == 0) {
+                List<Throwable> errorList = new ArrayList<>();
+                for (int i = 0; i < errors.length(); i++) {
+                    errorList.add(errors.get(i));
+                }
+                result.complete(errorList);
+            }
+        }
+    }
+
+    /**
+     * Return the cached descriptor of the resource table.
+     * @param resourceName Resource name.
+     * @return Table descriptor.
+     */
+    public final CassandraTableDescriptor getTableDescriptor(String resourceName) {
+        CassandraTableDescriptor result = layer.getTableDescriptor(session, resourceName);
+        if(result == null) {
+            throw new IllegalArgumentException("Resource not found: " + resourceName);
+        }
+        return result;
+    }
+
+    /**
+     * Return the write plan of the entity class for the resource.
+     * @param entityClass Entity class.
+     * @param resourceName Normalized resource name.
+     * @param statementFormat Format of the statement, with three places: resource name, columns and value places.
+     * @return Write plan.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public final CassandraWritePlan getWritePlan(Class entityClass, String resourceName, String statementFormat) throws StorageAccessException {
+        return layer.getWritePlan(this, entityClass, resourceName, statementFormat);
+    }
+
+    /**
+     * Return the select plan for the shape of the query.
+     * @param query Query.
+     * @param limitRows If this parameter is false then the plan doesn't limit the rows.
+     * @param keysOnly If this parameter is true then the plan reads only the primary key and the columns
+     *                 used by the query.
+     * @return Select plan.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public final CassandraSelectPlan getSelectPlan(Query query, boolean limitRows, boolean keysOnly) throws StorageAccessException {
+        return layer.getSelectPlan(this, query, limitRows, keysOnly);
+    }
+
+    /**
+     * Verify if the rows of the resource read by primary key are kept into the near cache of the layer.
+     * @param resourceName Normalized resource name.
+     * @return Return true if the resource is cached.
+     */
+    public final boolean isNearCached(String resourceName) {
+        return layer.isNearCached(resourceName);
+    }
+
     /**
      * Verify if the column exist in the resource.
      * @param resourceName Resource name
@@ -381,15 +1874,7 @@ public class CassandraStorageSession extends StorageSession {
      * @return Return true if the column exist and false if the column not exist.
      */
     public boolean checkColumn(String resourceName, String storageColumn) {
-        boolean result = false;
-        AbstractTableMetadata metadata = getTableMetadata(resourceName);
-        for (ColumnMetadata columnMetadata : metadata.getColumns()) {
-            if (columnMetadata.getName().equals(storageColumn)) {
-                result = true;
-                break;
-            }
-        }
-        return result;
+        return getTableDescriptor(resourceName).hasColumn(storageColumn);
     }
 
     /**
@@ -398,7 +1883,7 @@ public class CassandraStorageSession extends StorageSession {
      * @return Normalized name.
      */
     public final String normalizeName(String name) {
-        return Naming.normalize(layer.getNamingImplName(), name);
+        return layer.normalizeName(name);
     }
 
     /**
@@ -407,10 +1892,7 @@ public class CassandraStorageSession extends StorageSession {
      * @return Set with partition keys.
      */
     public final List<String> getPartitionKey(String resourceName) {
-        List<String> result = new ArrayList<>();
-        AbstractTableMetadata metadata = getTableMetadata(resourceName);
-        result.addAll(metadata.getPartitionKey().stream().map(ColumnMetadata::getName).collect(Collectors.toList()));
-        return result;
+        return new ArrayList<>(getTableDescriptor(resourceName).getPartitionKey());
     }
 
     /**
@@ -419,10 +1901,7 @@ public class CassandraStorageSession extends StorageSession {
      * @return Set with clustering keys.
      */
     public final List<String> getClusteringKey(String resourceName) {
-        List<String> result = new ArrayList<>();
-        AbstractTableMetadata metadata = getTableMetadata(resourceName);
-        result.addAll(metadata.getClusteringColumns().stream().map(ColumnMetadata::getName).collect(Collectors.toList()));
-        return result;
+        return new ArrayList<>(getTableDescriptor(resourceName).getClusteringKey());
     }
 
     /**
@@ -431,25 +1910,7 @@ public class CassandraStorageSession extends StorageSession {
      * @return Set with indexes.
      */
     public final List<String> getIndexes(String resourceName) {
-        List<String> result = new ArrayList<>();
-        AbstractTableMetadata metadata = getTableMetadata(resourceName);
-        if(metadata != null && metadata instanceof TableMetadata) {
-            String target;
-            for (IndexMetadata indexMetadata : ((TableMetadata)metadata).getIndexes()) {
-                target = indexMetadata.getTarget();
-                if (target.startsWith(VALUES_INDEX)) {
-                    target = target.replace(VALUES_INDEX, Strings.EMPTY_STRING).
-                            replace(Strings.START_GROUP, Strings.EMPTY_STRING).
-                            replace(Strings.END_GROUP, Strings.EMPTY_STRING);
-                } else if (target.startsWith(KEYS_INDEX)) {
-                    target = target.replace(KEYS_INDEX, Strings.EMPTY_STRING).
-                            replace(Strings.START_GROUP, Strings.EMPTY_STRING).
-                            replace(Strings.END_GROUP, Strings.EMPTY_STRING);
-                }
-                result.add(target);
-            }
-        }
-        return result;
+        return new ArrayList<>(getTableDescriptor(resourceName).getIndexes());
     }
 
     /**
@@ -459,9 +1920,7 @@ public class CassandraStorageSession extends StorageSession {
      * @return Column data type.
      */
     public final DataType getColumnDataType(String resourceName, String columnName) {
-        AbstractTableMetadata metadata = getTableMetadata(resourceName);
-        ColumnMetadata columnMetadata = metadata.getColumn(columnName);
-        return columnMetadata.getType();
+        return getTableDescriptor(resourceName).getColumnDataType(columnName);
     }
 
     /**
@@ -470,13 +1929,8 @@ public class CassandraStorageSession extends StorageSession {
      * @return Metadata of the resource.
      */
     public final AbstractTableMetadata getTableMetadata(String resourceName) {
-        AbstractTableMetadata metadata = session.getCluster().getMetadata().
-                getKeyspace(layer.getKeySpace()).getTable(resourceName);
-        if(metadata == null) {
-            metadata = session.getCluster().getMetadata().
-                    getKeyspace(layer.getKeySpace()).getMaterializedView(resourceName);
-        }
-        return metadata;
+        CassandraTableDescriptor descriptor = layer.getTableDescriptor(session, resourceName);
+        return descriptor == null ? null : descriptor.getMetadata();
     }
 
     /**
@@ -0,0 +1,203 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.*;
+import org.hcjf.utils.Strings;
+
+import java.util.*;
+
+/**
+ * Immutable description of a table or materialized view. The descriptor is created from the
+ * cluster metadata only once and it's discarded by the storage layer when the schema of the table changes.
+ * @author javaito
+ */
+public class CassandraTableDescriptor {
+
+    private static final String VALUES_INDEX = "values";
+    private static final String KEYS_INDEX = "keys";
+
+    private final String name;
+    private final AbstractTableMetadata metadata;
+    private final Map<String, DataType> columns;
+    private final List<String> partitionKey;
+    private final List<String> clusteringKey;
+    private final List<ClusteringOrder> clusteringOrder;
+    private final List<String> primaryKey;
+    private final List<String> indexes;
+    private final Set<String> keys;
+
+    public CassandraTableDescriptor(AbstractTableMetadata metadata) {
+        this(metadata.getName(), metadata, getColumns(metadata), getNames(metadata.getPartitionKey()),
+                getNames(metadata.getClusteringColumns()), metadata.getClusteringOrder(), getIndexes(metadata));
+    }
+
+    /**
+     * Creates a descriptor without cluster metadata, with the information of the columns, keys and indexes.
+     * The clustering columns are sorted in ascending order.
+     * @param name Table name.
+     * @param columns Data types of the columns indexed by column name.
+     * @param partitionKey Partition key columns in order.
+     * @param clusteringKey Clustering columns in order.
+     * @param indexes Columns targeted by secondary indexes.
+     */
+    public CassandraTableDescriptor(String name, Map<String, DataType> columns, List<String> partitionKey,
+                                    List<String> clusteringKey, List<String> indexes) {
+        this(name, null, columns, partitionKey, clusteringKey,
+                Collections.nCopies(clusteringKey.size(), ClusteringOrder.ASC), indexes);
+    }
+
+    private CassandraTableDescriptor(String name, AbstractTableMetadata metadata, Map<String, DataType> columns,
+                                     List<String> partitionKey, List<String> clusteringKey,
+                                     List<ClusteringOrder> clusteringOrder, List<String> indexes) {
+        this.name = name;
+        this.metadata = metadata;
+        this.columns = Collections.unmodifiableMap(new HashMap<>(columns));
+        this.partitionKey = Collections.unmodifiableList(new ArrayList<>(partitionKey));
+        this.clusteringKey = Collections.unmodifiableList(new ArrayList<>(clusteringKey));
+        this.clusteringOrder = Collections.unmodifiableList(new ArrayList<>(clusteringOrder));
+
+        List<String> primaryKey = new ArrayList<>(partitionKey);
+        primaryKey.addAll(clusteringKey);
+        this.primaryKey = Collections.unmodifiableList(primaryKey);
+        this.indexes = Collections.unmodifiableList(new ArrayList<>(indexes));
+
+        Set<String> keys = new LinkedHashSet<>(primaryKey);
+        keys.addAll(indexes);
+        this.keys = Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * Return the data types of the columns indexed by column name.
+     * @param metadata Table metadata.
+     * @return Data types of the columns.
+     */
+    private static Map<String, DataType> getColumns(AbstractTableMetadata metadata) {
+        Map<String, DataType> columns = new HashMap<>();
+        for(ColumnMetadata columnMetadata : metadata.getColumns()) {
+            columns.put(columnMetadata.getName(), columnMetadata.getType());
+        }
+        return columns;
+    }
+
+    /**
+     * Return the names of the columns.
+     * @param columnsMetadata Columns metadata.
+     * @return Column names.
+     */
+    private static List<String> getNames(List<ColumnMetadata> columnsMetadata) {
+        List<String> names = new ArrayList<>();
+        for(ColumnMetadata columnMetadata : columnsMetadata) {
+            names.add(columnMetadata.getName());
+        }
+        return names;
+    }
+
+    /**
+     * Return the columns targeted by the secondary indexes of the table, the materialized views
+     * haven't indexes.
+     * @param metadata Table metadata.
+     * @return Index targets.
+     */
+    private static List<String> getIndexes(AbstractTableMetadata metadata) {
+        List<String> indexes = new ArrayList<>();
+        if(metadata instanceof TableMetadata) {
+            String target;
+            for (IndexMetadata indexMetadata : ((TableMetadata)metadata).getIndexes()) {
+                target = indexMetadata.getTarget();
+                if (target.startsWith(VALUES_INDEX)) {
+                    target = target.replace(VALUES_INDEX, Strings.EMPTY_STRING).
+                            replace(Strings.START_GROUP, Strings.EMPTY_STRING).
+                            replace(Strings.END_GROUP, Strings.EMPTY_STRING);
+                } else if (target.startsWith(KEYS_INDEX)) {
+                    target = target.replace(KEYS_INDEX, Strings.EMPTY_STRING).
+                            replace(Strings.START_GROUP, Strings.EMPTY_STRING).
+                            replace(Strings.END_GROUP, Strings.EMPTY_STRING);
+                }
+                indexes.add(target);
+            }
+        }
+        return indexes;
+    }
+
+    /**
+     * Return the name of the table.
+     * @return Table name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Return the driver's metadata of the table.
+     * @return Table metadata or null if the descriptor wasn't created from the cluster metadata.
+     */
+    public AbstractTableMetadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Verify if the column exist in the table.
+     * @param columnName Column name.
+     * @return Return true if the column exist and false in the other case.
+     */
+    public boolean hasColumn(String columnName) {
+        return columns.containsKey(columnName);
+    }
+
+    /**
+     * Return the data type of the column.
+     * @param columnName Column name.
+     * @return Column data type or null if the column doesn't exist.
+     */
+    public DataType getColumnDataType(String columnName) {
+        return columns.get(columnName);
+    }
+
+    /**
+     * Return the partition key columns in order.
+     * @return Partition key columns.
+     */
+    public List<String> getPartitionKey() {
+        return partitionKey;
+    }
+
+    /**
+     * Return the clustering columns in order.
+     * @return Clustering columns.
+     */
+    public List<String> getClusteringKey() {
+        return clusteringKey;
+    }
+
+    /**
+     * Return the order of each clustering column, in the same order that the clustering columns.
+     * @return Clustering order.
+     */
+    public List<ClusteringOrder> getClusteringOrder() {
+        return clusteringOrder;
+    }
+
+    /**
+     * Return the partition key columns followed by the clustering columns.
+     * @return Primary key columns.
+     */
+    public List<String> getPrimaryKey() {
+        return primaryKey;
+    }
+
+    /**
+     * Return the columns targeted by secondary indexes.
+     * @return Index targets.
+     */
+    public List<String> getIndexes() {
+        return indexes;
+    }
+
+    /**
+     * Return all the columns that can be used into the 'where' part of a select statement:
+     * primary key columns and indexed columns.
+     * @return Key columns.
+     */
+    public Set<String> getKeys() {
+        return keys;
+    }
+}
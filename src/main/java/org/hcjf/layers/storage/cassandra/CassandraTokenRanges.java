@@ -0,0 +1,181 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.*;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.cassandra.properties.CassandraProperties;
+import org.hcjf.log.Log;
+import org.hcjf.properties.SystemProperties;
+
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * This class splits the token ring into the ranges used to scan a complete table in parallel. The number of
+ * splits is calculated with the size of the table estimated by cassandra into the table 'system.size_estimates',
+ * in order to read approximately the same number of bytes with each split. The splits of each table are cached
+ * because the estimations are refreshed periodically by cassandra and not for each write.
+ * @author javaito
+ */
+public class CassandraTokenRanges {
+
+    private static final String SIZE_ESTIMATES_STATEMENT = "SELECT range_start, range_end, mean_partition_size, partitions_count " +
+            "FROM system.size_estimates WHERE keyspace_name = ? AND table_name = ?";
+    private static final String RANGE_START = "range_start";
+    private static final String RANGE_END = "range_end";
+    private static final String MEAN_PARTITION_SIZE = "mean_partition_size";
+    private static final String PARTITIONS_COUNT = "partitions_count";
+    private static final String KEY_SEPARATOR = ".";
+    private static final BigInteger MURMUR3_RING_SIZE = BigInteger.ONE.shiftLeft(64);
+    private static final BigInteger RANDOM_RING_SIZE = BigInteger.ONE.shiftLeft(127);
+
+    private final Cache<String, List<Split>> splits;
+
+    public CassandraTokenRanges(long expireTime) {
+        this.splits = CacheBuilder.newBuilder().expireAfterWrite(expireTime, TimeUnit.MILLISECONDS).build();
+    }
+
+    /**
+     * Return the splits of the ring for the table, each split is a range that doesn't wrap around the ring
+     * and contains the replicas of the range. The splits are cached by key space and table, because the
+     * replicas of the ranges depend on the replication of the key space.
+     * @param session Cassandra session.
+     * @param keyspace Key space name.
+     * @param table Table name.
+     * @return Splits of the ring.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public List<Split> get(Session session, String keyspace, String table) throws StorageAccessException {
+        try {
+            return splits.get(keyspace + KEY_SEPARATOR + table, () -> createSplits(session, keyspace, table));
+        } catch (ExecutionException | UncheckedExecutionException ex) {
+            throw new StorageAccessException("Unable to split the token ring for table: " + table, ex.getCause());
+        }
+    }
+
+    /**
+     * Creates the splits of the ring for the table. Each range of the ring is split evenly into the same number
+     * of parts, then the splits of a range keep the replicas of the range.
+     * @param session Cassandra session.
+     * @param keyspace Key space name.
+     * @param table Table name.
+     * @return Splits of the ring.
+     */
+    private List<Split> createSplits(Session session, String keyspace, String table) {
+        Metadata metadata = session.getCluster().getMetadata();
+        Set<TokenRange> ringRanges = metadata.getTokenRanges();
+        long splitSize = SystemProperties.getLong(CassandraProperties.Scan.CASSANDRA_STORAGE_LAYER_SCAN_SPLIT_SIZE);
+        long estimatedSize = estimateSize(session, metadata, keyspace, table);
+        long splitCount = Math.max(ringRanges.size(), (estimatedSize + splitSize - 1) / splitSize);
+        int splitsPerRange = (int) ((splitCount + ringRanges.size() - 1) / ringRanges.size());
+
+        List<Split> result = new ArrayList<>();
+        for(TokenRange ringRange : ringRanges) {
+            Set<Host> replicas = metadata.getReplicas(keyspace, ringRange);
+            List<TokenRange> parts = splitsPerRange > 1 ? ringRange.splitEvenly(splitsPerRange) :
+                    Collections.singletonList(ringRange);
+            for(TokenRange part : parts) {
+                for(TokenRange range : part.unwrap()) {
+                    result.add(new Split(range, replicas));
+                }
+            }
+        }
+
+        Log.d(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                "Token ring of table %s split into %d ranges [Estimated size: %d bytes]",
+                table, result.size(), estimatedSize);
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Estimates the size of the table in bytes. The estimations of the connected node cover only the ranges
+     * that the node replicates, then the size is extrapolated to the complete ring.
+     * @param session Cassandra session.
+     * @param metadata Cluster metadata.
+     * @param keyspace Key space name.
+     * @param table Table name.
+     * @return Estimated size in bytes, or zero if the table has not estimations.
+     */
+    private long estimateSize(Session session, Metadata metadata, String keyspace, String table) {
+        double bytes = 0;
+        double ringFraction = 0;
+        try {
+            for(Row row : session.execute(new SimpleStatement(SIZE_ESTIMATES_STATEMENT, keyspace, table))) {
+                bytes += (double) row.getLong(MEAN_PARTITION_SIZE) * row.getLong(PARTITIONS_COUNT);
+                double fraction = getRingFraction(
+                        metadata.newToken(row.getString(RANGE_START)), metadata.newToken(row.getString(RANGE_END)));
+                ringFraction = fraction < 0 || ringFraction < 0 ? -1 : ringFraction + fraction;
+            }
+        } catch (Exception ex) {
+            Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                    "Unable to read the size estimates of table %s", ex, table);
+            return 0;
+        }
+        return (long) (ringFraction > 0 ? bytes / Math.min(1.0, ringFraction) : bytes);
+    }
+
+    /**
+     * Return the fraction of the ring covered by the range.
+     * @param start Start token, exclusive.
+     * @param end End token, inclusive.
+     * @return Fraction of the ring, or -1 if the partitioner is not hash based.
+     */
+    private static double getRingFraction(Token start, Token end) {
+        BigInteger width;
+        BigInteger ringSize;
+        if(start.getValue() instanceof Long) {
+            width = BigInteger.valueOf((Long) end.getValue()).subtract(BigInteger.valueOf((Long) start.getValue()));
+            ringSize = MURMUR3_RING_SIZE;
+        } else if(start.getValue() instanceof BigInteger) {
+            width = ((BigInteger) end.getValue()).subtract((BigInteger) start.getValue());
+            ringSize = RANDOM_RING_SIZE;
+        } else {
+            return -1;
+        }
+        if(width.signum() <= 0) {
+            width = width.add(ringSize);
+        }
+        return width.doubleValue() / ringSize.doubleValue();
+    }
+
+    /**
+     * Discards the splits of all the tables, this method is called when the schema or the cluster changes.
+     */
+    public void invalidateAll() {
+        splits.invalidateAll();
+    }
+
+    /**
+     * Range of tokens that doesn't wrap around the ring, and the replicas of the range.
+     */
+    public static class Split {
+
+        private final TokenRange range;
+        private final Set<Host> replicas;
+
+        public Split(TokenRange range, Set<Host> replicas) {
+            this.range = range;
+            this.replicas = replicas;
+        }
+
+        /**
+         * Return the range of tokens, the start is exclusive and the end is inclusive.
+         * @return Token range.
+         */
+        public TokenRange getRange() {
+            return range;
+        }
+
+        /**
+         * Return the hosts that replicate the range.
+         * @return Replicas.
+         */
+        public Set<Host> getReplicas() {
+            return replicas;
+        }
+    }
+}
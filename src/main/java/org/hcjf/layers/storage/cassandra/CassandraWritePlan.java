@@ -0,0 +1,193 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.BoundStatement;
+import com.datastax.driver.core.PreparedStatement;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Introspection;
+import org.hcjf.utils.Strings;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.*;
+
+/**
+ * This class contains all the information needed to write an instance of an entity class into a table:
+ * the columns of the table in a fixed order, the prepared statement, the method handles of the getters
+ * and the conversions of the values. The plan is created only once for each entity class, table and
+ * statement, then the write of an instance doesn't build strings or access the cluster metadata.
+ * @author javaito
+ */
+public class CassandraWritePlan {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    private final Class entityClass;
+    private final String resourceName;
+    private final List<String> columns;
+    private final MethodHandle[] getters;
+    private final Converter[] converters;
+    private final PreparedStatement statement;
+
+    /**
+     * Creates the write plan.
+     * @param storageSession Storage session used to read the table descriptor and to prepare the statement.
+     * @param entityClass Entity class.
+     * @param resourceName Normalized name of the table.
+     * @param statementFormat Format of the statement, with three places: resource name, columns and value places.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public CassandraWritePlan(CassandraStorageSession storageSession, Class entityClass,
+                              String resourceName, String statementFormat) throws StorageAccessException {
+        this.entityClass = entityClass;
+        this.resourceName = resourceName;
+
+        CassandraTableDescriptor tableDescriptor = storageSession.getTableDescriptor(resourceName);
+        List<String> columns = new ArrayList<>();
+        List<MethodHandle> getters = new ArrayList<>();
+        List<Converter> converters = new ArrayList<>();
+        Strings.Builder columnsBuilder = new Strings.Builder();
+        Strings.Builder valuePlacesBuilder = new Strings.Builder();
+        Map<String, Introspection.Getter> entityGetters = Introspection.getGetters(entityClass);
+        String columnName;
+        for(Introspection.Getter getter : entityGetters.values()) {
+            columnName = storageSession.normalizeName(getter.getResourceName());
+            if(tableDescriptor.hasColumn(columnName)) {
+                try {
+                    getters.add(CassandraRowMapper.unreflect(getter.getMethod()).asType(GETTER_TYPE));
+                } catch (IllegalAccessException ex) {
+                    throw new StorageAccessException("Unable to access the getter of " + getter.getResourceName(), ex);
+                }
+                columns.add(columnName);
+                converters.add(createConverter(storageSession, getter.getReturnType()));
+                columnsBuilder.append(columnName, Strings.ARGUMENT_SEPARATOR);
+                valuePlacesBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE), Strings.ARGUMENT_SEPARATOR);
+            }
+        }
+        this.columns = Collections.unmodifiableList(columns);
+        this.getters = getters.toArray(new MethodHandle[getters.size()]);
+        this.converters = converters.toArray(new Converter[converters.size()]);
+        this.statement = storageSession.getLayer().getPreparedStatement(storageSession.getSession(),
+                String.format(statementFormat, resourceName, columnsBuilder.toString(), valuePlacesBuilder.toString()));
+    }
+
+    /**
+     * Return the entity class of the plan.
+     * @return Entity class.
+     */
+    public Class getEntityClass() {
+        return entityClass;
+    }
+
+    /**
+     * Return the name of the table.
+     * @return Table name.
+     */
+    public String getResourceName() {
+        return resourceName;
+    }
+
+    /**
+     * Return the columns written by the plan, in the same order that the statement values.
+     * @return Columns of the plan.
+     */
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Return the prepared statement of the plan.
+     * @return Prepared statement.
+     */
+    public PreparedStatement getStatement() {
+        return statement;
+    }
+
+    /**
+     * Extracts the values of the instance and binds them to the prepared statement.
+     * @param instance Entity instance.
+     * @return Bound statement.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public BoundStatement bind(Object instance) throws StorageAccessException {
+        Object[] values = new Object[getters.length];
+        for (int i = 0; i < getters.length; i++) {
+            try {
+                values[i] = (Object) getters[i].invokeExact(instance);
+            } catch (Throwable ex) {
+                throw new StorageAccessException("Invoke getter method fail: " + columns.get(i), ex);
+            }
+            if(values[i] != null && converters[i] != null) {
+                values[i] = converters[i].convert(values[i]);
+            }
+        }
+        return statement.bind(values);
+    }
+
+    /**
+     * Creates the conversion of the values returned by the getter to the cassandra data types.
+     * @param storageSession Storage session.
+     * @param returnType Return type of the getter.
+     * @return Converter or null if the values don't need conversion.
+     */
+    private static Converter createConverter(CassandraStorageSession storageSession, Class returnType) {
+        Converter result;
+        if(returnType.isEnum()) {
+            result = Object::toString;
+        } else if(returnType.equals(Class.class)) {
+            result = value -> ((Class) value).getName();
+        } else if(returnType.isPrimitive() || returnType.equals(String.class) ||
+                Number.class.isAssignableFrom(returnType) || returnType.equals(Boolean.class) ||
+                returnType.equals(UUID.class) || returnType.equals(Date.class)) {
+            result = null;
+        } else {
+            result = storageSession::checkValueDataType;
+        }
+        return result;
+    }
+
+    /**
+     * Conversion of the entity value.
+     */
+    private interface Converter {
+
+        Object convert(Object value);
+
+    }
+
+    /**
+     * Key of the write plans, composed by the entity class, the table and the statement format.
+     */
+    public static final class Key {
+
+        private final Class entityClass;
+        private final String resourceName;
+        private final String statementFormat;
+        private final int hashCode;
+
+        public Key(Class entityClass, String resourceName, String statementFormat) {
+            this.entityClass = entityClass;
+            this.resourceName = resourceName;
+            this.statementFormat = statementFormat;
+            this.hashCode = Objects.hash(entityClass, resourceName, statementFormat);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            boolean result = false;
+            if(this == other) {
+                result = true;
+            } else if(other instanceof Key) {
+                result = entityClass.equals(((Key) other).entityClass) &&
+                        resourceName.equals(((Key) other).resourceName) &&
+                        statementFormat.equals(((Key) other).statementFormat);
+            }
+            return result;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package org.hcjf.layers.storage.cassandra.actions;
 
+import com.datastax.driver.core.BatchStatement;
+import org.hcjf.layers.query.FieldEvaluator;
+import org.hcjf.layers.query.Query;
 import org.hcjf.layers.storage.StorageAccessException;
 import org.hcjf.layers.storage.actions.*;
+import org.hcjf.layers.storage.cassandra.CassandraCallerExecutor;
+import org.hcjf.layers.storage.cassandra.CassandraSelectPlan;
 import org.hcjf.layers.storage.cassandra.CassandraStorageSession;
+import org.hcjf.layers.storage.cassandra.CassandraTableDescriptor;
 import org.hcjf.layers.storage.cassandra.properties.CassandraProperties;
 import org.hcjf.log.Log;
 import org.hcjf.properties.SystemProperties;
@@ -10,6 +16,9 @@ import org.hcjf.utils.Introspection;
 import org.hcjf.utils.Strings;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
 /**
  * This class implements the delete operation for cassandra.
@@ -36,112 +45,245 @@ public class CassandraDelete extends Delete<CassandraStorageSession> {
     }
 
     /**
-     * This method first execute a query to found all the rows to delete then creates a single
-     * delete operation foreach row and execute this operations.
+     * This method deletes all the added instances or all the rows found by the query. The delete statements
+     * with the same partition key are grouped into unlogged batches and the batches are executed concurrently.
+     * If the set based mutations are enabled by the property
+     * {@link CassandraProperties.Mutation#CASSANDRA_STORAGE_LAYER_MUTATION_SET_BASED_ENABLED} and the query restricts
+     * the complete partition key and a prefix or a slice of the clustering columns, the rows are deleted with a
+     * single partition, prefix or range delete without reading them, in this case the result set is empty.
      * @param params Query parameters
      * @param <R> Expected result set.
-     * @return Return the result set with all the rows deleted.
+     * @return Return the result set with all the rows deleted (only the primary key columns of the rows found by
+     * the query are read), if the deleted objects are instances the
+     * result set is a {@link CassandraMutationResultSet} with the failures.
      * @throws StorageAccessException StorageAccessException
      */
     @Override
     public <R extends ResultSet> R execute(Object... params) throws StorageAccessException {
-        R resultSet;
-
-        String resourceName;
-        if(getResultType() != null) {
-            resourceName = getSession().normalizeName(getResultType().getSimpleName());
-        } else if(getResourceName() != null) {
-            resourceName = getSession().normalizeName(getResourceName());
-        } else {
-            throw new StorageAccessException("Resource name not found");
+        if(deleteInstances.isEmpty() && getQuery() == null) {
+            throw new IllegalArgumentException("To delete information you must specify a query or instance to delete");
         }
 
-        //Obtains the partitions keys and clustering keys for the specific resource.
-        List<String> keys = getSession().getPartitionKey(resourceName);
-        keys.addAll(getSession().getClusteringKey(resourceName));
-
-        //Creates the base statement for all the deletes.
-        Strings.Builder whereBuilder = new Strings.Builder();
-        for(String key : keys) {
-            whereBuilder.append(key).append(Strings.WHITE_SPACE).append(SystemProperties.get(SystemProperties.Query.ReservedWord.EQUALS));
-            whereBuilder.append(Strings.WHITE_SPACE).append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE));
-            whereBuilder.append(Strings.WHITE_SPACE, SystemProperties.get(SystemProperties.Query.ReservedWord.AND), Strings.WHITE_SPACE);
+        try {
+            CassandraCallerExecutor executor = new CassandraCallerExecutor(getSession().getAsyncExecutor());
+            return executor.await(this.<R>executeAsync(executor, params));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new StorageAccessException("Delete operation interrupted", ex);
+        } catch (ExecutionException ex) {
+            if(ex.getCause() instanceof StorageAccessException) {
+                throw (StorageAccessException) ex.getCause();
+            } else if(ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            }
+            throw new StorageAccessException("Delete operation fail", ex.getCause());
         }
+    }
 
-        //Creates statement string
-        String statement = String.format(DELETE_STATEMENT, resourceName, whereBuilder.toString());
-
-        //Creates a list to store the values for the delete statement.
-        List<Object> values = new ArrayList<>();
+    /**
+     * This method makes the same operation that the synchronous execution but without blocking
+     * the invoker thread.
+     * @param params Query parameters
+     * @param <R> Expected result set.
+     * @return Future that will be completed with the result set with all the rows deleted.
+     */
+    public <R extends ResultSet> CompletableFuture<R> executeAsync(Object... params) {
+        return executeAsync(getSession().getAsyncExecutor(), params);
+    }
 
-        //These collections are for store the deleted objects.
-        List<Object> resultCollection;
-        List<Map<String, Object>> resultMap;
+    /**
+     * This method makes the same operation that the synchronous execution but without blocking
+     * the invoker thread, the continuations of the operation are executed by the executor.
+     * @param executor Executor of the continuations of the operation.
+     * @param params Query parameters
+     * @param <R> Expected result set.
+     * @return Future that will be completed with the result set with all the rows deleted.
+     */
+    public <R extends ResultSet> CompletableFuture<R> executeAsync(Executor executor, Object[] params) {
+        String resourceName;
+        List<String> partitionKey;
+        List<String> keys;
+        String statement;
+        CassandraSelectPlan setDeletePlan = null;
+        try {
+            resourceName = getStorageResourceName();
+            CassandraTableDescriptor tableDescriptor = getSession().getTableDescriptor(resourceName);
+            partitionKey = tableDescriptor.getPartitionKey();
+            keys = tableDescriptor.getPrimaryKey();
+            statement = createStatement(resourceName, keys);
+            if(deleteInstances.isEmpty() && getQuery() != null && SystemProperties.getBoolean(
+                    CassandraProperties.Mutation.CASSANDRA_STORAGE_LAYER_MUTATION_SET_BASED_ENABLED)) {
+                CassandraSelectPlan plan = getSession().getSelectPlan(getQuery(), true, true);
+                setDeletePlan = plan.isSetDelete() ? plan : null;
+            }
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
 
+        CompletableFuture<R> result;
         if(!deleteInstances.isEmpty()) {
-            resultCollection = new ArrayList<>();
-            resultMap = null;
+            List<Object> instances = new ArrayList<>();
+            List<List<Object>> valuesList = new ArrayList<>();
+            List<List<Object>> partitionKeys = new ArrayList<>();
+            List<CassandraMutationResultSet.Failure> failures = new ArrayList<>();
+            Map<Class, Map<String, Introspection.Getter>> gettersByClass = new HashMap<>();
             for(Object deleteInstance : deleteInstances) {
                 try {
-                    //The values list is cleared for each row then put in the list the current row values.
-                    values.clear();
-
-                    Map<String, Introspection.Getter> instanceGetters = Introspection.getGetters(deleteInstance.getClass());
+                    Map<String, Introspection.Getter> instanceGetters =
+                            gettersByClass.computeIfAbsent(deleteInstance.getClass(), Introspection::getGetters);
+                    List<Object> values = new ArrayList<>();
                     for (String key : keys) {
                         values.add(instanceGetters.get(getSession().normalizeName(key)).get(deleteInstance));
                     }
-
-                    //Execute the delete statement.
-                    getSession().execute(statement, values, getResultType());
-
-                    resultCollection.add(deleteInstance);
+                    instances.add(deleteInstance);
+                    valuesList.add(values);
+                    partitionKeys.add(values.subList(0, partitionKey.size()));
                 } catch (Exception ex) {
                     Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
                             "Unable to delete instance %s", deleteInstance.toString());
+                    failures.add(new CassandraMutationResultSet.Failure(deleteInstance, ex));
                 }
             }
-        } else if(getQuery() != null) {
-            resultCollection = getResultType() != null ? new ArrayList<>() : null;
-            resultMap = getResultType() == null ? new ArrayList<>() : null;
-            //Make cassandra select
-            Select select = getSession().select(getQuery());
-            MapResultSet selectResultSet = (MapResultSet) select.execute(params);
 
-            for (Map<String, Object> row : selectResultSet.getResult()) {
-                try {
-                    //The values list is cleared for each row then put in the list the current row values.
-                    values.clear();
+            result = getSession().executeBatchesAsync(statement, valuesList, partitionKeys, BatchStatement.Type.UNLOGGED, executor).thenApply(errors -> {
+                List<Object> deletedInstances = new ArrayList<>();
+                for (int i = 0; i < instances.size(); i++) {
+                    if(errors.get(i) == null) {
+                        deletedInstances.add(instances.get(i));
+                    } else {
+                        Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                                "Unable to delete instance %s", instances.get(i).toString());
+                        failures.add(new CassandraMutationResultSet.Failure(instances.get(i), errors.get(i)));
+                    }
+                }
+                return (R) new CassandraMutationResultSet(deletedInstances, failures);
+            });
+        } else if(setDeletePlan != null) {
+            result = executeSetDeleteAsync(setDeletePlan, resourceName, executor, params);
+        } else if(getQuery() != null) {
+            CassandraSelect<CassandraStorageSession> select;
+            try {
+                select = (CassandraSelect<CassandraStorageSession>) getSession().select(getQuery());
+                select.setKeysOnly(true);
+            } catch (Exception ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+            result = select.<MapResultSet>executeAsync(executor, params).thenCompose(selectResultSet -> {
+                List<Map<String, Object>> rows = new ArrayList<>(selectResultSet.getResult());
+                List<List<Object>> valuesList = new ArrayList<>();
+                List<List<Object>> partitionKeys = new ArrayList<>();
+                for (Map<String, Object> row : rows) {
+                    List<Object> values = new ArrayList<>();
                     for (String key : keys) {
                         values.add(row.get(getSession().normalizeName(key)));
                     }
+                    valuesList.add(values);
+                    partitionKeys.add(values.subList(0, partitionKey.size()));
+                }
 
-                    //Execute the delete statement.
-                    getSession().execute(statement, values, getResultType());
+                return getSession().executeBatchesAsync(statement, valuesList, partitionKeys, BatchStatement.Type.UNLOGGED, executor).thenApply(errors -> {
+                    List<Object> resultCollection = new ArrayList<>();
+                    List<Map<String, Object>> resultMap = new ArrayList<>();
+                    List<CassandraMutationResultSet.Failure> failures = new ArrayList<>();
+                    for (int i = 0; i < rows.size(); i++) {
+                        Map<String, Object> row = rows.get(i);
+                        if(errors.get(i) == null) {
+                            //If the expected type is a specific object then creates an instance foreach row and put it into
+                            //the result list.
+                            if (getResultType() != null) {
+                                try {
+                                    resultCollection.add(Introspection.toInstance(row, getResultType()));
+                                } catch (Exception ex) {
+                                    Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                                            "Unable to create instance from row %s", row.toString());
+                                }
+                            } else {
+                                resultMap.add(row);
+                            }
+                        } else {
+                            Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                                    "Unable to delete row %s", row.toString());
+                            failures.add(new CassandraMutationResultSet.Failure(row, errors.get(i)));
+                        }
+                    }
 
-                    //If the expected type is a specific object then creates an instance foreach row and put it into
-                    //the result list.
+                    R resultSet;
                     if (getResultType() != null) {
-                        resultCollection.add(Introspection.toInstance(row, getResultType()));
+                        resultSet = (R) new CassandraMutationResultSet(resultCollection, failures);
                     } else {
-                        resultMap.add(row);
+                        resultSet = (R) new MapResultSet(resultMap);
                     }
-                } catch (Exception ex){
-                    Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
-                            "Unable to delete row %s", row.toString());
-                }
-            }
+                    return resultSet;
+                });
+            });
         } else {
-            throw new IllegalArgumentException("To delete information you must specify a query or instance to delete");
+            result = CompletableFuture.failedFuture(
+                    new IllegalArgumentException("To delete information you must specify a query or instance to delete"));
         }
 
-        if(resultCollection != null) {
-            resultSet = (R) new CollectionResultSet(resultCollection);
+        return result;
+    }
+
+    /**
+     * Deletes all the rows found by the query with a single statement, the 'where' part of the delete is the same
+     * that the 'where' part of the select of the query.
+     * @param plan Select plan of the query.
+     * @param resourceName Resource name.
+     * @param executor Executor of the continuations of the operation.
+     * @param params Query parameters.
+     * @param <R> Expected result set.
+     * @return Future that will be completed with an empty result set.
+     */
+    private <R extends ResultSet> CompletableFuture<R> executeSetDeleteAsync(CassandraSelectPlan plan,
+                                                                            String resourceName, Executor executor,
+                                                                            Object[] params) {
+        List<Object> values;
+        try {
+            Query query = getQuery();
+            List<FieldEvaluator> pushedEvaluators = plan.getPushedEvaluators(query);
+            values = plan.getValues(query, pushedEvaluators, params);
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        String statement = String.format(DELETE_STATEMENT, resourceName, plan.getMutationWhereStatement());
+        return getSession().executeAsync(statement, values, null, executor).thenApply(resultSet -> getResultType() != null ?
+                (R) new CassandraMutationResultSet(new ArrayList<>(), new ArrayList<>()) :
+                (R) new MapResultSet(new ArrayList<>()));
+    }
+
+    /**
+     * Return the normalized name of the resource.
+     * @return Resource name.
+     * @throws StorageAccessException StorageAccessException
+     */
+    private String getStorageResourceName() throws StorageAccessException {
+        String resourceName;
+        if(getResultType() != null) {
+            resourceName = getSession().normalizeName(getResultType().getSimpleName());
+        } else if(getResourceName() != null) {
+            resourceName = getSession().normalizeName(getResourceName());
         } else {
-            resultSet = (R) new MapResultSet(resultMap);
+            throw new StorageAccessException("Resource name not found");
         }
+        return resourceName;
+    }
 
-        return resultSet;
+    /**
+     * Creates the delete statement for a row of the resource.
+     * @param resourceName Resource name.
+     * @param keys Keys of the resource.
+     * @return Delete statement.
+     */
+    private String createStatement(String resourceName, List<String> keys) {
+        //Creates the base statement for all the deletes.
+        Strings.Builder whereBuilder = new Strings.Builder();
+        for(String key : keys) {
+            whereBuilder.append(key).append(Strings.WHITE_SPACE).append(SystemProperties.get(SystemProperties.Query.ReservedWord.EQUALS));
+            whereBuilder.append(Strings.WHITE_SPACE).append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE));
+            whereBuilder.append(Strings.WHITE_SPACE, SystemProperties.get(SystemProperties.Query.ReservedWord.AND), Strings.WHITE_SPACE);
+        }
+
+        return String.format(DELETE_STATEMENT, resourceName, whereBuilder.toString());
     }
 
 }
-
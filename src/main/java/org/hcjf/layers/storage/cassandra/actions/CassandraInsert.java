@@ -1,17 +1,16 @@
 package org.hcjf.layers.storage.cassandra.actions;
 
 import org.hcjf.layers.storage.StorageAccessException;
-import org.hcjf.layers.storage.StorageLayer;
 import org.hcjf.layers.storage.actions.Insert;
 import org.hcjf.layers.storage.actions.ResultSet;
 import org.hcjf.layers.storage.actions.SingleResult;
 import org.hcjf.layers.storage.cassandra.CassandraStorageSession;
-import org.hcjf.log.Log;
+import org.hcjf.layers.storage.cassandra.CassandraWritePlan;
 import org.hcjf.properties.SystemProperties;
-import org.hcjf.utils.Introspection;
 import org.hcjf.utils.Strings;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * This class implements the insert operation for cassandra data base.
@@ -31,13 +30,6 @@ public class CassandraInsert extends Insert<CassandraStorageSession> {
     protected void onAdd(Object object) {
         setResultType(object.getClass());
         setResourceName(object.getClass().getSimpleName());
-        for(Introspection.Getter getter : Introspection.getGetters(object.getClass()).values()) {
-            try {
-                add(getter.getResourceName(), new FieldStorageValue(getter.get(object), getter.getAnnotationsMap()));
-            } catch(Exception ex) {
-                Log.w(StorageLayer.STORAGE_LOG_TAG, "Invoke getter method fail: $s", ex, getter.getResourceName());
-            }
-        }
         addedInstance = object;
     }
 
@@ -53,12 +45,71 @@ public class CassandraInsert extends Insert<CassandraStorageSession> {
      */
     @Override
     public <R extends ResultSet> R execute(Object... params) throws StorageAccessException {
+        ResultSet sessionResultSet;
+        if(isPlanned()) {
+            sessionResultSet = getSession().execute(getWritePlan().bind(addedInstance), getResultType());
+        } else {
+            //List of values to execute the insert statement
+            List<Object> values = new ArrayList<>();
+            String statement = createStatement(values);
+            sessionResultSet = getSession().execute(statement, values, getResultType());
+        }
+
+        return createResult(sessionResultSet);
+    }
+
+    /**
+     * This method create the insert statement for the cassandra data base an execute the statement
+     * without blocking the invoker thread.
+     * @param params Statement parameters.
+     * @param <R> Expected result set.
+     * @return Future that will be completed with the inserted objects.
+     */
+    public <R extends ResultSet> CompletableFuture<R> executeAsync(Object... params) {
+        CompletableFuture<R> result;
+        if(isPlanned()) {
+            try {
+                result = getSession().executeAsync(getWritePlan().bind(addedInstance), getResultType()).thenApply(this::createResult);
+            } catch (Exception ex) {
+                result = CompletableFuture.failedFuture(ex);
+            }
+        } else {
+            List<Object> values = new ArrayList<>();
+            String statement = createStatement(values);
+            result = getSession().executeAsync(statement, values, getResultType()).thenApply(this::createResult);
+        }
+        return result;
+    }
+
+    /**
+     * Verify if the operation writes an added instance without other values, in this case the
+     * write plan of the instance class is used.
+     * @return Return true if the write plan is used.
+     */
+    private boolean isPlanned() {
+        return addedInstance != null && getValues().isEmpty();
+    }
+
+    /**
+     * Return the write plan of the added instance class.
+     * @return Write plan.
+     * @throws StorageAccessException StorageAccessException
+     */
+    private CassandraWritePlan getWritePlan() throws StorageAccessException {
+        return getSession().getWritePlan(addedInstance.getClass(),
+                getSession().normalizeName(getResourceName()), INSERT_STATEMENT);
+    }
+
+    /**
+     * Creates the insert statement and put into the list the values of the statement.
+     * @param values List to store the values of the statement.
+     * @return Cql statement.
+     */
+    private String createStatement(List<Object> values) {
         //Builder to create 'values' body for insert statement.
         Strings.Builder valuesBuilder = new Strings.Builder();
         //Builder to create paces body for insert statement.
         Strings.Builder valuePlacesBuilder = new Strings.Builder();
-        //List of values to execute the insert statement
-        List<Object> values = new ArrayList<>();
 
         String normalizedResourceName = getSession().normalizeName(getResourceName());
         String normalizedStorageValueName;
@@ -71,10 +122,17 @@ public class CassandraInsert extends Insert<CassandraStorageSession> {
             }
         }
 
-        String statement = String.format(
+        return String.format(
                 INSERT_STATEMENT, normalizedResourceName, valuesBuilder.toString(), valuePlacesBuilder.toString());
-        ResultSet sessionResultSet = getSession().execute(statement, values, getResultType());
+    }
 
+    /**
+     * Returns the added instance if it exists or the session result set in the other case.
+     * @param sessionResultSet Result set of the session.
+     * @param <R> Expected result set.
+     * @return Result of the insert operation.
+     */
+    private <R extends ResultSet> R createResult(ResultSet sessionResultSet) {
         R result;
         if(addedInstance != null) {
             result = (R) new SingleResult(addedInstance);
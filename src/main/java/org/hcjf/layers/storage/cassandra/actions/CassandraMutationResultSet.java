@@ -0,0 +1,67 @@
+package org.hcjf.layers.storage.cassandra.actions;
+
+import org.hcjf.layers.storage.actions.CollectionResultSet;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Result set of the update and delete operations. The result contains the objects that
+ * were successfully modified and the failures of the objects that couldn't be modified.
+ * @author javaito
+ */
+public class CassandraMutationResultSet extends CollectionResultSet {
+
+    private final List<Failure> failures;
+
+    public CassandraMutationResultSet(List<Object> result, List<Failure> failures) {
+        super(result);
+        this.failures = Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * Return the list of failures.
+     * @return List of failures.
+     */
+    public List<Failure> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Verify if the operation has failures.
+     * @return Return true if some object couldn't be modified.
+     */
+    public boolean hasFailures() {
+        return !failures.isEmpty();
+    }
+
+    /**
+     * Contains the object that couldn't be modified and the cause.
+     */
+    public static class Failure {
+
+        private final Object object;
+        private final Throwable cause;
+
+        public Failure(Object object, Throwable cause) {
+            this.object = object;
+            this.cause = cause;
+        }
+
+        /**
+         * Return the object that couldn't be modified.
+         * @return Object.
+         */
+        public Object getObject() {
+            return object;
+        }
+
+        /**
+         * Return the cause of the failure.
+         * @return Cause of the failure.
+         */
+        public Throwable getCause() {
+            return cause;
+        }
+    }
+}
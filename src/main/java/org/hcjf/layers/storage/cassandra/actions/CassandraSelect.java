@@ -1,14 +1,19 @@
 package org.hcjf.layers.storage.cassandra.actions;
 
-import org.hcjf.layers.query.*;
+import org.hcjf.layers.query.FieldEvaluator;
+import org.hcjf.layers.query.Query;
 import org.hcjf.layers.storage.StorageAccessException;
 import org.hcjf.layers.storage.actions.ResultSet;
 import org.hcjf.layers.storage.actions.Select;
+import org.hcjf.layers.storage.cassandra.CassandraPage;
+import org.hcjf.layers.storage.cassandra.CassandraSelectPlan;
 import org.hcjf.layers.storage.cassandra.CassandraStorageSession;
+import org.hcjf.layers.storage.cassandra.properties.CassandraProperties;
 import org.hcjf.properties.SystemProperties;
-import org.hcjf.utils.Strings;
 
-import java.util.*;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 /**
  * This class implements the select operation for the cassandra storage layer.
@@ -16,15 +21,21 @@ import java.util.*;
  */
 public class CassandraSelect<C extends CassandraStorageSession> extends Select<C> {
 
-    protected static final String SELECT_STATEMENT = "SELECT * FROM %s ";
-    protected static final String SELECT_WHERE_STATEMENT = "WHERE %s ";
-    protected static final String SELECT_LIMIT_STATEMENT = "LIMIT %s";
-    protected static final String CONTAINS_RESERVED_WORD = "CONTAINS";
+    private boolean keysOnly;
 
     public CassandraSelect(C session) {
         super(session);
     }
 
+    /**
+     * Sets if the select reads only the primary key columns and the columns used by the query instead
+     * of the return fields, the deletes and the updates only need the keys of the selected rows.
+     * @param keysOnly Keys only flag.
+     */
+    public void setKeysOnly(boolean keysOnly) {
+        this.keysOnly = keysOnly;
+    }
+
     @Override
     protected void onAdd(Object object) {
         setResultType(object.getClass());
@@ -40,190 +51,256 @@ public class CassandraSelect<C extends CassandraStorageSession> extends Select<C
      */
     @Override
     public <R extends ResultSet> R execute(Object... params) throws StorageAccessException {
-        Query query = getQuery();
+        SelectStatement selectStatement = createStatement(params);
+        if(selectStatement.isNearCached()) {
+            return getSession().executeNearCachedQuery(selectStatement.getQuery(),
+                    selectStatement.getCqlStatement(), selectStatement.getValues(), getResultType());
+        } else if(selectStatement.isEarlyLimit()) {
+            return getSession().executeEarlyLimitQuery(selectStatement.getQuery(),
+                    selectStatement.getCqlStatement(), selectStatement.getValues(), getResultType());
+        } else if(selectStatement.isScan()) {
+            return getSession().executeScanQuery(selectStatement.getQuery(),
+                    selectStatement.getScanCqlStatement(), getResultType());
+        } else if(selectStatement.isFanOut()) {
+            return getSession().executeFanOutQuery(selectStatement.getQuery(), selectStatement.getFanOutCqlStatement(),
+                    selectStatement.getFanOutValues(), selectStatement.getRowLimit(), getResultType());
+        }
+        return getSession().executeQuery(selectStatement.getQuery(),
+                selectStatement.getCqlStatement(), selectStatement.getValues(), getResultType());
+    }
+
+    /**
+     * Creates the query execution for the cassandra engine implementation without blocking the invoker thread.
+     * @param params Query parameters.
+     * @param <R> Expected result set.
+     * @return Future that will be completed with the result set.
+     */
+    public <R extends ResultSet> CompletableFuture<R> executeAsync(Object... params) {
+        return executeAsync(getSession().getAsyncExecutor(), params);
+    }
 
-        String resourceName = query.getResourceName();
-        String normalizedResourceName = getSession().normalizeName(resourceName);
-
-        //Creates the list of keys for the resource table.
-        List<String> keys = getSession().getPartitionKey(normalizedResourceName);
-        keys.addAll(getSession().getClusteringKey(normalizedResourceName));
-        keys.addAll(getSession().getIndexes(normalizedResourceName));
-
-        Map<String, Evaluator> evaluatorsByName = new LinkedHashMap<>();
-        Map<String, List<Object>> valuesByName = new LinkedHashMap<>();
-        Set<Evaluator> evaluators = query.getEvaluators();
-        exploreQuery(evaluatorsByName, valuesByName, evaluators, keys, params);
-
-        List<Object> values = new ArrayList<>();
-        StringBuilder cqlStatement = new StringBuilder();
-        if(query.getReturnParameters() == null || query.getReturnParameters().isEmpty()) {
-            cqlStatement.append(String.format(SELECT_STATEMENT, normalizedResourceName));
-        } else {
-            cqlStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.SELECT)).append(Strings.WHITE_SPACE);
-            String argumentSeparatorValue = SystemProperties.get(SystemProperties.Query.ReservedWord.ARGUMENT_SEPARATOR);
-            String argumentSeparator = Strings.EMPTY_STRING;
-            Query.QueryReturnField queryReturnField;
-            if(!query.returnAll()) {
-                for (Query.QueryReturnParameter queryField : query.getReturnParameters()) {
-                    if (queryField instanceof Query.QueryReturnField) {
-                        if(getSession().checkColumn(normalizedResourceName, getSession().normalizeName(((Query.QueryReturnField)queryField).getFieldName()))) {
-                            queryReturnField = (Query.QueryReturnField) queryField;
-                            cqlStatement.append(argumentSeparator);
-                            cqlStatement.append(getSession().normalizeName(queryReturnField.getFieldName()));
-                            if (queryReturnField.getAlias() != null && !queryReturnField.getAlias().isEmpty()) {
-                                cqlStatement.append(Strings.WHITE_SPACE);
-                                cqlStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.AS));
-                                cqlStatement.append(Strings.WHITE_SPACE);
-                                cqlStatement.append(getSession().normalizeName(queryReturnField.getAlias()));
-                            }
-                            cqlStatement.append(Strings.WHITE_SPACE);
-                            argumentSeparator = argumentSeparatorValue;
-                        }
-                    }
-                }
-            } else {
-                cqlStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.RETURN_ALL));
-                cqlStatement.append(Strings.WHITE_SPACE);
-            }
-            cqlStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.FROM)).append(Strings.WHITE_SPACE);
-            cqlStatement.append(normalizedResourceName).append(Strings.WHITE_SPACE);
-        }
-
-        Strings.Builder cqlWhereStatement = new Strings.Builder();
-        for(String fieldName : evaluatorsByName.keySet()) {
-
-            Evaluator evaluator = evaluatorsByName.get(fieldName);
-            Query.skipEvaluator(evaluator);
-            Class<Evaluator> evaluatorClass = (Class<Evaluator>) evaluator.getClass();
-
-            if(Equals.class.equals(evaluatorClass)) {
-                cqlWhereStatement.append(fieldName).append(Strings.WHITE_SPACE);
-                cqlWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.EQUALS));
-                cqlWhereStatement.append(Strings.WHITE_SPACE);
-                cqlWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE),
-                        Strings.WHITE_SPACE, SystemProperties.get(SystemProperties.Query.ReservedWord.AND), Strings.WHITE_SPACE);
-                values.add(valuesByName.get(fieldName).get(0));
-            } else if(Like.class.equals(evaluatorClass)) {
-                cqlWhereStatement.append(fieldName).append(Strings.WHITE_SPACE);
-                cqlWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.LIKE));
-                cqlWhereStatement.append(Strings.WHITE_SPACE);
-                cqlWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE),
-                        Strings.WHITE_SPACE, SystemProperties.get(SystemProperties.Query.ReservedWord.AND), Strings.WHITE_SPACE);
-                values.add(valuesByName.get(fieldName).get(0));
-            } else if(GreaterThan.class.equals(evaluatorClass)) {
-                cqlWhereStatement.append(fieldName).append(Strings.WHITE_SPACE);
-                cqlWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.GREATER_THAN));
-                cqlWhereStatement.append(Strings.WHITE_SPACE);
-                cqlWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE),
-                        Strings.WHITE_SPACE, SystemProperties.get(SystemProperties.Query.ReservedWord.AND), Strings.WHITE_SPACE);
-                values.add(valuesByName.get(fieldName).get(0));
-            } else if(GreaterThanOrEqual.class.equals(evaluatorClass)) {
-                cqlWhereStatement.append(fieldName).append(Strings.WHITE_SPACE);
-                cqlWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.GREATER_THAN_OR_EQUALS));
-                cqlWhereStatement.append(Strings.WHITE_SPACE);
-                cqlWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE),
-                        Strings.WHITE_SPACE, SystemProperties.get(SystemProperties.Query.ReservedWord.AND), Strings.WHITE_SPACE);
-                values.add(valuesByName.get(fieldName).get(0));
-            } else if(SmallerThan.class.equals(evaluatorClass)) {
-                cqlWhereStatement.append(fieldName).append(Strings.WHITE_SPACE);
-                cqlWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.SMALLER_THAN));
-                cqlWhereStatement.append(Strings.WHITE_SPACE);
-                cqlWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE),
-                        Strings.WHITE_SPACE, SystemProperties.get(SystemProperties.Query.ReservedWord.AND), Strings.WHITE_SPACE);
-                values.add(valuesByName.get(fieldName).get(0));
-            } else if(SmallerThanOrEqual.class.equals(evaluatorClass)) {
-                cqlWhereStatement.append(fieldName).append(Strings.WHITE_SPACE);
-                cqlWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.SMALLER_THAN_OR_EQUALS));
-                cqlWhereStatement.append(Strings.WHITE_SPACE);
-                cqlWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE),
-                        Strings.WHITE_SPACE, SystemProperties.get(SystemProperties.Query.ReservedWord.AND), Strings.WHITE_SPACE);
-                values.add(valuesByName.get(fieldName).get(0));
-            } else if(In.class.equals(evaluatorClass)) {
-                if(getSession().getColumnDataType(normalizedResourceName, fieldName).isCollection()) {
-                    cqlWhereStatement.append(fieldName).append(Strings.WHITE_SPACE);
-                    cqlWhereStatement.append(CONTAINS_RESERVED_WORD);
-                    cqlWhereStatement.append(Strings.WHITE_SPACE);
-                    cqlWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE),
-                            Strings.WHITE_SPACE, SystemProperties.get(SystemProperties.Query.ReservedWord.AND), Strings.WHITE_SPACE);
-                    values.add(valuesByName.get(fieldName).get(0));
-                } else {
-                    cqlWhereStatement.append(fieldName).append(Strings.WHITE_SPACE);
-                    cqlWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.IN));
-                    cqlWhereStatement.append(Strings.START_GROUP);
-                    Object iterableObject = valuesByName.get(fieldName).get(0);
-                    Object[] collection;
-                    if(iterableObject instanceof Collection) {
-                        collection = ((Collection)iterableObject).toArray();
-                    } else {
-                        collection = (Object[]) iterableObject;
-                    }
-                    for (Object object : collection) {
-                        cqlWhereStatement.append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE),
-                                Strings.WHITE_SPACE, Strings.ARGUMENT_SEPARATOR);
-                        values.add(object);
-                    }
-                    cqlWhereStatement.cleanBuffer();
-                    cqlWhereStatement.append(Strings.WHITE_SPACE).append(Strings.END_GROUP,
-                            Strings.WHITE_SPACE, SystemProperties.get(SystemProperties.Query.ReservedWord.AND), Strings.WHITE_SPACE);
-                }
-            }
-        }
-
-        if(cqlWhereStatement.length() > 0) {
-            cqlStatement.append(String.format(SELECT_WHERE_STATEMENT, cqlWhereStatement.toString()));
-        }
-
-        Query reducedCopy = query.reduce(evaluatorsByName.values());
-
-        if(!reducedCopy.hasEvaluators()) {
-            if (query.getLimit() != null) {
-                if (query.getStart() != null) {
-                    cqlStatement.append(String.format(SELECT_LIMIT_STATEMENT, Integer.toString(query.getStart() + query.getLimit())));
-                } else {
-                    cqlStatement.append(String.format(SELECT_LIMIT_STATEMENT, query.getLimit().toString()));
-                }
-            }
-        }
-
-        return getSession().executeQuery(reducedCopy, cqlStatement.toString(), values, getResultType());
+    /**
+     * Creates the query execution for the cassandra engine implementation without blocking the invoker thread,
+     * the rows are evaluated and parsed using the executor.
+     * @param executor Executor of the evaluation and the parsing of the rows.
+     * @param params Query parameters.
+     * @param <R> Expected result set.
+     * @return Future that will be completed with the result set.
+     */
+    public <R extends ResultSet> CompletableFuture<R> executeAsync(Executor executor, Object[] params) {
+        SelectStatement selectStatement;
+        try {
+            selectStatement = createStatement(params);
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+        if(selectStatement.isNearCached()) {
+            return getSession().executeNearCachedQueryAsync(selectStatement.getQuery(),
+                    selectStatement.getCqlStatement(), selectStatement.getValues(), getResultType(), executor);
+        } else if(selectStatement.isEarlyLimit()) {
+            return getSession().executeEarlyLimitQueryAsync(selectStatement.getQuery(),
+                    selectStatement.getCqlStatement(), selectStatement.getValues(), getResultType(), executor);
+        } else if(selectStatement.isScan()) {
+            return getSession().executeScanQueryAsync(selectStatement.getQuery(),
+                    selectStatement.getScanCqlStatement(), getResultType(), executor);
+        } else if(selectStatement.isFanOut()) {
+            return getSession().executeFanOutQueryAsync(selectStatement.getQuery(), selectStatement.getFanOutCqlStatement(),
+                    selectStatement.getFanOutValues(), selectStatement.getRowLimit(), getResultType(), executor);
+        }
+        return getSession().executeQueryAsync(selectStatement.getQuery(),
+                selectStatement.getCqlStatement(), selectStatement.getValues(), getResultType(), executor);
     }
 
     /**
-     * Verify if the evaluator's field is into the list of keys in order to known which of the evaluators
-     * is a candidate to create the cassandra statement.
-     * @param evaluatorsByName Evaluators indexed by name.
-     * @param valuesByName Values indexed by name.
-     * @param evaluators All the evaluator of the related query.
-     * @param keys Data base table keys.
+     * Executes the query and returns only one page of the result. The page size is the limit of the query
+     * or the default fetch size if the query has not limit, the start of the query is ignored because the
+     * position is given by the paging state. The query is rejected if its order can't be resolved by cassandra
+     * or if it has return functions, because each page is evaluated alone.
+     * @param pagingState Paging state returned by the previous page, or null to request the first page.
      * @param params Query parameters.
+     * @param <R> Expected result set.
+     * @return Page with the result set and the paging state of the next page.
+     * @throws StorageAccessException StorageAccessException
+     */
+    public <R extends ResultSet> CassandraPage<R> executePage(String pagingState, Object... params) throws StorageAccessException {
+        SelectStatement selectStatement = createStatement(false, params);
+        int pageSize = getQuery().getLimit() != null ? getQuery().getLimit() :
+                SystemProperties.getInteger(CassandraProperties.Query.CASSANDRA_STORAGE_LAYER_QUERY_FETCH_SIZE);
+        return getSession().executeQueryPage(selectStatement.getQuery(), selectStatement.getCqlStatement(),
+                selectStatement.getValues(), getResultType(), pagingState, pageSize, selectStatement.isOrdered());
+    }
+
+    /**
+     * Creates the cql statement and the values for the query, and the reduced copy of the query
+     * with the evaluators that can't be resolved by cassandra.
+     * @param params Query parameters.
+     * @return Select statement.
+     * @throws StorageAccessException StorageAccessException
+     */
+    protected SelectStatement createStatement(Object... params) throws StorageAccessException {
+        return createStatement(true, params);
+    }
+
+    /**
+     * Creates the cql statement and the values for the query, and the reduced copy of the query
+     * with the evaluators that can't be resolved by cassandra. The statement is taken from the cached
+     * plan of the query shape, then only the values and the reduced copy are created for each execution.
+     * If the partition key is restricted with 'in' and the number of values is big enough, the statement
+     * contains the single partition values too and the query is executed with a read for each partition.
+     * If cassandra doesn't resolve any evaluator then the statement contains the range statement too and the
+     * table is scanned in parallel by ranges of tokens.
+     * If the order fields of the query match the clustering order of the table, the order is resolved by cassandra.
+     * If the query is limited but the limit can't be resolved by cassandra, the pages are evaluated while they are
+     * received and the query stops reading pages when the limit is reached.
+     * If the query reads a row by primary key and the resource is cached, the rows are taken from the near cache.
+     * @param limitRows If this parameter is false then the statement is created without limit clause and
+     *                  the start and limit of the reduced query are removed.
+     * @param params Query parameters.
+     * @return Select statement.
+     * @throws StorageAccessException StorageAccessException
+     */
+    protected SelectStatement createStatement(boolean limitRows, Object[] params) throws StorageAccessException {
+        Query query = getQuery();
+        CassandraSelectPlan plan = getSession().getSelectPlan(query, limitRows, keysOnly);
+        List<FieldEvaluator> pushedEvaluators = plan.getPushedEvaluators(query);
+        List<Object> values = plan.getValues(query, pushedEvaluators, params);
+        SelectStatement selectStatement = new SelectStatement(plan.getResidualQuery(query, pushedEvaluators),
+                plan.getCqlStatement(), values);
+        selectStatement.setOrdered(plan.isOrdered());
+        if(limitRows && plan.isFanOut() &&
+                SystemProperties.getBoolean(CassandraProperties.Query.CASSANDRA_STORAGE_LAYER_QUERY_FAN_OUT_ENABLED) &&
+                plan.getFanOutSize(values) >= SystemProperties.getInteger(CassandraProperties.Query.CASSANDRA_STORAGE_LAYER_QUERY_FAN_OUT_MIN_SIZE)) {
+            selectStatement.setFanOut(plan.getFanOutCqlStatement(), plan.getFanOutValues(values), plan.getRowLimit(values));
+        }
+        if(limitRows && plan.isScan() &&
+                SystemProperties.getBoolean(CassandraProperties.Scan.CASSANDRA_STORAGE_LAYER_SCAN_ENABLED)) {
+            selectStatement.setScan(plan.getScanCqlStatement());
+        }
+        if(limitRows && plan.getRowLimit(values) == null &&
+                getSession().isEarlyLimitQuery(selectStatement.getQuery(), plan.isOrdered())) {
+            selectStatement.setEarlyLimit(true);
+        }
+        if(limitRows && plan.isPrimaryKeyLookup() && getSession().isNearCached(plan.getResourceName())) {
+            selectStatement.setNearCached(true);
+        }
+        return selectStatement;
+    }
+
+    /**
+     * Contains the cql statement, the values and the query that must be evaluated over the
+     * rows returned by cassandra.
      */
-    private void exploreQuery(Map<String, Evaluator> evaluatorsByName,
-                              Map<String, List<Object>> valuesByName,
-                              Set<Evaluator> evaluators, List<String> keys, Object... params) {
-        Iterator<Evaluator> iterator = evaluators.iterator();
-        while(iterator.hasNext()) {
-            Evaluator evaluator = iterator.next();
-            if(evaluator instanceof EvaluatorCollection) {
-                exploreQuery(evaluatorsByName, valuesByName, ((EvaluatorCollection)evaluator).getEvaluators(), keys, params);
-            } else if (evaluator instanceof FieldEvaluator) {
-                FieldEvaluator fieldEvaluator = (FieldEvaluator) evaluator;
-                String normalizedFieldName = getSession().normalizeName(((Query.QueryField)fieldEvaluator.getQueryParameter()).getFieldName());
-                if (keys.contains(normalizedFieldName)) {
-                    if (evaluatorsByName.containsKey(normalizedFieldName)) {
-                        if (fieldEvaluator.getClass().equals(evaluatorsByName.get(normalizedFieldName).getClass())) {
-                            valuesByName.get(normalizedFieldName).add(fieldEvaluator.getValue(null,null, null, params));
-                        } else {
-                            evaluatorsByName.remove(normalizedFieldName);
-                            valuesByName.remove(normalizedFieldName);
-                        }
-                    } else {
-                        evaluatorsByName.put(normalizedFieldName, fieldEvaluator);
-                        valuesByName.put(normalizedFieldName, new ArrayList<>());
-                        valuesByName.get(normalizedFieldName).add(fieldEvaluator.getValue(null,null, null, params));
-                    }
-                }
-            }
+    protected static class SelectStatement {
+
+        private final Query query;
+        private final String cqlStatement;
+        private final List<Object> values;
+        private String fanOutCqlStatement;
+        private List<List<Object>> fanOutValues;
+        private Integer rowLimit;
+        private String scanCqlStatement;
+        private boolean earlyLimit;
+        private boolean nearCached;
+        private boolean ordered;
+
+        public SelectStatement(Query query, String cqlStatement, List<Object> values) {
+            this.query = query;
+            this.cqlStatement = cqlStatement;
+            this.values = values;
+        }
+
+        /**
+         * Sets the single partition statement and the values of each partition, then the query
+         * is executed with a read for each partition instead of the 'in' statement.
+         * @param fanOutCqlStatement Single partition cql statement.
+         * @param fanOutValues Values of each partition.
+         * @param rowLimit Max number of rows of the merged result or null if the result is not limited.
+         */
+        public void setFanOut(String fanOutCqlStatement, List<List<Object>> fanOutValues, Integer rowLimit) {
+            this.fanOutCqlStatement = fanOutCqlStatement;
+            this.fanOutValues = fanOutValues;
+            this.rowLimit = rowLimit;
+        }
+
+        /**
+         * Sets the statement that reads a range of tokens, then the query is executed as a parallel
+         * scan of the token ring instead of the statement without restrictions.
+         * @param scanCqlStatement Scan cql statement.
+         */
+        public void setScan(String scanCqlStatement) {
+            this.scanCqlStatement = scanCqlStatement;
+        }
+
+        /**
+         * Sets if the statement is executed page by page until the limit of the query is reached.
+         * @param earlyLimit Early limit flag.
+         */
+        public void setEarlyLimit(boolean earlyLimit) {
+            this.earlyLimit = earlyLimit;
+        }
+
+        /**
+         * Sets if the rows of the statement are taken from the near cache.
+         * @param nearCached Near cached flag.
+         */
+        public void setNearCached(boolean nearCached) {
+            this.nearCached = nearCached;
+        }
+
+        /**
+         * Sets if cassandra returns the rows in the order of the query.
+         * @param ordered Ordered flag.
+         */
+        public void setOrdered(boolean ordered) {
+            this.ordered = ordered;
+        }
+
+        public Query getQuery() {
+            return query;
+        }
+
+        public String getCqlStatement() {
+            return cqlStatement;
+        }
+
+        public List<Object> getValues() {
+            return values;
+        }
+
+        public boolean isFanOut() {
+            return fanOutCqlStatement != null;
+        }
+
+        public String getFanOutCqlStatement() {
+            return fanOutCqlStatement;
+        }
+
+        public List<List<Object>> getFanOutValues() {
+            return fanOutValues;
+        }
+
+        public Integer getRowLimit() {
+            return rowLimit;
+        }
+
+        public boolean isScan() {
+            return scanCqlStatement != null;
+        }
+
+        public String getScanCqlStatement() {
+            return scanCqlStatement;
+        }
+
+        public boolean isEarlyLimit() {
+            return earlyLimit;
+        }
+
+        public boolean isNearCached() {
+            return nearCached;
+        }
+
+        public boolean isOrdered() {
+            return ordered;
         }
     }
 }
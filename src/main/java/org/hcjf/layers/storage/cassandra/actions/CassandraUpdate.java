@@ -1,9 +1,14 @@
 package org.hcjf.layers.storage.cassandra.actions;
 
+import com.datastax.driver.core.BatchStatement;
 import com.datastax.driver.core.DataType;
 import org.hcjf.layers.storage.StorageAccessException;
 import org.hcjf.layers.storage.actions.*;
+import org.hcjf.layers.storage.cassandra.CassandraCounterAccumulator;
+import org.hcjf.layers.storage.cassandra.CassandraCallerExecutor;
+import org.hcjf.layers.storage.cassandra.CassandraSelectPlan;
 import org.hcjf.layers.storage.cassandra.CassandraStorageSession;
+import org.hcjf.layers.storage.cassandra.CassandraTableDescriptor;
 import org.hcjf.layers.storage.cassandra.properties.CassandraProperties;
 import org.hcjf.log.Log;
 import org.hcjf.properties.SystemProperties;
@@ -11,8 +16,14 @@ import org.hcjf.utils.Introspection;
 import org.hcjf.utils.Strings;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 
 /**
  * This class implements the update operation for cassandra.
@@ -22,10 +33,11 @@ public class CassandraUpdate extends Update<CassandraStorageSession> {
 
     private static final String UPDATE_STATEMENT = "UPDATE %s SET %s WHERE %s";
 
-    private Object updateScopeInstance;
+    private final List<Object> updateScopeInstances;
 
     public CassandraUpdate(CassandraStorageSession storageSession) {
         super(storageSession);
+        updateScopeInstances = new ArrayList<>();
     }
 
     /**
@@ -36,145 +48,392 @@ public class CassandraUpdate extends Update<CassandraStorageSession> {
     protected void onAdd(Object object) {
         setResultType(object.getClass());
         setResourceName(object.getClass().getSimpleName());
-        updateScopeInstance = object;
+        updateScopeInstances.add(object);
     }
 
     /**
      * Builds and executes the update sentence. Two parts are needed: the 'set' part and the 'where' part.
      * The 'set' part is build from params map.
-     * The 'where' part is build from the addedInstance or a specified query.
+     * The 'where' part is build from the added instances or a specified query.
+     * The update statements with the same partition key are grouped into batches and the batches are
+     * executed concurrently.
+     * If the set based mutations are enabled by the property
+     * {@link CassandraProperties.Mutation#CASSANDRA_STORAGE_LAYER_MUTATION_SET_BASED_ENABLED} and the query restricts
+     * all the primary key columns by equality or 'in', the rows are updated with a single statement when the query
+     * finds all the addressed rows. An update of cassandra inserts the rows that don't exist, then if some addressed
+     * row doesn't exist each found row is updated with its own statement. The keys of the rows are read in both
+     * cases to verify that the rows exist, then the single statement only reduces the writes, not the read.
      * @param params Query parameters
      * @param <R> Expected result set.
-     * @return Return the result set with all the rows updated.
+     * @return Return the result set with all the rows updated (only the primary key columns of the rows found by
+     * the query are read), if the updated objects are instances the
+     * result set is a {@link CassandraMutationResultSet} with the failures.
      * @throws StorageAccessException StorageAccessException
      */
     @Override
     public <R extends ResultSet> R execute(Object... params) throws StorageAccessException {
-        R resultSet;
         if(getResourceName() == null) {
             throw new StorageAccessException("Resource name not found");
         }
-        String resourceName = getSession().normalizeName(getResourceName());
-
-        //Obtains the partitions keys and clustering keys for the specific resource.
-        List<String> keys = getSession().getPartitionKey(resourceName);
-        keys.addAll(getSession().getClusteringKey(resourceName));
-
-        //List of values for all updates
-        List<Object> baseValues = new ArrayList<>();
-        //Creates the assignations body of the update operation.
-        Strings.Builder setBuilder = new Strings.Builder();
 
-        String normalizedStorageValueName;
-        for(String fieldName : getValues().keySet()) {
-            normalizedStorageValueName = getSession().normalizeName(fieldName);
-            if(getSession().checkColumn(resourceName, normalizedStorageValueName)) {
-                setBuilder.append(normalizedStorageValueName).append(Strings.ASSIGNATION).append(Strings.WHITE_SPACE);
-                if(getSession().getColumnDataType(resourceName, normalizedStorageValueName).equals(DataType.counter())) {
-                    setBuilder.append(normalizedStorageValueName).append(Strings.WHITE_SPACE);
-                    setBuilder.append(SystemProperties.get(SystemProperties.Query.Function.MATH_ADDITION)).append(Strings.WHITE_SPACE);
-                    setBuilder.append(getValues().get(fieldName).getValue(), Strings.ARGUMENT_SEPARATOR, Strings.WHITE_SPACE);
-                } else {
-                    setBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE), Strings.ARGUMENT_SEPARATOR, Strings.WHITE_SPACE);
-                    baseValues.add(getSession().checkValueDataType(getValues().get(fieldName).getValue()));
-                }
+        try {
+            CassandraCallerExecutor executor = new CassandraCallerExecutor(getSession().getAsyncExecutor());
+            return executor.await(this.<R>executeAsync(executor, params));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new StorageAccessException("Update operation interrupted", ex);
+        } catch (ExecutionException ex) {
+            if(ex.getCause() instanceof StorageAccessException) {
+                throw (StorageAccessException) ex.getCause();
+            } else if(ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
             }
+            throw new StorageAccessException("Update operation fail", ex.getCause());
         }
+    }
 
-        //Creates the conditions body of the update operation.
-        Strings.Builder whereBuilder = new Strings.Builder();
-        for(String key : keys) {
-            whereBuilder.append(key).append(SystemProperties.get(SystemProperties.Query.ReservedWord.EQUALS));
-            whereBuilder.append(Strings.WHITE_SPACE).append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE));
-            whereBuilder.append(Strings.WHITE_SPACE, SystemProperties.get(SystemProperties.Query.ReservedWord.AND), Strings.WHITE_SPACE);
-        }
+    /**
+     * This method makes the same operation that the synchronous execution but without blocking
+     * the invoker thread.
+     * @param params Query parameters
+     * @param <R> Expected result set.
+     * @return Future that will be completed with the result set with all the rows updated.
+     */
+    public <R extends ResultSet> CompletableFuture<R> executeAsync(Object... params) {
+        return executeAsync(getSession().getAsyncExecutor(), params);
+    }
 
-        //Creates statement string
-        String statement = String.format(UPDATE_STATEMENT, resourceName, setBuilder.toString(), whereBuilder.toString());
+    /**
+     * This method makes the same operation that the synchronous execution but without blocking
+     * the invoker thread, the continuations of the operation are executed by the executor.
+     * @param executor Executor of the continuations of the operation.
+     * @param params Query parameters
+     * @param <R> Expected result set.
+     * @return Future that will be completed with the result set with all the rows updated.
+     */
+    public <R extends ResultSet> CompletableFuture<R> executeAsync(Executor executor, Object[] params) {
+        if(getResourceName() == null) {
+            return CompletableFuture.failedFuture(new StorageAccessException("Resource name not found"));
+        }
 
-        //Creates a list to store the values for the update statement.
-        List<Object> values = new ArrayList<>();
+        String resourceName;
+        List<String> partitionKey;
+        List<String> keys;
+        //List of values for all updates
+        List<Object> baseValues = new ArrayList<>();
+        String statement;
+        BatchStatement.Type batchType;
+        String setUpdateStatement;
+        List<Object> setUpdateValues;
+        long addressedRows;
+        try {
+            resourceName = getSession().normalizeName(getResourceName());
 
-        //These collections are for store the updated objects.
-        List<Object> resultCollection;
-        List<Map<String, Object>> resultMap;
+            //Obtains the partitions keys and clustering keys for the specific resource.
+            CassandraTableDescriptor tableDescriptor = getSession().getTableDescriptor(resourceName);
+            partitionKey = tableDescriptor.getPartitionKey();
+            keys = tableDescriptor.getPrimaryKey();
 
-        if(updateScopeInstance != null) {
-            resultCollection = new ArrayList<>();
-            resultMap = null;
-            try {
-                //The values list is cleared for each row then put in the list the current row values.
-                values.clear();
-                values.addAll(baseValues);
+            //Creates statement string
+            statement = createStatement(resourceName, keys, baseValues);
+            batchType = isCounterUpdate(resourceName) ? BatchStatement.Type.COUNTER : BatchStatement.Type.UNLOGGED;
+            //The counter deltas added to the accumulator are written by the accumulator.
+            CassandraSelectPlan plan = updateScopeInstances.isEmpty() && getQuery() != null && SystemProperties.getBoolean(
+                    CassandraProperties.Mutation.CASSANDRA_STORAGE_LAYER_MUTATION_SET_BASED_ENABLED) &&
+                    (batchType != BatchStatement.Type.COUNTER || getSession().getCounterAccumulator() == null) ?
+                    getSession().getSelectPlan(getQuery(), true, true) : null;
+            if(plan != null && plan.isSetUpdate()) {
+                setUpdateValues = new ArrayList<>();
+                setUpdateStatement = createStatement(resourceName, plan.getMutationWhereStatement(), setUpdateValues);
+                List<Object> whereValues = plan.getValues(getQuery(), plan.getPushedEvaluators(getQuery()), params);
+                setUpdateValues.addAll(whereValues);
+                addressedRows = plan.getAddressedRows(whereValues);
+            } else {
+                setUpdateStatement = null;
+                setUpdateValues = null;
+                addressedRows = 0;
+            }
+        } catch (Exception ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
 
-                Map<String, Introspection.Getter> instanceGetters = Introspection.getGetters(updateScopeInstance.getClass());
-                for (String key : keys) {
-                    values.add(instanceGetters.get(getSession().normalizeName(key)).get(updateScopeInstance));
+        CompletableFuture<R> result;
+        if(!updateScopeInstances.isEmpty()) {
+            List<Object> instances = new ArrayList<>();
+            List<List<Object>> valuesList = new ArrayList<>();
+            List<List<Object>> partitionKeys = new ArrayList<>();
+            List<CassandraMutationResultSet.Failure> failures = new ArrayList<>();
+            Map<Class, Map<String, Introspection.Getter>> gettersByClass = new HashMap<>();
+            for(Object updateScopeInstance : updateScopeInstances) {
+                try {
+                    Map<String, Introspection.Getter> instanceGetters =
+                            gettersByClass.computeIfAbsent(updateScopeInstance.getClass(), Introspection::getGetters);
+                    List<Object> keyValues = new ArrayList<>();
+                    for (String key : keys) {
+                        keyValues.add(instanceGetters.get(getSession().normalizeName(key)).get(updateScopeInstance));
+                    }
+                    List<Object> values = new ArrayList<>(baseValues);
+                    values.addAll(keyValues);
+                    instances.add(updateScopeInstance);
+                    valuesList.add(values);
+                    partitionKeys.add(keyValues.subList(0, partitionKey.size()));
+                } catch (Exception ex) {
+                    Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                            "Unable to update instance %s", updateScopeInstance.toString());
+                    failures.add(new CassandraMutationResultSet.Failure(updateScopeInstance, ex));
                 }
-
-                //Execute the update statement.
-                getSession().execute(statement, values, getResultType());
-
-            } catch (Exception ex) {
-                Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
-                        "Unable to update instance %s", updateScopeInstance.toString());
             }
-            try {
-                //Complete updateScopeInstance with the new sets to return the modified object
-                Map<String, Introspection.Setter> instanceSetters = Introspection.getSetters(updateScopeInstance.getClass());
-                for(String fieldName : getValues().keySet()) {
-                    normalizedStorageValueName = getSession().normalizeName(fieldName);
-                    Introspection.Setter instanceSetter = instanceSetters.get(normalizedStorageValueName);
-                    if(instanceSetter != null) {
-                        instanceSetter.invoke(updateScopeInstance, getValues().get(fieldName).getValue());
+
+            result = executeBatchesAsync(resourceName, statement, valuesList, partitionKeys, batchType, executor).thenApply(errors -> {
+                List<Object> updatedInstances = new ArrayList<>();
+                for (int i = 0; i < instances.size(); i++) {
+                    Object instance = instances.get(i);
+                    if(errors.get(i) == null) {
+                        if(completeInstance(instance)) {
+                            updatedInstances.add(instance);
+                        }
+                    } else {
+                        Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                                "Unable to update instance %s", instance.toString());
+                        failures.add(new CassandraMutationResultSet.Failure(instance, errors.get(i)));
                     }
                 }
-
-                resultCollection.add(updateScopeInstance);
+                return (R) new CassandraMutationResultSet(updatedInstances, failures);
+            });
+        } else {
+            CassandraSelect<CassandraStorageSession> select;
+            try {
+                select = (CassandraSelect<CassandraStorageSession>) getSession().select(getQuery());
+                select.setKeysOnly(true);
             } catch (Exception ex) {
-                Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
-                        "Unable to complete updated to-return instance %s", updateScopeInstance.toString());
+                return CompletableFuture.failedFuture(ex);
             }
-
-        } else {
-            resultCollection = getResultType() != null ? new ArrayList<>() : null;
-            resultMap = getResultType() == null ? new ArrayList<>() : null;
-            //Make cassandra select
-            Select select = getSession().select(getQuery());
-            MapResultSet selectResultSet = (MapResultSet) select.execute(params);
-
-            for (Map<String, Object> row : selectResultSet.getResult()) {
-                try {
-                    //The values list is cleared for each row then put in the list the current row values.
-                    values.clear();
-                    values.addAll(baseValues);
+            result = select.<MapResultSet>executeAsync(executor, params).thenCompose(selectResultSet -> {
+                List<Map<String, Object>> rows = new ArrayList<>(selectResultSet.getResult());
+                List<List<Object>> valuesList = new ArrayList<>();
+                List<List<Object>> partitionKeys = new ArrayList<>();
+                for (Map<String, Object> row : rows) {
+                    List<Object> keyValues = new ArrayList<>();
                     for (String key : keys) {
-                        values.add(row.get(getSession().normalizeName(key)));
+                        keyValues.add(row.get(getSession().normalizeName(key)));
                     }
+                    List<Object> values = new ArrayList<>(baseValues);
+                    values.addAll(keyValues);
+                    valuesList.add(values);
+                    partitionKeys.add(keyValues.subList(0, partitionKey.size()));
+                }
 
-                    //Execute the update statement.
-                    getSession().execute(statement, values, getResultType());
+                CompletableFuture<List<Throwable>> updateResult;
+                if(setUpdateStatement != null && !rows.isEmpty() && rows.size() == addressedRows) {
+                    updateResult = executeSetUpdateAsync(setUpdateStatement, setUpdateValues, rows.size(), executor);
+                } else {
+                    updateResult = executeBatchesAsync(resourceName, statement, valuesList, partitionKeys, batchType, executor);
+                }
+                return updateResult.thenApply(errors -> this.<R>createResultSet(rows, errors));
+            });
+        }
+
+        return result;
+    }
 
-                    //If the expected type is a specific object then creates an instance foreach row and put it into
-                    //the result list.
-                    if (getResultType() != null) {
+    /**
+     * Updates all the rows found by the query with a single statement, the 'where' part of the update is the same
+     * that the 'where' part of the select of the query.
+     * @param statement Update statement.
+     * @param values Values of the 'set' part followed by the values of the select of the query.
+     * @param rows Number of rows found by the query.
+     * @param executor Executor of the continuations of the operation.
+     * @return Future that will be completed with the error of each row, or null if the row was updated.
+     */
+    private CompletableFuture<List<Throwable>> executeSetUpdateAsync(String statement, List<Object> values,
+                                                                    int rows, Executor executor) {
+        return getSession().executeAsync(statement, values, null, executor).handle((resultSet, throwable) ->
+                new ArrayList<>(Collections.nCopies(rows, throwable instanceof CompletionException ?
+                        throwable.getCause() : throwable)));
+    }
+
+    /**
+     * Creates the result set with the updated rows, the rows with errors are reported as failures.
+     * @param rows Rows found by the query.
+     * @param errors Error of each row, or null if the row was updated.
+     * @param <R> Expected result set.
+     * @return Result set with the updated rows.
+     */
+    private <R extends ResultSet> R createResultSet(List<Map<String, Object>> rows, List<Throwable> errors) {
+        List<Object> resultCollection = new ArrayList<>();
+        List<Map<String, Object>> resultMap = new ArrayList<>();
+        List<CassandraMutationResultSet.Failure> failures = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Map<String, Object> row = rows.get(i);
+            if(errors.get(i) == null) {
+                //If the expected type is a specific object then creates an instance foreach row and put it into
+                //the result list.
+                if (getResultType() != null) {
+                    try {
                         resultCollection.add(Introspection.toInstance(row, getResultType()));
-                    } else {
-                        resultMap.add(row);
+                    } catch (Exception ex) {
+                        Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                                "Unable to create instance from row %s", row.toString());
                     }
-                } catch (Exception ex) {
-                    Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
-                            "Unable to update row %s", row.toString());
+                } else {
+                    resultMap.add(row);
                 }
+            } else {
+                Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                        "Unable to update row %s", row.toString());
+                failures.add(new CassandraMutationResultSet.Failure(row, errors.get(i)));
             }
         }
 
-        if(resultCollection != null) {
-            resultSet = (R) new CollectionResultSet(resultCollection);
+        R resultSet;
+        if (getResultType() != null) {
+            resultSet = (R) new CassandraMutationResultSet(resultCollection, failures);
         } else {
             resultSet = (R) new MapResultSet(resultMap);
         }
-
         return resultSet;
     }
+
+    /**
+     * Executes the update statements grouped into batches. If the update modifies counter columns and the
+     * counter accumulator of the layer is enabled, the deltas are added to the accumulator and written by
+     * the next flush of the accumulator, in this case the updates are completed without errors and the failures
+     * of the flush are reported to the flush listener of the layer.
+     * @param resourceName Resource name.
+     * @param statement Update statement.
+     * @param valuesList Values of each update, the values of the 'set' part followed by the keys.
+     * @param partitionKeys Partition key values of each update.
+     * @param batchType Type of the batches.
+     * @param executor Executor of the completion of the batches.
+     * @return Future that will be completed with the error of each update, or null if the update was executed.
+     */
+    private CompletableFuture<List<Throwable>> executeBatchesAsync(String resourceName, String statement,
+                                                                  List<List<Object>> valuesList,
+                                                                  List<List<Object>> partitionKeys,
+                                                                  BatchStatement.Type batchType, Executor executor) {
+        CassandraCounterAccumulator counterAccumulator = getSession().getCounterAccumulator();
+        if(counterAccumulator == null || batchType != BatchStatement.Type.COUNTER) {
+            return getSession().executeBatchesAsync(statement, valuesList, partitionKeys, batchType, executor);
+        }
+
+        List<String> counterColumns = new ArrayList<>();
+        for(String fieldName : getValues().keySet()) {
+            String normalizedStorageValueName = getSession().normalizeName(fieldName);
+            if(getSession().checkColumn(resourceName, normalizedStorageValueName)) {
+                counterColumns.add(normalizedStorageValueName);
+            }
+        }
+        for(List<Object> values : valuesList) {
+            List<Object> keyValues = new ArrayList<>(values.subList(counterColumns.size(), values.size()));
+            for (int i = 0; i < counterColumns.size(); i++) {
+                counterAccumulator.add(resourceName, counterColumns.get(i), keyValues, (Long) values.get(i));
+            }
+        }
+        return CompletableFuture.completedFuture(new ArrayList<>(Collections.nCopies(valuesList.size(), null)));
+    }
+
+    /**
+     * Converts the value of a counter column to the delta of the counter.
+     * @param value Value of the update.
+     * @return Delta of the counter.
+     */
+    private static Long toDelta(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : Long.parseLong(value.toString().trim());
+    }
+
+    /**
+     * Complete the instance with the new values to return the modified object.
+     * @param instance Updated instance.
+     * @return Return true if the instance was completed and false in the other case.
+     */
+    private boolean completeInstance(Object instance) {
+        boolean result = true;
+        try {
+            Map<String, Introspection.Setter> instanceSetters = Introspection.getSetters(instance.getClass());
+            for(String fieldName : getValues().keySet()) {
+                Introspection.Setter instanceSetter = instanceSetters.get(getSession().normalizeName(fieldName));
+                if(instanceSetter != null) {
+                    instanceSetter.invoke(instance, getValues().get(fieldName).getValue());
+                }
+            }
+        } catch (Exception ex) {
+            Log.w(SystemProperties.get(CassandraProperties.CASSANDRA_STORAGE_LAYER_LOG_TAG),
+                    "Unable to complete updated to-return instance %s", instance.toString());
+            result = false;
+        }
+        return result;
+    }
+
+    /**
+     * Verify if some of the updated columns is a counter, in this case the update statements only can
+     * be grouped into counter batches.
+     * @param resourceName Resource name.
+     * @return Return true if the update modifies counter columns.
+     */
+    private boolean isCounterUpdate(String resourceName) {
+        boolean result = false;
+        String normalizedStorageValueName;
+        for(String fieldName : getValues().keySet()) {
+            normalizedStorageValueName = getSession().normalizeName(fieldName);
+            if(getSession().checkColumn(resourceName, normalizedStorageValueName) &&
+                    getSession().getColumnDataType(resourceName, normalizedStorageValueName).equals(DataType.counter())) {
+                result = true;
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Creates the update statement, the 'set' part is build from the values of the update
+     * operation and the 'where' part with all the keys of the resource.
+     * @param resourceName Resource name.
+     * @param keys Keys of the resource.
+     * @param baseValues List to store the values of the 'set' part.
+     * @return Update statement.
+     */
+    private String createStatement(String resourceName, List<String> keys, List<Object> baseValues) {
+        //Creates the conditions body of the update operation.
+        Strings.Builder whereBuilder = new Strings.Builder();
+        for(String key : keys) {
+            whereBuilder.append(key).append(SystemProperties.get(SystemProperties.Query.ReservedWord.EQUALS));
+            whereBuilder.append(Strings.WHITE_SPACE).append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE));
+            whereBuilder.append(Strings.WHITE_SPACE, SystemProperties.get(SystemProperties.Query.ReservedWord.AND), Strings.WHITE_SPACE);
+        }
+        return createStatement(resourceName, whereBuilder.toString(), baseValues);
+    }
+
+    /**
+     * Creates the update statement, the 'set' part is build from the values of the update
+     * operation.
+     * @param resourceName Resource name.
+     * @param whereStatement The 'where' part of the statement.
+     * @param baseValues List to store the values of the 'set' part.
+     * @return Update statement.
+     */
+    private String createStatement(String resourceName, String whereStatement, List<Object> baseValues) {
+        //Creates the assignations body of the update operation.
+        Strings.Builder setBuilder = new Strings.Builder();
+
+        String normalizedStorageValueName;
+        for(String fieldName : getValues().keySet()) {
+            normalizedStorageValueName = getSession().normalizeName(fieldName);
+            if(getSession().checkColumn(resourceName, normalizedStorageValueName)) {
+                setBuilder.append(normalizedStorageValueName).append(Strings.ASSIGNATION).append(Strings.WHITE_SPACE);
+                if(getSession().getColumnDataType(resourceName, normalizedStorageValueName).equals(DataType.counter())) {
+                    //The deltas are bound then all the increments of the column share the same prepared statement.
+                    setBuilder.append(normalizedStorageValueName).append(Strings.WHITE_SPACE);
+                    setBuilder.append(SystemProperties.get(SystemProperties.Query.Function.MATH_ADDITION)).append(Strings.WHITE_SPACE);
+                    setBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE), Strings.ARGUMENT_SEPARATOR, Strings.WHITE_SPACE);
+                    baseValues.add(toDelta(getValues().get(fieldName).getValue()));
+                } else {
+                    setBuilder.append(SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE), Strings.ARGUMENT_SEPARATOR, Strings.WHITE_SPACE);
+                    baseValues.add(getSession().checkValueDataType(getValues().get(fieldName).getValue()));
+                }
+            }
+        }
+
+        //Creates statement string
+        return String.format(UPDATE_STATEMENT, resourceName, setBuilder.toString(), whereStatement);
+    }
 }
@@ -24,6 +24,94 @@ public class CassandraProperties {
         public static final String CASSANDRA_STORAGE_LAYER_QUERY_CONSISTENCY_LEVEL = "cassandra.storage.layer.query.consistency.level";
         public static final String CASSANDRA_STORAGE_LAYER_QUERY_DEFAULT_IDEMPOTENCE = "cassandra.storage.layer.query.default.idempotence";
         public static final String CASSANDRA_STORAGE_LAYER_QUERY_FETCH_SIZE = "cassandra.storage.layer.query.fetch.size";
+        public static final String CASSANDRA_STORAGE_LAYER_QUERY_STREAMING_ENABLED = "cassandra.storage.layer.query.streaming.enabled";
+        public static final String CASSANDRA_STORAGE_LAYER_QUERY_FAN_OUT_ENABLED = "cassandra.storage.layer.query.fan.out.enabled";
+        public static final String CASSANDRA_STORAGE_LAYER_QUERY_FAN_OUT_MIN_SIZE = "cassandra.storage.layer.query.fan.out.min.size";
+        public static final String CASSANDRA_STORAGE_LAYER_QUERY_FAN_OUT_CONCURRENCY = "cassandra.storage.layer.query.fan.out.concurrency";
+        public static final String CASSANDRA_STORAGE_LAYER_QUERY_EARLY_LIMIT_ENABLED = "cassandra.storage.layer.query.early.limit.enabled";
+        public static final String CASSANDRA_STORAGE_LAYER_QUERY_EARLY_LIMIT_MIN_FETCH_SIZE = "cassandra.storage.layer.query.early.limit.min.fetch.size";
+    }
+
+    public static final class Async {
+        public static final String CASSANDRA_STORAGE_LAYER_ASYNC_EXECUTOR_POOL_SIZE = "cassandra.storage.layer.async.executor.pool.size";
+    }
+
+    public static final class Batch {
+        public static final String CASSANDRA_STORAGE_LAYER_BATCH_MAX_SIZE = "cassandra.storage.layer.batch.max.size";
+        public static final String CASSANDRA_STORAGE_LAYER_BATCH_MAX_CONCURRENCY = "cassandra.storage.layer.batch.max.concurrency";
+    }
+
+    public static final class Mutation {
+        public static final String CASSANDRA_STORAGE_LAYER_MUTATION_SET_BASED_ENABLED = "cassandra.storage.layer.mutation.set.based.enabled";
+    }
+
+    public static final class CounterAccumulator {
+        public static final String CASSANDRA_STORAGE_LAYER_COUNTER_ACCUMULATOR_ENABLED = "cassandra.storage.layer.counter.accumulator.enabled";
+        public static final String CASSANDRA_STORAGE_LAYER_COUNTER_ACCUMULATOR_FLUSH_INTERVAL = "cassandra.storage.layer.counter.accumulator.flush.interval";
+        public static final String CASSANDRA_STORAGE_LAYER_COUNTER_ACCUMULATOR_MAX_SIZE = "cassandra.storage.layer.counter.accumulator.max.size";
+        public static final String CASSANDRA_STORAGE_LAYER_COUNTER_ACCUMULATOR_SHUTDOWN_TIMEOUT = "cassandra.storage.layer.counter.accumulator.shutdown.timeout";
+    }
+
+    public static final class Bulk {
+        public static final String CASSANDRA_STORAGE_LAYER_BULK_MAX_IN_FLIGHT = "cassandra.storage.layer.bulk.max.in.flight";
+        public static final String CASSANDRA_STORAGE_LAYER_BULK_PROGRESS_INTERVAL = "cassandra.storage.layer.bulk.progress.interval";
+    }
+
+    public static final class StatementCache {
+        public static final String CASSANDRA_STORAGE_LAYER_STATEMENT_CACHE_MAX_SIZE = "cassandra.storage.layer.statement.cache.max.size";
+    }
+
+    public static final class PlanCache {
+        public static final String CASSANDRA_STORAGE_LAYER_PLAN_CACHE_MAX_SIZE = "cassandra.storage.layer.plan.cache.max.size";
+    }
+
+    public static final class TableDescriptorCache {
+        public static final String CASSANDRA_STORAGE_LAYER_TABLE_DESCRIPTOR_CACHE_MAX_SIZE = "cassandra.storage.layer.table.descriptor.cache.max.size";
+    }
+
+    public static final class RowMapperCache {
+        public static final String CASSANDRA_STORAGE_LAYER_ROW_MAPPER_CACHE_MAX_SIZE = "cassandra.storage.layer.row.mapper.cache.max.size";
+    }
+
+    public static final class Metrics {
+        public static final String CASSANDRA_STORAGE_LAYER_METRICS_ENABLED = "cassandra.storage.layer.metrics.enabled";
+        public static final String CASSANDRA_STORAGE_LAYER_METRICS_JMX_ENABLED = "cassandra.storage.layer.metrics.jmx.enabled";
+        public static final String CASSANDRA_STORAGE_LAYER_METRICS_JMX_DOMAIN = "cassandra.storage.layer.metrics.jmx.domain";
+        public static final String CASSANDRA_STORAGE_LAYER_METRICS_MAX_TEMPLATES = "cassandra.storage.layer.metrics.max.templates";
+    }
+
+    public static final class SlowQuery {
+        public static final String CASSANDRA_STORAGE_LAYER_SLOW_QUERY_ENABLED = "cassandra.storage.layer.slow.query.enabled";
+        public static final String CASSANDRA_STORAGE_LAYER_SLOW_QUERY_THRESHOLD = "cassandra.storage.layer.slow.query.threshold";
+        public static final String CASSANDRA_STORAGE_LAYER_SLOW_QUERY_SAMPLING_RATE = "cassandra.storage.layer.slow.query.sampling.rate";
+        public static final String CASSANDRA_STORAGE_LAYER_SLOW_QUERY_CAPACITY = "cassandra.storage.layer.slow.query.capacity";
+    }
+
+    public static final class Routing {
+        public static final String CASSANDRA_STORAGE_LAYER_ROUTING_TOKEN_AWARE = "cassandra.storage.layer.routing.token.aware";
+        public static final String CASSANDRA_STORAGE_LAYER_ROUTING_SHUFFLE_REPLICAS = "cassandra.storage.layer.routing.shuffle.replicas";
+    }
+
+    public static final class Scan {
+        public static final String CASSANDRA_STORAGE_LAYER_SCAN_ENABLED = "cassandra.storage.layer.scan.enabled";
+        public static final String CASSANDRA_STORAGE_LAYER_SCAN_CONCURRENCY = "cassandra.storage.layer.scan.concurrency";
+        public static final String CASSANDRA_STORAGE_LAYER_SCAN_SPLIT_SIZE = "cassandra.storage.layer.scan.split.size";
+        public static final String CASSANDRA_STORAGE_LAYER_SCAN_SPLITS_EXPIRE_TIME = "cassandra.storage.layer.scan.splits.expire.time";
+    }
+
+    public static final class NearCache {
+        public static final String CASSANDRA_STORAGE_LAYER_NEAR_CACHE_RESOURCES = "cassandra.storage.layer.near.cache.resources";
+        public static final String CASSANDRA_STORAGE_LAYER_NEAR_CACHE_MAX_SIZE = "cassandra.storage.layer.near.cache.max.size";
+        public static final String CASSANDRA_STORAGE_LAYER_NEAR_CACHE_MAX_WEIGHT = "cassandra.storage.layer.near.cache.max.weight";
+        public static final String CASSANDRA_STORAGE_LAYER_NEAR_CACHE_EXPIRE_TIME = "cassandra.storage.layer.near.cache.expire.time";
+    }
+
+    public static final class Speculative {
+        public static final String CASSANDRA_STORAGE_LAYER_SPECULATIVE_ENABLED = "cassandra.storage.layer.speculative.enabled";
+        public static final String CASSANDRA_STORAGE_LAYER_SPECULATIVE_PERCENTILE = "cassandra.storage.layer.speculative.percentile";
+        public static final String CASSANDRA_STORAGE_LAYER_SPECULATIVE_MAX_EXECUTIONS = "cassandra.storage.layer.speculative.max.executions";
+        public static final String CASSANDRA_STORAGE_LAYER_SPECULATIVE_MAX_LATENCY = "cassandra.storage.layer.speculative.max.latency";
+        public static final String CASSANDRA_STORAGE_LAYER_SPECULATIVE_MIN_RECORDED_VALUES = "cassandra.storage.layer.speculative.min.recorded.values";
     }
 
     public static void init(){
@@ -41,6 +129,50 @@ public class CassandraProperties {
         SystemProperties.putDefaultValue(Query.CASSANDRA_STORAGE_LAYER_QUERY_CONSISTENCY_LEVEL, QueryOptions.DEFAULT_CONSISTENCY_LEVEL.toString());
         SystemProperties.putDefaultValue(Query.CASSANDRA_STORAGE_LAYER_QUERY_DEFAULT_IDEMPOTENCE, Boolean.toString(QueryOptions.DEFAULT_IDEMPOTENCE));
         SystemProperties.putDefaultValue(Query.CASSANDRA_STORAGE_LAYER_QUERY_FETCH_SIZE, Integer.toString(QueryOptions.DEFAULT_FETCH_SIZE));
+        SystemProperties.putDefaultValue(Query.CASSANDRA_STORAGE_LAYER_QUERY_STREAMING_ENABLED, "false");
+        SystemProperties.putDefaultValue(Query.CASSANDRA_STORAGE_LAYER_QUERY_FAN_OUT_ENABLED, "true");
+        SystemProperties.putDefaultValue(Query.CASSANDRA_STORAGE_LAYER_QUERY_FAN_OUT_MIN_SIZE, "2");
+        SystemProperties.putDefaultValue(Query.CASSANDRA_STORAGE_LAYER_QUERY_FAN_OUT_CONCURRENCY, "32");
+        SystemProperties.putDefaultValue(Query.CASSANDRA_STORAGE_LAYER_QUERY_EARLY_LIMIT_ENABLED, "true");
+        SystemProperties.putDefaultValue(Query.CASSANDRA_STORAGE_LAYER_QUERY_EARLY_LIMIT_MIN_FETCH_SIZE, "100");
+
+        SystemProperties.putDefaultValue(Async.CASSANDRA_STORAGE_LAYER_ASYNC_EXECUTOR_POOL_SIZE, Integer.toString(Runtime.getRuntime().availableProcessors()));
+        SystemProperties.putDefaultValue(Batch.CASSANDRA_STORAGE_LAYER_BATCH_MAX_SIZE, "100");
+        SystemProperties.putDefaultValue(Batch.CASSANDRA_STORAGE_LAYER_BATCH_MAX_CONCURRENCY, "32");
+        SystemProperties.putDefaultValue(Mutation.CASSANDRA_STORAGE_LAYER_MUTATION_SET_BASED_ENABLED, "false");
+        SystemProperties.putDefaultValue(CounterAccumulator.CASSANDRA_STORAGE_LAYER_COUNTER_ACCUMULATOR_ENABLED, "false");
+        SystemProperties.putDefaultValue(CounterAccumulator.CASSANDRA_STORAGE_LAYER_COUNTER_ACCUMULATOR_FLUSH_INTERVAL, "1000");
+        SystemProperties.putDefaultValue(CounterAccumulator.CASSANDRA_STORAGE_LAYER_COUNTER_ACCUMULATOR_MAX_SIZE, "10000");
+        SystemProperties.putDefaultValue(CounterAccumulator.CASSANDRA_STORAGE_LAYER_COUNTER_ACCUMULATOR_SHUTDOWN_TIMEOUT, "10000");
+        SystemProperties.putDefaultValue(Bulk.CASSANDRA_STORAGE_LAYER_BULK_MAX_IN_FLIGHT, "256");
+        SystemProperties.putDefaultValue(Bulk.CASSANDRA_STORAGE_LAYER_BULK_PROGRESS_INTERVAL, "10000");
+        SystemProperties.putDefaultValue(StatementCache.CASSANDRA_STORAGE_LAYER_STATEMENT_CACHE_MAX_SIZE, "1000");
+        SystemProperties.putDefaultValue(PlanCache.CASSANDRA_STORAGE_LAYER_PLAN_CACHE_MAX_SIZE, "1000");
+        SystemProperties.putDefaultValue(TableDescriptorCache.CASSANDRA_STORAGE_LAYER_TABLE_DESCRIPTOR_CACHE_MAX_SIZE, "1000");
+        SystemProperties.putDefaultValue(RowMapperCache.CASSANDRA_STORAGE_LAYER_ROW_MAPPER_CACHE_MAX_SIZE, "1000");
+        SystemProperties.putDefaultValue(Metrics.CASSANDRA_STORAGE_LAYER_METRICS_ENABLED, "true");
+        SystemProperties.putDefaultValue(Metrics.CASSANDRA_STORAGE_LAYER_METRICS_JMX_ENABLED, "true");
+        SystemProperties.putDefaultValue(Metrics.CASSANDRA_STORAGE_LAYER_METRICS_JMX_DOMAIN, "org.hcjf.cassandra");
+        SystemProperties.putDefaultValue(Metrics.CASSANDRA_STORAGE_LAYER_METRICS_MAX_TEMPLATES, "1000");
+        SystemProperties.putDefaultValue(SlowQuery.CASSANDRA_STORAGE_LAYER_SLOW_QUERY_ENABLED, "true");
+        SystemProperties.putDefaultValue(SlowQuery.CASSANDRA_STORAGE_LAYER_SLOW_QUERY_THRESHOLD, "500");
+        SystemProperties.putDefaultValue(SlowQuery.CASSANDRA_STORAGE_LAYER_SLOW_QUERY_SAMPLING_RATE, "100");
+        SystemProperties.putDefaultValue(SlowQuery.CASSANDRA_STORAGE_LAYER_SLOW_QUERY_CAPACITY, "256");
+        SystemProperties.putDefaultValue(Routing.CASSANDRA_STORAGE_LAYER_ROUTING_TOKEN_AWARE, "true");
+        SystemProperties.putDefaultValue(Routing.CASSANDRA_STORAGE_LAYER_ROUTING_SHUFFLE_REPLICAS, "true");
+        SystemProperties.putDefaultValue(Scan.CASSANDRA_STORAGE_LAYER_SCAN_ENABLED, "true");
+        SystemProperties.putDefaultValue(Scan.CASSANDRA_STORAGE_LAYER_SCAN_CONCURRENCY, Integer.toString(Runtime.getRuntime().availableProcessors()));
+        SystemProperties.putDefaultValue(Scan.CASSANDRA_STORAGE_LAYER_SCAN_SPLIT_SIZE, Long.toString(16 * 1024 * 1024));
+        SystemProperties.putDefaultValue(Scan.CASSANDRA_STORAGE_LAYER_SCAN_SPLITS_EXPIRE_TIME, "300000");
+        SystemProperties.putDefaultValue(NearCache.CASSANDRA_STORAGE_LAYER_NEAR_CACHE_RESOURCES, "");
+        SystemProperties.putDefaultValue(NearCache.CASSANDRA_STORAGE_LAYER_NEAR_CACHE_MAX_SIZE, "10000");
+        SystemProperties.putDefaultValue(NearCache.CASSANDRA_STORAGE_LAYER_NEAR_CACHE_MAX_WEIGHT, "0");
+        SystemProperties.putDefaultValue(NearCache.CASSANDRA_STORAGE_LAYER_NEAR_CACHE_EXPIRE_TIME, "60000");
+        SystemProperties.putDefaultValue(Speculative.CASSANDRA_STORAGE_LAYER_SPECULATIVE_ENABLED, "false");
+        SystemProperties.putDefaultValue(Speculative.CASSANDRA_STORAGE_LAYER_SPECULATIVE_PERCENTILE, "99.0");
+        SystemProperties.putDefaultValue(Speculative.CASSANDRA_STORAGE_LAYER_SPECULATIVE_MAX_EXECUTIONS, "2");
+        SystemProperties.putDefaultValue(Speculative.CASSANDRA_STORAGE_LAYER_SPECULATIVE_MAX_LATENCY, "15000");
+        SystemProperties.putDefaultValue(Speculative.CASSANDRA_STORAGE_LAYER_SPECULATIVE_MIN_RECORDED_VALUES, "1000");
     }
 
 }
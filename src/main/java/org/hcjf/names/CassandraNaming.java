@@ -1,18 +1,33 @@
 package org.hcjf.names;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
 /**
  * This naming consumer transform the camel case format to cassandra and vice versa
  * format all the resources name.
+ * The normalized names are memoized in both directions, then the steady state normalization
+ * is a lookup without allocations.
  * @author javaito
  */
 public class CassandraNaming extends NamingConsumer {
 
     public static final String CASSANDRA_NAMING_IMPL = "cassandra";
 
-    private static final String NAME_SEPARATOR = "_";
+    private static final int DEFAULT_CACHE_MAX_SIZE = 10000;
+    private static final char NAME_SEPARATOR = '_';
+
+    private final Map<String, String> cache;
+    private final int cacheMaxSize;
 
     public CassandraNaming() {
+        this(DEFAULT_CACHE_MAX_SIZE);
+    }
+
+    public CassandraNaming(int cacheMaxSize) {
         super(CASSANDRA_NAMING_IMPL);
+        this.cache = new ConcurrentHashMap<>();
+        this.cacheMaxSize = cacheMaxSize;
     }
 
     /**
@@ -26,31 +41,83 @@ public class CassandraNaming extends NamingConsumer {
      */
     @Override
     public String normalize(String value) {
-        StringBuilder result = new StringBuilder();
-        char[] valueCharacters = value.toCharArray();
-        char valueCharacter;
-        if(!value.contains(NAME_SEPARATOR)) {
-            for (int i = 0; i < valueCharacters.length; i++) {
-                valueCharacter = valueCharacters[i];
-                if (Character.isUpperCase(valueCharacter)) {
-                    if (i != 0) {
-                        result.append(NAME_SEPARATOR);
+        String result = cache.get(value);
+        if(result == null) {
+            result = transform(value);
+            if(cache.size() < cacheMaxSize) {
+                cache.putIfAbsent(value, result);
+                //The inverse transformation is stored only if the value is recovered from the result.
+                if(!result.equals(value) && transform(result).equals(value)) {
+                    cache.putIfAbsent(result, value);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the number of memoized names.
+     * @return Number of memoized names.
+     */
+    public int getCacheSize() {
+        return cache.size();
+    }
+
+    /**
+     * Transforms the value without use the memoized names.
+     * @param value Value to will be transformed.
+     * @return Transformed value.
+     */
+    private String transform(String value) {
+        String result;
+        if(value.indexOf(NAME_SEPARATOR) < 0) {
+            if(!hasUpperCase(value)) {
+                //Nothing to transform, the same instance is returned.
+                result = value;
+            } else {
+                StringBuilder builder = new StringBuilder(value.length() + 4);
+                char valueCharacter;
+                for (int i = 0; i < value.length(); i++) {
+                    valueCharacter = value.charAt(i);
+                    if (Character.isUpperCase(valueCharacter)) {
+                        if (i != 0) {
+                            builder.append(NAME_SEPARATOR);
+                        }
+                        builder.append(Character.toLowerCase(valueCharacter));
+                    } else {
+                        builder.append(valueCharacter);
                     }
-                    result.append(Character.toLowerCase(valueCharacter));
-                } else {
-                    result.append(valueCharacter);
                 }
+                result = builder.toString();
             }
         } else {
-            for (int i = 0; i < valueCharacters.length; i++) {
-                valueCharacter = valueCharacters[i];
-                if (valueCharacter == NAME_SEPARATOR.charAt(0)) {
-                    result.append(Character.toUpperCase(valueCharacters[++i]));
+            StringBuilder builder = new StringBuilder(value.length());
+            char valueCharacter;
+            for (int i = 0; i < value.length(); i++) {
+                valueCharacter = value.charAt(i);
+                if (valueCharacter == NAME_SEPARATOR) {
+                    if(++i < value.length()) {
+                        builder.append(Character.toUpperCase(value.charAt(i)));
+                    }
                 } else {
-                    result.append(valueCharacter);
+                    builder.append(valueCharacter);
                 }
             }
+            result = builder.toString();
+        }
+        return result;
+    }
+
+    /**
+     * Verify if the value contains some upper case character.
+     * @param value Value to verify.
+     * @return Return true if the value contains upper case characters.
+     */
+    private boolean hasUpperCase(String value) {
+        boolean result = false;
+        for (int i = 0; i < value.length() && !result; i++) {
+            result = Character.isUpperCase(value.charAt(i));
         }
-        return result.toString();
+        return result;
     }
 }
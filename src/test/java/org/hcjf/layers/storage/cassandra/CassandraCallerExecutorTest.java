@@ -0,0 +1,67 @@
+package org.hcjf.layers.storage.cassandra;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * @author javaito
+ */
+public class CassandraCallerExecutorTest {
+
+    @Test
+    public void continuationsRunIntoWaitingThread() throws Exception {
+        CassandraCallerExecutor executor = new CassandraCallerExecutor(Runnable::run);
+        CompletableFuture<Integer> source = new CompletableFuture<>();
+        CompletableFuture<Thread> future = source.thenApplyAsync(value -> Thread.currentThread(), executor);
+        new Thread(() -> source.complete(1)).start();
+        Assert.assertSame(Thread.currentThread(), executor.await(future));
+    }
+
+    @Test
+    public void awaitFromTheFallbackExecutorDoesNotDeadlock() throws Exception {
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> result = pool.submit(() -> {
+                CassandraCallerExecutor executor = new CassandraCallerExecutor(pool);
+                CompletableFuture<Integer> source = new CompletableFuture<>();
+                CompletableFuture<Integer> future = source.thenApplyAsync(value -> value + 1, executor)
+                        .thenApplyAsync(value -> value * 2, executor);
+                new Thread(() -> source.complete(1)).start();
+                return executor.await(future);
+            });
+            Assert.assertEquals(Integer.valueOf(4), result.get(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void tasksAfterTheWaitRunIntoFallbackExecutor() throws Exception {
+        List<Runnable> fallbackTasks = new ArrayList<>();
+        CassandraCallerExecutor executor = new CassandraCallerExecutor(fallbackTasks::add);
+        executor.await(CompletableFuture.completedFuture(1));
+        Runnable task = () -> {};
+        executor.execute(task);
+        Assert.assertEquals(1, fallbackTasks.size());
+        Assert.assertSame(task, fallbackTasks.get(0));
+    }
+
+    @Test
+    public void failuresArePropagated() throws Exception {
+        CassandraCallerExecutor executor = new CassandraCallerExecutor(Runnable::run);
+        IllegalStateException cause = new IllegalStateException();
+        CompletableFuture<Integer> future = CompletableFuture.<Integer>supplyAsync(() -> {
+            throw cause;
+        }).thenApplyAsync(value -> value + 1, executor);
+        try {
+            executor.await(future);
+            Assert.fail();
+        } catch (ExecutionException ex) {
+            Assert.assertSame(cause, ex.getCause());
+        }
+    }
+}
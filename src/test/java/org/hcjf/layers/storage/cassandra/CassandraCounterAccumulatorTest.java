@@ -0,0 +1,139 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.DataType;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author javaito
+ */
+public class CassandraCounterAccumulatorTest {
+
+    private static final String RESOURCE = "resource";
+    private static final String HITS = "hits";
+    private static final String VISITS = "visits";
+    private static final long FLUSH_INTERVAL = TimeUnit.HOURS.toMillis(1);
+
+    private TestStorageLayer layer;
+    private List<List<Object>> failures;
+
+    @Before
+    public void setUp() {
+        Map<String, DataType> columns = new HashMap<>();
+        columns.put("id", DataType.text());
+        columns.put("ck", DataType.cint());
+        columns.put(HITS, DataType.counter());
+        columns.put(VISITS, DataType.counter());
+        layer = new TestStorageLayer(null);
+        layer.addTable(new CassandraTableDescriptor(RESOURCE, columns, Collections.singletonList("id"),
+                Collections.singletonList("ck"), Collections.emptyList()));
+        failures = new CopyOnWriteArrayList<>();
+    }
+
+    private CassandraCounterAccumulator createAccumulator(int maxSize) {
+        return new CassandraCounterAccumulator(layer, new CassandraCounterFlushListener() {
+            @Override
+            public void onFailure(String resourceName, String columnName, List<Object> keyValues, long delta, Throwable cause) {
+                failures.add(Arrays.asList(resourceName, columnName, keyValues, delta, cause));
+            }
+        }, FLUSH_INTERVAL, maxSize, 0, new CassandraMetrics(new MetricRegistry(), "test", false));
+    }
+
+    private static Set<List<Object>> valuesOf(TestStorageLayer.Execution execution) {
+        return new HashSet<>(execution.getValuesList());
+    }
+
+    @Test
+    public void deltasOfTheSameCounterAreFlushedAsOneIncrement() throws Exception {
+        CassandraCounterAccumulator accumulator = createAccumulator(100);
+        accumulator.add(RESOURCE, HITS, Arrays.asList("a", 1), 2);
+        accumulator.add(RESOURCE, HITS, Arrays.asList("a", 1), 3);
+        accumulator.add(RESOURCE, HITS, Arrays.asList("a", 2), 1);
+        accumulator.flush().get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(1, layer.getExecutions().size());
+        TestStorageLayer.Execution execution = layer.getExecutions().get(0);
+        Assert.assertTrue(execution.isBatch());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(Arrays.asList(5L, "a", 1), Arrays.asList(1L, "a", 2))),
+                valuesOf(execution));
+        Assert.assertTrue(failures.isEmpty());
+    }
+
+    @Test
+    public void eachColumnIsFlushedWithItsOwnStatement() throws Exception {
+        CassandraCounterAccumulator accumulator = createAccumulator(100);
+        accumulator.add(RESOURCE, HITS, Arrays.asList("a", 1), 1);
+        accumulator.add(RESOURCE, VISITS, Arrays.asList("a", 1), 1);
+        accumulator.flush().get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(2, layer.getExecutions().size());
+        Assert.assertNotEquals(layer.getExecutions().get(0).getCqlStatement(),
+                layer.getExecutions().get(1).getCqlStatement());
+    }
+
+    @Test
+    public void flushedDeltasAreNotWrittenAgain() throws Exception {
+        CassandraCounterAccumulator accumulator = createAccumulator(100);
+        accumulator.add(RESOURCE, HITS, Arrays.asList("a", 1), 1);
+        accumulator.flush().get(10, TimeUnit.SECONDS);
+        accumulator.flush().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(1, layer.getExecutions().size());
+
+        accumulator.add(RESOURCE, HITS, Arrays.asList("a", 1), 4);
+        accumulator.add(RESOURCE, HITS, Arrays.asList("a", 2), 2);
+        accumulator.add(RESOURCE, HITS, Arrays.asList("a", 2), -2);
+        accumulator.flush().get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(2, layer.getExecutions().size());
+        Assert.assertEquals(Collections.singleton(Arrays.asList(4L, "a", 1)), valuesOf(layer.getExecutions().get(1)));
+    }
+
+    @Test
+    public void failedDeltasAreReportedToTheListener() throws Exception {
+        CassandraCounterAccumulator accumulator = createAccumulator(100);
+        IllegalStateException cause = new IllegalStateException();
+        layer.setFailure(cause);
+        accumulator.add(RESOURCE, HITS, Arrays.asList("a", 1), 2);
+        accumulator.add(RESOURCE, HITS, Arrays.asList("a", 1), 3);
+        accumulator.flush().get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(Collections.singletonList(Arrays.asList(RESOURCE, HITS, Arrays.asList("a", 1), 5L, cause)),
+                failures);
+
+        layer.setFailure(null);
+        accumulator.flush().get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(1, layer.getExecutions().size());
+    }
+
+    @Test
+    public void deltasOfUnknownResourceAreReportedToTheListener() throws Exception {
+        CassandraCounterAccumulator accumulator = createAccumulator(100);
+        accumulator.add("unknown", HITS, Arrays.asList("a", 1), 1);
+        accumulator.flush().get(10, TimeUnit.SECONDS);
+
+        Assert.assertTrue(layer.getExecutions().isEmpty());
+        Assert.assertEquals(1, failures.size());
+        Assert.assertEquals("unknown", failures.get(0).get(0));
+        Assert.assertTrue(failures.get(0).get(4) instanceof IllegalArgumentException);
+    }
+
+    @Test
+    public void deltasAreFlushedWhenTheMaxSizeIsReached() throws Exception {
+        CassandraCounterAccumulator accumulator = createAccumulator(2);
+        accumulator.add(RESOURCE, HITS, Arrays.asList("a", 1), 1);
+        accumulator.add(RESOURCE, HITS, Arrays.asList("a", 2), 1);
+
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while(layer.getExecutions().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(1, layer.getExecutions().size());
+        Assert.assertEquals(2, layer.getExecutions().get(0).getValuesList().size());
+    }
+}
@@ -0,0 +1,52 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author javaito
+ */
+public class CassandraMetricsTest {
+
+    private static final String SELECT = "SELECT * FROM resource WHERE id = ?";
+    private static final String INSERT = "INSERT INTO resource (id, value) VALUES (?, ?)";
+    private static final String UPDATE = "UPDATE resource SET value = ? WHERE id = ?";
+
+    @Test
+    public void eachDistinctTemplateHasItsOwnId() {
+        CassandraMetrics metrics = new CassandraMetrics(new MetricRegistry(), "test", true);
+        metrics.getScope(SELECT);
+        metrics.getScope(INSERT);
+        metrics.getScope(SELECT);
+
+        Assert.assertEquals(2, metrics.getTemplates().size());
+        Assert.assertEquals(SELECT, metrics.getTemplates().get("1"));
+        Assert.assertEquals(INSERT, metrics.getTemplates().get("2"));
+    }
+
+    @Test
+    public void evictedTemplatesAreRemovedFromTheRegistry() {
+        MetricRegistry registry = new MetricRegistry();
+        CassandraMetrics metrics = new CassandraMetrics(registry, "test", true, 1);
+        metrics.getScope(SELECT).rows(1);
+        metrics.getScope(UPDATE).rows(1);
+
+        Assert.assertEquals(1, metrics.getTemplates().size());
+        Assert.assertEquals(UPDATE, metrics.getTemplates().get("2"));
+        Assert.assertTrue(registry.getCounters().containsKey("test.template.2.rows"));
+        Assert.assertFalse(registry.getCounters().containsKey("test.template.1.rows"));
+        Assert.assertTrue(registry.getCounters().containsKey("test.resource.resource.select.rows"));
+        Assert.assertFalse(registry.getTimers().keySet().stream().anyMatch(name -> name.startsWith("test.template.1.")));
+    }
+
+    @Test
+    public void disabledMetricsDoNotRegisterTemplates() {
+        MetricRegistry registry = new MetricRegistry();
+        CassandraMetrics metrics = new CassandraMetrics(registry, "test", false);
+        metrics.getScope(SELECT).rows(1);
+
+        Assert.assertTrue(metrics.getTemplates().isEmpty());
+        Assert.assertTrue(registry.getTimers().isEmpty());
+    }
+}
@@ -0,0 +1,154 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.codahale.metrics.MetricRegistry;
+import com.datastax.driver.core.Row;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author javaito
+ */
+public class CassandraNearCacheTest {
+
+    private static final String RESOURCE = "resource";
+    private static final String OTHER_RESOURCE = "other_resource";
+    private static final List<String> PRIMARY_KEY = Arrays.asList("id", "ck");
+
+    private static CassandraNearCache createNearCache() {
+        return new CassandraNearCache(new HashSet<>(Arrays.asList(RESOURCE, OTHER_RESOURCE)), 100, 0, 0,
+                new CassandraMetrics(new MetricRegistry(), "test", false));
+    }
+
+    private static CassandraNearCache.Key key(String resourceName, int id) {
+        return new CassandraNearCache.Key(resourceName, new ByteBuffer[]{ByteBuffer.wrap(new byte[]{(byte) id})});
+    }
+
+    private static List<Row> rows(int index) {
+        return Collections.singletonList(PagedResultSet.row(index));
+    }
+
+    @Test
+    public void loadedRowsAreCached() throws Exception {
+        CassandraNearCache nearCache = createNearCache();
+        AtomicInteger loads = new AtomicInteger();
+        List<Row> rows = rows(0);
+
+        Assert.assertSame(rows, nearCache.get(key(RESOURCE, 1), key -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(rows);
+        }).get());
+        Assert.assertSame(rows, nearCache.get(key(RESOURCE, 1), key -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture(rows(1));
+        }).get());
+        Assert.assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void loadCompletedAfterTheInvalidationOfTheKeyIsNotCached() throws Exception {
+        CassandraNearCache nearCache = createNearCache();
+        CompletableFuture<List<Row>> load = new CompletableFuture<>();
+        CompletableFuture<List<Row>> result = nearCache.get(key(RESOURCE, 1), key -> load);
+
+        nearCache.invalidate(key(RESOURCE, 1));
+        List<Row> staleRows = rows(0);
+        load.complete(staleRows);
+        Assert.assertSame(staleRows, result.get());
+
+        List<Row> rows = rows(1);
+        Assert.assertSame(rows, nearCache.get(key(RESOURCE, 1), key -> CompletableFuture.completedFuture(rows)).get());
+    }
+
+    @Test
+    public void loadStartedAfterTheInvalidationIsKept() throws Exception {
+        CassandraNearCache nearCache = createNearCache();
+        CompletableFuture<List<Row>> staleLoad = new CompletableFuture<>();
+        nearCache.get(key(RESOURCE, 1), key -> staleLoad);
+        nearCache.invalidate(key(RESOURCE, 1));
+        CompletableFuture<List<Row>> load = new CompletableFuture<>();
+        nearCache.get(key(RESOURCE, 1), key -> load);
+
+        staleLoad.complete(rows(0));
+        List<Row> rows = rows(1);
+        load.complete(rows);
+
+        Assert.assertSame(rows, nearCache.get(key(RESOURCE, 1), key -> CompletableFuture.completedFuture(rows(2))).get());
+    }
+
+    @Test
+    public void loadCompletedAfterTheInvalidationOfTheResourceIsNotCached() throws Exception {
+        CassandraNearCache nearCache = createNearCache();
+        CompletableFuture<List<Row>> load = new CompletableFuture<>();
+        nearCache.get(key(RESOURCE, 1), key -> load);
+
+        nearCache.invalidate(RESOURCE);
+        load.complete(rows(0));
+
+        List<Row> rows = rows(1);
+        Assert.assertSame(rows, nearCache.get(key(RESOURCE, 1), key -> CompletableFuture.completedFuture(rows)).get());
+    }
+
+    @Test
+    public void invalidationOfOtherResourceKeepsTheLoadedRows() throws Exception {
+        CassandraNearCache nearCache = createNearCache();
+        CompletableFuture<List<Row>> load = new CompletableFuture<>();
+        nearCache.get(key(RESOURCE, 1), key -> load);
+
+        nearCache.invalidate(OTHER_RESOURCE);
+        nearCache.invalidate(key(OTHER_RESOURCE, 1));
+        List<Row> rows = rows(0);
+        load.complete(rows);
+
+        Assert.assertSame(rows, nearCache.get(key(RESOURCE, 1), key -> CompletableFuture.completedFuture(rows(1))).get());
+    }
+
+    @Test
+    public void keyOfSelectByEqualityIsResolved() {
+        Assert.assertArrayEquals(new int[]{0, 1}, CassandraNearCache.resolveIndexes(
+                "SELECT * FROM resource WHERE id = ? AND ck = ?", Arrays.asList("id", "ck"), PRIMARY_KEY));
+    }
+
+    @Test
+    public void keyOfWritesIsResolved() {
+        Assert.assertArrayEquals(new int[]{0, 1}, CassandraNearCache.resolveIndexes(
+                "INSERT INTO resource (id, ck, value) VALUES (?, ?, ?)", Arrays.asList("id", "ck", "value"), PRIMARY_KEY));
+        Assert.assertArrayEquals(new int[]{1, 2}, CassandraNearCache.resolveIndexes(
+                "UPDATE resource SET value = ? WHERE id= ? AND ck=?", Arrays.asList("value", "id", "ck"), PRIMARY_KEY));
+    }
+
+    @Test
+    public void selectBySliceHasNoKey() {
+        Assert.assertSame(CassandraNearCache.NO_KEY, CassandraNearCache.resolveIndexes(
+                "SELECT * FROM resource WHERE id = ? AND ck <= ?", Arrays.asList("id", "ck"), PRIMARY_KEY));
+    }
+
+    @Test
+    public void deleteBySliceHasPartialKey() {
+        Assert.assertSame(CassandraNearCache.PARTIAL_KEY, CassandraNearCache.resolveIndexes(
+                "DELETE FROM resource WHERE id = ? AND ck > ?", Arrays.asList("id", "ck"), PRIMARY_KEY));
+        Assert.assertSame(CassandraNearCache.PARTIAL_KEY, CassandraNearCache.resolveIndexes(
+                "DELETE FROM resource WHERE id = ? AND ck >= ? AND ck < ?", Arrays.asList("id", "ck", "ck"), PRIMARY_KEY));
+    }
+
+    @Test
+    public void deleteByInHasPartialKey() {
+        Assert.assertSame(CassandraNearCache.PARTIAL_KEY, CassandraNearCache.resolveIndexes(
+                "DELETE FROM resource WHERE id IN ? AND ck = ?", Arrays.asList("in(id)", "ck"), PRIMARY_KEY));
+        Assert.assertSame(CassandraNearCache.PARTIAL_KEY, CassandraNearCache.resolveIndexes(
+                "DELETE FROM resource WHERE id IN (?, ?) AND ck = ?", Arrays.asList("id", "id", "ck"), PRIMARY_KEY));
+    }
+
+    @Test
+    public void deleteOfPartitionHasPartialKey() {
+        Assert.assertSame(CassandraNearCache.PARTIAL_KEY, CassandraNearCache.resolveIndexes(
+                "DELETE FROM resource WHERE id = ?", Collections.singletonList("id"), PRIMARY_KEY));
+    }
+}
@@ -0,0 +1,146 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.Row;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author javaito
+ */
+public class CassandraResultListTest {
+
+    private static List<String> expected(int size) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            result.add(Integer.toString(i));
+        }
+        return result;
+    }
+
+    private static CassandraResultList<String> createList(PagedResultSet resultSet, AtomicInteger parsedPages) {
+        return new CassandraResultList<>(new CassandraResultList.ResultSetPageSource(resultSet.proxy()), rows -> {
+            parsedPages.incrementAndGet();
+            List<String> page = new ArrayList<>();
+            for(Row row : rows) {
+                page.add(row.toString());
+            }
+            return page;
+        });
+    }
+
+    @Test
+    public void listCanBeIteratedMoreThanOnce() {
+        CassandraResultList<String> list = createList(new PagedResultSet(PagedResultSet.pages(25, 10)), new AtomicInteger());
+        List<String> firstIteration = new ArrayList<>();
+        for(String element : list) {
+            firstIteration.add(element);
+        }
+        List<String> secondIteration = new ArrayList<>();
+        for(String element : list) {
+            secondIteration.add(element);
+        }
+
+        Assert.assertEquals(expected(25), firstIteration);
+        Assert.assertEquals(expected(25), secondIteration);
+        Assert.assertEquals(25, list.size());
+        Assert.assertEquals("24", list.get(24));
+        Assert.assertEquals(expected(25), list);
+        Assert.assertEquals(expected(25).toString(), list.toString());
+        Assert.assertEquals(expected(25), new ArrayList<>(list));
+    }
+
+    @Test
+    public void sizeAfterPartialIteration() {
+        CassandraResultList<String> list = createList(new PagedResultSet(PagedResultSet.pages(25, 10)), new AtomicInteger());
+        Iterator<String> iterator = list.iterator();
+        Assert.assertEquals("0", iterator.next());
+        Assert.assertEquals(25, list.size());
+        Assert.assertEquals("1", iterator.next());
+    }
+
+    @Test
+    public void getParsesOnlyTheRequiredPages() {
+        AtomicInteger parsedPages = new AtomicInteger();
+        CassandraResultList<String> list = createList(new PagedResultSet(PagedResultSet.pages(25, 10)), parsedPages);
+        Assert.assertEquals("12", list.get(12));
+        Assert.assertEquals(2, parsedPages.get());
+        Assert.assertEquals("3", list.get(3));
+        Assert.assertEquals(2, parsedPages.get());
+    }
+
+    @Test
+    public void nextPageIsPrefetchedWhenTheHalfOfThePageIsConsumed() {
+        PagedResultSet resultSet = new PagedResultSet(PagedResultSet.pages(25, 10));
+        CassandraResultList<String> list = createList(resultSet, new AtomicInteger());
+        Iterator<String> iterator = list.iterator();
+        for (int i = 0; i < 4; i++) {
+            iterator.next();
+        }
+        Assert.assertEquals(0, resultSet.getAsyncFetches());
+        iterator.next();
+        Assert.assertEquals(1, resultSet.getAsyncFetches());
+    }
+
+    @Test
+    public void firstPageErrorIsChecked() {
+        StorageAccessException cause = new StorageAccessException("fail");
+        CassandraResultList<String> list = new CassandraResultList<>(pages(2), rows -> {
+            throw cause;
+        });
+        try {
+            list.loadFirstPage();
+            Assert.fail();
+        } catch (StorageAccessException ex) {
+            Assert.assertSame(cause, ex);
+        }
+    }
+
+    @Test
+    public void pageErrorIsRepeatedByEachAccess() throws Exception {
+        AtomicInteger parsedPages = new AtomicInteger();
+        CassandraResultList<String> list = new CassandraResultList<>(pages(3), rows -> {
+            if(parsedPages.incrementAndGet() > 1) {
+                throw new StorageAccessException("fail");
+            }
+            return Collections.singletonList("0");
+        });
+        list.loadFirstPage();
+        Assert.assertEquals("0", list.get(0));
+
+        IllegalStateException first = null;
+        try {
+            list.size();
+            Assert.fail();
+        } catch (IllegalStateException ex) {
+            first = ex;
+            Assert.assertTrue(ex.getCause() instanceof StorageAccessException);
+        }
+        try {
+            list.iterator().forEachRemaining(element -> {});
+            Assert.fail();
+        } catch (IllegalStateException ex) {
+            Assert.assertSame(first, ex);
+        }
+        Assert.assertEquals(2, parsedPages.get());
+        Assert.assertEquals("0", list.get(0));
+    }
+
+    private static CassandraResultList.PageSource pages(int count) {
+        Iterator<List<Row>> iterator = PagedResultSet.pages(count, 1).iterator();
+        return new CassandraResultList.PageSource() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public List<Row> next() {
+                return iterator.next();
+            }
+        };
+    }
+}
@@ -0,0 +1,279 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.DataType;
+import org.hcjf.layers.query.Query;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+/**
+ * @author javaito
+ */
+public class CassandraSelectPlanTest {
+
+    private static final TestStorageLayer LAYER = new TestStorageLayer(null);
+
+    static {
+        //Table with the partition key 'id', the clustering columns 'ck1' and 'ck2' and the indexed column 'name'.
+        Map<String, DataType> columns = new HashMap<>();
+        columns.put("id", DataType.text());
+        columns.put("ck1", DataType.cint());
+        columns.put("ck2", DataType.cint());
+        columns.put("name", DataType.text());
+        columns.put("value", DataType.text());
+        LAYER.addTable(new CassandraTableDescriptor("resource", columns, Collections.singletonList("id"),
+                Arrays.asList("ck1", "ck2"), Collections.singletonList("name")));
+
+        //Table with the partition key ('tenant', 'id') and the clustering column 'ck'.
+        columns = new HashMap<>();
+        columns.put("tenant", DataType.text());
+        columns.put("id", DataType.text());
+        columns.put("ck", DataType.cint());
+        columns.put("value", DataType.text());
+        LAYER.addTable(new CassandraTableDescriptor("composite", columns, Arrays.asList("tenant", "id"),
+                Collections.singletonList("ck"), Collections.emptyList()));
+    }
+
+    private static CassandraSelectPlan.Key key(String sql, boolean limitRows, boolean keysOnly) {
+        return new CassandraSelectPlan.Key(LAYER.begin(), Query.compile(sql), limitRows, keysOnly);
+    }
+
+    private static CassandraSelectPlan plan(Query query, boolean limitRows, boolean keysOnly) throws Exception {
+        return new CassandraSelectPlan(LAYER.begin(), query, limitRows, keysOnly);
+    }
+
+    private static CassandraSelectPlan plan(String sql) throws Exception {
+        return plan(Query.compile(sql), true, false);
+    }
+
+    private static List<Object> values(CassandraSelectPlan plan, Query query) {
+        return plan.getValues(query, plan.getPushedEvaluators(query));
+    }
+
+    /**
+     * Removes the differences of white spaces between the statements.
+     * @param cqlStatement Cql statement.
+     * @return Normalized statement.
+     */
+    private static String cql(String cqlStatement) {
+        return cqlStatement == null ? null : cqlStatement.trim().replaceAll("\\s+", " ").replaceAll(" ?, ?", ", ");
+    }
+
+    @Test
+    public void queriesWithTheSameShapeHaveTheSameKey() {
+        CassandraSelectPlan.Key key = key("SELECT * FROM resource WHERE id = 'a'", true, false);
+        CassandraSelectPlan.Key other = key("SELECT * FROM resource WHERE id = 'b'", true, false);
+
+        Assert.assertEquals(key, other);
+        Assert.assertEquals(key.hashCode(), other.hashCode());
+    }
+
+    @Test
+    public void queriesWithDifferentShapeHaveDifferentKeys() {
+        CassandraSelectPlan.Key key = key("SELECT * FROM resource WHERE id = 'a'", true, false);
+
+        Assert.assertNotEquals(key, key("SELECT * FROM other WHERE id = 'a'", true, false));
+        Assert.assertNotEquals(key, key("SELECT * FROM resource WHERE name = 'a'", true, false));
+        Assert.assertNotEquals(key, key("SELECT * FROM resource WHERE id > 'a'", true, false));
+        Assert.assertNotEquals(key, key("SELECT id FROM resource WHERE id = 'a'", true, false));
+        Assert.assertNotEquals(key, key("SELECT * FROM resource WHERE id = 'a' ORDER BY name", true, false));
+        Assert.assertNotEquals(key, key("SELECT * FROM resource WHERE id = 'a' LIMIT 10", true, false));
+        Assert.assertNotEquals(key, key("SELECT * FROM resource WHERE id = 'a' START 10", true, false));
+        Assert.assertNotEquals(key, key("SELECT * FROM resource WHERE id = 'a'", false, false));
+        Assert.assertNotEquals(key, key("SELECT * FROM resource WHERE id = 'a'", true, true));
+    }
+
+    @Test
+    public void queriesThatOnlyDifferInTheStartHaveDifferentKeys() {
+        Assert.assertNotEquals(key("SELECT * FROM resource WHERE id = 'a'", true, true),
+                key("SELECT * FROM resource WHERE id = 'a' START 5", true, true));
+    }
+
+    @Test
+    public void orderOfClusteringPrefixIsResolvedByCassandra() throws Exception {
+        CassandraSelectPlan plan = plan("SELECT * FROM resource WHERE id = 'a' ORDER BY ck1 DESC");
+        Assert.assertEquals("SELECT * FROM resource WHERE id = ? ORDER BY ck1 DESC", cql(plan.getCqlStatement()));
+        Assert.assertTrue(plan.isOrdered());
+
+        plan = plan("SELECT * FROM resource WHERE id = 'a' ORDER BY ck1, ck2");
+        Assert.assertEquals("SELECT * FROM resource WHERE id = ? ORDER BY ck1 ASC, ck2 ASC", cql(plan.getCqlStatement()));
+        Assert.assertTrue(plan.isOrdered());
+    }
+
+    @Test
+    public void orderOfPartialPartitionKeyIsNotResolvedByCassandra() throws Exception {
+        CassandraSelectPlan plan = plan("SELECT * FROM composite WHERE tenant = 't' ORDER BY ck");
+        Assert.assertEquals("SELECT * FROM composite WHERE tenant = ?", cql(plan.getCqlStatement()));
+        Assert.assertFalse(plan.isOrdered());
+    }
+
+    @Test
+    public void orderOfIndexedQueryIsNotResolvedByCassandra() throws Exception {
+        CassandraSelectPlan plan = plan("SELECT * FROM resource WHERE id = 'a' AND name = 'n' ORDER BY ck1");
+        Assert.assertEquals("SELECT * FROM resource WHERE id = ? AND name = ?", cql(plan.getCqlStatement()));
+        Assert.assertFalse(plan.isOrdered());
+    }
+
+    @Test
+    public void orderOfFieldsOutOfTheClusteringPrefixIsNotResolvedByCassandra() throws Exception {
+        CassandraSelectPlan plan = plan("SELECT * FROM resource WHERE id = 'a' ORDER BY ck2");
+        Assert.assertEquals("SELECT * FROM resource WHERE id = ?", cql(plan.getCqlStatement()));
+        Assert.assertFalse(plan.isOrdered());
+
+        plan = plan("SELECT * FROM resource WHERE id = 'a' ORDER BY value");
+        Assert.assertEquals("SELECT * FROM resource WHERE id = ?", cql(plan.getCqlStatement()));
+        Assert.assertFalse(plan.isOrdered());
+
+        plan = plan("SELECT * FROM resource WHERE id = 'a' ORDER BY ck1, ck2 DESC");
+        Assert.assertEquals("SELECT * FROM resource WHERE id = ?", cql(plan.getCqlStatement()));
+        Assert.assertFalse(plan.isOrdered());
+    }
+
+    @Test
+    public void boundsOfTheSameClusteringColumnAreMergedIntoASlice() throws Exception {
+        Query query = Query.compile("SELECT * FROM resource WHERE id = 'a' AND ck1 > 1 AND ck1 <= 5");
+        CassandraSelectPlan plan = plan(query, true, false);
+
+        Assert.assertEquals("SELECT * FROM resource WHERE id = ? AND ck1 > ? AND ck1 <= ?", cql(plan.getCqlStatement()));
+        Assert.assertEquals(3, plan.getPushedEvaluators(query).size());
+    }
+
+    @Test
+    public void boundsOfTheSameSideAreNotMerged() throws Exception {
+        Query query = Query.compile("SELECT * FROM resource WHERE id = 'a' AND ck1 > 1 AND ck1 > 2");
+        CassandraSelectPlan plan = plan(query, true, false);
+
+        Assert.assertEquals("SELECT * FROM resource WHERE id = ? AND ck1 > ?", cql(plan.getCqlStatement()));
+        Assert.assertEquals(2, plan.getPushedEvaluators(query).size());
+    }
+
+    @Test
+    public void elementsOfInAreBoundAsOneList() throws Exception {
+        Query query = Query.compile("SELECT * FROM resource WHERE id = 'a' AND ck1 IN (1, 2, 3)");
+        CassandraSelectPlan plan = plan(query, true, false);
+
+        Assert.assertEquals("SELECT * FROM resource WHERE id = ? AND ck1 IN ?", cql(plan.getCqlStatement()));
+        List<Object> values = values(plan, query);
+        Assert.assertEquals(2, values.size());
+        Assert.assertEquals("a", values.get(0));
+        Assert.assertTrue(values.get(1) instanceof List);
+        Assert.assertEquals(3, ((List) values.get(1)).size());
+    }
+
+    @Test
+    public void limitOfOrderedQueryIsBound() throws Exception {
+        Query query = Query.compile("SELECT * FROM resource WHERE id = 'a' LIMIT 10");
+        CassandraSelectPlan plan = plan(query, true, false);
+
+        Assert.assertEquals("SELECT * FROM resource WHERE id = ? LIMIT ?", cql(plan.getCqlStatement()));
+        Assert.assertEquals(Integer.valueOf(10), plan.getRowLimit(values(plan, query)));
+
+        plan = plan("SELECT * FROM resource WHERE id = 'a' ORDER BY ck1 DESC LIMIT 10");
+        Assert.assertEquals("SELECT * FROM resource WHERE id = ? ORDER BY ck1 DESC LIMIT ?", cql(plan.getCqlStatement()));
+    }
+
+    @Test
+    public void limitOfUnorderedQueryIsNotBound() throws Exception {
+        Query query = Query.compile("SELECT * FROM resource WHERE id = 'a' ORDER BY value LIMIT 10");
+        CassandraSelectPlan plan = plan(query, true, false);
+
+        Assert.assertEquals("SELECT * FROM resource WHERE id = ?", cql(plan.getCqlStatement()));
+        Assert.assertNull(plan.getRowLimit(values(plan, query)));
+    }
+
+    @Test
+    public void limitOfQueryWithResidualEvaluatorsIsNotBound() throws Exception {
+        Query query = Query.compile("SELECT * FROM resource WHERE id = 'a' AND value = 'v' LIMIT 10");
+        CassandraSelectPlan plan = plan(query, true, false);
+
+        Assert.assertEquals("SELECT * FROM resource WHERE id = ?", cql(plan.getCqlStatement()));
+        Assert.assertNull(plan.getRowLimit(values(plan, query)));
+    }
+
+    @Test
+    public void limitIsNotBoundIfTheRowsAreNotLimited() throws Exception {
+        Query query = Query.compile("SELECT * FROM resource WHERE id = 'a' LIMIT 10");
+        CassandraSelectPlan plan = plan(query, false, false);
+
+        Assert.assertEquals("SELECT * FROM resource WHERE id = ?", cql(plan.getCqlStatement()));
+        Assert.assertNull(plan.getRowLimit(values(plan, query)));
+    }
+
+    @Test
+    public void onlyTheReturnedAndUsedColumnsAreRead() throws Exception {
+        CassandraSelectPlan plan = plan("SELECT value FROM resource WHERE id = 'a' ORDER BY ck1");
+        Assert.assertEquals("SELECT value, id, ck1 FROM resource WHERE id = ? ORDER BY ck1 ASC",
+                cql(plan.getCqlStatement()));
+
+        plan = plan(Query.compile("SELECT * FROM resource WHERE id = 'a' AND name = 'n'"), true, true);
+        Assert.assertEquals("SELECT id, ck1, ck2, name FROM resource WHERE id = ? AND name = ?",
+                cql(plan.getCqlStatement()));
+    }
+
+    @Test
+    public void inOfThePartitionKeyIsExecutedAsSinglePartitionQueries() throws Exception {
+        Query query = Query.compile("SELECT * FROM resource WHERE id IN ('a', 'b', 'a') AND ck1 = 1 LIMIT 10");
+        CassandraSelectPlan plan = plan(query, true, false);
+
+        Assert.assertTrue(plan.isFanOut());
+        Assert.assertEquals("SELECT * FROM resource WHERE id IN ? AND ck1 = ? LIMIT ?", cql(plan.getCqlStatement()));
+        Assert.assertEquals("SELECT * FROM resource WHERE id = ? AND ck1 = ? LIMIT ?", cql(plan.getFanOutCqlStatement()));
+        List<List<Object>> fanOutValues = plan.getFanOutValues(values(plan, query));
+        Assert.assertEquals(2, fanOutValues.size());
+        Assert.assertEquals("a", fanOutValues.get(0).get(0));
+        Assert.assertEquals("b", fanOutValues.get(1).get(0));
+    }
+
+    @Test
+    public void inOfPartialPartitionKeyIsNotFannedOut() throws Exception {
+        Assert.assertFalse(plan("SELECT * FROM composite WHERE id IN ('a', 'b')").isFanOut());
+        Assert.assertTrue(plan("SELECT * FROM composite WHERE tenant = 't' AND id IN ('a', 'b')").isFanOut());
+    }
+
+    @Test
+    public void queryWithoutRestrictionsIsScannedByTokenRanges() throws Exception {
+        CassandraSelectPlan plan = plan("SELECT * FROM composite");
+        Assert.assertTrue(plan.isScan());
+        Assert.assertEquals("SELECT * FROM composite WHERE token(tenant, id) > ? AND token(tenant, id) <= ?",
+                cql(plan.getScanCqlStatement()));
+
+        Assert.assertFalse(plan("SELECT * FROM composite LIMIT 10").isScan());
+        Assert.assertFalse(plan("SELECT * FROM composite WHERE tenant = 't' AND id = 'a'").isScan());
+    }
+
+    @Test
+    public void partitionPrefixAndSliceAreMutationScopes() throws Exception {
+        CassandraSelectPlan plan = plan(Query.compile("SELECT * FROM resource WHERE id = 'a'"), true, true);
+        Assert.assertTrue(plan.isSetDelete());
+        Assert.assertFalse(plan.isSetUpdate());
+        Assert.assertEquals("id = ?", cql(plan.getMutationWhereStatement()));
+
+        plan = plan(Query.compile("SELECT * FROM resource WHERE id = 'a' AND ck1 = 1 AND ck2 > 2"), true, true);
+        Assert.assertTrue(plan.isSetDelete());
+        Assert.assertFalse(plan.isSetUpdate());
+        Assert.assertEquals("id = ? AND ck1 = ? AND ck2 > ?", cql(plan.getMutationWhereStatement()));
+    }
+
+    @Test
+    public void completePrimaryKeyIsRowMutationScope() throws Exception {
+        Query query = Query.compile("SELECT * FROM resource WHERE id = 'a' AND ck1 IN (1, 2) AND ck2 IN (1, 2, 3)");
+        CassandraSelectPlan plan = plan(query, true, true);
+
+        Assert.assertTrue(plan.isSetDelete());
+        Assert.assertTrue(plan.isSetUpdate());
+        Assert.assertEquals("id = ? AND ck1 IN ? AND ck2 IN ?", cql(plan.getMutationWhereStatement()));
+        Assert.assertEquals(6, plan.getAddressedRows(values(plan, query)));
+    }
+
+    @Test
+    public void queriesOutOfTheMutationScopesAreNotMutatedBySet() throws Exception {
+        Assert.assertFalse(plan(Query.compile("SELECT * FROM resource WHERE id = 'a' AND ck2 = 2"), true, true).isSetDelete());
+        Assert.assertFalse(plan(Query.compile("SELECT * FROM resource WHERE id = 'a' AND ck1 > 1 AND ck2 = 2"), true, true).isSetDelete());
+        Assert.assertFalse(plan(Query.compile("SELECT * FROM resource WHERE id = 'a' AND name = 'n'"), true, true).isSetDelete());
+        Assert.assertFalse(plan(Query.compile("SELECT * FROM resource WHERE id = 'a' AND value = 'v'"), true, true).isSetDelete());
+        Assert.assertFalse(plan(Query.compile("SELECT * FROM resource WHERE id = 'a' LIMIT 10"), true, true).isSetDelete());
+        Assert.assertFalse(plan(Query.compile("SELECT * FROM resource WHERE id = 'a' START 10"), true, true).isSetDelete());
+        Assert.assertFalse(plan(Query.compile("SELECT * FROM composite WHERE tenant = 't'"), true, true).isSetDelete());
+    }
+}
@@ -0,0 +1,63 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.Row;
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author javaito
+ */
+public class CassandraStorageSessionTest {
+
+    @Test
+    public void fetchAllRequestsThePagesWithoutBlocking() throws Exception {
+        CassandraStorageSession session = new CassandraStorageSession("test", null, null);
+        PagedResultSet resultSet = new PagedResultSet(PagedResultSet.pages(25, 10));
+        List<Row> rows = session.fetchAll(resultSet.proxy()).get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(25, rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            Assert.assertEquals(Integer.toString(i), rows.get(i).toString());
+        }
+        Assert.assertEquals(0, resultSet.getBlockingFetches());
+        Assert.assertEquals(2, resultSet.getAsyncFetches());
+    }
+
+    @Test
+    public void fetchAllOfSinglePageIsCompletedImmediately() throws Exception {
+        CassandraStorageSession session = new CassandraStorageSession("test", null, null);
+        PagedResultSet resultSet = new PagedResultSet(PagedResultSet.pages(5, 10));
+        List<Row> rows = session.fetchAll(resultSet.proxy()).getNow(null);
+
+        Assert.assertNotNull(rows);
+        Assert.assertEquals(5, rows.size());
+        Assert.assertEquals(0, resultSet.getAsyncFetches());
+    }
+
+    @Test(expected = StorageAccessException.class)
+    public void pageOfQueryOrderedOutsideCassandraIsRejected() throws Exception {
+        executePage("SELECT * FROM resource ORDER BY field", false);
+    }
+
+    @Test(expected = StorageAccessException.class)
+    public void pageOfQueryWithReturnFunctionsIsRejected() throws Exception {
+        executePage("SELECT count(field) FROM resource", true);
+    }
+
+    @Test(expected = StorageAccessException.class)
+    public void pageOfLimitedQueryIsRejected() throws Exception {
+        executePage("SELECT * FROM resource LIMIT 10", true);
+    }
+
+    private static void executePage(String sql, boolean ordered) throws StorageAccessException {
+        CassandraStorageSession session = new CassandraStorageSession("test", null, null);
+        session.executeQueryPage(Query.compile(sql), "SELECT * FROM resource", new ArrayList<>(),
+                null, null, 10, ordered);
+    }
+}
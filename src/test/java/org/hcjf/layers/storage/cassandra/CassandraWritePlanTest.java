@@ -0,0 +1,70 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.DataType;
+import org.hcjf.properties.SystemProperties;
+import org.hcjf.utils.Strings;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+
+/**
+ * @author javaito
+ */
+public class CassandraWritePlanTest {
+
+    private static final String INSERT_FORMAT = "INSERT INTO %s (%s) VALUES (%s);";
+    private static final String UPDATE_FORMAT = "UPDATE %s SET %s WHERE %s;";
+
+    @Test
+    public void keysOfTheSameWriteAreEqual() {
+        CassandraWritePlan.Key key = new CassandraWritePlan.Key(String.class, "resource", INSERT_FORMAT);
+        CassandraWritePlan.Key other = new CassandraWritePlan.Key(String.class, "resource", INSERT_FORMAT);
+
+        Assert.assertEquals(key, other);
+        Assert.assertEquals(key.hashCode(), other.hashCode());
+    }
+
+    @Test
+    public void keysOfDifferentWritesAreNotEqual() {
+        CassandraWritePlan.Key key = new CassandraWritePlan.Key(String.class, "resource", INSERT_FORMAT);
+
+        Assert.assertNotEquals(key, new CassandraWritePlan.Key(Integer.class, "resource", INSERT_FORMAT));
+        Assert.assertNotEquals(key, new CassandraWritePlan.Key(String.class, "other_resource", INSERT_FORMAT));
+        Assert.assertNotEquals(key, new CassandraWritePlan.Key(String.class, "resource", UPDATE_FORMAT));
+    }
+
+    @Test
+    public void onlyTheColumnsOfTheTableAreWritten() throws Exception {
+        Map<String, DataType> columns = new HashMap<>();
+        columns.put("id", DataType.text());
+        columns.put("value", DataType.cint());
+        columns.put("unused", DataType.text());
+        TestStorageLayer layer = new TestStorageLayer(null);
+        layer.addTable(new CassandraTableDescriptor("resource", columns, Collections.singletonList("id"),
+                Collections.emptyList(), Collections.emptyList()));
+        CassandraWritePlan plan = new CassandraWritePlan(layer.begin(), Entity.class, "resource", INSERT_FORMAT);
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("id", "value")), new HashSet<>(plan.getColumns()));
+        String valuePlaces = String.join(Strings.ARGUMENT_SEPARATOR, Collections.nCopies(2,
+                SystemProperties.get(SystemProperties.Query.ReservedWord.REPLACEABLE_VALUE)));
+        Assert.assertEquals(String.format(INSERT_FORMAT, "resource",
+                String.join(Strings.ARGUMENT_SEPARATOR, plan.getColumns()), valuePlaces),
+                plan.getStatement().getQueryString());
+    }
+
+    public static class Entity {
+
+        public String getId() {
+            return "a";
+        }
+
+        public Integer getValue() {
+            return 1;
+        }
+
+        public String getOther() {
+            return "b";
+        }
+    }
+}
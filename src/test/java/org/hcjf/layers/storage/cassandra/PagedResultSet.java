@@ -0,0 +1,134 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
+import com.google.common.util.concurrent.SettableFuture;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+/**
+ * Driver's result set over a list of pages, the next page is loaded asynchronously by
+ * {@link ResultSet#fetchMoreResults()} and synchronously when the rows are taken beyond the current page.
+ * The synchronous loads are counted, then the tests can verify that the pages are not fetched blocking
+ * the thread.
+ * @author javaito
+ */
+public class PagedResultSet implements InvocationHandler {
+
+    private final List<List<Row>> pages;
+    private final Deque<Row> available;
+    private int loadedPages;
+    private int blockingFetches;
+    private int asyncFetches;
+
+    public PagedResultSet(List<List<Row>> pages) {
+        this.pages = pages;
+        this.available = new ArrayDeque<>();
+        loadNextPage();
+    }
+
+    /**
+     * Creates the list of pages with the rows named from zero to the number of rows minus one.
+     * @param rows Number of rows.
+     * @param pageSize Number of rows by page.
+     * @return List of pages.
+     */
+    public static List<List<Row>> pages(int rows, int pageSize) {
+        List<List<Row>> result = new ArrayList<>();
+        for (int i = 0; i < rows; i += pageSize) {
+            List<Row> page = new ArrayList<>();
+            for (int j = i; j < Math.min(rows, i + pageSize); j++) {
+                page.add(row(j));
+            }
+            result.add(page);
+        }
+        if(result.isEmpty()) {
+            result.add(new ArrayList<>());
+        }
+        return result;
+    }
+
+    /**
+     * Creates a row whose string representation is the index of the row.
+     * @param index Index of the row.
+     * @return Row.
+     */
+    public static Row row(int index) {
+        return (Row) Proxy.newProxyInstance(Row.class.getClassLoader(), new Class[]{Row.class}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "toString": return Integer.toString(index);
+                case "hashCode": return index;
+                case "equals": return proxy == args[0];
+                default: throw new UnsupportedOperationException(method.getName());
+            }
+        });
+    }
+
+    public ResultSet proxy() {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(), new Class[]{ResultSet.class}, this);
+    }
+
+    public synchronized int getBlockingFetches() {
+        return blockingFetches;
+    }
+
+    public synchronized int getAsyncFetches() {
+        return asyncFetches;
+    }
+
+    @Override
+    public synchronized Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "getAvailableWithoutFetching": return available.size();
+            case "isFullyFetched": return loadedPages == pages.size();
+            case "isExhausted": {
+                fillIfEmpty();
+                return available.isEmpty();
+            }
+            case "one": {
+                fillIfEmpty();
+                return available.poll();
+            }
+            case "all": {
+                List<Row> result = new ArrayList<>();
+                do {
+                    fillIfEmpty();
+                    result.addAll(available);
+                    available.clear();
+                } while (loadedPages < pages.size());
+                return result;
+            }
+            case "fetchMoreResults": {
+                asyncFetches++;
+                SettableFuture<ResultSet> future = SettableFuture.create();
+                new Thread(() -> {
+                    synchronized (PagedResultSet.this) {
+                        loadNextPage();
+                    }
+                    future.set((ResultSet) proxy);
+                }).start();
+                return future;
+            }
+            case "toString": return "PagedResultSet";
+            case "hashCode": return System.identityHashCode(proxy);
+            case "equals": return proxy == args[0];
+            default: throw new UnsupportedOperationException(method.getName());
+        }
+    }
+
+    private void fillIfEmpty() {
+        while (available.isEmpty() && loadedPages < pages.size()) {
+            blockingFetches++;
+            loadNextPage();
+        }
+    }
+
+    private void loadNextPage() {
+        if(loadedPages < pages.size()) {
+            available.addAll(pages.get(loadedPages++));
+        }
+    }
+}
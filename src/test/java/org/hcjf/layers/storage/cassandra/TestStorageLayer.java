@@ -0,0 +1,191 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Session;
+import org.hcjf.layers.storage.cassandra.properties.CassandraProperties;
+
+import java.lang.reflect.Proxy;
+import java.net.InetAddress;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Storage layer that never connects with a cluster, the sessions are created over the driver's
+ * session given by the test. The tables are described by the test, the statements executed by the
+ * sessions are recorded and the selects return the rows given by the test.
+ * @author javaito
+ */
+public class TestStorageLayer extends CassandraStorageLayer<CassandraStorageSession> {
+
+    static {
+        CassandraProperties.init();
+    }
+
+    private final Session session;
+    private final Map<String, CassandraTableDescriptor> tables;
+    private final List<Execution> executions;
+    private final AtomicInteger selects;
+    private volatile List<Map<String, Object>> rows;
+    private volatile Throwable failure;
+
+    public TestStorageLayer(Session session) {
+        super("test");
+        this.session = session;
+        this.tables = new ConcurrentHashMap<>();
+        this.executions = new CopyOnWriteArrayList<>();
+        this.selects = new AtomicInteger();
+        this.rows = new ArrayList<>();
+    }
+
+    /**
+     * Adds the descriptor of a table of the key space.
+     * @param tableDescriptor Table descriptor.
+     */
+    public void addTable(CassandraTableDescriptor tableDescriptor) {
+        tables.put(tableDescriptor.getName(), tableDescriptor);
+    }
+
+    /**
+     * Return the statements executed by the sessions of the layer.
+     * @return Executed statements.
+     */
+    public List<Execution> getExecutions() {
+        return executions;
+    }
+
+    /**
+     * Return the number of selects executed by the sessions of the layer.
+     * @return Number of selects.
+     */
+    public AtomicInteger getSelects() {
+        return selects;
+    }
+
+    /**
+     * Return the rows returned by the selects.
+     * @return Rows.
+     */
+    public List<Map<String, Object>> getRows() {
+        return rows;
+    }
+
+    /**
+     * Set the rows returned by the selects.
+     * @param rows Rows.
+     */
+    public void setRows(List<Map<String, Object>> rows) {
+        this.rows = rows;
+    }
+
+    /**
+     * Return the error of the executed statements.
+     * @return Error or null if the statements are executed without errors.
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * Set the error of the executed statements.
+     * @param failure Error or null if the statements are executed without errors.
+     */
+    public void setFailure(Throwable failure) {
+        this.failure = failure;
+    }
+
+    @Override
+    public CassandraStorageSession begin() {
+        return createSessionInstance(getImplName());
+    }
+
+    @Override
+    protected CassandraStorageSession createSessionInstance(String implName) {
+        return new TestStorageSession(implName, session, this);
+    }
+
+    /**
+     * Return a statement that is never prepared by the cluster.
+     * @param session Cassandra session.
+     * @param cqlStatement Cql statement.
+     * @return Prepared statement.
+     */
+    @Override
+    protected PreparedStatement getPreparedStatement(Session session, String cqlStatement) {
+        return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                new Class[]{PreparedStatement.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getQueryString": return cqlStatement;
+                        case "toString": return cqlStatement;
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "equals": return proxy == args[0];
+                        default: throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    @Override
+    protected CassandraTableDescriptor getTableDescriptor(Session session, String resourceName) {
+        return tables.get(resourceName);
+    }
+
+    @Override
+    protected boolean isNearCached(String resourceName) {
+        return false;
+    }
+
+    @Override
+    protected List<InetAddress> getContactPoints() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    protected String getKeySpace() {
+        return "test";
+    }
+
+    @Override
+    protected String getUserName() {
+        return null;
+    }
+
+    @Override
+    protected String getPassword() {
+        return null;
+    }
+
+    @Override
+    protected String getClusterName() {
+        return "test";
+    }
+
+    /**
+     * Statement executed by a session, the values of a single statement are recorded as
+     * a list with only one element.
+     */
+    public static class Execution {
+
+        private final String cqlStatement;
+        private final List<List<Object>> valuesList;
+        private final boolean batch;
+
+        public Execution(String cqlStatement, List<List<Object>> valuesList, boolean batch) {
+            this.cqlStatement = cqlStatement;
+            this.valuesList = valuesList;
+            this.batch = batch;
+        }
+
+        public String getCqlStatement() {
+            return cqlStatement;
+        }
+
+        public List<List<Object>> getValuesList() {
+            return valuesList;
+        }
+
+        public boolean isBatch() {
+            return batch;
+        }
+    }
+}
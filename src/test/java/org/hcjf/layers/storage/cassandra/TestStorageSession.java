@@ -0,0 +1,73 @@
+package org.hcjf.layers.storage.cassandra;
+
+import com.datastax.driver.core.BatchStatement;
+import com.datastax.driver.core.Session;
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.StorageAccessException;
+import org.hcjf.layers.storage.actions.MapResultSet;
+import org.hcjf.layers.storage.actions.ResultSet;
+import org.hcjf.layers.storage.actions.Select;
+import org.hcjf.layers.storage.cassandra.actions.CassandraSelect;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Storage session that never executes the statements, the statements and the selects are recorded by the
+ * {@link TestStorageLayer} and the selects return the rows given by the test.
+ * @author javaito
+ */
+public class TestStorageSession extends CassandraStorageSession {
+
+    private final TestStorageLayer layer;
+
+    public TestStorageSession(String implName, Session session, TestStorageLayer layer) {
+        super(implName, session, layer);
+        this.layer = layer;
+    }
+
+    /**
+     * Return a select that completes with a copy of the rows of the layer.
+     * @param query Query.
+     * @return Select implementation.
+     * @throws StorageAccessException StorageAccessException
+     */
+    @Override
+    public Select select(Query query) throws StorageAccessException {
+        CassandraSelect<CassandraStorageSession> result = new CassandraSelect<CassandraStorageSession>(this) {
+            @Override
+            public <R extends ResultSet> CompletableFuture<R> executeAsync(Executor executor, Object[] params) {
+                layer.getSelects().incrementAndGet();
+                List<Map<String, Object>> rows = new ArrayList<>();
+                for(Map<String, Object> row : layer.getRows()) {
+                    rows.add(new HashMap<>(row));
+                }
+                return CompletableFuture.completedFuture((R) new MapResultSet(rows));
+            }
+        };
+        result.setQuery(query);
+        return result;
+    }
+
+    @Override
+    public <R extends ResultSet> CompletableFuture<R> executeAsync(String cqlStatement, List<Object> values,
+                                                                   Class resultType, Executor executor) {
+        layer.getExecutions().add(new TestStorageLayer.Execution(cqlStatement,
+                Collections.singletonList(values), false));
+        Throwable failure = layer.getFailure();
+        return failure == null ? CompletableFuture.completedFuture((R) new MapResultSet(new ArrayList<>())) :
+                CompletableFuture.failedFuture(failure);
+    }
+
+    @Override
+    public CompletableFuture<List<Throwable>> executeBatchesAsync(String cqlStatement, List<List<Object>> valuesList,
+                                                                  List<List<Object>> partitionKeys,
+                                                                  BatchStatement.Type batchType, Executor executor) {
+        //As the cassandra session, an empty list of values doesn't send any statement.
+        if(!valuesList.isEmpty()) {
+            layer.getExecutions().add(new TestStorageLayer.Execution(cqlStatement, valuesList, true));
+        }
+        return CompletableFuture.completedFuture(new ArrayList<>(Collections.nCopies(valuesList.size(), layer.getFailure())));
+    }
+}
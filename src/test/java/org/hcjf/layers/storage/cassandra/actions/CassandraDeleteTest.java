@@ -0,0 +1,73 @@
+package org.hcjf.layers.storage.cassandra.actions;
+
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.actions.MapResultSet;
+import org.hcjf.layers.storage.cassandra.TestStorageLayer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author javaito
+ */
+public class CassandraDeleteTest extends CassandraMutationFixture {
+
+    private static final String QUERY = "SELECT * FROM resource WHERE id = 'a'";
+
+    private MapResultSet delete() throws Exception {
+        CassandraDelete delete = (CassandraDelete) layer.begin().delete(Query.compile(QUERY));
+        return delete.<MapResultSet>executeAsync(Runnable::run, new Object[0]).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void rowsAreDeletedByKeyByDefault() throws Exception {
+        MapResultSet resultSet = delete();
+
+        Assert.assertEquals(layer.getRows(), resultSet.getResult());
+        Assert.assertEquals(1, layer.getSelects().get());
+        Assert.assertEquals(1, layer.getExecutions().size());
+        TestStorageLayer.Execution execution = layer.getExecutions().get(0);
+        Assert.assertTrue(execution.isBatch());
+        Assert.assertEquals(Arrays.asList(Arrays.asList("a", 1), Arrays.asList("a", 2)), execution.getValuesList());
+    }
+
+    @Test
+    public void deleteWithoutRowsIsNotExecuted() throws Exception {
+        layer.setRows(new ArrayList<>());
+        MapResultSet resultSet = delete();
+
+        Assert.assertTrue(resultSet.getResult().isEmpty());
+        Assert.assertTrue(layer.getExecutions().isEmpty());
+    }
+
+    @Test
+    public void setDeleteDoesNotReadTheRows() throws Exception {
+        enableSetBasedMutations();
+        MapResultSet resultSet = delete();
+
+        Assert.assertTrue(resultSet.getResult().isEmpty());
+        Assert.assertEquals(0, layer.getSelects().get());
+        Assert.assertEquals(1, layer.getExecutions().size());
+        TestStorageLayer.Execution execution = layer.getExecutions().get(0);
+        Assert.assertFalse(execution.isBatch());
+        Assert.assertTrue(execution.getCqlStatement().startsWith("DELETE FROM resource WHERE "));
+        Assert.assertEquals(Arrays.asList("a"), execution.getValuesList().get(0));
+    }
+
+    @Test
+    public void failedSetDeleteFails() throws Exception {
+        enableSetBasedMutations();
+        IllegalStateException cause = new IllegalStateException();
+        layer.setFailure(cause);
+        try {
+            delete();
+            Assert.fail();
+        } catch (ExecutionException ex) {
+            Assert.assertSame(cause, ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.hcjf.layers.storage.cassandra.actions;
+
+import com.datastax.driver.core.DataType;
+import org.hcjf.layers.storage.cassandra.CassandraTableDescriptor;
+import org.hcjf.layers.storage.cassandra.TestStorageLayer;
+import org.hcjf.layers.storage.cassandra.properties.CassandraProperties;
+import org.junit.After;
+import org.junit.Before;
+
+import java.util.*;
+
+/**
+ * Fixture of the mutation tests, the resource has a text partition key 'id', an int clustering column 'ck'
+ * and a text column 'value', and the selects find the rows ('a', 1) and ('a', 2).
+ * @author javaito
+ */
+public abstract class CassandraMutationFixture {
+
+    protected TestStorageLayer layer;
+
+    @Before
+    public void setUp() {
+        Map<String, DataType> columns = new HashMap<>();
+        columns.put("id", DataType.text());
+        columns.put("ck", DataType.cint());
+        columns.put("value", DataType.text());
+        layer = new TestStorageLayer(null);
+        layer.addTable(new CassandraTableDescriptor("resource", columns, Collections.singletonList("id"),
+                Collections.singletonList("ck"), Collections.emptyList()));
+        layer.setRows(Arrays.asList(row("a", 1), row("a", 2)));
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(CassandraProperties.Mutation.CASSANDRA_STORAGE_LAYER_MUTATION_SET_BASED_ENABLED);
+    }
+
+    protected static void enableSetBasedMutations() {
+        System.setProperty(CassandraProperties.Mutation.CASSANDRA_STORAGE_LAYER_MUTATION_SET_BASED_ENABLED, "true");
+    }
+
+    protected static Map<String, Object> row(String id, int ck) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("id", id);
+        result.put("ck", ck);
+        return result;
+    }
+}
@@ -0,0 +1,73 @@
+package org.hcjf.layers.storage.cassandra.actions;
+
+import org.hcjf.layers.query.Query;
+import org.hcjf.layers.storage.actions.MapResultSet;
+import org.hcjf.layers.storage.cassandra.TestStorageLayer;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author javaito
+ */
+public class CassandraUpdateTest extends CassandraMutationFixture {
+
+    private static final String QUERY = "SELECT * FROM resource WHERE id = 'a' AND ck IN (1, 2)";
+
+    private MapResultSet update() throws Exception {
+        CassandraUpdate update = (CassandraUpdate) layer.begin().update(Query.compile(QUERY));
+        update.add("value", "b");
+        return update.<MapResultSet>executeAsync(Runnable::run, new Object[0]).get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void rowsAreUpdatedByKeyByDefault() throws Exception {
+        MapResultSet resultSet = update();
+
+        Assert.assertEquals(layer.getRows(), resultSet.getResult());
+        Assert.assertEquals(1, layer.getExecutions().size());
+        TestStorageLayer.Execution execution = layer.getExecutions().get(0);
+        Assert.assertTrue(execution.isBatch());
+        Assert.assertEquals(Arrays.asList(Arrays.asList("b", "a", 1), Arrays.asList("b", "a", 2)),
+                execution.getValuesList());
+    }
+
+    @Test
+    public void setUpdateOfExistingRowsReturnsTheUpdatedRows() throws Exception {
+        enableSetBasedMutations();
+        MapResultSet resultSet = update();
+
+        Assert.assertEquals(layer.getRows(), resultSet.getResult());
+        Assert.assertEquals(1, layer.getSelects().get());
+        Assert.assertEquals(1, layer.getExecutions().size());
+        TestStorageLayer.Execution execution = layer.getExecutions().get(0);
+        Assert.assertFalse(execution.isBatch());
+        Assert.assertEquals("b", execution.getValuesList().get(0).get(0));
+    }
+
+    @Test
+    public void setUpdateWithMissingRowsDoesNotCreateTheRows() throws Exception {
+        enableSetBasedMutations();
+        layer.setRows(Collections.singletonList(row("a", 1)));
+        MapResultSet resultSet = update();
+
+        Assert.assertEquals(layer.getRows(), resultSet.getResult());
+        Assert.assertEquals(1, layer.getExecutions().size());
+        TestStorageLayer.Execution execution = layer.getExecutions().get(0);
+        Assert.assertTrue(execution.isBatch());
+        Assert.assertEquals(Collections.singletonList(Arrays.asList("b", "a", 1)), execution.getValuesList());
+    }
+
+    @Test
+    public void failedSetUpdateReturnsNoRows() throws Exception {
+        enableSetBasedMutations();
+        layer.setFailure(new IllegalStateException());
+        MapResultSet resultSet = update();
+
+        Assert.assertTrue(resultSet.getResult().isEmpty());
+        Assert.assertEquals(1, layer.getExecutions().size());
+        Assert.assertFalse(layer.getExecutions().get(0).isBatch());
+    }
+}